@@ -0,0 +1,48 @@
+package io.jdbd.postgre;
+
+import io.jdbd.JdbdException;
+import io.jdbd.result.ResultStates;
+import reactor.util.annotation.Nullable;
+
+/**
+ * <p>
+ * This interface representing the only one result of aggregate batch update,
+ * it accumulates totals instead of emitting {@link ResultStates} per group.
+ * {@link #affectedRows()} is the sum of affected rows of all executed groups.
+ * </p>
+ * <p>
+ * The groups are pipelined behind single Sync message,so postgre server skip all groups after the first error group.
+ * </p>
+ *
+ * @since 1.0
+ */
+public interface PgBatchSummary extends ResultStates {
+
+    /**
+     * @return the group count of batch.
+     */
+    int groupCount();
+
+    /**
+     * @return the count of groups that have executed successfully.
+     */
+    int successCount();
+
+    /**
+     * @return the indexes (based zero) of groups that execute failure, empty if no error.
+     */
+    int[] errorPositions();
+
+    /**
+     * @return the error of first error group, null if no error.
+     */
+    @Nullable
+    JdbdException firstError();
+
+    /**
+     * @return the affected rows of each executed group, null if per-item counts isn't required.
+     */
+    @Nullable
+    long[] itemAffectedRows();
+
+}
@@ -8,6 +8,7 @@ import io.jdbd.postgre.env.PgUrlParser;
 import io.jdbd.postgre.session.PgDatabaseSessionFactory;
 import io.jdbd.postgre.util.PgStrings;
 import io.jdbd.session.DatabaseSessionFactory;
+import io.jdbd.session.Option;
 import io.jdbd.vendor.util.DefaultDriverVersion;
 
 import java.util.Map;
@@ -24,6 +25,20 @@ public final class PgDriver implements Driver {
 
     public static final String PG_DRIVER_VENDOR = "io.jdbd.postgre";
 
+    /**
+     * <p>
+     * The statement option of {@link io.jdbd.statement.BindStatement} that override the adaptive decision
+     * whether sql is prepared as server-side prepared statement :
+     * <ul>
+     *     <li>true : prepare on first execution</li>
+     *     <li>false : never prepare , for example one-off statement</li>
+     *     <li>null : adaptive decision , see {@link io.jdbd.postgre.env.PgKey#PREPARE_THRESHOLD}</li>
+     * </ul>
+     * The override is effective for following executions of same sql by same session.
+     * </p>
+     */
+    public static final Option<Boolean> SERVER_PREPARE = Option.from("PG_SERVER_PREPARE", Boolean.class);
+
     private final DriverVersion version;
 
     private PgDriver() {
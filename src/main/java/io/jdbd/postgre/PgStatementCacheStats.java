@@ -0,0 +1,49 @@
+package io.jdbd.postgre;
+
+/**
+ * <p>
+ * This interface representing the counters of following cache:
+ *     <ul>
+ *         <li>server-side prepared statement cache of one connection, bounded by
+ *         {@link io.jdbd.postgre.env.PgKey#PREPARED_STATEMENT_CACHE_QUERIES} and
+ *         {@link io.jdbd.postgre.env.PgKey#PREPARED_STATEMENT_CACHE_SIZE_MIB}</li>
+ *         <li>sql parse cache shared by all sessions of one factory, bounded by
+ *         {@link io.jdbd.postgre.env.PgKey#PARSE_CACHE_ENTRIES} and
+ *         {@link io.jdbd.postgre.env.PgKey#PARSE_CACHE_SIZE_MIB}</li>
+ *     </ul>
+ *     least recently used statement is evicted.
+ * </p>
+ *
+ * @since 1.0
+ */
+public interface PgStatementCacheStats {
+
+    /**
+     * @return the count of statement that is found in cache.
+     */
+    long hitCount();
+
+    /**
+     * @return the count of statement that isn't found in cache.
+     */
+    long missCount();
+
+    /**
+     * @return the count of statement that is evicted from cache.
+     */
+    long evictionCount();
+
+    /**
+     * @return the count of statement in cache now.
+     */
+    int size();
+
+    /**
+     * @return hitCount / (hitCount + missCount) , 1.0 if no request.
+     */
+    default double hitRate() {
+        final long hitCount = hitCount(), requestCount = hitCount + missCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+}
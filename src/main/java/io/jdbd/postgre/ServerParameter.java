@@ -24,6 +24,8 @@ public enum ServerParameter {
     IntervalStyle,
     // below after Postgre server 9.0 .
     application_name,
+    // below after Postgre server 18 .
+    search_path,
 
     // below get by 'SHOW xxx' command
     lc_monetary,
@@ -0,0 +1,155 @@
+package io.jdbd.postgre.codec;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.postgre.util.PgCollections;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * This class is a implementation of {@link PgCodecRegistry}.
+ * This class is immutable, so it's thread safe.
+ * </p>
+ *
+ * @since 1.0
+ */
+final class DefaultPgCodecRegistry implements PgCodecRegistry {
+
+    static final DefaultPgCodecRegistry EMPTY = new DefaultPgCodecRegistry(new RegistryBuilder());
+
+    static Builder builder() {
+        return new RegistryBuilder();
+    }
+
+    private final Map<Integer, PgDecoder> oidDecoderMap;
+
+    private final Map<String, PgDecoder> nameDecoderMap;
+
+    private final Map<Integer, PgEncoder> oidEncoderMap;
+
+    private final Map<String, PgEncoder> nameEncoderMap;
+
+    private final boolean empty;
+
+    private DefaultPgCodecRegistry(RegistryBuilder builder) {
+        this.oidDecoderMap = unmodifiableMap(builder.oidDecoderMap);
+        this.nameDecoderMap = unmodifiableMap(builder.nameDecoderMap);
+        this.oidEncoderMap = unmodifiableMap(builder.oidEncoderMap);
+        this.nameEncoderMap = unmodifiableMap(builder.nameEncoderMap);
+
+        this.empty = this.oidDecoderMap.isEmpty()
+                && this.nameDecoderMap.isEmpty()
+                && this.oidEncoderMap.isEmpty()
+                && this.nameEncoderMap.isEmpty();
+    }
+
+    @Nullable
+    @Override
+    public PgDecoder decoder(final int typeOid, final @Nullable String typeName) {
+        if (this.empty) {
+            return null;
+        }
+        PgDecoder decoder;
+        decoder = this.oidDecoderMap.get(typeOid);
+        if (decoder == null && typeName != null && this.nameDecoderMap.size() > 0) {
+            decoder = this.nameDecoderMap.get(typeName.toLowerCase(Locale.ROOT));
+        }
+        return decoder;
+    }
+
+    @Nullable
+    @Override
+    public PgEncoder encoder(final int typeOid, final @Nullable String typeName) {
+        if (this.empty) {
+            return null;
+        }
+        PgEncoder encoder;
+        encoder = this.oidEncoderMap.get(typeOid);
+        if (encoder == null && typeName != null && this.nameEncoderMap.size() > 0) {
+            encoder = this.nameEncoderMap.get(typeName.toLowerCase(Locale.ROOT));
+        }
+        return encoder;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[ decoder count : %s , encoder count : %s , hash : %s ]",
+                getClass().getName(),
+                this.oidDecoderMap.size() + this.nameDecoderMap.size(),
+                this.oidEncoderMap.size() + this.nameEncoderMap.size(),
+                System.identityHashCode(this)
+        );
+    }
+
+
+    private static <K, V> Map<K, V> unmodifiableMap(final Map<K, V> map) {
+        final Map<K, V> unmodifiableMap;
+        if (map.isEmpty()) {
+            unmodifiableMap = Collections.emptyMap();
+        } else {
+            unmodifiableMap = PgCollections.unmodifiableMap(new HashMap<>(map));
+        }
+        return unmodifiableMap;
+    }
+
+
+    private static final class RegistryBuilder implements Builder {
+
+        private final Map<Integer, PgDecoder> oidDecoderMap = PgCollections.hashMap();
+
+        private final Map<String, PgDecoder> nameDecoderMap = PgCollections.hashMap();
+
+        private final Map<Integer, PgEncoder> oidEncoderMap = PgCollections.hashMap();
+
+        private final Map<String, PgEncoder> nameEncoderMap = PgCollections.hashMap();
+
+        @Override
+        public Builder decoder(final int typeOid, final PgDecoder decoder) {
+            this.oidDecoderMap.put(typeOid, Objects.requireNonNull(decoder, "decoder"));
+            return this;
+        }
+
+        @Override
+        public Builder decoder(final String typeName, final PgDecoder decoder) {
+            this.nameDecoderMap.put(lowerCaseName(typeName), Objects.requireNonNull(decoder, "decoder"));
+            return this;
+        }
+
+        @Override
+        public Builder encoder(final int typeOid, final PgEncoder encoder) {
+            this.oidEncoderMap.put(typeOid, Objects.requireNonNull(encoder, "encoder"));
+            return this;
+        }
+
+        @Override
+        public Builder encoder(final String typeName, final PgEncoder encoder) {
+            this.nameEncoderMap.put(lowerCaseName(typeName), Objects.requireNonNull(encoder, "encoder"));
+            return this;
+        }
+
+        @Override
+        public PgCodecRegistry build() {
+            return new DefaultPgCodecRegistry(this);
+        }
+
+        private static String lowerCaseName(final String typeName) {
+            if (typeName == null || typeName.isEmpty()) {
+                throw new IllegalArgumentException("typeName must have text.");
+            }
+            return typeName.toLowerCase(Locale.ROOT);
+        }
+
+
+    }//RegistryBuilder
+
+
+}
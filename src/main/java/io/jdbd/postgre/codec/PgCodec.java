@@ -0,0 +1,23 @@
+package io.jdbd.postgre.codec;
+
+/**
+ * <p>
+ * This interface is base interface of following :
+ *     <ul>
+ *         <li>{@link PgDecoder}</li>
+ *         <li>{@link PgEncoder}</li>
+ *     </ul>
+ * </p>
+ *
+ * @see PgCodecRegistry
+ * @since 1.0
+ */
+public interface PgCodec {
+
+    /**
+     * @return true : codec handle binary format , false : codec handle only text format.
+     * @see <a href="https://www.postgresql.org/docs/current/protocol-overview.html#PROTOCOL-FORMAT-CODES">Formats and Format Codes</a>
+     */
+    boolean binaryFormat();
+
+}
@@ -0,0 +1,56 @@
+package io.jdbd.postgre.codec;
+
+import io.jdbd.lang.Nullable;
+
+/**
+ * <p>
+ * This interface representing the registry of {@link PgEncoder} and {@link PgDecoder}.
+ * Application developer register codec by type oid or type name (case-insensitive) ,
+ * this is useful for the extension types , for example : postgis , hstore , citext .
+ * </p>
+ * <p>
+ * Registry is passed to session factory with {@link io.jdbd.postgre.env.PgKey#CODEC_REGISTRY} .
+ * Decoder is resolved once per column when driver read RowDescription message.
+ * </p>
+ * <p>
+ * Codec registered by oid has priority over codec registered by type name.
+ * </p>
+ *
+ * @since 1.0
+ */
+public interface PgCodecRegistry {
+
+    @Nullable
+    PgDecoder decoder(int typeOid, String typeName);
+
+    @Nullable
+    PgEncoder encoder(int typeOid, String typeName);
+
+    boolean isEmpty();
+
+
+    static PgCodecRegistry empty() {
+        return DefaultPgCodecRegistry.EMPTY;
+    }
+
+    static Builder builder() {
+        return DefaultPgCodecRegistry.builder();
+    }
+
+
+    interface Builder {
+
+        Builder decoder(int typeOid, PgDecoder decoder);
+
+        Builder decoder(String typeName, PgDecoder decoder);
+
+        Builder encoder(int typeOid, PgEncoder encoder);
+
+        Builder encoder(String typeName, PgEncoder encoder);
+
+        PgCodecRegistry build();
+
+    }
+
+
+}
@@ -0,0 +1,33 @@
+package io.jdbd.postgre.codec;
+
+import io.jdbd.JdbdException;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * This interface representing the decoder of column value that is registered by application developer.
+ * Decoder has priority over the build-in decoder of jdbd-postgre.
+ * </p>
+ * <p>
+ * Server always can send text format, so decoder must support text format.
+ * If {@link #binaryFormat()} return true , decoder also can decode binary format.
+ * </p>
+ *
+ * @see PgCodecRegistry
+ * @since 1.0
+ */
+public interface PgDecoder extends PgCodec {
+
+    /**
+     * @param value   the slice of column value,only contain the bytes of column value ,never null value.
+     * @param binary  true : value is binary format
+     * @param charset client charset
+     * @return column value , non-null.
+     * @throws JdbdException throw when value error.
+     */
+    Object decode(ByteBuf value, boolean binary, Charset charset) throws JdbdException;
+
+
+}
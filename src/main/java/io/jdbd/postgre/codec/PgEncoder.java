@@ -0,0 +1,35 @@
+package io.jdbd.postgre.codec;
+
+import io.jdbd.JdbdException;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * This interface representing the encoder of parameter value that is registered by application developer.
+ * Encoder has priority over the build-in encoder of jdbd-postgre.
+ * </p>
+ * <p>
+ * If {@link #binaryFormat()} return true, encoder is used only by extended query protocol,
+ * because simple query protocol support only text format.
+ * </p>
+ *
+ * @see PgCodecRegistry
+ * @since 1.0
+ */
+public interface PgEncoder extends PgCodec {
+
+    /**
+     * <p>
+     * Write the bytes of value. Don't write the length of value, driver will write it.
+     * </p>
+     *
+     * @param value   non-null parameter value
+     * @param message the message that value is written to.
+     * @param charset client charset
+     * @throws JdbdException throw when value error.
+     */
+    void encode(Object value, ByteBuf message, Charset charset) throws JdbdException;
+
+}
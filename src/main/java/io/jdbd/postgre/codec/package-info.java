@@ -0,0 +1,2 @@
+@io.jdbd.lang.NonNullApi
+package io.jdbd.postgre.codec;
@@ -1,6 +1,7 @@
 package io.jdbd.postgre.env;
 
 import io.jdbd.lang.Nullable;
+import io.jdbd.postgre.codec.PgCodecRegistry;
 import io.jdbd.postgre.util.PgCollections;
 import io.jdbd.vendor.env.Key;
 import io.jdbd.vendor.task.SslMode;
@@ -61,11 +62,73 @@ public final class PgKey<T> extends Key<T> {
 
     public static final PgKey<Integer> DATABASE_METADATA_CACHE_FIELDS_MIB = new PgKey<>("databaseMetadataCacheFieldsMiB", Integer.class, 5);
 
-    public static final PgKey<Integer> PREPARE_THRESHOLD = new PgKey<>("prepareThreshold", Integer.class, null);
+    /**
+     * statement whose parse and plan time ( Parse message to BindComplete message ) is not less than this value
+     * is prepared on second execution , not wait {@link #PREPARE_THRESHOLD}. The network round trip is excluded
+     * from observed time by the minimum time of session.
+     */
+    public static final PgKey<Integer> PREPARE_EXPENSIVE_PARSE_MILLIS = new PgKey<>("prepareExpensiveParseMillis", Integer.class, 5);
+
+    /**
+     * max statement count of statement cache of one connection.
+     */
+    public static final PgKey<Integer> PREPARED_STATEMENT_CACHE_QUERIES = new PgKey<>("preparedStatementCacheQueries", Integer.class, 256);
+
+    /**
+     * max estimated MiB of statement cache of one connection.
+     */
+    public static final PgKey<Integer> PREPARED_STATEMENT_CACHE_SIZE_MIB = new PgKey<>("preparedStatementCacheSizeMiB", Integer.class, 5);
+
+    /**
+     * max statement count of sql parse cache , the cache is shared by all sessions of one factory.
+     */
+    public static final PgKey<Integer> PARSE_CACHE_ENTRIES = new PgKey<>("parseCacheEntries", Integer.class, 4096);
+
+    /**
+     * max estimated MiB of sql parse cache , the cache is shared by all sessions of one factory.
+     */
+    public static final PgKey<Integer> PARSE_CACHE_SIZE_MIB = new PgKey<>("parseCacheSizeMiB", Integer.class, 16);
+
+    /**
+     * semicolon separated statements , each new connection prepare them after initializing.
+     */
+    public static final PgKey<String> PREWARM_STATEMENTS = new PgKey<>("prewarmStatements", String.class, null);
 
-    public static final PgKey<Integer> PREPARED_STATEMENT_CACHE_QUERIES = new PgKey<>("preparedStatementCacheQueries", Integer.class, null);
+    /**
+     * count of the most recently used statements of sql parse cache , each new connection prepare them after initializing.
+     */
+    public static final PgKey<Integer> PREWARM_HOT_STATEMENTS = new PgKey<>("prewarmHotStatements", Integer.class, 0);
+
+    /**
+     * max connection count of build-in pool of session factory , 0 : disable build-in pool.
+     * Build-in pool isn't used by the factory for pool vendor.
+     */
+    public static final PgKey<Integer> POOL_MAX_SIZE = new PgKey<>("poolMaxSize", Integer.class, 0);
+
+    /**
+     * min connection count that build-in pool keep , even if connection is idle.
+     */
+    public static final PgKey<Integer> POOL_MIN_SIZE = new PgKey<>("poolMinSize", Integer.class, 0);
+
+    /**
+     * max milliseconds that application wait connection of build-in pool.
+     */
+    public static final PgKey<Integer> POOL_ACQUIRE_TIMEOUT_MILLIS = new PgKey<>("poolAcquireTimeoutMillis", Integer.class, 30_000);
+
+    /**
+     * idle connection more than {@link #POOL_MIN_SIZE} is closed after this milliseconds , 0 : never.
+     */
+    public static final PgKey<Integer> POOL_IDLE_TIMEOUT_MILLIS = new PgKey<>("poolIdleTimeoutMillis", Integer.class, 600_000);
+
+    /**
+     * connection of build-in pool is closed after this milliseconds since created , 0 : never.
+     */
+    public static final PgKey<Integer> POOL_MAX_LIFETIME_MILLIS = new PgKey<>("poolMaxLifetimeMillis", Integer.class, 1800_000);
 
-    public static final PgKey<Integer> PREPARED_STATEMENT_CACHE_SIZE_MIB = new PgKey<>("preparedStatementCacheSizeMiB", Integer.class, null);
+    /**
+     * timeout seconds of ping that validate connection when borrow from build-in pool.
+     */
+    public static final PgKey<Integer> POOL_VALIDATION_TIMEOUT_SECONDS = new PgKey<>("poolValidationTimeoutSeconds", Integer.class, 5);
 
     public static final PgKey<String> PREFER_QUERY_MODE = new PgKey<>("preferQueryMode", String.class, null);
 
@@ -165,6 +228,60 @@ public final class PgKey<T> extends Key<T> {
 
     public static final PgKey<String> LC_MONETARY = new PgKey<>("lc_monetary", String.class, null);
 
+    /**
+     * @see io.jdbd.postgre.codec.PgCodecRegistry
+     */
+    public static final PgKey<PgCodecRegistry> CODEC_REGISTRY = new PgKey<>("codecRegistry", PgCodecRegistry.class, null);
+
+    /**
+     * bytes of Bind/Execute messages of batch that are written to channel at a time,
+     * next window is written after channel is writable.
+     */
+    public static final PgKey<Integer> BATCH_WINDOW_BYTES = new PgKey<>("batchWindowBytes", Integer.class, 1 << 16);
+
+    /**
+     * lift numeric and string constants of static SELECT/INSERT/UPDATE/DELETE statement to parameters,
+     * so statements of same shape share one server-side prepared statement.
+     */
+    public static final PgKey<Boolean> AUTO_PARAMETERIZE = new PgKey<>("autoParameterize", Boolean.class, Boolean.FALSE);
+
+    /**
+     * rewrite batch of single VALUES row INSERT to multi VALUES rows INSERT.
+     */
+    public static final PgKey<Boolean> REWRITE_BATCHED_INSERTS = new PgKey<>("reWriteBatchedInserts", Boolean.class, Boolean.FALSE);
+
+    /**
+     * batch INSERT whose group count not less than this value is converted to COPY FROM STDIN (FORMAT binary),
+     * 0 representing disabled.
+     */
+    public static final PgKey<Integer> BATCH_COPY_THRESHOLD = new PgKey<>("batchCopyThreshold", Integer.class, 0);
+
+    /**
+     * rewrite batch of single VALUES row INSERT to one statement that bind one array per parameter with unnest() function.
+     */
+    public static final PgKey<Boolean> BATCH_UNNEST = new PgKey<>("batchUnnest", Boolean.class, Boolean.FALSE);
+
+    /**
+     * max group count of one micro-batch of streaming batch.
+     */
+    public static final PgKey<Integer> STREAM_BATCH_COUNT = new PgKey<>("streamBatchCount", Integer.class, 1000);
+
+    /**
+     * max estimated parameter bytes of one micro-batch of streaming batch.
+     */
+    public static final PgKey<Integer> STREAM_BATCH_BYTES = new PgKey<>("streamBatchBytes", Integer.class, 1 << 20);
+
+    /**
+     * max milliseconds that one micro-batch of streaming batch wait for more group.
+     */
+    public static final PgKey<Integer> STREAM_BATCH_MILLIS = new PgKey<>("streamBatchMillis", Integer.class, 10);
+
+    /**
+     * the batch whose group count not less than this value yield netty event loop between windows of Bind messages,
+     * so other sessions on same event loop aren't starved by large batch, 0 representing disabled.
+     */
+    public static final PgKey<Integer> BATCH_YIELD_THRESHOLD = new PgKey<>("batchYieldThreshold", Integer.class, 0);
+
 
 
 
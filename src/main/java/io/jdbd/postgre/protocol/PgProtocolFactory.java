@@ -1,6 +1,8 @@
 package io.jdbd.postgre.protocol;
 
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.postgre.protocol.client.PgProtocol;
+import io.jdbd.vendor.env.Environment;
 import reactor.core.publisher.Mono;
 
 
@@ -20,6 +22,16 @@ public interface PgProtocolFactory {
 
     Mono<PgProtocol> createProtocol();
 
+    /**
+     * @return the counters of sql parse cache that is shared by all sessions of this factory.
+     */
+    PgStatementCacheStats parseCacheStats();
+
+    /**
+     * @return the environment of factory , for example : the config of build-in pool of session factory.
+     */
+    Environment environment();
+
 
     /**
      * override {@link Object#toString()}
@@ -0,0 +1,331 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgServerVersion;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.postgre.syntax.PgStatement;
+import io.jdbd.result.ResultStates;
+import io.jdbd.vendor.stmt.ParamBatchStmt;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.jdbd.vendor.stmt.Stmts;
+import io.netty.buffer.ByteBuf;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * This class convert large batch of single VALUES row INSERT statement to {@code COPY table (cols) FROM STDIN (FORMAT binary)},
+ * for example : {@code INSERT INTO t(a,b) VALUES (?,?)} to {@code COPY t(a,b) FROM STDIN (FORMAT binary)} .
+ * </p>
+ * <p>
+ * Only below statement can be converted:
+ *     <ul>
+ *         <li>have explicit column list</li>
+ *         <li>VALUES row contains only parameter placeholder</li>
+ *         <li>without RETURNING and ON CONFLICT clause</li>
+ *         <li>all target column type have binary {@link ParamEncoder} and all value is accepted by its encoder</li>
+ *     </ul>
+ * Binary COPY don't coerce type like Bind message, so encoder is decided by column type not parameter type.
+ * </p>
+ * <p>
+ * The COPY tuples are written to CopyData message by window, next window is written after channel is writable.
+ * The {@link ResultStates} of COPY command is fanned back out per original group.
+ * </p>
+ *
+ * @see PgKey#BATCH_COPY_THRESHOLD
+ * @see DefaultCopyOperationHandler#handleCopyInResponse(ByteBuf)
+ * @see <a href="https://www.postgresql.org/docs/current/sql-copy.html">Binary Format</a>
+ * @since 1.0
+ */
+abstract class BatchCopyConverter {
+
+    private BatchCopyConverter() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * the 11-bytes signature of binary COPY file.
+     */
+    static final byte[] SIGNATURE = new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    private static final Pattern INSERT_TARGET_PATTERN = Pattern.compile(
+            "^\\s*INSERT\\s+INTO\\s+(.+\\))\\s*VALUES\\s*$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern PLACEHOLDER_ROW_PATTERN = Pattern.compile("^\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)$");
+
+    private static final Pattern ALIAS_PATTERN = Pattern.compile("\\sAS\\s", Pattern.CASE_INSENSITIVE);
+
+
+    /**
+     * <p>
+     * Binary COPY don't coerce type like Bind message, so the parameter types of INSERT statement
+     * (the types of target columns) are read by Describe message before COPY. If the statement have been prepared by session,
+     * the cached parameter types are used without round trip.
+     * </p>
+     *
+     * @param fallback the non-COPY execution of stmt, used when exists column type that couldn't be written
+     *                 with binary format or value that isn't accepted by encoder of column type.
+     * @return null : stmt couldn't be converted.
+     */
+    @Nullable
+    static Flux<ResultStates> batchUpdate(final ParamBatchStmt stmt, final TaskAdjutant adjutant,
+                                          final Supplier<Flux<ResultStates>> fallback) {
+        final List<List<ParamValue>> groupList = stmt.getGroupList();
+        final PgStatement statement;
+        try {
+            statement = adjutant.parse(stmt.getSql());
+        } catch (Throwable e) {
+            // syntax error is reported by non-copy execution.
+            return null;
+        }
+        final String copySql;
+        if (groupList.isEmpty() || (copySql = copySql(statement)) == null) {
+            return null;
+        }
+        final int paramCount = statement.getParamCount();
+        return ExtendedQueryTask.prepare(stmt.getSql(), adjutant)
+                .flatMapMany(task -> {
+                    final List<? extends DataType> columnTypeList = task.getParamTypes();
+                    task.abandonBind();
+                    final ParamEncoder[] encoders;
+                    encoders = binaryEncoders(groupList, paramCount, columnTypeList, adjutant);
+                    if (encoders == null) {
+                        return fallback.get();
+                    }
+                    return copyIn(stmt, copySql, encoders, adjutant);
+                });
+    }
+
+
+    /**
+     * @return null : statement couldn't be converted to COPY command.
+     */
+    @Nullable
+    static String copySql(final PgStatement statement) {
+        final int rowStart = statement.valuesRowStart();
+        if (rowStart < 0 || statement.getParamCount() == 0) {
+            return null;
+        }
+        final String sql = statement.originalSql();
+        final int rowEnd = statement.valuesRowEnd();
+        if (!PLACEHOLDER_ROW_PATTERN.matcher(sql.substring(rowStart, rowEnd)).matches()
+                || sql.substring(rowEnd).trim().length() > 0) {  // ON CONFLICT clause
+            return null;
+        }
+        final Matcher matcher = INSERT_TARGET_PATTERN.matcher(sql.substring(0, rowStart));
+        final String target;
+        if (!matcher.matches()
+                || (target = matcher.group(1)).contains("--")
+                || target.contains("/*")
+                || ALIAS_PATTERN.matcher(target).find()) {
+            return null;
+        }
+        return "COPY " + target + " FROM STDIN (FORMAT binary)";
+    }
+
+
+    private static Flux<ResultStates> copyIn(final ParamBatchStmt stmt, final String copySql,
+                                             final ParamEncoder[] encoders, final TaskAdjutant adjutant) {
+        final List<List<ParamValue>> groupList = stmt.getGroupList();
+        final CopyInDataWriter writer = new CopyInDataWriter(groupList, encoders, adjutant);
+
+        final int groupCount = groupList.size();
+        final PgServerVersion version = adjutant.server().serverVersion();
+        return SimpleQueryTask.copyIn(Stmts.stmt(copySql, stmt), Flux.create(writer::start), adjutant)
+                .flatMapMany(states -> BatchInsertRewriter.fanOut(states, 0, groupCount, groupCount, version));
+    }
+
+
+    /**
+     * @param columnTypeList the parameter types in ParameterDescription message , that is the types of target columns.
+     * @return null : exists column that couldn't be written with binary format
+     * or exists value that isn't accepted by encoder of column type.
+     */
+    @Nullable
+    private static ParamEncoder[] binaryEncoders(final List<List<ParamValue>> groupList, final int paramCount,
+                                                 final List<? extends DataType> columnTypeList,
+                                                 final TaskAdjutant adjutant) {
+        if (columnTypeList.size() != paramCount) {
+            return null;
+        }
+        final ParamEncoder[] encoders = new ParamEncoder[paramCount];
+        ParamEncoder encoder;
+        for (int i = 0; i < paramCount; i++) {
+            encoder = ParamEncoders.encoderOf(columnTypeList.get(i), adjutant.factory().codecRegistry);
+            if (encoder == null || encoder.formatCode() != 1) {
+                return null;
+            }
+            encoders[i] = encoder;
+        }
+        Object value;
+        for (List<ParamValue> group : groupList) {
+            if (group.size() != paramCount) {
+                return null;
+            }
+            for (int i = 0; i < paramCount; i++) {
+                final ParamValue paramValue = group.get(i);
+                if (paramValue.getIndex() != i) {
+                    return null;
+                }
+                value = paramValue.getValue();
+                if (value != null && !encoders[i].accept(value)) {
+                    return null;
+                }
+            }
+        }
+        return encoders;
+    }
+
+
+    /**
+     * @see <a href="https://www.postgresql.org/docs/current/sql-copy.html">Binary Format</a>
+     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">CopyData</a>
+     */
+    private static final class CopyInDataWriter {
+
+        private final List<List<ParamValue>> groupList;
+
+        private final ParamEncoder[] encoders;
+
+        private final TaskAdjutant adjutant;
+
+        private final Charset clientCharset;
+
+        private final int windowBytes;
+
+        private FluxSink<ByteBuf> sink;
+
+        private CopyInDataWriter(List<List<ParamValue>> groupList, ParamEncoder[] encoders, TaskAdjutant adjutant) {
+            this.groupList = groupList;
+            this.encoders = encoders;
+            this.adjutant = adjutant;
+            this.clientCharset = adjutant.clientCharset();
+            this.windowBytes = adjutant.factory().batchWindowBytes;
+        }
+
+        private void start(final FluxSink<ByteBuf> sink) {
+            this.sink = sink;
+            if (this.adjutant.inEventLoop()) {
+                writeInEventLoop(-1);
+            } else {
+                this.adjutant.execute(() -> writeInEventLoop(-1));
+            }
+        }
+
+        /**
+         * @param batchIndex -1 : write header
+         */
+        private void writeInEventLoop(int batchIndex) {
+            final FluxSink<ByteBuf> sink = this.sink;
+            final List<List<ParamValue>> groupList = this.groupList;
+            final int groupCount = groupList.size();
+            ByteBuf message = null;
+            try {
+                while (true) {
+                    if (sink.isCancelled()) {
+                        // COPY task end or channel close, stop writing.
+                        break;
+                    }
+                    message = this.adjutant.allocator().buffer(this.windowBytes + 128, Messages.MAX_CAPACITY);
+                    message.writeByte(Messages.d);
+                    message.writeZero(Messages.LENGTH_SIZE); // placeholder of length
+
+                    if (batchIndex < 0) {
+                        message.writeBytes(SIGNATURE);
+                        message.writeInt(0); // flags field
+                        message.writeInt(0); // header extension area length
+                        batchIndex = 0;
+                    }
+                    for (; batchIndex < groupCount && message.readableBytes() < this.windowBytes; batchIndex++) {
+                        writeTuple(batchIndex, groupList.get(batchIndex), message);
+                    }
+                    if (batchIndex == groupCount) {
+                        message.writeShort(-1); // file trailer
+                        Messages.writeLength(message);
+                        sink.next(message);
+                        message = null;
+
+                        sink.next(createCopyDoneMessage());
+                        sink.complete();
+                        break;
+                    }
+                    Messages.writeLength(message);
+                    sink.next(message);
+                    message = null;
+
+                    if (!this.adjutant.isChannelWritable()) {
+                        final int nextBatchIndex = batchIndex;
+                        this.adjutant.onChannelWritable(() -> writeInEventLoop(nextBatchIndex), sink::error);
+                        break;
+                    }
+                }
+            } catch (Throwable e) {
+                if (message != null) {
+                    message.release();
+                }
+                String m = String.format("batch[%s] write COPY data failure,%s", batchIndex, e.getMessage());
+                sink.next(createCopyFailMessage(m));
+                sink.complete();
+            }
+        }
+
+        private void writeTuple(final int batchIndex, final List<ParamValue> group, final ByteBuf message) {
+            final ParamEncoder[] encoders = this.encoders;
+            final int fieldCount = encoders.length;
+            message.writeShort(fieldCount);
+
+            ParamValue paramValue;
+            for (int i = 0, lengthIndex, endIndex; i < fieldCount; i++) {
+                paramValue = group.get(i);
+                if (paramValue.getValue() == null) {
+                    message.writeInt(-1);
+                    continue;
+                }
+                lengthIndex = message.writerIndex();
+                message.writeZero(4); // placeholder of field length
+                encoders[i].encode(batchIndex, paramValue, message, this.clientCharset);
+                endIndex = message.writerIndex();
+
+                message.writerIndex(lengthIndex);
+                message.writeInt(endIndex - lengthIndex - 4);
+                message.writerIndex(endIndex);
+            }
+        }
+
+        /**
+         * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">CopyDone</a>
+         */
+        private ByteBuf createCopyDoneMessage() {
+            final ByteBuf message = this.adjutant.allocator().buffer(5);
+            message.writeByte(Messages.c);
+            message.writeInt(4);
+            return message;
+        }
+
+        /**
+         * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">CopyFail</a>
+         */
+        private ByteBuf createCopyFailMessage(final String errorInfo) {
+            final byte[] bytes = errorInfo.getBytes(this.clientCharset);
+            final ByteBuf message = this.adjutant.allocator().buffer(6 + bytes.length);
+            message.writeByte(Messages.f);
+            message.writeZero(Messages.LENGTH_SIZE); // placeholder
+            message.writeBytes(bytes);
+            message.writeByte(Messages.STRING_TERMINATOR);
+
+            Messages.writeLength(message);
+            return message;
+        }
+
+
+    }
+
+
+}
@@ -0,0 +1,237 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.postgre.PgServerVersion;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.postgre.syntax.PgStatement;
+import io.jdbd.postgre.util.PgExceptions;
+import io.jdbd.result.ResultStates;
+import io.jdbd.type.PublisherParameter;
+import io.jdbd.vendor.stmt.*;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * This class rewrite batch of single VALUES row INSERT statement to multi VALUES rows INSERT statement,
+ * for example : {@code INSERT INTO t(a,b) VALUES (?,?)} to {@code INSERT INTO t(a,b) VALUES (?,?),(?,?),(?,?),(?,?)} .
+ * </p>
+ * <p>
+ * The row count of full chunk always is power of 2 and not greater than {@link #MAX_ROWS}.
+ * All chunks are executed by one task , so the rewritten batch is still all-or-nothing in autocommit mode :
+ * <ul>
+ *     <li>chunks of same sql : one batch, the Bind/Execute messages are pipelined behind single Sync message</li>
+ *     <li>full chunks and remaining chunk : one Query message of multi statement, that is one implicit transaction</li>
+ * </ul>
+ * The server error is re-indexed to the first original group of error chunk,
+ * see {@link #mapChunkError(PgServerException, int[], int)}.
+ * </p>
+ * <p>
+ * The {@link ResultStates} of rewritten statement is fanned back out per original group,
+ * see {@link #fanOut(ResultStates, int, int, int, PgServerVersion)}.
+ * </p>
+ *
+ * @see PgKey#REWRITE_BATCHED_INSERTS
+ * @see PgStatement#valuesRowStart()
+ * @since 1.0
+ */
+abstract class BatchInsertRewriter {
+
+    private BatchInsertRewriter() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * the max parameter count of one statement.
+     */
+    static final int MAX_PARAM_COUNT = Short.MAX_VALUE;
+
+    /**
+     * the max VALUES rows of one rewritten statement.
+     */
+    static final int MAX_ROWS = 128;
+
+
+    /**
+     * @return null : stmt couldn't be rewritten.
+     */
+    @Nullable
+    static Flux<ResultStates> batchUpdate(final ParamBatchStmt stmt, final boolean usePrepare,
+                                          final TaskAdjutant adjutant) {
+        final List<List<ParamValue>> groupList = stmt.getGroupList();
+        final int groupCount = groupList.size();
+        if (groupCount < 2) {
+            return null;
+        }
+        final PgStatement statement;
+        try {
+            statement = adjutant.parse(stmt.getSql());
+        } catch (Throwable e) {
+            // syntax error is reported by non-rewrite execution.
+            return null;
+        }
+        final int paramCount = statement.getParamCount();
+        final int maxRows;
+        if (statement.valuesRowStart() < 0 || paramCount == 0 || (maxRows = maxRowsOfChunk(paramCount)) < 2) {
+            return null;
+        }
+
+        final int fullChunkCount = groupCount / maxRows, remainRows = groupCount % maxRows;
+        final int chunkCount = fullChunkCount + (remainRows == 0 ? 0 : 1);
+        // firstGroups[i] is the first original group of chunk i, firstGroups[chunkCount] is groupCount.
+        final int[] firstGroups = new int[chunkCount + 1];
+        for (int i = 1; i < chunkCount; i++) {
+            firstGroups[i] = i * maxRows;
+        }
+        firstGroups[chunkCount] = groupCount;
+
+        final Flux<ResultStates> flux;
+        try {
+            if (usePrepare && (remainRows == 0 || fullChunkCount == 0)) {
+                // 1. all chunks share same rewritten sql , pipelined as one batch behind single Sync message.
+                // sql of remaining rows is named statement only when it's frequent, see PreparePolicy.
+                final int rows = fullChunkCount == 0 ? remainRows : maxRows;
+                final List<List<ParamValue>> chunkGroupList = new ArrayList<>(chunkCount);
+                for (int i = 0; i < chunkCount; i++) {
+                    chunkGroupList.add(flatGroups(groupList, firstGroups[i], rows, paramCount));
+                }
+                flux = ExtendedQueryTask.batchUpdate(Stmts.paramBatch(rewriteSql(statement, rows), chunkGroupList,
+                        stmt), adjutant);
+            } else if (usePrepare && hasAsyncParameter(groupList)) {
+                // Publisher and Path parameter couldn't be written to Query message.
+                return null;
+            } else {
+                // 2. chunks of different sql are sent by single Query message, that is one implicit transaction.
+                final List<ParamStmt> stmtList = new ArrayList<>(chunkCount);
+                for (int i = 0, rows; i < chunkCount; i++) {
+                    rows = firstGroups[i + 1] - firstGroups[i];
+                    stmtList.add(Stmts.paramStmt(rewriteSql(statement, rows),
+                            flatGroups(groupList, firstGroups[i], rows, paramCount), stmt));
+                }
+                flux = SimpleQueryTask.multiStmtBatchUpdate(Stmts.paramMultiStmt(stmtList, stmt), adjutant);
+            }
+        } catch (Throwable e) {
+            return Flux.error(PgExceptions.wrapIfNonJvmFatal(e));
+        }
+
+        final PgServerVersion version = adjutant.server().serverVersion();
+        return Flux.defer(() -> {
+            final int[] chunkCounter = new int[1];
+            return flux.doOnNext(states -> chunkCounter[0]++)
+                    .onErrorMap(PgServerException.class, e -> mapChunkError(e, firstGroups, chunkCounter[0]))
+                    .index()
+                    .concatMap(t -> {
+                        final int chunk = t.getT1().intValue(), firstGroup = firstGroups[chunk];
+                        return fanOut(t.getT2(), firstGroup, firstGroups[chunk + 1] - firstGroup, groupCount, version);
+                    });
+        });
+    }
+
+    /**
+     * @return the row count of chunk, power of 2 .
+     */
+    static int maxRowsOfChunk(final int paramCount) {
+        return Integer.highestOneBit(Math.min(MAX_ROWS, MAX_PARAM_COUNT / paramCount));
+    }
+
+    static String rewriteSql(final PgStatement statement, final int rows) {
+        final String sql = statement.originalSql();
+        final int rowStart = statement.valuesRowStart(), rowEnd = statement.valuesRowEnd();
+        if (rowStart < 0) {
+            throw new IllegalArgumentException("statement isn't single VALUES row INSERT statement.");
+        }
+        if (rows == 1) {
+            return sql;
+        }
+        final StringBuilder builder = new StringBuilder(sql.length() + (rowEnd - rowStart + 1) * (rows - 1));
+        builder.append(sql, 0, rowEnd);
+        for (int i = 1; i < rows; i++) {
+            builder.append(',')
+                    .append(sql, rowStart, rowEnd);
+        }
+        return builder.append(sql, rowEnd, sql.length())
+                .toString();
+    }
+
+    /**
+     * @return the parameter group of rewritten statement.
+     */
+    private static List<ParamValue> flatGroups(final List<List<ParamValue>> groupList, final int firstGroup,
+                                               final int rows, final int paramCount) {
+        final List<ParamValue> chunkGroup = new ArrayList<>(rows * paramCount);
+        List<ParamValue> group;
+        ParamValue paramValue;
+        for (int row = 0, batchIndex; row < rows; row++) {
+            batchIndex = firstGroup + row;
+            group = groupList.get(batchIndex);
+            if (group.size() != paramCount) {
+                throw PgExceptions.createBindCountNotMatchError(batchIndex, paramCount, group.size());
+            }
+            for (int i = 0; i < paramCount; i++) {
+                paramValue = group.get(i);
+                if (paramValue.getIndex() != i) {
+                    throw PgExceptions.createBindIndexNotMatchError(batchIndex, i, paramValue);
+                }
+                chunkGroup.add(JdbdValues.paramValue(row * paramCount + i, paramValue.getType(),
+                        paramValue.getValue()));
+            }
+        }
+        return chunkGroup;
+    }
+
+    /**
+     * <p>
+     * All chunks are executed by one task, server skip the chunks after error chunk,
+     * so the chunk index of error is the count of the chunks that have completed.
+     * </p>
+     *
+     * @return the server error with the batch index of first original group of error chunk.
+     */
+    static PgServerException mapChunkError(final PgServerException error, final int[] firstGroups,
+                                           final int chunkIndex) {
+        if (chunkIndex >= firstGroups.length - 1) {
+            // error after all chunks , for example : deferred constraint
+            return error;
+        }
+        return error.withBatchIndex(firstGroups[chunkIndex]);
+    }
+
+    private static boolean hasAsyncParameter(final List<List<ParamValue>> groupList) {
+        Object value;
+        for (List<ParamValue> group : groupList) {
+            for (ParamValue paramValue : group) {
+                value = paramValue.getValue();
+                if (value instanceof PublisherParameter || value instanceof Path) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * affectedRows of each group is 1 when all rows of chunk are affected, otherwise (for example : ON CONFLICT DO NOTHING)
+     * server don't report which rows are affected, so affectedRows of each group is {@link PgResultStates#SUCCESS_NO_INFO},
+     * the affected rows of chunk still can be read from {@link ResultStates#message()} (command tag).
+     * </p>
+     */
+    static Flux<ResultStates> fanOut(final ResultStates states, final int firstGroup, final int rows,
+                                     final int groupCount, final PgServerVersion version) {
+        final long affectedRows = states.affectedRows();
+        final boolean allAffected = affectedRows == rows;
+        final List<ResultStates> list = new ArrayList<>(rows);
+        for (int i = 0, groupIndex; i < rows; i++) {
+            groupIndex = firstGroup + i;
+            list.add(PgResultStates.rewrittenGroup(states, groupIndex,
+                    allAffected ? 1L : PgResultStates.SUCCESS_NO_INFO,
+                    groupIndex < groupCount - 1, version));
+        }
+        return Flux.fromIterable(list);
+    }
+
+
+}
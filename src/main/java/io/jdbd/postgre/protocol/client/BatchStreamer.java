@@ -0,0 +1,150 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.result.ResultStates;
+import io.jdbd.vendor.stmt.ParamBatchStmt;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.jdbd.vendor.stmt.StmtOption;
+import io.jdbd.vendor.stmt.Stmts;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * This class execute unbounded {@link Publisher} of parameter group as a stream of micro-batch,
+ * a micro-batch is flushed when any of below condition is met:
+ *     <ul>
+ *         <li>group count reach {@link PgKey#STREAM_BATCH_COUNT}</li>
+ *         <li>estimated parameter bytes reach {@link PgKey#STREAM_BATCH_BYTES}</li>
+ *         <li>first group of micro-batch have waited {@link PgKey#STREAM_BATCH_MILLIS}</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * At most {@link #IN_FLIGHT_BATCHES} micro-batches are in-flight : one is executing and next one is queued in task queue,
+ * so next micro-batch is sent as soon as current one end.
+ * </p>
+ * <p>
+ * Group is requested from upstream by demand of downstream : the buffer of groups is filled with fair backpressure,
+ * and only one buffer is prefetched for splitting. So the groups that have been requested from upstream but not
+ * executed are bounded by about {@link #IN_FLIGHT_BATCHES} + 2 buffers ({@link PgKey#STREAM_BATCH_COUNT} groups per buffer),
+ * not by in-flight window exactly.
+ * </p>
+ * <p>
+ * The server error of micro-batch is emitted as {@link PgServerException} with the batch index in whole stream,
+ * so application still can read SQLSTATE.
+ * </p>
+ *
+ * @see PgProtocol#paramStreamUpdate(String, Publisher, StmtOption)
+ * @since 1.0
+ */
+abstract class BatchStreamer {
+
+    private BatchStreamer() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * the max in-flight micro-batch count.
+     */
+    static final int IN_FLIGHT_BATCHES = 2;
+
+
+    /**
+     * @param function the function that execute one micro-batch.
+     */
+    static Flux<ResultStates> batchUpdate(final String sql, final Publisher<List<ParamValue>> groupPublisher,
+                                          final StmtOption option, final TaskAdjutant adjutant,
+                                          final Function<ParamBatchStmt, Flux<ResultStates>> function) {
+        final ProtocolFactory factory = adjutant.factory();
+        final int maxBytes = factory.streamBatchBytes;
+        return Flux.defer(() -> {
+            // only be accessed by serialized onNext signal
+            final long[] groupCounter = new long[1];
+            return Flux.from(groupPublisher)
+                    .bufferTimeout(factory.streamBatchCount, Duration.ofMillis(factory.streamBatchMillis), true)
+                    .concatMapIterable(groupList -> splitByBytes(groupList, maxBytes), 1)
+                    .flatMapSequential(groupList -> {
+                        final long firstGroup = groupCounter[0];
+                        groupCounter[0] += groupList.size();
+                        return function.apply(Stmts.paramBatch(sql, groupList, option))
+                                .onErrorMap(e -> microBatchError(firstGroup, e));
+                    }, IN_FLIGHT_BATCHES);
+        });
+    }
+
+    /**
+     * @return micro-batch list whose estimated bytes not greater than maxBytes (except micro-batch of single group).
+     */
+    static List<List<List<ParamValue>>> splitByBytes(final List<List<ParamValue>> groupList, final int maxBytes) {
+        final int groupCount = groupList.size();
+        List<List<List<ParamValue>>> batchList = null;
+        long bytes = 0, groupBytes;
+        for (int i = 0, from = 0; i < groupCount; i++) {
+            groupBytes = estimateBytes(groupList.get(i));
+            if (i > from && bytes + groupBytes > maxBytes) {
+                if (batchList == null) {
+                    batchList = new ArrayList<>();
+                }
+                batchList.add(groupList.subList(from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += groupBytes;
+            if (i + 1 == groupCount && batchList != null) {
+                batchList.add(groupList.subList(from, groupCount));
+            }
+        }
+        if (batchList == null) {
+            batchList = Collections.singletonList(groupList);
+        }
+        return batchList;
+    }
+
+    /**
+     * @return estimated bytes of Bind message of group.
+     */
+    private static long estimateBytes(final List<ParamValue> group) {
+        long bytes = 0;
+        Object value;
+        for (ParamValue paramValue : group) {
+            bytes += 4; // length of parameter value
+            value = paramValue.getValue();
+            if (value instanceof String) {
+                bytes += ((String) value).length();
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length;
+            } else if (value != null && !(value instanceof Publisher) && !(value instanceof Path)) {
+                bytes += 8;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return {@link PgServerException} with batch index in whole stream ,if cause is server error of group;
+     * else {@link JdbdException} that wrap cause.
+     */
+    static Throwable microBatchError(final long firstGroup, final Throwable cause) {
+        if (cause instanceof PgServerException) {
+            final PgServerException error = (PgServerException) cause;
+            final long batchIndex = firstGroup + error.getBatchIndex();
+            if (error.getBatchIndex() < 0 || batchIndex > Integer.MAX_VALUE) {
+                return error;
+            }
+            return error.withBatchIndex((int) batchIndex);
+        }
+        String m = String.format("micro batch that start from group[%s] execute failure,%s",
+                firstGroup, cause.getMessage());
+        return new JdbdException(m, cause);
+    }
+
+
+}
@@ -0,0 +1,91 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.postgre.PgBatchSummary;
+import reactor.util.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * This class accumulate the CommandComplete and ErrorResponse messages of aggregate batch update,
+ * so {@link PgCommandTask} don't create {@link PgResultStates} per group.
+ * </p>
+ *
+ * @see PgCommandTask#batchSummary
+ * @see PgBatchSummary
+ */
+final class BatchSummary {
+
+    private static final int[] EMPTY_POSITIONS = new int[0];
+
+    final int groupCount;
+
+    private final long[] itemAffectedRows;
+
+    private long affectedRows;
+
+    private int successCount;
+
+    private int[] errorPositions = EMPTY_POSITIONS;
+
+    private JdbdException firstError;
+
+    /**
+     * @param itemCounts true : record affected rows of each group.
+     */
+    BatchSummary(int groupCount, boolean itemCounts) {
+        this.groupCount = groupCount;
+        this.itemAffectedRows = itemCounts ? new long[groupCount] : null;
+    }
+
+    void addCommand(final int batchIndex, final long affectedRows) {
+        this.affectedRows += affectedRows;
+        this.successCount++;
+        final long[] itemAffectedRows = this.itemAffectedRows;
+        if (itemAffectedRows != null && batchIndex < itemAffectedRows.length) {
+            itemAffectedRows[batchIndex] = affectedRows;
+        }
+    }
+
+    void addError(final int batchIndex, final PgServerException error) {
+        final int[] positions = Arrays.copyOf(this.errorPositions, this.errorPositions.length + 1);
+        positions[positions.length - 1] = batchIndex;
+        this.errorPositions = positions;
+        if (this.firstError == null) {
+            // keep server error , so application still can read SQLSTATE.
+            this.firstError = error.withBatchIndex(batchIndex);
+        }
+    }
+
+    long affectedRows() {
+        return this.affectedRows;
+    }
+
+    int successCount() {
+        return this.successCount;
+    }
+
+    int[] errorPositions() {
+        return this.errorPositions;
+    }
+
+    @Nullable
+    JdbdException firstError() {
+        return this.firstError;
+    }
+
+    /**
+     * @return null or the affected rows of executed groups.
+     */
+    @Nullable
+    long[] itemAffectedRows() {
+        final long[] itemAffectedRows = this.itemAffectedRows;
+        if (itemAffectedRows == null || this.successCount == itemAffectedRows.length) {
+            return itemAffectedRows;
+        }
+        return Arrays.copyOf(itemAffectedRows, this.successCount);
+    }
+
+
+}
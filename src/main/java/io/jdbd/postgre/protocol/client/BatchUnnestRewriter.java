@@ -0,0 +1,285 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgServerVersion;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.postgre.syntax.PgStatement;
+import io.jdbd.result.ResultStates;
+import io.jdbd.vendor.stmt.*;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * This class rewrite batch of single VALUES row INSERT statement to one statement that bind one array per parameter
+ * with {@code unnest()} function, for example :
+ * {@code INSERT INTO t(a,b) VALUES (?,?)} to
+ * {@code INSERT INTO t(a,b) SELECT jdbd_u.c1,jdbd_u.c2 FROM unnest(?::INTEGER[], ?::TEXT[]) AS jdbd_u(c1, c2)} .
+ * So there are only one statement and one plan whatever the group count of batch, and the statement can be prepared once.
+ * </p>
+ * <p>
+ * Only below statement can be rewritten:
+ *     <ul>
+ *         <li>single VALUES row INSERT statement, see {@link PgStatement#valuesRowStart()}</li>
+ *         <li>all groups have same {@link PgType} per parameter and the type have array type that is supported by this class</li>
+ *     </ul>
+ * UPDATE/DELETE statement isn't rewritten, because postgre update/delete a row only once when multiple unnest rows
+ * join the row, the groups that match same row are lost silently.
+ * </p>
+ * <p>
+ * The {@link ResultStates} of rewritten statement is fanned back out per original group,
+ * see {@link BatchInsertRewriter#fanOut(ResultStates, int, int, int, PgServerVersion)}.
+ * </p>
+ *
+ * @see PgKey#BATCH_UNNEST
+ * @see CommandWriter#writeArrayObject(int, ParamValue, io.netty.buffer.ByteBuf)
+ * @see <a href="https://www.postgresql.org/docs/current/functions-array.html">unnest</a>
+ * @since 1.0
+ */
+abstract class BatchUnnestRewriter {
+
+    private BatchUnnestRewriter() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * the alias of unnest() rows.
+     */
+    static final String ALIAS = "jdbd_u";
+
+    private static final Pattern VALUES_PATTERN = Pattern.compile("VALUES\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DEFAULT_PATTERN = Pattern.compile("\\bDEFAULT\\b", Pattern.CASE_INSENSITIVE);
+
+
+    /**
+     * @return null : stmt couldn't be rewritten.
+     */
+    @Nullable
+    static Flux<ResultStates> batchUpdate(final ParamBatchStmt stmt, final boolean usePrepare,
+                                          final TaskAdjutant adjutant) {
+        final List<List<ParamValue>> groupList = stmt.getGroupList();
+        final int groupCount = groupList.size();
+        if (groupCount < 2) {
+            return null;
+        }
+        final PgStatement statement;
+        try {
+            statement = adjutant.parse(stmt.getSql());
+        } catch (Throwable e) {
+            // syntax error is reported by non-rewrite execution.
+            return null;
+        }
+        final PgType[] arrayTypes;
+        final String sql;
+        if (statement.getParamCount() == 0
+                || (arrayTypes = arrayTypes(groupList, statement.getParamCount())) == null
+                || (sql = rewriteSql(statement, arrayTypes)) == null) {
+            return null;
+        }
+        final ParamStmt unnestStmt;
+        unnestStmt = Stmts.paramStmt(sql, arrayGroup(groupList, arrayTypes), stmt);
+
+        final PgServerVersion version = adjutant.server().serverVersion();
+        return (usePrepare ? ExtendedQueryTask.update(unnestStmt, adjutant)
+                : SimpleQueryTask.paramUpdate(unnestStmt, adjutant))
+                .flatMapMany(states -> BatchInsertRewriter.fanOut(states, 0, groupCount, groupCount, version));
+    }
+
+
+    /**
+     * @param arrayTypes the array type of each parameter.
+     * @return null : statement couldn't be rewritten.
+     */
+    @Nullable
+    static String rewriteSql(final PgStatement statement, final PgType[] arrayTypes) {
+        final String sql = statement.originalSql();
+        final List<String> partList = statement.sqlPartList();
+        final int paramCount = statement.getParamCount();
+        if (paramCount == 0 || arrayTypes.length != paramCount) {
+            return null;
+        }
+        final int rowStart = statement.valuesRowStart();
+        if (rowStart < 0) {
+            return null;
+        }
+
+        // 1. replace parameter placeholder with column of unnest rows.
+        final StringBuilder builder = new StringBuilder(sql.length() + paramCount * 32);
+        String part;
+        for (int i = 0; i < partList.size(); i++) {
+            part = partList.get(i);
+            builder.append(part);
+            if (i < paramCount) {
+                builder.append(ALIAS)
+                        .append(".c")
+                        .append(i + 1);
+            }
+        }
+
+        // 2. replace VALUES row with SELECT from unnest() function
+        final int rowEnd = statement.valuesRowEnd() + (builder.length() - sql.length());
+        final Matcher matcher = VALUES_PATTERN.matcher(sql.substring(0, rowStart));
+        final String row = builder.substring(rowStart + 1, rowEnd - 1);
+        if (!matcher.find() || DEFAULT_PATTERN.matcher(row).find()) {
+            return null;
+        }
+        return builder.substring(0, matcher.start())
+                + "SELECT " + row + " FROM " + unnestClause(arrayTypes)
+                + builder.substring(rowEnd);
+    }
+
+    /**
+     * @return null : exists parameter that couldn't be bound as array.
+     */
+    @Nullable
+    private static PgType[] arrayTypes(final List<List<ParamValue>> groupList, final int paramCount) {
+        final PgType[] arrayTypes = new PgType[paramCount];
+        DataType dataType;
+        PgType arrayType;
+        Object value;
+        for (List<ParamValue> group : groupList) {
+            if (group.size() != paramCount) {
+                return null;
+            }
+            for (int i = 0; i < paramCount; i++) {
+                final ParamValue paramValue = group.get(i);
+                dataType = paramValue.getType();
+                if (paramValue.getIndex() != i || !(dataType instanceof PgType)) {
+                    return null;
+                }
+                arrayType = arrayTypes[i];
+                if (arrayType == null) {
+                    if ((arrayType = arrayTypeOf((PgType) dataType)) == null) {
+                        return null;
+                    }
+                    arrayTypes[i] = arrayType;
+                } else if (arrayType.elementType() != dataType) {
+                    return null;
+                }
+                value = paramValue.getValue();
+                if (value != null && !dataType.firstJavaType().isInstance(value)) {
+                    return null;
+                }
+            }
+        }
+        return arrayTypes;
+    }
+
+    /**
+     * @return the single group of rewritten statement.
+     */
+    private static List<ParamValue> arrayGroup(final List<List<ParamValue>> groupList, final PgType[] arrayTypes) {
+        final int groupCount = groupList.size();
+        final List<ParamValue> arrayGroup = new ArrayList<>(arrayTypes.length);
+        PgType arrayType;
+        Object array;
+        for (int i = 0; i < arrayTypes.length; i++) {
+            arrayType = arrayTypes[i];
+            array = Array.newInstance(arrayType.elementType().firstJavaType(), groupCount);
+            for (int batchIndex = 0; batchIndex < groupCount; batchIndex++) {
+                Array.set(array, batchIndex, groupList.get(batchIndex).get(i).getValue());
+            }
+            arrayGroup.add(JdbdValues.paramValue(i, arrayType, array));
+        }
+        return arrayGroup;
+    }
+
+    private static String unnestClause(final PgType[] arrayTypes) {
+        final StringBuilder builder = new StringBuilder(arrayTypes.length * 24);
+        builder.append("unnest(");
+        for (int i = 0; i < arrayTypes.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            // explicit cast, because unnest() is polymorphic function.
+            builder.append("?::")
+                    .append(arrayTypes[i].typeName());
+        }
+        builder.append(") AS ")
+                .append(ALIAS)
+                .append('(');
+        for (int i = 0; i < arrayTypes.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('c')
+                    .append(i + 1);
+        }
+        return builder.append(')')
+                .toString();
+    }
+
+    /**
+     * @return null : element type isn't supported. CHAR isn't supported, because {@code CHAR[]} is array of {@code char(1)}.
+     */
+    @Nullable
+    static PgType arrayTypeOf(final PgType elementType) {
+        final PgType arrayType;
+        switch (elementType) {
+            case BOOLEAN:
+                arrayType = PgType.BOOLEAN_ARRAY;
+                break;
+            case SMALLINT:
+                arrayType = PgType.SMALLINT_ARRAY;
+                break;
+            case INTEGER:
+                arrayType = PgType.INTEGER_ARRAY;
+                break;
+            case BIGINT:
+                arrayType = PgType.BIGINT_ARRAY;
+                break;
+            case REAL:
+                arrayType = PgType.REAL_ARRAY;
+                break;
+            case FLOAT8:
+                arrayType = PgType.FLOAT8_ARRAY;
+                break;
+            case DECIMAL:
+                arrayType = PgType.DECIMAL_ARRAY;
+                break;
+            case TIME:
+                arrayType = PgType.TIME_ARRAY;
+                break;
+            case TIMETZ:
+                arrayType = PgType.TIMETZ_ARRAY;
+                break;
+            case DATE:
+                arrayType = PgType.DATE_ARRAY;
+                break;
+            case TIMESTAMP:
+                arrayType = PgType.TIMESTAMP_ARRAY;
+                break;
+            case TIMESTAMPTZ:
+                arrayType = PgType.TIMESTAMPTZ_ARRAY;
+                break;
+            case VARCHAR:
+                arrayType = PgType.VARCHAR_ARRAY;
+                break;
+            case TEXT:
+                arrayType = PgType.TEXT_ARRAY;
+                break;
+            case UUID:
+                arrayType = PgType.UUID_ARRAY;
+                break;
+            case JSON:
+                arrayType = PgType.JSON_ARRAY;
+                break;
+            case JSONB:
+                arrayType = PgType.JSONB_ARRAY;
+                break;
+            default:
+                arrayType = null;
+        }
+        return arrayType;
+    }
+
+
+}
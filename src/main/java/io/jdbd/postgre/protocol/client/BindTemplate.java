@@ -0,0 +1,142 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.util.PgBinds;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * <p>
+ * This class representing the pre-encoded bytes of Bind/Execute/Sync messages of {@link ServerCacheStmt},
+ * so repeated execution only append parameter values.
+ * Template is used only when portal is unnamed,because named portal name is different for each execution.
+ * </p>
+ * <p>
+ * This class is immutable.
+ * </p>
+ *
+ * @see ServerCacheStmt#bindTemplate()
+ * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Bind (F)</a>
+ * @since 1.0
+ */
+final class BindTemplate {
+
+    /**
+     * @param paramEncoders see {@link ParamEncoders#create(List, io.jdbd.postgre.codec.PgCodecRegistry)}
+     * @param rowMeta       null : statement don't return result set.
+     */
+    static BindTemplate create(final String stmtName, final List<? extends DataType> paramTypeList,
+                               final ParamEncoder[] paramEncoders, final @Nullable PgRowMeta rowMeta,
+                               final Charset charset) {
+        return new BindTemplate(stmtName, paramTypeList, paramEncoders, rowMeta, charset);
+    }
+
+
+    final byte[] stmtNameBytes;
+
+    /**
+     * <ul>
+     *     <li>'B' and length placeholder</li>
+     *     <li>unnamed portal</li>
+     *     <li>statement name</li>
+     *     <li>format code count and format codes</li>
+     *     <li>parameter value count</li>
+     * </ul>
+     */
+    final byte[] headerBytes;
+
+    /**
+     * the index of first parameter format code in {@link #headerBytes}
+     */
+    final int formatCodeOffset;
+
+    /**
+     * the format code of each parameter , that value don't need to patch.
+     */
+    final int[] formatCodes;
+
+    /**
+     * result column format code count and result column format codes.
+     */
+    final byte[] resultFormatBytes;
+
+    /**
+     * Execute message of unnamed portal and Sync message
+     */
+    final byte[] executeSyncBytes;
+
+    private BindTemplate(final String stmtName, final List<? extends DataType> paramTypeList,
+                         final ParamEncoder[] paramEncoders, final @Nullable PgRowMeta rowMeta,
+                         final Charset charset) {
+
+        final byte[] nameBytes = stmtName.getBytes(charset);
+        final int paramCount = paramTypeList.size();
+
+        // header
+        final int[] formatCodes = new int[paramCount];
+        final byte[] headerBytes = new byte[11 + nameBytes.length + (paramCount << 1)];
+        int index = 0;
+        headerBytes[index++] = Messages.B;
+        index += Messages.LENGTH_SIZE; // placeholder of length
+        headerBytes[index++] = Messages.STRING_TERMINATOR; // unnamed portal
+        System.arraycopy(nameBytes, 0, headerBytes, index, nameBytes.length);
+        index += nameBytes.length;
+        headerBytes[index++] = Messages.STRING_TERMINATOR;
+
+        index = writeShort(headerBytes, index, paramCount);
+        this.formatCodeOffset = index;
+
+        ParamEncoder encoder;
+        for (int i = 0; i < paramCount; i++) {
+            encoder = paramEncoders[i];
+            if (encoder == null) {
+                formatCodes[i] = PgBinds.decideFormatCode(paramTypeList.get(i));
+            } else {
+                formatCodes[i] = encoder.formatCode();
+            }
+            index = writeShort(headerBytes, index, formatCodes[i]);
+        }
+        writeShort(headerBytes, index, paramCount);
+
+        this.stmtNameBytes = nameBytes;
+        this.headerBytes = headerBytes;
+        this.formatCodes = formatCodes;
+
+        // result format
+        final PgColumnMeta[] columnMetaArray = rowMeta == null ? PgColumnMeta.EMPTY : rowMeta.columnMetaArray;
+        final byte[] resultFormatBytes = new byte[2 + (columnMetaArray.length << 1)];
+        index = writeShort(resultFormatBytes, 0, columnMetaArray.length);
+        for (PgColumnMeta meta : columnMetaArray) {
+            index = writeShort(resultFormatBytes, index, meta.binaryResult ? 1 : 0);
+        }
+        this.resultFormatBytes = resultFormatBytes;
+
+        // Execute and Sync
+        final byte[] executeSyncBytes = new byte[15];
+        executeSyncBytes[0] = Messages.E;
+        writeInt(executeSyncBytes, 1, 9);
+        executeSyncBytes[5] = Messages.STRING_TERMINATOR; // unnamed portal
+        writeInt(executeSyncBytes, 6, 0);                 // no row limit
+        executeSyncBytes[10] = Messages.S;
+        writeInt(executeSyncBytes, 11, Messages.LENGTH_SIZE);
+        this.executeSyncBytes = executeSyncBytes;
+    }
+
+
+    private static int writeShort(final byte[] bytes, int index, final int value) {
+        bytes[index++] = (byte) (value >> 8);
+        bytes[index++] = (byte) value;
+        return index;
+    }
+
+    private static void writeInt(final byte[] bytes, int index, final int value) {
+        bytes[index++] = (byte) (value >> 24);
+        bytes[index++] = (byte) (value >> 16);
+        bytes[index++] = (byte) (value >> 8);
+        bytes[index] = (byte) value;
+    }
+
+
+}
@@ -3,7 +3,11 @@ package io.jdbd.postgre.protocol.client;
 import io.jdbd.JdbdException;
 import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgBatchSummary;
 import io.jdbd.postgre.PgConstant;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.syntax.ParameterizedSql;
 import io.jdbd.postgre.util.PgCollections;
 import io.jdbd.postgre.util.PgExceptions;
 import io.jdbd.postgre.util.PgStrings;
@@ -12,9 +16,13 @@ import io.jdbd.session.*;
 import io.jdbd.vendor.session.JdbdTransactionStatus;
 import io.jdbd.vendor.stmt.*;
 import io.jdbd.vendor.task.PrepareTask;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -72,11 +80,19 @@ final class ClientProtocol implements PgProtocol {
 
     @Override
     public Mono<ResultStates> update(StaticStmt stmt) {
+        final ParamStmt paramStmt;
+        if (this.adjutant.factory().autoParameterize && (paramStmt = parameterize(stmt)) != null) {
+            return ExtendedQueryTask.update(paramStmt, this.adjutant);
+        }
         return SimpleQueryTask.update(stmt, this.adjutant);
     }
 
     @Override
     public <R> Flux<R> query(StaticStmt stmt, Function<CurrentRow, R> function) {
+        final ParamStmt paramStmt;
+        if (this.adjutant.factory().autoParameterize && (paramStmt = parameterize(stmt)) != null) {
+            return ExtendedQueryTask.query(paramStmt, function, this.adjutant);
+        }
         return SimpleQueryTask.query(stmt, function, this.adjutant);
     }
 
@@ -123,12 +139,71 @@ final class ClientProtocol implements PgProtocol {
 
     @Override
     public Flux<ResultStates> paramBatchUpdate(ParamBatchStmt stmt, boolean usePrepare) {
+        final ProtocolFactory factory = this.adjutant.factory();
+        if (factory.batchCopyThreshold > 0 && stmt.getGroupList().size() >= factory.batchCopyThreshold) {
+            final Flux<ResultStates> flux;
+            flux = BatchCopyConverter.batchUpdate(stmt, this.adjutant, () -> nonCopyBatchUpdate(stmt, usePrepare));
+            if (flux != null) {
+                return flux;
+            }
+        }
+        return nonCopyBatchUpdate(stmt, usePrepare);
+    }
+
+    @Override
+    public Flux<ResultStates> paramStreamUpdate(String sql, Publisher<List<ParamValue>> groupPublisher,
+                                                StmtOption option) {
+        return BatchStreamer.batchUpdate(sql, groupPublisher, option, this.adjutant,
+                stmt -> this.paramBatchUpdate(stmt, true));
+    }
+
+    /**
+     * @see #paramBatchUpdate(ParamBatchStmt, boolean)
+     */
+    private Flux<ResultStates> nonCopyBatchUpdate(final ParamBatchStmt stmt, final boolean usePrepare) {
+        final ProtocolFactory factory = this.adjutant.factory();
+        if (factory.batchUnnest) {
+            final Flux<ResultStates> flux;
+            flux = BatchUnnestRewriter.batchUpdate(stmt, usePrepare, this.adjutant);
+            if (flux != null) {
+                return flux;
+            }
+        }
+        if (factory.reWriteBatchedInserts) {
+            final Flux<ResultStates> flux;
+            flux = BatchInsertRewriter.batchUpdate(stmt, usePrepare, this.adjutant);
+            if (flux != null) {
+                return flux;
+            }
+        }
         if (usePrepare) {
             return ExtendedQueryTask.batchUpdate(stmt, this.adjutant);
         }
         return SimpleQueryTask.paramBatchUpdate(stmt, this.adjutant);
     }
 
+    @Override
+    public Mono<PgBatchSummary> paramBatchSummary(ParamBatchStmt stmt, boolean itemCounts) {
+        return ExtendedQueryTask.batchSummary(stmt, itemCounts, this.adjutant)
+                .cast(PgBatchSummary.class);
+    }
+
+    @Override
+    public void overridePrepare(final String sql, final @Nullable Boolean prepare) {
+        final TaskAdjutant adjutant = this.adjutant;
+        if (adjutant.inEventLoop()) {
+            adjutant.overridePrepare(sql, prepare);
+        } else {
+            // before the task of execution , because event loop run task in order.
+            adjutant.execute(() -> adjutant.overridePrepare(sql, prepare));
+        }
+    }
+
+    @Override
+    public PgStatementCacheStats statementCacheStats() {
+        return this.adjutant.stmtCacheStats();
+    }
+
     @Override
     public BatchQuery paramBatchQuery(ParamBatchStmt stmt, boolean usePrepare) {
         if (usePrepare) {
@@ -598,4 +673,42 @@ final class ClientProtocol implements PgProtocol {
     }
 
 
+    /**
+     * <p>
+     * Lift literals of static statement to parameters, the normalized sql is the key of statement cache,
+     * so repeated shapes become named server-side prepared statements.
+     * Numeric constant is bound as INTEGER/DECIMAL same with constant type, string constant is bound as
+     * unspecified type, server resolve its type from context like string constant.
+     * </p>
+     *
+     * @return null : statement couldn't be parameterized.
+     * @see io.jdbd.postgre.env.PgKey#AUTO_PARAMETERIZE
+     */
+    @Nullable
+    private ParamStmt parameterize(final StaticStmt stmt) {
+        final ParameterizedSql parameterized;
+        parameterized = this.adjutant.sqlParser().parameterize(stmt.getSql());
+        if (parameterized == null) {
+            return null;
+        }
+        final List<Object> literalList = parameterized.literalList();
+        final int literalCount = literalList.size();
+        final List<ParamValue> paramList = new ArrayList<>(literalCount);
+        Object literal;
+        PgType type;
+        for (int i = 0; i < literalCount; i++) {
+            literal = literalList.get(i);
+            if (literal instanceof Integer) {
+                type = PgType.INTEGER;
+            } else if (literal instanceof BigDecimal) {
+                type = PgType.DECIMAL;
+            } else {
+                type = PgType.UNSPECIFIED;
+            }
+            paramList.add(JdbdValues.paramValue(i, type, literal));
+        }
+        return Stmts.paramStmt(parameterized.sql(), paramList, stmt);
+    }
+
+
 }
@@ -5,22 +5,18 @@ import io.jdbd.postgre.ServerParameter;
 import io.jdbd.postgre.env.PgHost;
 import io.jdbd.postgre.protocol.PgProtocolFactory;
 import io.jdbd.postgre.session.SessionAdjutant;
-import io.jdbd.postgre.syntax.PgStatement;
-import io.jdbd.postgre.util.PgCollections;
 import io.jdbd.postgre.util.PgStrings;
 import io.jdbd.result.ResultItem;
 import io.jdbd.result.ResultRow;
 import io.jdbd.result.ResultRowMeta;
 import io.jdbd.vendor.env.Properties;
 import io.jdbd.vendor.stmt.Stmts;
-import io.jdbd.vendor.util.JdbdSoftReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentMap;
 
 public final class ClientProtocolFactory extends ProtocolFactory implements PgProtocolFactory {
 
@@ -30,11 +26,6 @@ public final class ClientProtocolFactory extends ProtocolFactory implements PgPr
     }
 
 
-    final ConcurrentMap<String, PgStatement> stmtMap = PgCollections.concurrentHashMap();
-
-
-    final ConcurrentMap<String, JdbdSoftReference<PgStatement>> pgStatementMap = PgCollections.concurrentHashMap();
-
     private ClientProtocolFactory() {
         throw new UnsupportedOperationException();
     }
@@ -123,9 +114,47 @@ public final class ClientProtocolFactory extends ProtocolFactory implements PgPr
                     .doOnSuccess(this.executor::handleAuthenticationSuccess)
                     .then(Mono.defer(this::initializing))
                     .flatMap(this::doOnInitializingSuccess)
+                    .flatMap(this::prewarmIfNeed)
                     .map(this::createWrapper);
         }
 
+        /**
+         * <p>
+         * Prepare the configured statements and the hottest statements of parse cache , after 'SHOW xxx' step.
+         * </p>
+         *
+         * @see #connect()
+         * @see io.jdbd.postgre.env.PgKey#PREWARM_STATEMENTS
+         * @see io.jdbd.postgre.env.PgKey#PREWARM_HOT_STATEMENTS
+         */
+        private Mono<Map<String, String>> prewarmIfNeed(final Map<String, String> initializedParamMap) {
+            final TaskAdjutant adjutant = this.executor.taskAdjutant();
+            final ProtocolFactory factory = adjutant.factory();
+
+            final Set<String> sqlSet = new LinkedHashSet<>();
+            final String statements = factory.prewarmStatements;
+            if (PgStrings.hasText(statements)) {
+                for (String sql : adjutant.separateMultiStmt(statements)) {
+                    if (PgStrings.hasText(sql)) {
+                        sqlSet.add(sql.trim());
+                    }
+                }
+            }
+            if (factory.prewarmHotStatements > 0) {
+                sqlSet.addAll(factory.parseCache.hotSqlList(factory.prewarmHotStatements));
+            }
+            if (sqlSet.isEmpty()) {
+                return Mono.just(initializedParamMap);
+            }
+            final List<String> sqlList = new ArrayList<>(sqlSet);
+            if (sqlList.size() > factory.stmtCacheQueries) {
+                // avoid evicting prewarmed statements by themselves
+                sqlList.subList(factory.stmtCacheQueries, sqlList.size()).clear();
+            }
+            return PrewarmTask.prewarm(sqlList, adjutant)
+                    .thenReturn(initializedParamMap);
+        }
+
         /**
          * @see #connect()
          */
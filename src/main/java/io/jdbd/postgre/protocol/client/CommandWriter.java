@@ -1,9 +1,12 @@
 package io.jdbd.postgre.protocol.client;
 
 import io.jdbd.JdbdException;
+import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
 import io.jdbd.postgre.PgConstant;
 import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.jdbd.postgre.codec.PgEncoder;
 import io.jdbd.postgre.util.*;
 import io.jdbd.type.Interval;
 import io.jdbd.vendor.stmt.ParamValue;
@@ -46,6 +49,8 @@ abstract class CommandWriter {
 
     final boolean clientUtf8;
 
+    final PgCodecRegistry codecRegistry;
+
 
     /**
      * from server
@@ -57,6 +62,7 @@ abstract class CommandWriter {
         this.adjutant = adjutant;
         this.clientCharset = adjutant.clientCharset();
         this.clientUtf8 = this.clientCharset.equals(StandardCharsets.UTF_8);
+        this.codecRegistry = adjutant.factory().codecRegistry;
     }
 
 
@@ -70,44 +76,44 @@ abstract class CommandWriter {
         switch (pgType) {
             case BOOLEAN: {
                 final boolean value = PgBinds.bindToBoolean(batchIndex, bindValue);
-                message.writeBytes((value ? PgConstant.TRUE : PgConstant.FALSE).getBytes(this.clientCharset));
+                Messages.writeText(message, (value ? PgConstant.TRUE : PgConstant.FALSE), this.clientCharset);
             }
             break;
             case SMALLINT: {
                 final int value = PgBinds.bindToInt(batchIndex, bindValue, Short.MIN_VALUE, Short.MAX_VALUE);
-                message.writeBytes(Integer.toString(value).getBytes(clientCharset));
-                message.writeBytes("::SMALLINT".getBytes(clientCharset));
+                Messages.writeText(message, Integer.toString(value), clientCharset);
+                Messages.writeText(message, "::SMALLINT", clientCharset);
             }
             break;
             case INTEGER: {
                 final int value = PgBinds.bindToInt(batchIndex, bindValue, Integer.MIN_VALUE, Integer.MAX_VALUE);
-                message.writeBytes(Integer.toString(value).getBytes(clientCharset));
-                message.writeBytes("::INTEGER".getBytes(clientCharset));
+                Messages.writeText(message, Integer.toString(value), clientCharset);
+                Messages.writeText(message, "::INTEGER", clientCharset);
             }
             break;
             case OID:
             case BIGINT: {
                 final long value = PgBinds.bindToLong(batchIndex, bindValue, Long.MIN_VALUE, Long.MAX_VALUE);
-                message.writeBytes(Long.toString(value).getBytes(clientCharset));
-                message.writeBytes("::BIGINT".getBytes(clientCharset));
+                Messages.writeText(message, Long.toString(value), clientCharset);
+                Messages.writeText(message, "::BIGINT", clientCharset);
             }
             break;
             case DECIMAL: {
                 final BigDecimal value = PgBinds.bindToDecimal(batchIndex, bindValue);
-                message.writeBytes(value.toPlainString().getBytes(clientCharset));
-                message.writeBytes("::DECIMAL".getBytes(clientCharset));
+                Messages.writeText(message, value.toPlainString(), clientCharset);
+                Messages.writeText(message, "::DECIMAL", clientCharset);
             }
             break;
             case REAL: {
                 final float value = PgBinds.bindToFloat(batchIndex, bindValue);
-                message.writeBytes(Float.toString(value).getBytes(clientCharset));
-                message.writeBytes("::REAL".getBytes(clientCharset));
+                Messages.writeText(message, Float.toString(value), clientCharset);
+                Messages.writeText(message, "::REAL", clientCharset);
             }
             break;
             case FLOAT8: {
                 final double value = PgBinds.bindToDouble(batchIndex, bindValue);
-                message.writeBytes(Double.toString(value).getBytes(clientCharset));
-                message.writeBytes("::FLOAT8".getBytes(clientCharset));
+                Messages.writeText(message, Double.toString(value), clientCharset);
+                Messages.writeText(message, "::FLOAT8", clientCharset);
             }
             break;
             case BYTEA:
@@ -156,7 +162,7 @@ abstract class CommandWriter {
                 final String value;
                 value = PgBinds.bindToString(batchIndex, bindValue);
 
-                message.writeBytes(pgType.name().getBytes(clientCharset));
+                Messages.writeText(message, pgType.name(), clientCharset);
                 message.writeByte(PgConstant.SPACE);
 
                 writeBackslashEscapes(value, message);
@@ -167,12 +173,12 @@ abstract class CommandWriter {
                 final String bitString;
                 bitString = PgBinds.bindToBit(batchIndex, bindValue, Integer.MAX_VALUE);
 
-                message.writeBytes(pgType.name().getBytes(clientCharset));
+                Messages.writeText(message, pgType.name(), clientCharset);
                 message.writeByte(PgConstant.SPACE);
 
                 message.writeByte('B');
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(bitString.getBytes(clientCharset));
+                Messages.writeText(message, bitString, clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -180,10 +186,10 @@ abstract class CommandWriter {
                 final String intervalString;
                 intervalString = PgBinds.bindToInterval(batchIndex, bindValue);
 
-                message.writeBytes("INTERVAL ".getBytes(clientCharset));
+                Messages.writeText(message, "INTERVAL ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(intervalString.getBytes(clientCharset));
+                Messages.writeText(message, intervalString, clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -191,10 +197,10 @@ abstract class CommandWriter {
                 final LocalTime value;
                 value = PgBinds.bindToLocalTime(batchIndex, bindValue);
 
-                message.writeBytes("TIME ".getBytes(clientCharset));
+                Messages.writeText(message, "TIME ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(value.format(PgTimes.TIME_FORMATTER_6).getBytes(clientCharset));
+                Messages.writeText(message, value.format(PgTimes.TIME_FORMATTER_6), clientCharset);
                 message.writeByte(PgConstant.QUOTE);
 
             }
@@ -203,10 +209,10 @@ abstract class CommandWriter {
                 final OffsetTime value;
                 value = PgBinds.bindToOffsetTime(batchIndex, bindValue);
 
-                message.writeBytes("TIMETZ ".getBytes(clientCharset));
+                Messages.writeText(message, "TIMETZ ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(value.format(PgTimes.OFFSET_TIME_FORMATTER_6).getBytes(clientCharset));
+                Messages.writeText(message, value.format(PgTimes.OFFSET_TIME_FORMATTER_6), clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -215,10 +221,10 @@ abstract class CommandWriter {
                 final String value;
                 value = PgBinds.bindToPostgreDate(batchIndex, bindValue);
 
-                message.writeBytes("DATE ".getBytes(clientCharset));
+                Messages.writeText(message, "DATE ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -226,10 +232,10 @@ abstract class CommandWriter {
                 final String value;
                 value = PgBinds.bindToPostgreTimestamp(batchIndex, bindValue);
 
-                message.writeBytes("TIMESTAMP ".getBytes(clientCharset));
+                Messages.writeText(message, "TIMESTAMP ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -237,10 +243,10 @@ abstract class CommandWriter {
                 final String value;
                 value = PgBinds.bindToPostgreTimestampTz(batchIndex, bindValue);
 
-                message.writeBytes("TIMESTAMPTZ ".getBytes(clientCharset));
+                Messages.writeText(message, "TIMESTAMPTZ ", clientCharset);
 
                 message.writeByte(PgConstant.QUOTE);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
                 message.writeByte(PgConstant.QUOTE);
             }
             break;
@@ -281,8 +287,8 @@ abstract class CommandWriter {
 
         final Charset clientCharset = this.clientCharset;
 
-        message.writeBytes("::".getBytes(clientCharset));
-        message.writeBytes(typeSuffix.getBytes(clientCharset));
+        Messages.writeText(message, "::", clientCharset);
+        Messages.writeText(message, typeSuffix, clientCharset);
 
     }
 
@@ -601,9 +607,9 @@ abstract class CommandWriter {
      */
     private void writeBooleanElement(final Object element, final ByteBuf message) {
         if ((Boolean) element) {
-            message.writeBytes(PgConstant.TRUE.getBytes(this.clientCharset));
+            Messages.writeText(message, PgConstant.TRUE, this.clientCharset);
         } else {
-            message.writeBytes(PgConstant.FALSE.getBytes(this.clientCharset));
+            Messages.writeText(message, PgConstant.FALSE, this.clientCharset);
         }
     }
 
@@ -611,42 +617,42 @@ abstract class CommandWriter {
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeShortElement(final Object element, final ByteBuf message) {
-        message.writeBytes(Short.toString((Short) element).getBytes(this.clientCharset));
+        Messages.writeText(message, Short.toString((Short) element), this.clientCharset);
     }
 
     /**
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeIntegerElement(final Object element, final ByteBuf message) {
-        message.writeBytes(Integer.toString((Integer) element).getBytes(this.clientCharset));
+        Messages.writeText(message, Integer.toString((Integer) element), this.clientCharset);
     }
 
     /**
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeLongElement(final Object element, final ByteBuf message) {
-        message.writeBytes(Long.toString((Long) element).getBytes(this.clientCharset));
+        Messages.writeText(message, Long.toString((Long) element), this.clientCharset);
     }
 
     /**
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeBigDecimalElement(final Object element, final ByteBuf message) {
-        message.writeBytes(((BigDecimal) element).toPlainString().getBytes(this.clientCharset));
+        Messages.writeText(message, ((BigDecimal) element).toPlainString(), this.clientCharset);
     }
 
     /**
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeFloatElement(final Object element, final ByteBuf message) {
-        message.writeBytes(((Float) element).toString().getBytes(this.clientCharset));
+        Messages.writeText(message, ((Float) element).toString(), this.clientCharset);
     }
 
     /**
      * @see #writeArrayObject(int, ParamValue, ByteBuf)
      */
     private void writeDoubleElement(final Object element, final ByteBuf message) {
-        message.writeBytes(((Double) element).toString().getBytes(this.clientCharset));
+        Messages.writeText(message, ((Double) element).toString(), this.clientCharset);
     }
 
 
@@ -723,7 +729,7 @@ abstract class CommandWriter {
      */
     private void writeLocalTime(final Object element, final ByteBuf message) {
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(((LocalTime) element).format(PgTimes.TIME_FORMATTER_6).getBytes(this.clientCharset));
+        Messages.writeText(message, ((LocalTime) element).format(PgTimes.TIME_FORMATTER_6), this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -732,7 +738,7 @@ abstract class CommandWriter {
      */
     private void writeOffsetTime(final Object element, final ByteBuf message) {
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(((OffsetTime) element).format(PgTimes.OFFSET_TIME_FORMATTER_6).getBytes(this.clientCharset));
+        Messages.writeText(message, ((OffsetTime) element).format(PgTimes.OFFSET_TIME_FORMATTER_6), this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -759,7 +765,7 @@ abstract class CommandWriter {
         }
 
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(value.getBytes(this.clientCharset));
+        Messages.writeText(message, value, this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -785,7 +791,7 @@ abstract class CommandWriter {
         }
 
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(value.getBytes(this.clientCharset));
+        Messages.writeText(message, value, this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -811,7 +817,7 @@ abstract class CommandWriter {
         }
 
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(value.getBytes(this.clientCharset));
+        Messages.writeText(message, value, this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -820,7 +826,7 @@ abstract class CommandWriter {
      */
     private void writeIntervalElement(final Object element, final ByteBuf message) {
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(((Interval) element).toString(true).getBytes(this.clientCharset));
+        Messages.writeText(message, ((Interval) element).toString(true), this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -860,7 +866,7 @@ abstract class CommandWriter {
         }
 
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(bitString.getBytes(this.clientCharset));
+        Messages.writeText(message, bitString, this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
 
     }
@@ -879,7 +885,7 @@ abstract class CommandWriter {
             throw new IllegalArgumentException();
         }
         message.writeByte(PgConstant.DOUBLE_QUOTE);
-        message.writeBytes(uuidString.getBytes(this.clientCharset));
+        Messages.writeText(message, uuidString, this.clientCharset);
         message.writeByte(PgConstant.DOUBLE_QUOTE);
     }
 
@@ -912,9 +918,9 @@ abstract class CommandWriter {
             message.writeByte(PgConstant.QUOTE);
             message.writeBytes(bytes);
             message.writeByte(PgConstant.QUOTE);
-            message.writeBytes("::DECIMAL::MONEY".getBytes(this.clientCharset));
+            Messages.writeText(message, "::DECIMAL::MONEY", this.clientCharset);
         } else if (value instanceof String) {
-            message.writeBytes("MONEY ".getBytes(this.clientCharset));
+            Messages.writeText(message, "MONEY ", this.clientCharset);
             writeBackslashEscapes((String) value, message);
         } else {
             throw PgExceptions.createNotSupportBindTypeError(batchIndex, bindValue);
@@ -935,7 +941,7 @@ abstract class CommandWriter {
         }
         final byte[] v = (byte[]) value;
 
-        message.writeBytes("BYTEA ".getBytes(this.clientCharset));
+        Messages.writeText(message, "BYTEA ", this.clientCharset);
         message.writeByte(PgConstant.QUOTE);
         message.writeByte(PgConstant.BACK_SLASH_BYTE);
         message.writeByte('x');
@@ -946,30 +952,32 @@ abstract class CommandWriter {
 
 
     /**
+     * <p>
+     * Single pass escaper : scan the chars of value for quote, backslash and control chars,
+     * the clean runs between them are encoded directly into message without intermediate byte array.
+     * The special chars are all ASCII,so scan chars instead of bytes is safe for multi-byte client charset
+     * whose trail byte may be same as backslash.
+     * </p>
+     *
      * @see <a href="https://www.postgresql.org/docs/current/sql-syntax-lexical.html#SQL-SYNTAX-CONSTANTS">String Constants</a>
      */
     final void writeBackslashEscapes(final String value, final ByteBuf message) {
-        final byte[] bytes;
-        bytes = value.getBytes(this.clientCharset);
+        final Charset clientCharset = this.clientCharset;
         final int length, startIndex;
-        length = bytes.length;
+        length = value.length();
         startIndex = message.writerIndex();
 
         message.writeByte(PgConstant.SPACE); // placeholder for 'E'
         message.writeByte(PgConstant.QUOTE);
 
         int lastWritten = 0;
-        char followChar = PgConstant.NUL;
+        char followChar;
+        boolean backslash = false;
         for (int i = 0; i < length; i++) {
-            switch (bytes[i]) {
-                case PgConstant.QUOTE: {
-                    if (i > lastWritten) {
-                        message.writeBytes(bytes, lastWritten, i - lastWritten);
-                    }
-                    message.writeByte(PgConstant.QUOTE);  // because jdbd-postgre support only the charset that ASCII is one byte
-                    lastWritten = i;//not i + 1 as current char wasn't written
-                }
-                continue;
+            switch (value.charAt(i)) {
+                case PgConstant.QUOTE:
+                    followChar = PgConstant.QUOTE; // because jdbd-postgre support only the charset that ASCII is one byte
+                    break;
                 case PgConstant.BACK_SLASH:
                     followChar = PgConstant.BACK_SLASH;
                     break;
@@ -996,27 +1004,65 @@ abstract class CommandWriter {
             }
 
             if (i > lastWritten) {
-                message.writeBytes(bytes, lastWritten, i - lastWritten);
+                // bulk copy clean run
+                Messages.writeText(message, value.subSequence(lastWritten, i), clientCharset);
+            }
+            if (followChar == PgConstant.QUOTE) {
+                message.writeByte(PgConstant.QUOTE);
+            } else {
+                message.writeByte(PgConstant.BACK_SLASH);
+                backslash = true;
             }
-            message.writeByte(PgConstant.BACK_SLASH);  // because jdbd-postgre support only the charset that ASCII is one byte
             message.writeByte(followChar);
             lastWritten = i + 1;
 
-
         }// for
 
         if (lastWritten < length) {
-            message.writeBytes(bytes, lastWritten, length - lastWritten);
+            // when no special char,subSequence return value self.
+            Messages.writeText(message, value.subSequence(lastWritten, length), clientCharset);
         }
         message.writeByte(PgConstant.QUOTE);
 
-        if (followChar != PgConstant.NUL) {
+        if (backslash) {
             message.setByte(startIndex, 'E');
         }
 
     }
 
 
+    /**
+     * @return null : application developer don't register encoder for dataType.
+     * @see PgCodecRegistry
+     */
+    @Nullable
+    final PgEncoder encoderOf(final DataType dataType) {
+        final PgCodecRegistry registry = this.codecRegistry;
+        if (registry.isEmpty()) {
+            return null;
+        }
+        return registry.encoder(typeOidOf(dataType), dataType.typeName());
+    }
+
+
+    /**
+     * @return type oid or 0 (unknown)
+     */
+    static int typeOidOf(final DataType dataType) {
+        final int oid;
+        if (dataType instanceof PgType) {
+            oid = ((PgType) dataType).oid;
+        } else if (dataType instanceof PgUserDefinedType) {
+            oid = ((PgUserDefinedType) dataType).oid;
+        } else if (dataType instanceof InternalType) {
+            oid = ((InternalType) dataType).oid;
+        } else {
+            oid = 0;
+        }
+        return oid;
+    }
+
+
     static boolean isIllegalTypeName(final DataType dataType) {
         final String typeName;
         typeName = dataType.typeName();
@@ -14,6 +14,9 @@ import io.jdbd.vendor.stmt.Stmt;
 import io.jdbd.vendor.util.FunctionWithError;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.DefaultFileRegion;
 import io.qinarmy.util.UnexpectedEnumException;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -24,6 +27,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -43,6 +47,16 @@ final class DefaultCopyOperationHandler implements CopyOperationHandler {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultCopyOperationHandler.class);
 
+    /**
+     * the max bytes of CopyData message that is read into user space buffer.
+     */
+    private static final int COPY_CHUNK_BYTES = 2048 << 6;
+
+    /**
+     * the max bytes of CopyData message that is sent as {@link DefaultFileRegion}.
+     */
+    private static final int COPY_REGION_BYTES = 1 << 20;
+
     private final PgCommandTask task;
 
     private final Consumer<Publisher<ByteBuf>> messageSender;
@@ -78,11 +92,19 @@ final class DefaultCopyOperationHandler implements CopyOperationHandler {
                 case FILE:
                     publisher = sendCopyInDataFromLocalPath(obtainPathFromCopyOperation(resultIndex, copyIn));
                     break;
-                case PROGRAM:
-                case STDIN:
+                case STDIN: {
+                    publisher = this.task.takeStdinPublisher(); // see BatchCopyConverter
+                    if (publisher == null) {
+                        String msg = String.format("COPY FROM %s not supported by jdbd-postgre .", copyIn.getMode());
+                        publisher = Mono.just(createCopyFailMessage(msg));
+                    }
+                }
+                break;
+                case PROGRAM: {
                     String msg = String.format("COPY FROM %s not supported by jdbd-postgre .", copyIn.getMode());
                     publisher = Mono.just(createCopyFailMessage(msg));
-                    break;
+                }
+                break;
                 default:
                     throw PgExceptions.createUnexpectedEnumException(copyIn.getMode());
             }
@@ -295,46 +317,113 @@ final class DefaultCopyOperationHandler implements CopyOperationHandler {
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">CopyData</a>
      */
     private void executeSendCopyInDataFromLocalPath(final Path path, final FluxSink<ByteBuf> sink) {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(path);
+        } catch (Throwable e) {
+            String msg = String.format("Copy-in read local file occur error,%s", e.getMessage());
+            sink.next(createCopyFailMessage(msg));
+            sink.complete();
+            return;
+        }
+        if (this.adjutant.isChannelEncrypted()) {
+            continueSendCopyInData(channel, 0L, sink);
+        } else {
+            continueSendCopyInRegion(channel, path.toFile(), 0L, sink);
+        }
+    }
 
-        ByteBuf message = null;
-        try (FileChannel channel = FileChannel.open(path)) {
-            long restSize = channel.size();
-            final byte[] bufferArray = new byte[(int) Math.min(2048, restSize)];
-            final ByteBuffer buffer = ByteBuffer.wrap(bufferArray);
-
-            final int headerLength = 5, maxMessageLen = (headerLength + (bufferArray.length << 6));
-            final ByteBufAllocator allocator = this.adjutant.allocator();
-            message = allocator.buffer((int) Math.min(maxMessageLen, headerLength + restSize));
-
-            message.writeByte(Messages.d);
-            message.writeZero(Messages.LENGTH_SIZE);
-
-            while (channel.read(buffer) > 0) {
-                buffer.flip();
-                message.writeBytes(bufferArray, buffer.position(), buffer.limit());
-                buffer.clear();
-
-                if (message.readableBytes() >= maxMessageLen) {
-                    restSize -= (message.readableBytes() - headerLength);
-                    Messages.writeLength(message);
-                    sink.next(message);
-                    message = allocator.buffer((int) Math.min(maxMessageLen, headerLength + restSize));
-                    message.writeByte(Messages.d);
-                    message.writeZero(Messages.LENGTH_SIZE);
-                }
+    /**
+     * <p>
+     * Send one CopyData message per region of file when netty channel isn't encrypted,the region is sent as
+     * {@link DefaultFileRegion},so file content is transferred by kernel (sendfile) without copying to user space.
+     * Next region is written only after previous region is written,so only one region is pending in channel.
+     * </p>
+     * <p>
+     * If file is truncated,the region write fail and netty close the channel,because the CopyData message is incomplete.
+     * </p>
+     *
+     * @param channel the channel that is used to get file size, it's closed when COPY end or when sink is cancelled.
+     * @see #executeSendCopyInDataFromLocalPath(Path, FluxSink)
+     * @see TaskAdjutant#writeFileRegion(ByteBuf, io.netty.channel.FileRegion)
+     */
+    private void continueSendCopyInRegion(final FileChannel channel, final File file, final long position,
+                                          final FluxSink<ByteBuf> sink) {
+        if (sink.isCancelled()) {
+            closeChannel(channel);
+            return;
+        }
+        try {
+            final long fileSize = channel.size();
+            if (position < fileSize) {
+                final int regionSize = (int) Math.min(COPY_REGION_BYTES, fileSize - position);
+                final ByteBuf header = this.adjutant.allocator().buffer(5);
+                header.writeByte(Messages.d);
+                header.writeInt(Messages.LENGTH_SIZE + regionSize);
+
+                final long nextPosition = position + regionSize;
+                this.adjutant.writeFileRegion(header, new DefaultFileRegion(file, position, regionSize))
+                        .addListener((ChannelFutureListener) future -> {
+                            if (future.isSuccess()) {
+                                continueSendCopyInRegion(channel, file, nextPosition, sink);
+                            } else {
+                                closeChannel(channel);
+                                sink.error(future.cause());
+                            }
+                        });
+                return;
             }
+            closeChannel(channel);
+            sink.next(createCopyDoneMessage());
+        } catch (Throwable e) {
+            closeChannel(channel);
+            String msg = String.format("Copy-in read local file occur error,%s", e.getMessage());
+            sink.next(createCopyFailMessage(msg));
+        }
+        sink.complete();
+    }
 
-            if (message.readableBytes() > headerLength) {
-                Messages.writeLength(message);
-                sink.next(message);
-            } else {
-                message.release();
+    /**
+     * <p>
+     * Send one CopyData message per chunk of file when netty channel is encrypted,next chunk is read only when channel is writable,
+     * see {@link FileChunks}. The file channel is closed when COPY end, when sink is cancelled or when netty channel close.
+     * </p>
+     *
+     * @see #executeSendCopyInDataFromLocalPath(Path, FluxSink)
+     */
+    private void continueSendCopyInData(final FileChannel channel, long position, final FluxSink<ByteBuf> sink) {
+        if (sink.isCancelled()) {
+            closeChannel(channel);
+            return;
+        }
+        final int headerLength = 5, maxChunkSize = COPY_CHUNK_BYTES;
+        final ByteBufAllocator allocator = this.adjutant.allocator();
+        try {
+            ByteBuf header, chunk;
+            for (int chunkSize; position < channel.size(); ) {
+                chunkSize = (int) Math.min(maxChunkSize, channel.size() - position);
+                chunk = FileChunks.readChunk(channel, position, chunkSize, allocator);
+                position += chunkSize;
+
+                header = allocator.buffer(headerLength);
+                header.writeByte(Messages.d);
+                header.writeInt(Messages.LENGTH_SIZE + chunkSize);
+                sink.next(Unpooled.wrappedBuffer(header, chunk));
+
+                if (!this.adjutant.isChannelWritable()) {
+                    final long nextPosition = position;
+                    this.adjutant.onChannelWritable(() -> continueSendCopyInData(channel, nextPosition, sink)
+                            , error -> {
+                                closeChannel(channel);
+                                sink.error(error);
+                            });
+                    return;
+                }
             }
+            closeChannel(channel);
             sink.next(createCopyDoneMessage());
         } catch (Throwable e) {
-            if (message != null) {
-                message.release();
-            }
+            closeChannel(channel);
             String msg = String.format("Copy-in read local file occur error,%s", e.getMessage());
             sink.next(createCopyFailMessage(msg));
         }
@@ -342,6 +431,14 @@ final class DefaultCopyOperationHandler implements CopyOperationHandler {
 
     }
 
+    private static void closeChannel(final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.debug("close file channel failure.", e);
+        }
+    }
+
 
     /**
      * @see #handleCopyOutResponse(ByteBuf)
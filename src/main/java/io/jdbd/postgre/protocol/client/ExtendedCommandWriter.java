@@ -15,9 +15,41 @@ import java.util.List;
  */
 interface ExtendedCommandWriter {
 
+    /**
+     * @return true : statement isn't {@link PrepareStmt} , Parse message is sent with Bind message.
+     */
+    boolean isOneRoundTrip();
 
     boolean isNeedPrepare();
 
+    /**
+     * @return non-null : parameter types is known without prepare round trip ,
+     * because statement is cached or metadata is shared by other session.
+     * @see PgStmtMeta
+     */
+    @Nullable
+    List<DataType> knownParamTypes();
+
+    /**
+     * @return null : no result set or {@link #knownParamTypes()} is null.
+     */
+    @Nullable
+    PgRowMeta knownRowMeta();
+
+    /**
+     * <p>
+     * Verify shared metadata with the RowDescription of portal , remove it if not match.
+     * </p>
+     */
+    void verifySharedMeta(PgRowMeta rowMeta);
+
+    /**
+     * <p>
+     * Execution end with error , shared metadata and cached statement maybe stale.
+     * </p>
+     */
+    void handleExecuteError();
+
     boolean supportFetch();
 
     boolean isNeedClose();
@@ -29,6 +61,22 @@ interface ExtendedCommandWriter {
 
     void handlePrepareResponse(List<DataType> paramTypeList, @Nullable PgRowMeta rowMeta);
 
+    /**
+     * @see PostgreStmt#parseNanos()
+     */
+    void handleParseComplete();
+
+    /**
+     * @see PostgreStmt#parseNanos()
+     */
+    void handleBindComplete();
+
+    /**
+     * @param rowCount the row count of CommandComplete message of SELECT command.
+     * @see PostgreStmt#averageRows()
+     */
+    void handleResultRows(long rowCount);
+
     /**
      * @throws IllegalStateException throw(not emit) when {@link #isOneRoundTrip()} return false.
      */
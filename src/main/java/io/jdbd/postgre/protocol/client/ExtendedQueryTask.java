@@ -84,6 +84,23 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
         });
     }
 
+    /**
+     * @param itemCounts true : record affected rows of each group.
+     * @see PgProtocol#paramBatchSummary(ParamBatchStmt, boolean)
+     */
+    static Mono<ResultStates> batchSummary(final ParamBatchStmt stmt, final boolean itemCounts,
+                                           final TaskAdjutant adjutant) {
+        return MultiResults.update(sink -> {
+            try {
+                ExtendedQueryTask task = new ExtendedQueryTask(stmt, sink, adjutant);
+                task.batchSummary = new BatchSummary(stmt.getGroupList().size(), itemCounts);
+                task.submit(sink::error);
+            } catch (Throwable e) {
+                sink.error(PgExceptions.wrapIfNonJvmFatal(e));
+            }
+        });
+    }
+
     static BatchQuery batchQuery(final ParamBatchStmt stmt, final TaskAdjutant adjutant) {
         return MultiResults.batchQuery(adjutant, sink -> {
             try {
@@ -139,7 +156,10 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
 
     private static final Logger LOG = LoggerFactory.getLogger(ExtendedQueryTask.class);
 
-    private final ExtendedCommandWriter commandWriter;
+    /**
+     * non-final : recreated when retry, see {@link #retryOnInvalidCachedPlan()}
+     */
+    private ExtendedCommandWriter commandWriter;
 
     private final Stmt stmt;
 
@@ -153,6 +173,20 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
 
     private ResultRowMeta resultRowMeta;
 
+    /**
+     * non-null : cached plan is invalid , retry after ReadyForQuery message.
+     *
+     * @see #handleInvalidCachedPlan(PgServerException)
+     */
+    private PgServerException retryError;
+
+    private boolean retried;
+
+    /**
+     * non-null : the cached statement is pinned until task end , see {@link TaskAdjutant#pinStmt(String)}
+     */
+    private String pinnedStmtName;
+
 
     private ExtendedQueryTask(Stmt stmt, ResultSink sink, TaskAdjutant adjutant) throws JdbdException {
         super(adjutant, sink);
@@ -233,6 +267,9 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
 
     @Override
     public void next(ResultItem result) {
+        if (result instanceof PgRowMeta) {
+            this.commandWriter.verifySharedMeta((PgRowMeta) result);
+        }
         this.sink.next(result);
     }
 
@@ -351,11 +388,15 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
 
         }// switch
 
+        if (taskEnd && this.retryError != null) {
+            taskEnd = retryOnInvalidCachedPlan();
+        }
 
         if (taskEnd && this.taskPhase != TaskPhase.SUSPEND) {
             if (oldPhase != TaskPhase.START_ERROR) {
                 closeStatementOrPortalIfNeed();
             }
+            unpinStmtIfNeed();
             this.taskPhase = TaskPhase.END;
             switch (this.bindPhase) {
                 case ERROR_ON_BIND:
@@ -364,8 +405,10 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
                     break;
                 default: {
                     if (hasError()) {
+                        this.commandWriter.handleExecuteError();
                         publishError(this.sink::error);
                     } else {
+                        emitBatchSummaryIfNeed();
                         this.sink.complete();
                     }
                 }
@@ -377,6 +420,7 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
 
     @Override
     protected void onChannelClose() {
+        unpinStmtIfNeed();
         if (this.taskPhase.isEnd()) {
             addError(new SessionCloseException("Session unexpected close"));
             publishError(this.sink::error);
@@ -392,6 +436,7 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
         } else {
             addError(e);
             this.taskPhase = TaskPhase.END;
+            unpinStmtIfNeed();
             if (this.closeStatementOrPortalIfNeed()) {
                 action = Action.MORE_SEND_AND_END;
             } else {
@@ -421,8 +466,35 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
         return this.sink.isCancelled();
     }
 
+    @Override
+    void handleParseComplete() {
+        this.commandWriter.handleParseComplete();
+    }
+
+    @Override
+    void handleBindComplete() {
+        this.commandWriter.handleBindComplete();
+    }
+
+    @Override
+    boolean handleInvalidCachedPlan(final PgServerException error) {
+        final PostgreStmt cache = this.commandWriter.getCache();
+        if (cache == null) {
+            // unnamed statement
+            return false;
+        }
+        this.adjutant.invalidatePostgreStmt(cache.originalSql());
+        if (this.retried || this.sink.isCancelled() || !this.commandWriter.isOneRoundTrip()) {
+            // application have got the parameter types of PreparedStatement , so don't retry.
+            return false;
+        }
+        this.retryError = error;
+        return true;
+    }
+
     @Override
     boolean handleSelectCommand(final long rowCount) {
+        this.commandWriter.handleResultRows(rowCount);
         final boolean moreFetch;
         if (this.commandWriter.supportFetch()
                 && !this.sink.isCancelled()
@@ -538,8 +610,19 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
      * @see #handlePrepareResponse(List, ResultRowMeta)
      */
     private boolean emitPrepareTask() {
+        if (this.parameterTypeList == null) {
+            // statement is cached or metadata is shared by other session , no prepare round trip.
+            this.parameterTypeList = this.commandWriter.knownParamTypes();
+            this.resultRowMeta = this.commandWriter.knownRowMeta();
+        }
         final ResultSink sink = this.sink;
         if (sink instanceof PrepareResultSink) {
+            final PostgreStmt cache = this.commandWriter.getCache();
+            if (cache instanceof ServerCacheStmt && this.pinnedStmtName == null) {
+                // other task maybe evict statement before application bind.
+                this.pinnedStmtName = ((ServerCacheStmt) cache).stmtName();
+                this.adjutant.pinStmt(this.pinnedStmtName);
+            }
             this.bindPhase = BindPhase.WAIT_FOR_BIND;
             ((PrepareResultSink) this.sink).stmtSink.success(this);
 
@@ -554,6 +637,37 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
     }
 
 
+    /**
+     * <p>
+     * Re-Parse and execute statement once , if not in failed transaction ,
+     * because server reject all commands of failed transaction until end of transaction block.
+     * </p>
+     *
+     * @return true : task end.
+     * @see #handleInvalidCachedPlan(PgServerException)
+     * @see #decode(ByteBuf, Consumer)
+     */
+    private boolean retryOnInvalidCachedPlan() {
+        final PgServerException error = this.retryError;
+        this.retryError = null;
+        if (this.adjutant.txStatus() == TxStatus.ERROR) {
+            addError(error);
+            return true;
+        }
+        this.retried = true;
+        try {
+            final ExtendedCommandWriter commandWriter;
+            commandWriter = PgExtendedCommandWriter.create(this);
+            this.commandWriter = commandWriter;
+            this.packetPublisher = commandWriter.executeOneRoundTrip();
+        } catch (Throwable e) {
+            addError(PgExceptions.wrap(e));
+            return true;
+        }
+        LOG.debug("cached plan of sql[{}] is invalid , re-Parse and retry.", getSql());
+        return false;
+    }
+
     /**
      * @see #executeUpdate(ParamStmt)
      * @see #executeQuery(ParamStmt, Function)
@@ -669,6 +783,17 @@ final class ExtendedQueryTask extends PgCommandTask implements PrepareTask, Exte
     }
 
 
+    /**
+     * @see #emitPrepareTask()
+     */
+    private void unpinStmtIfNeed() {
+        final String stmtName = this.pinnedStmtName;
+        if (stmtName != null) {
+            this.pinnedStmtName = null;
+            this.adjutant.unpinStmt(stmtName);
+        }
+    }
+
     private boolean isNeedCloseStatementOrPortal() {
         return this.commandWriter.isNeedClose();
     }
@@ -0,0 +1,59 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * This class read chunk of local file for Bind message and CopyData message.
+ * The chunk is read into {@link ByteBuf} of allocator (pooled), so the chunk is released by netty after written,
+ * and the memory of file content is bounded by chunk size and channel water mark.
+ * </p>
+ * <p>
+ * Memory-mapped region isn't used, because the mapped region isn't unmapped until GC,
+ * and netty copy the region to user space buffer whenever it is wrapped as {@link ByteBuf} .
+ * </p>
+ * <p>
+ * COPY from local file is sent as {@link io.netty.channel.DefaultFileRegion} when channel isn't encrypted,
+ * so this class is used by it only with TLS. Bind message is always built in user space,
+ * because the file parameter is only part of Bind message.
+ * </p>
+ *
+ * @since 1.0
+ */
+abstract class FileChunks {
+
+    private FileChunks() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return chunk whose readable bytes is size.
+     * @throws IOException throw when read failure or file size changed.
+     */
+    static ByteBuf readChunk(final FileChannel channel, final long position, final int size,
+                             final ByteBufAllocator allocator) throws IOException {
+        if (channel.size() < position + size) {
+            throw new IOException(String.format("file size[%s] less than %s,file size changed.",
+                    channel.size(), position + size));
+        }
+        final ByteBuf chunk = allocator.buffer(size);
+        try {
+            for (int readBytes; chunk.readableBytes() < size; ) {
+                readBytes = chunk.writeBytes(channel, position + chunk.readableBytes(), size - chunk.readableBytes());
+                if (readBytes < 0) {
+                    throw new IOException("file size changed.");
+                }
+            }
+        } catch (Throwable e) {
+            chunk.release();
+            throw e;
+        }
+        return chunk;
+    }
+
+
+}
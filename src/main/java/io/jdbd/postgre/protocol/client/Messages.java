@@ -3,6 +3,7 @@ package io.jdbd.postgre.protocol.client;
 import io.jdbd.postgre.util.PgExceptions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.qinarmy.util.HexUtils;
 
 import java.nio.charset.Charset;
@@ -36,6 +37,13 @@ abstract class Messages {
      */
     static final byte CHAR_TWO = '2';
 
+    /**
+     * <ul>
+     *     <li>backend (B) : CloseComplete</li>
+     * </ul>
+     */
+    static final byte CHAR_THREE = '3';
+
     /**
      * <ul>
      *     <li>backend (B) : NotificationResponse</li>
@@ -265,14 +273,58 @@ abstract class Messages {
     }
 
     static void writeString(ByteBuf message, String text, Charset charset) throws SQLException {
-        final byte[] bytes = text.getBytes(charset);
-        if (message.maxWritableBytes() < bytes.length + 1) {
+        if (message.maxWritableBytes() < encodedBytes(text, charset) + 1) {
             throw PgExceptions.tooLargeObject();
         }
-        message.writeBytes(bytes);
+        writeText(message, text, charset);
         message.writeByte(STRING_TERMINATOR);
     }
 
+    /**
+     * <p>
+     * Encode text directly into message without intermediate byte array :
+     *     <ul>
+     *         <li>utf-8 : {@link ByteBufUtil#writeUtf8(ByteBuf, CharSequence)}</li>
+     *         <li>text is ASCII : {@link ByteBufUtil#writeAscii(ByteBuf, CharSequence)},because jdbd-postgre support only the charset that ASCII is one byte</li>
+     *         <li>else {@link String#getBytes(Charset)}</li>
+     *     </ul>
+     * </p>
+     */
+    static void writeText(final ByteBuf message, final CharSequence text, final Charset charset) {
+        if (charset == StandardCharsets.UTF_8 || charset.equals(StandardCharsets.UTF_8)) {
+            ByteBufUtil.writeUtf8(message, text);
+        } else if (isAscii(text)) {
+            ByteBufUtil.writeAscii(message, text);
+        } else {
+            message.writeBytes(text.toString().getBytes(charset));
+        }
+    }
+
+    /**
+     * @return the bytes of text encoded by charset,exact for utf-8 and ASCII text,else upper bound.
+     * @see #writeText(ByteBuf, CharSequence, Charset)
+     */
+    static long encodedBytes(final CharSequence text, final Charset charset) {
+        final long bytes;
+        if (charset == StandardCharsets.UTF_8 || charset.equals(StandardCharsets.UTF_8)) {
+            bytes = ByteBufUtil.utf8Bytes(text);
+        } else if (isAscii(text)) {
+            bytes = text.length();
+        } else {
+            bytes = (long) Math.ceil(text.length() * (double) charset.newEncoder().maxBytesPerChar());
+        }
+        return bytes;
+    }
+
+    private static boolean isAscii(final CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     static boolean hasReadyForQuery(final ByteBuf cumulateBuffer) {
         final int originalIndex = cumulateBuffer.readerIndex();
         boolean has = false;
@@ -424,5 +476,12 @@ abstract class Messages {
         message.setInt(message.readerIndex() + 1, message.readableBytes() - 1);
     }
 
+    /**
+     * @param startIndex the index of message type byte.
+     */
+    static void writeLength(final ByteBuf message, final int startIndex) {
+        message.setInt(startIndex + 1, message.writerIndex() - startIndex - 1);
+    }
+
 
 }
@@ -0,0 +1,39 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+
+/**
+ * <p>
+ * This interface representing the encoder of one parameter of bound statement,
+ * that is decided by the parameter type in ParameterDescription message.
+ * </p>
+ *
+ * @see ParamEncoders
+ * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">ParameterDescription</a>
+ * @since 1.0
+ */
+interface ParamEncoder {
+
+    /**
+     * @return 0 : text ; 1 : binary
+     */
+    int formatCode();
+
+    /**
+     * @param nonNull the non-null value of parameter
+     * @return false : this encoder can't encode value, driver use build-in text format.
+     */
+    boolean accept(Object nonNull);
+
+    /**
+     * <p>
+     * Write the bytes of parameter value, don't write the length of value.
+     * </p>
+     */
+    void encode(int batchIndex, ParamValue paramValue, ByteBuf message, Charset charset) throws JdbdException;
+
+}
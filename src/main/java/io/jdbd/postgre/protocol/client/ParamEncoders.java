@@ -0,0 +1,686 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.jdbd.postgre.codec.PgEncoder;
+import io.jdbd.postgre.util.PgExceptions;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.time.*;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * <p>
+ * This class is factory of {@link ParamEncoder}.
+ * The encoder array is created once by the parameter type list of ParameterDescription message,
+ * and cached with {@link ServerCacheStmt}, so repeated execution don't dispatch by parameter type.
+ * </p>
+ * <p>
+ * Binary encoder accept only the natural java type of postgre type, for example : {@link LocalDateTime} for timestamp,
+ * other java type (for example : {@link String} 'infinity') use build-in text format.
+ * </p>
+ *
+ * @see <a href="https://github.com/postgres/postgres/tree/master/src/backend/utils/adt">binary send/recv functions</a>
+ * @since 1.0
+ */
+abstract class ParamEncoders {
+
+    private ParamEncoders() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * postgre epoch 2000-01-01 in java epoch day.
+     */
+    private static final long PG_EPOCH_DAY = 10957L;
+
+    /**
+     * postgre epoch 2000-01-01 00:00:00 in java epoch second.
+     */
+    private static final long PG_EPOCH_SECOND = 946684800L;
+
+    private static final int NUMERIC_POS = 0x0000;
+
+    private static final int NUMERIC_NEG = 0x4000;
+
+
+    /**
+     * @param paramTypeList the parameter type list from ParameterDescription message.
+     * @return a unmodified array, element null representing build-in text format.
+     */
+    static ParamEncoder[] create(final List<? extends DataType> paramTypeList, final PgCodecRegistry registry) {
+        final int paramCount = paramTypeList.size();
+        final ParamEncoder[] encoderArray = new ParamEncoder[paramCount];
+        for (int i = 0; i < paramCount; i++) {
+            encoderArray[i] = encoderOf(paramTypeList.get(i), registry);
+        }
+        return encoderArray;
+    }
+
+    /**
+     * @return null : use build-in text format.
+     */
+    @Nullable
+    static ParamEncoder encoderOf(final DataType type, final PgCodecRegistry registry) {
+        final PgEncoder codec;
+        if (registry.isEmpty()) {
+            codec = null;
+        } else {
+            codec = registry.encoder(CommandWriter.typeOidOf(type), type.typeName());
+        }
+        final ParamEncoder encoder;
+        if (codec != null) {
+            encoder = new CodecEncoder(codec);
+        } else if (!(type instanceof PgType)) {
+            encoder = null;
+        } else if (type.isArray()) {
+            final PgType elementType = ((PgType) type).elementType();
+            final BinaryEncoder elementEncoder;
+            if (elementType == null || (elementEncoder = binaryEncoderOf(elementType)) == null) {
+                encoder = null;
+            } else {
+                encoder = new ArrayEncoder(elementType, elementEncoder);
+            }
+        } else {
+            encoder = binaryEncoderOf((PgType) type);
+        }
+        return encoder;
+    }
+
+
+    @Nullable
+    private static BinaryEncoder binaryEncoderOf(final PgType type) {
+        final BinaryEncoder encoder;
+        switch (type) {
+            case BOOLEAN:
+                encoder = BinaryEncoder.BOOLEAN;
+                break;
+            case SMALLINT:
+                encoder = BinaryEncoder.INT2;
+                break;
+            case INTEGER:
+                encoder = BinaryEncoder.INT4;
+                break;
+            case BIGINT:
+                encoder = BinaryEncoder.INT8;
+                break;
+            case OID:
+                encoder = BinaryEncoder.OID;
+                break;
+            case REAL:
+                encoder = BinaryEncoder.FLOAT4;
+                break;
+            case FLOAT8:
+                encoder = BinaryEncoder.FLOAT8;
+                break;
+            case DECIMAL:
+                encoder = BinaryEncoder.NUMERIC;
+                break;
+            case DATE:
+                encoder = BinaryEncoder.DATE;
+                break;
+            case TIME:
+                encoder = BinaryEncoder.TIME;
+                break;
+            case TIMETZ:
+                encoder = BinaryEncoder.TIMETZ;
+                break;
+            case TIMESTAMP:
+                encoder = BinaryEncoder.TIMESTAMP;
+                break;
+            case TIMESTAMPTZ:
+                encoder = BinaryEncoder.TIMESTAMPTZ;
+                break;
+            case UUID:
+                encoder = BinaryEncoder.UUID;
+                break;
+            case JSON:
+            case VARCHAR:
+            case TEXT:
+                // binary format of these types is the text with client charset
+                encoder = BinaryEncoder.TEXT;
+                break;
+            case JSONB:
+                encoder = BinaryEncoder.JSONB;
+                break;
+            case BYTEA:
+                encoder = BinaryEncoder.BYTEA;
+                break;
+            default:
+                encoder = null;
+        }
+        return encoder;
+    }
+
+
+    private static JdbdException outOfRange(final PgType type, final Object value) {
+        String m = String.format("%s value[%s] out of range of %s .", value.getClass().getName(), value, type);
+        return new JdbdException(m);
+    }
+
+
+    /**
+     * @see #encoderOf(DataType, PgCodecRegistry)
+     */
+    private enum BinaryEncoder implements ParamEncoder {
+
+        BOOLEAN {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Boolean.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeByte(((Boolean) nonNull) ? 1 : 0);
+            }
+        },
+        INT2 {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Short.class || javaType == Byte.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeShort(((Number) nonNull).shortValue());
+            }
+        },
+        INT4 {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Integer.class || javaType == Short.class || javaType == Byte.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeInt(((Number) nonNull).intValue());
+            }
+        },
+        INT8 {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Long.class
+                        || javaType == Integer.class
+                        || javaType == Short.class
+                        || javaType == Byte.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeLong(((Number) nonNull).longValue());
+            }
+        },
+        OID {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Long.class || javaType == Integer.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final long value = ((Number) nonNull).longValue();
+                if (value < 0 || value > 0xFFFF_FFFFL) {
+                    throw outOfRange(PgType.OID, nonNull);
+                }
+                message.writeInt((int) value); // oid is unsigned int
+            }
+        },
+        FLOAT4 {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Float.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeInt(Float.floatToIntBits((Float) nonNull));
+            }
+        },
+        FLOAT8 {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == Double.class || javaType == Float.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeLong(Double.doubleToLongBits(((Number) nonNull).doubleValue()));
+            }
+        },
+        NUMERIC {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == BigDecimal.class
+                        || javaType == BigInteger.class
+                        || javaType == Long.class
+                        || javaType == Integer.class
+                        || javaType == Short.class
+                        || javaType == Byte.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final BigDecimal value;
+                if (nonNull instanceof BigDecimal) {
+                    value = (BigDecimal) nonNull;
+                } else if (nonNull instanceof BigInteger) {
+                    value = new BigDecimal((BigInteger) nonNull);
+                } else {
+                    value = BigDecimal.valueOf(((Number) nonNull).longValue());
+                }
+                writeNumeric(value, message);
+            }
+        },
+        DATE {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == LocalDate.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final long days = ((LocalDate) nonNull).toEpochDay() - PG_EPOCH_DAY;
+                if (days <= Integer.MIN_VALUE || days >= Integer.MAX_VALUE) { // MIN and MAX are -infinity and infinity
+                    throw outOfRange(PgType.DATE, nonNull);
+                }
+                message.writeInt((int) days);
+            }
+        },
+        TIME {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == LocalTime.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeLong(((LocalTime) nonNull).toNanoOfDay() / 1000L);
+            }
+        },
+        TIMETZ {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == OffsetTime.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final OffsetTime time = (OffsetTime) nonNull;
+                message.writeLong(time.toLocalTime().toNanoOfDay() / 1000L);
+                // postgre zone is seconds west of UTC
+                message.writeInt(-time.getOffset().getTotalSeconds());
+            }
+        },
+        TIMESTAMP {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == LocalDateTime.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final LocalDateTime dateTime = (LocalDateTime) nonNull;
+                writeMicros(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano(), message);
+            }
+        },
+        TIMESTAMPTZ {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == OffsetDateTime.class
+                        || javaType == ZonedDateTime.class
+                        || javaType == Instant.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final Instant instant;
+                if (nonNull instanceof OffsetDateTime) {
+                    instant = ((OffsetDateTime) nonNull).toInstant();
+                } else if (nonNull instanceof ZonedDateTime) {
+                    instant = ((ZonedDateTime) nonNull).toInstant();
+                } else {
+                    instant = (Instant) nonNull;
+                }
+                writeMicros(instant.getEpochSecond(), instant.getNano(), message);
+            }
+        },
+        UUID {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == java.util.UUID.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                final UUID uuid = (UUID) nonNull;
+                message.writeLong(uuid.getMostSignificantBits());
+                message.writeLong(uuid.getLeastSignificantBits());
+            }
+        },
+        TEXT {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == String.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeBytes(((String) nonNull).getBytes(charset));
+            }
+        },
+        JSONB {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == String.class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeByte(1); // jsonb binary format version
+                message.writeBytes(((String) nonNull).getBytes(charset));
+            }
+        },
+        BYTEA {
+            @Override
+            boolean acceptClass(Class<?> javaType) {
+                return javaType == byte[].class;
+            }
+
+            @Override
+            void write(Object nonNull, ByteBuf message, Charset charset) {
+                message.writeBytes((byte[]) nonNull);
+            }
+        };
+
+
+        @Override
+        public final int formatCode() {
+            return 1;
+        }
+
+        @Override
+        public final boolean accept(Object nonNull) {
+            return acceptClass(nonNull.getClass());
+        }
+
+        @Override
+        public final void encode(int batchIndex, ParamValue paramValue, ByteBuf message, Charset charset) {
+            write(paramValue.getNonNull(), message, charset);
+        }
+
+        abstract boolean acceptClass(Class<?> javaType);
+
+        abstract void write(Object nonNull, ByteBuf message, Charset charset);
+
+
+    }//BinaryEncoder
+
+
+    /**
+     * <p>
+     * Binary format of array :
+     *     <ol>
+     *         <li>int32 : dimension</li>
+     *         <li>int32 : has null flag</li>
+     *         <li>int32 : element type oid</li>
+     *         <li>for each dimension : int32 length and int32 lower bound</li>
+     *         <li>for each element : int32 length (-1 representing null) and element bytes</li>
+     *     </ol>
+     * </p>
+     *
+     * @see <a href="https://github.com/postgres/postgres/blob/master/src/backend/utils/adt/arrayfuncs.c">array_send</a>
+     */
+    private static final class ArrayEncoder implements ParamEncoder {
+
+        private final PgType elementType;
+
+        private final BinaryEncoder elementEncoder;
+
+        private ArrayEncoder(PgType elementType, BinaryEncoder elementEncoder) {
+            this.elementType = elementType;
+            this.elementEncoder = elementEncoder;
+        }
+
+        @Override
+        public int formatCode() {
+            return 1;
+        }
+
+        @Override
+        public boolean accept(final Object nonNull) {
+            final Class<?> arrayClass = nonNull.getClass();
+            return dimensionOf(arrayClass) > 0
+                    && this.elementEncoder.acceptClass(boxedClass(underlyingComponent(arrayClass)));
+        }
+
+        @Override
+        public void encode(final int batchIndex, final ParamValue paramValue, final ByteBuf message,
+                           final Charset charset) throws JdbdException {
+            final Object array = paramValue.getNonNull();
+            final int dimension = dimensionOf(array.getClass());
+
+            final int[] lengthArray = new int[dimension];
+            Object current = array;
+            for (int i = 0; i < dimension; i++) {
+                lengthArray[i] = current == null ? 0 : Array.getLength(current);
+                current = lengthArray[i] == 0 ? null : Array.get(current, 0);
+            }
+
+            message.writeInt(dimension);
+            final int hasNullIndex = message.writerIndex();
+            message.writeInt(0); // placeholder of has null flag
+            message.writeInt(this.elementType.oid);
+            for (int length : lengthArray) {
+                message.writeInt(length);
+                message.writeInt(1); // lower bound
+            }
+            if (writeElements(batchIndex, paramValue, array, 0, lengthArray, message, charset)) {
+                message.setInt(hasNullIndex, 1);
+            }
+        }
+
+        /**
+         * @return true : has null element
+         */
+        private boolean writeElements(final int batchIndex, final ParamValue paramValue, final Object array,
+                                      final int dimensionIndex, final int[] lengthArray, final ByteBuf message,
+                                      final Charset charset) {
+            final int length = Array.getLength(array);
+            if (length != lengthArray[dimensionIndex]) {
+                // postgre support only rectangular array
+                throw PgExceptions.createNotSupportBindTypeError(batchIndex, paramValue);
+            }
+            final boolean lastDimension = dimensionIndex == lengthArray.length - 1;
+            final BinaryEncoder elementEncoder = this.elementEncoder;
+
+            boolean hasNull = false;
+            Object element;
+            for (int i = 0, lengthIndex, endIndex; i < length; i++) {
+                element = Array.get(array, i);
+                if (element == null) {
+                    if (!lastDimension) {
+                        throw PgExceptions.createNotSupportBindTypeError(batchIndex, paramValue);
+                    }
+                    message.writeInt(-1);
+                    hasNull = true;
+                } else if (!lastDimension) {
+                    hasNull |= writeElements(batchIndex, paramValue, element, dimensionIndex + 1, lengthArray,
+                            message, charset);
+                } else {
+                    lengthIndex = message.writerIndex();
+                    message.writeZero(4); // placeholder of element length
+                    elementEncoder.write(element, message, charset);
+                    endIndex = message.writerIndex();
+                    message.setInt(lengthIndex, endIndex - lengthIndex - 4);
+                }
+            }
+            return hasNull;
+        }
+
+        private int dimensionOf(Class<?> arrayClass) {
+            final Class<?> elementClass = this.elementType == PgType.BYTEA ? byte[].class : null;
+            int dimension = 0;
+            while (arrayClass.isArray() && arrayClass != elementClass) { // byte[] is element of bytea array
+                dimension++;
+                arrayClass = arrayClass.getComponentType();
+            }
+            return dimension;
+        }
+
+        private Class<?> underlyingComponent(Class<?> arrayClass) {
+            final Class<?> elementClass = this.elementType == PgType.BYTEA ? byte[].class : null;
+            while (arrayClass.isArray() && arrayClass != elementClass) {
+                arrayClass = arrayClass.getComponentType();
+            }
+            return arrayClass;
+        }
+
+        private static Class<?> boxedClass(final Class<?> componentType) {
+            final Class<?> boxedClass;
+            if (!componentType.isPrimitive()) {
+                boxedClass = componentType;
+            } else if (componentType == int.class) {
+                boxedClass = Integer.class;
+            } else if (componentType == long.class) {
+                boxedClass = Long.class;
+            } else if (componentType == short.class) {
+                boxedClass = Short.class;
+            } else if (componentType == byte.class) {
+                boxedClass = Byte.class;
+            } else if (componentType == boolean.class) {
+                boxedClass = Boolean.class;
+            } else if (componentType == double.class) {
+                boxedClass = Double.class;
+            } else if (componentType == float.class) {
+                boxedClass = Float.class;
+            } else {
+                boxedClass = componentType; // char , not supported
+            }
+            return boxedClass;
+        }
+
+
+    }//ArrayEncoder
+
+
+    /**
+     * <p>
+     * Adapter of {@link PgEncoder} that is registered by application developer.
+     * </p>
+     */
+    private static final class CodecEncoder implements ParamEncoder {
+
+        private final PgEncoder codec;
+
+        private CodecEncoder(PgEncoder codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public int formatCode() {
+            return this.codec.binaryFormat() ? 1 : 0;
+        }
+
+        @Override
+        public boolean accept(Object nonNull) {
+            return true;
+        }
+
+        @Override
+        public void encode(int batchIndex, ParamValue paramValue, ByteBuf message, Charset charset) {
+            this.codec.encode(paramValue.getNonNull(), message, charset);
+        }
+
+    }//CodecEncoder
+
+
+    /**
+     * @see BinaryEncoder#TIMESTAMP
+     * @see BinaryEncoder#TIMESTAMPTZ
+     */
+    private static void writeMicros(final long epochSecond, final int nano, final ByteBuf message) {
+        final long micros;
+        micros = Math.addExact(Math.multiplyExact(epochSecond - PG_EPOCH_SECOND, 1000_000L), nano / 1000);
+        message.writeLong(micros);
+    }
+
+    /**
+     * <p>
+     * Binary format of numeric : int16 ndigits, int16 weight, int16 sign , int16 dscale and ndigits base-10000 digits.
+     * </p>
+     *
+     * @see <a href="https://github.com/postgres/postgres/blob/master/src/backend/utils/adt/numeric.c">numeric_send</a>
+     */
+    static void writeNumeric(BigDecimal value, final ByteBuf message) {
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        final int sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+        final int dscale = value.scale();
+        final String plain = value.abs().toPlainString();
+
+        final int pointIndex = plain.indexOf('.');
+        final String intPart, fracPart;
+        if (pointIndex < 0) {
+            intPart = plain;
+            fracPart = "";
+        } else {
+            intPart = plain.substring(0, pointIndex);
+            fracPart = plain.substring(pointIndex + 1);
+        }
+
+        final int intGroups = (intPart.length() + 3) >> 2, fracGroups = (fracPart.length() + 3) >> 2;
+        final short[] digits = new short[intGroups + fracGroups];
+
+        // integer part , pad zero on left
+        final int intPad = (intGroups << 2) - intPart.length();
+        for (int i = 0, digit, charIndex; i < intGroups; i++) {
+            digit = 0;
+            for (int j = 0; j < 4; j++) {
+                charIndex = (i << 2) + j - intPad;
+                digit = digit * 10 + (charIndex < 0 ? 0 : intPart.charAt(charIndex) - '0');
+            }
+            digits[i] = (short) digit;
+        }
+        // fraction part , pad zero on right
+        for (int i = 0, digit, charIndex; i < fracGroups; i++) {
+            digit = 0;
+            for (int j = 0; j < 4; j++) {
+                charIndex = (i << 2) + j;
+                digit = digit * 10 + (charIndex < fracPart.length() ? fracPart.charAt(charIndex) - '0' : 0);
+            }
+            digits[intGroups + i] = (short) digit;
+        }
+
+        int start = 0, end = digits.length, weight = intGroups - 1;
+        while (start < end && digits[start] == 0) { // strip leading zero
+            start++;
+            weight--;
+        }
+        while (end > start && digits[end - 1] == 0) { // strip trailing zero
+            end--;
+        }
+
+        final int ndigits = end - start;
+        message.writeShort(ndigits);
+        message.writeShort(ndigits == 0 ? 0 : weight);
+        message.writeShort(ndigits == 0 ? NUMERIC_POS : sign);
+        message.writeShort(dscale);
+        for (int i = start; i < end; i++) {
+            message.writeShort(digits[i]);
+        }
+
+    }
+
+
+}
@@ -3,6 +3,8 @@ package io.jdbd.postgre.protocol.client;
 import io.jdbd.meta.DataType;
 import io.jdbd.postgre.PgConstant;
 import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.jdbd.postgre.codec.PgDecoder;
 import io.jdbd.postgre.util.PgStrings;
 import io.jdbd.vendor.result.ColumnMeta;
 import io.netty.buffer.ByteBuf;
@@ -35,6 +37,18 @@ final class PgColumnMeta implements ColumnMeta {
 
     final DataType dataType;
 
+    /**
+     * non-null : the decoder that is registered by application developer,see {@link PgCodecRegistry}.
+     */
+    final PgDecoder decoder;
+
+    /**
+     * true : this column is received with binary format when execute bound statement.
+     *
+     * @see ProtocolFactory#isBinaryResult(int, DataType, PgDecoder)
+     */
+    final boolean binaryResult;
+
 
     /**
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">RowDescription</a>
@@ -61,6 +75,17 @@ final class PgColumnMeta implements ColumnMeta {
         } else {
             this.dataType = pgType;
         }
+
+        final ProtocolFactory factory = adjutant.factory();
+        final PgDecoder decoder;
+        decoder = factory.codecRegistry.decoder(this.columnTypeOid, this.dataType.typeName());
+        if (decoder == null || (!this.textFormat && !decoder.binaryFormat())) {
+            // decoder don't support binary format, use build-in decoder.
+            this.decoder = null;
+        } else {
+            this.decoder = decoder;
+        }
+        this.binaryResult = factory.isBinaryResult(this.columnTypeOid, this.dataType, this.decoder);
     }
 
 
@@ -85,6 +110,10 @@ final class PgColumnMeta implements ColumnMeta {
                 .append(this.columnModifier)
                 .append("\ntextFormat=")
                 .append(this.textFormat)
+                .append("\ndecoder=")
+                .append(this.decoder)
+                .append("\nbinaryResult=")
+                .append(this.binaryResult)
                 .append("\n}")
                 .toString();
     }
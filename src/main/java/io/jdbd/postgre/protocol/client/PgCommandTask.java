@@ -9,6 +9,7 @@ import io.jdbd.postgre.util.PgCollections;
 import io.jdbd.vendor.result.ResultSink;
 import io.jdbd.vendor.stmt.*;
 import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import reactor.util.annotation.Nullable;
 
@@ -51,6 +52,22 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
 
     private CopyOperationHandler copyOperationHandler;
 
+    /**
+     * non-null : the CopyData messages of COPY FROM STDIN is created by client.
+     *
+     * @see BatchCopyConverter
+     * @see #takeStdinPublisher()
+     */
+    Publisher<ByteBuf> stdinPublisher;
+
+    /**
+     * non-null : aggregate batch update, CommandComplete and ErrorResponse of group are accumulated,
+     * only one {@link io.jdbd.postgre.PgBatchSummary} is emitted at the end.
+     *
+     * @see #emitBatchSummaryIfNeed()
+     */
+    BatchSummary batchSummary;
+
     private Set<Integer> unknownTypeOidSet;
 
 
@@ -173,7 +190,16 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
 
             switch (msgType) {
                 case Messages.E: {// ErrorResponse message
-                    addError(PgServerException.read(cumulateBuffer, clientCharset));
+                    final PgServerException error = PgServerException.read(cumulateBuffer, clientCharset);
+                    final BatchSummary summary = this.batchSummary;
+                    if (this.resultIndex == 0 && !hasError() && error.isInvalidCachedPlan()
+                            && handleInvalidCachedPlan(error)) {
+                        logger.debug("cached plan is invalid,retry after ReadyForQuery.");
+                    } else if (summary == null) {
+                        addError(mapBatchIndexIfNeed(error));
+                    } else {
+                        summary.addError(this.resultIndex, error);
+                    }
                     continueRead = Messages.hasOneMessage(cumulateBuffer);
                 }
                 break;
@@ -237,8 +263,19 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
                     }
                 }
                 break;
-                case Messages.CHAR_ONE:// ParseComplete message
-                case Messages.CHAR_TWO:// BindComplete message
+                case Messages.CHAR_ONE: {// ParseComplete message
+                    Messages.skipOneMessage(cumulateBuffer);
+                    handleParseComplete();
+                    continueRead = Messages.hasOneMessage(cumulateBuffer);
+                }
+                break;
+                case Messages.CHAR_TWO: {// BindComplete message
+                    Messages.skipOneMessage(cumulateBuffer);
+                    handleBindComplete();
+                    continueRead = Messages.hasOneMessage(cumulateBuffer);
+                }
+                break;
+                case Messages.CHAR_THREE:// CloseComplete message, see PgExtendedCommandWriter.writeEvictedCloseMessages()
                 case Messages.A: { // NotificationResponse
                     //TODO complete LISTEN command
                     Messages.skipOneMessage(cumulateBuffer);
@@ -292,6 +329,23 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
 
     abstract Stmt getStmt();
 
+    void handleParseComplete() {
+        // sub class override.
+    }
+
+    /**
+     * @return true : error is held by sub class for retry , don't add error.
+     * @see PgServerException#isInvalidCachedPlan()
+     */
+    boolean handleInvalidCachedPlan(PgServerException error) {
+        // sub class override.
+        return false;
+    }
+
+    void handleBindComplete() {
+        // sub class override.
+    }
+
     boolean handleSelectCommand(long rowCount) {
         // sub class override.
         return false;
@@ -365,6 +419,17 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
     }
 
 
+    /**
+     * @return null or the CopyData messages of COPY FROM STDIN, can be taken only once.
+     * @see DefaultCopyOperationHandler#handleCopyInResponse(ByteBuf)
+     */
+    @Nullable
+    final Publisher<ByteBuf> takeStdinPublisher() {
+        final Publisher<ByteBuf> publisher = this.stdinPublisher;
+        this.stdinPublisher = null;
+        return publisher;
+    }
+
     /**
      * @return true: copy out handle end.
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">CopyOutResponse</a>
@@ -511,6 +576,16 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
         final String commandTag = Messages.readString(cumulateBuffer, clientCharset);
         cumulateBuffer.readerIndex(nextMsgIndex); // avoid tail filler
 
+        final BatchSummary summary = this.batchSummary;
+        if (summary != null) {
+            // aggregate batch update, don't create ResultStates per group
+            summary.addCommand(resultIndexFunc.getAsInt(), affectedRowsOf(commandTag));
+            if (nextMsgIndex < cumulateBuffer.writerIndex() && cumulateBuffer.getByte(nextMsgIndex) == Messages.N) {
+                NoticeMessage.read(cumulateBuffer, clientCharset);
+            }
+            return true;
+        }
+
         final ResultStateParams params = new ResultStateParams(this.adjutant.server().serverVersion());
         final int resultIndex = resultIndexFunc.getAsInt();
         params.resultIndex = resultIndex;
@@ -555,6 +630,55 @@ abstract class PgCommandTask extends PgTask implements StmtTask {
         return true;
     }
 
+    /**
+     * <p>
+     * Emit the only one result of aggregate batch update.
+     * </p>
+     *
+     * @see #batchSummary
+     */
+    final void emitBatchSummaryIfNeed() {
+        final BatchSummary summary = this.batchSummary;
+        if (summary != null) {
+            this.batchSummary = null;
+            this.next(PgResultStates.batchSummary(summary, this.adjutant.server().serverVersion()));
+        }
+    }
+
+    /**
+     * @return the last number of command tag, for example : {@code INSERT 0 5 } , {@code UPDATE 3 }.
+     */
+    private static long affectedRowsOf(final String commandTag) {
+        final int index = commandTag.lastIndexOf(' ');
+        final long affectedRows;
+        if (index < 0 || index + 1 == commandTag.length() || !Character.isDigit(commandTag.charAt(index + 1))) {
+            affectedRows = 0L;
+        } else {
+            affectedRows = Long.parseLong(commandTag.substring(index + 1));
+        }
+        return affectedRows;
+    }
+
+    /**
+     * <p>
+     * The groups of {@link ParamBatchStmt} are pipelined behind single Sync message,
+     * so the batch index of error group is the count of the results that have been read.
+     * The server error is kept, so application still can read SQLSTATE and error fields.
+     * </p>
+     *
+     * @see PgServerException#withBatchIndex(int)
+     */
+    private PgServerException mapBatchIndexIfNeed(final PgServerException error) {
+        Stmt stmt = this.getStmt();
+        if (stmt instanceof PrepareStmt) {
+            stmt = ((PrepareStmt) stmt).getStmt();
+        }
+        if (!(stmt instanceof ParamBatchStmt)) {
+            return error;
+        }
+        return error.withBatchIndex(this.resultIndex);
+    }
+
     private void handleSetCommand(final int resultIndex) {
         final Stmt stmt = this.getStmt();
         try {
@@ -5,6 +5,7 @@ import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
 import io.jdbd.postgre.PgConstant;
 import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgEncoder;
 import io.jdbd.postgre.syntax.PgStatement;
 import io.jdbd.postgre.util.*;
 import io.jdbd.result.ResultRowMeta;
@@ -24,10 +25,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
@@ -46,6 +49,10 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
     private static final Logger LOG = LoggerFactory.getLogger(PgExtendedCommandWriter.class);
 
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private static final int SYNC_MESSAGE_SIZE = 5;
+
     private final ExtendedStmtTask stmtTask;
 
     private final ParamSingleStmt stmt;
@@ -85,9 +92,87 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
      */
     private final String portalName;
 
+    private final byte[] statementNameBytes;
+
+    private final byte[] portalNameBytes;
+
+    /**
+     * non-null : {@link ServerCacheStmt} and unnamed portal.
+     */
+    private final BindTemplate bindTemplate;
+
+    /**
+     * @see io.jdbd.postgre.env.PgKey#BATCH_WINDOW_BYTES
+     */
+    private final int batchWindowBytes;
+
+    /**
+     * true : yield event loop after each window of batch, so other channels on same event loop aren't starved.
+     *
+     * @see io.jdbd.postgre.env.PgKey#BATCH_YIELD_THRESHOLD
+     */
+    private final boolean yieldBetweenWindows;
+
 
     private int fetchSize;
 
+    /**
+     * <p>
+     * Non-null after server response ParameterDescription or {@link ServerCacheStmt} exists.
+     * Element null representing build-in text format.
+     * </p>
+     *
+     * @see ParamEncoders#create(List, io.jdbd.postgre.codec.PgCodecRegistry)
+     */
+    private ParamEncoder[] paramEncoders;
+
+    /**
+     * non-negative : the index of large {@link Path} parameter that continueWriteBindParam() stop at.
+     *
+     * @see #startPathStream(FluxSink, ByteBuf, int, int, List)
+     */
+    private int streamParamIndex = -1;
+
+    /**
+     * non-null : named statement have been cached after prepare response.
+     *
+     * @see #getCache()
+     */
+    private ServerCacheStmt cachedStmt;
+
+    /**
+     * the nano time of writing Parse message , 0 : Parse message isn't written or parse time have been recorded.
+     *
+     * @see PostgreStmt#parseNanos()
+     */
+    private long parseStartNanos;
+
+    /**
+     * non-null : metadata of {@link PrepareStmt} is shared by other session , Parse message is sent with Bind message.
+     *
+     * @see PgStmtMeta
+     */
+    private final PgStmtMeta sharedMeta;
+
+    private final PgRowMeta sharedRowMeta;
+
+    /**
+     * true : Parse message of {@link #sharedMeta} have been sent.
+     */
+    private boolean sharedParseSent;
+
+    /**
+     * true : {@link #sharedMeta} have been verified by RowDescription of portal.
+     */
+    private boolean sharedMetaVerified;
+
+    /**
+     * the parameter types that are declared in Parse message of one round trip.
+     *
+     * @see #bindParamTypes()
+     */
+    private List<DataType> declaredParamTypes;
+
 
     private PgExtendedCommandWriter(final ExtendedStmtTask stmtTask) {
         super(stmtTask.adjutant());
@@ -107,15 +192,31 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
         this.parsedStmt = parsedStmt;
         if (parsedStmt instanceof ServerCacheStmt) {
             this.statementName = ((ServerCacheStmt) parsedStmt).stmtName();
-        } else if (parsedStmt.useCount() >= this.adjutant.factory().prepareThreshold) {
+            this.paramEncoders = ((ServerCacheStmt) parsedStmt).paramEncoders();
+        } else if (PreparePolicy.shouldPrepare(parsedStmt, adjutant.factory())) {
             this.statementName = this.adjutant.nextStmtName();
         } else {
             this.statementName = "";
         }
 
+        final PgStmtMeta sharedMeta;
+        if (this.stmt instanceof PrepareStmt && !(parsedStmt instanceof ServerCacheStmt)) {
+            sharedMeta = adjutant.factory().parseCache.stmtMeta(sql, parsedStmt.isStandardConformingStrings(),
+                    adjutant.stmtMetaScope());
+        } else {
+            sharedMeta = null;
+        }
+        this.sharedMeta = sharedMeta;
+        if (sharedMeta == null) {
+            this.sharedRowMeta = null;
+        } else {
+            this.sharedRowMeta = sharedMeta.createRowMeta(adjutant);
+            this.paramEncoders = ParamEncoders.create(sharedMeta.paramTypeList, this.codecRegistry);
+        }
+
         if (this.stmt instanceof PrepareStmt) {
             if (parsedStmt instanceof ServerCacheStmt
-                    && ((ServerCacheStmt) parsedStmt).getRowMeta().getColumnCount() == 0) {
+                    && ((ServerCacheStmt) parsedStmt).getRowMeta() == null) {
                 this.portalName = "";
             } else {
                 this.portalName = adjutant.nextPortalName();
@@ -126,12 +227,76 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             this.portalName = "";
         }
 
+        if (parsedStmt instanceof ServerCacheStmt && this.portalName.isEmpty()) {
+            final BindTemplate template = ((ServerCacheStmt) parsedStmt).bindTemplate();
+            this.bindTemplate = template;
+            this.statementNameBytes = template.stmtNameBytes;
+        } else {
+            this.bindTemplate = null;
+            this.statementNameBytes = this.statementName.getBytes(this.clientCharset);
+        }
+        this.portalNameBytes = this.portalName.getBytes(this.clientCharset);
+        this.batchWindowBytes = adjutant.factory().batchWindowBytes;
+
+        final int yieldThreshold = adjutant.factory().batchYieldThreshold;
+        this.yieldBetweenWindows = yieldThreshold > 0 && getGroupCount(this.stmt) >= yieldThreshold;
 
     }
 
+    @Override
+    public boolean isOneRoundTrip() {
+        return this.oneRoundTrip;
+    }
+
     @Override
     public boolean isNeedPrepare() {
-        return this.stmt instanceof PrepareStmt && !(this.parsedStmt instanceof ServerCacheStmt);
+        return this.stmt instanceof PrepareStmt
+                && !(this.parsedStmt instanceof ServerCacheStmt)
+                && this.sharedMeta == null;
+    }
+
+    @Nullable
+    @Override
+    public List<DataType> knownParamTypes() {
+        final PostgreStmt stmt = this.parsedStmt;
+        if (stmt instanceof ServerCacheStmt) {
+            return ((ServerCacheStmt) stmt).getParamOidList();
+        }
+        final PgStmtMeta sharedMeta = this.sharedMeta;
+        return sharedMeta == null ? null : sharedMeta.paramTypeList;
+    }
+
+    @Nullable
+    @Override
+    public PgRowMeta knownRowMeta() {
+        final PostgreStmt stmt = this.parsedStmt;
+        if (stmt instanceof ServerCacheStmt) {
+            return ((ServerCacheStmt) stmt).getRowMeta();
+        }
+        return this.sharedRowMeta;
+    }
+
+    @Override
+    public void verifySharedMeta(final PgRowMeta rowMeta) {
+        final PgStmtMeta sharedMeta = this.sharedMeta;
+        if (sharedMeta == null || this.sharedMetaVerified) {
+            return;
+        }
+        this.sharedMetaVerified = true;
+        if (!sharedMeta.isMatch(rowMeta)) {
+            // result set shape changed , for example DDL , next session prepare again.
+            removeSharedMeta();
+        }
+    }
+
+    @Override
+    public void handleExecuteError() {
+        if (this.sharedMeta != null && this.sharedParseSent) {
+            removeSharedMeta();
+            if (this.cachedStmt != null) {
+                this.adjutant.invalidatePostgreStmt(this.parsedStmt.originalSql());
+            }
+        }
     }
 
     @Override
@@ -149,7 +314,11 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
     @Nullable
     @Override
     public PostgreStmt getCache() {
-        return null;
+        final PostgreStmt stmt = this.parsedStmt;
+        if (stmt instanceof ServerCacheStmt) {
+            return stmt;
+        }
+        return this.cachedStmt;
     }
 
     @Override
@@ -165,26 +334,80 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             final ServerCacheStmt serverStmt = (ServerCacheStmt) stmt;
             if (!paramTypeList.equals(serverStmt.getParamOidList())
                     || !Objects.equals(((ServerCacheStmt) stmt).getRowMeta(), rowMeta)) {
-                this.adjutant.cachePostgreStmt(stmt, paramTypeList, rowMeta);
+                this.paramEncoders = ParamEncoders.create(paramTypeList, this.codecRegistry);
+                this.cachedStmt = this.adjutant.cachePostgreStmt(stmt, this.statementName, paramTypeList, rowMeta,
+                        this.paramEncoders);
+            }
+        } else {
+            this.paramEncoders = ParamEncoders.create(paramTypeList, this.codecRegistry);
+            if (this.stmt instanceof PrepareStmt) {
+                final PgStmtMeta stmtMeta = PgStmtMeta.createIfShareable(paramTypeList, rowMeta,
+                        this.adjutant.stmtMetaScope());
+                if (stmtMeta != null) {
+                    this.adjutant.factory().parseCache.shareStmtMeta(stmt.originalSql(),
+                            stmt.isStandardConformingStrings(), stmtMeta);
+                }
+            }
+            if (!this.statementName.isEmpty()) {
+                // named statement is cached, so don't close it after execution, see isNeedClose()
+                this.cachedStmt = this.adjutant.cachePostgreStmt(stmt, this.statementName, paramTypeList, rowMeta,
+                        this.paramEncoders);
             }
-        } else if (stmt.useCount() > this.adjutant.factory().prepareThreshold) {
-            this.adjutant.cachePostgreStmt(stmt, paramTypeList, rowMeta);
         }
     }
 
+    @Override
+    public void handleParseComplete() {
+        if (!this.oneRoundTrip) {
+            // Bind message is sent by next round trip.
+            recordParseNanos();
+        }
+    }
+
+    @Override
+    public void handleBindComplete() {
+        // unnamed statement is planned when Bind message , so Parse to BindComplete is parse and plan time.
+        recordParseNanos();
+    }
+
+    @Override
+    public void handleResultRows(final long rowCount) {
+        final PostgreStmt stmt = getCache();
+        (stmt == null ? this.parsedStmt : stmt).recordRows(rowCount);
+    }
+
     @Override
     public Publisher<ByteBuf> prepare() {
         if (this.oneRoundTrip) {
             // no bug,never here
             throw new IllegalStateException("Current is one round trip");
         }
-        final List<ByteBuf> messageList = PgCollections.arrayList(2);
-        messageList.add(createParseMessage());    // Parse message
-        appendDescribeMessage(messageList, true); // Describe message for statement
-        appendSyncMessage(messageList);           // Sync message
-        return Flux.fromIterable(messageList);
+        final String sql = this.parsedStmt.postgreSql();
+        final List<String> evictedNames = this.adjutant.pollEvictedStmtNames();
+        final int capacity;
+        capacity = closeMessagesCapacity(evictedNames)
+                + parseMessageCapacity(sql, 0)
+                + describeMessageCapacity(true)
+                + SYNC_MESSAGE_SIZE;
+
+        final ByteBuf message = this.adjutant.allocator().buffer(capacity, Messages.MAX_CAPACITY);
+        try {
+            writeEvictedCloseMessages(evictedNames, message); // Close messages
+            writeParseMessage(sql, message);   // Parse message
+            writeDescribeMessage(message, true);    // Describe message for statement
+            writeSyncMessage(message);              // Sync message
+        } catch (Throwable e) {
+            message.release();
+            throw e;
+        }
+        return Mono.just(message);
     }
 
+    /**
+     * <p>
+     * Write Parse/Bind/Describe/Execute/Sync to one buffer,so only one flush.
+     * </p>
+     */
     @Override
     public Publisher<ByteBuf> executeOneRoundTrip() {
         if (!this.oneRoundTrip) {
@@ -193,25 +416,81 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
         beforeExecute();
 
-        final List<ByteBuf> messageList = PgCollections.arrayList(3);
-
-        messageList.add(createParseMessage());    // Parse message
-        messageList.add(createBindMessage(0, 0)); // Bind message
-        appendDescribeMessage(messageList, false);// Describe message for portal
-        appendExecuteMessage(messageList);        // Execute message
+        final List<ParamValue> bindGroup = getBindGroup(0);
+        // server cache statement have parsed by server
+        final boolean needParse = !(this.parsedStmt instanceof ServerCacheStmt);
+        if (getBindGroup(1) != null || hasAsyncParameter(bindGroup)) {
+            // multi-group batch is pipelined by windows behind single Sync message,
+            // Publisher and large Path parameter are written asynchronously
+            if (needParse) {
+                return Flux.concat(Mono.just(createParseMessage()), bindAndExecute());
+            }
+            return bindAndExecute();
+        }
 
-        appendSyncMessage(messageList);           // Sync message
-        return Flux.fromIterable(messageList);
+        final String sql = this.parsedStmt.postgreSql();
+        final List<String> evictedNames = this.adjutant.pollEvictedStmtNames();
+        final int capacity;
+        capacity = closeMessagesCapacity(evictedNames)
+                + (needParse ? parseMessageCapacity(sql, bindGroup.size()) : 0)
+                + estimateBindCapacity(bindGroup)
+                + describeMessageCapacity(false)
+                + executeMessageCapacity()
+                + SYNC_MESSAGE_SIZE;
+
+        final BindTemplate template = this.bindTemplate;
+        final ByteBuf message = this.adjutant.allocator().buffer(capacity, Messages.MAX_CAPACITY);
+        try {
+            writeEvictedCloseMessages(evictedNames, message); // Close messages
+            if (needParse) {
+                writeParseMessage(sql, message);      // Parse message
+            }
+            final int bindIndex = message.writerIndex();
+            writeBindHeader(0, bindGroup, message);        // Bind message
+            continueWriteBindParam(message, bindIndex, 0, 0, bindGroup, null);
+            Messages.writeLength(message, bindIndex);
+
+            writeDescribeMessage(message, false);          // Describe message for portal
+            if (template == null) {
+                writeExecuteMessage(message);              // Execute message
+                writeSyncMessage(message);                 // Sync message
+            } else {
+                message.writeBytes(template.executeSyncBytes);
+            }
+        } catch (Throwable e) {
+            message.release();
+            throw e;
+        }
+        return Mono.just(message);
     }
 
 
     @Override
     public Publisher<ByteBuf> bindAndExecute() {
+        final PgStmtMeta sharedMeta = this.sharedMeta;
+        if (sharedMeta != null && !this.sharedParseSent) {
+            // Parse message with parameter types of shared metadata , so encoders match with server.
+            this.sharedParseSent = true;
+            final ByteBuf parseMessage = createParseMessage();
+            if (!this.statementName.isEmpty()) {
+                // named statement is cached, so don't close it after execution, see isNeedClose()
+                this.cachedStmt = this.adjutant.cachePostgreStmt(this.parsedStmt, this.statementName,
+                        sharedMeta.paramTypeList, this.sharedRowMeta, this.paramEncoders);
+            }
+            return Flux.concat(Mono.just(parseMessage), doBindAndExecute());
+        }
+        return doBindAndExecute();
+    }
+
+    /**
+     * @see #bindAndExecute()
+     */
+    private Publisher<ByteBuf> doBindAndExecute() {
         return Flux.create(sink -> {
             if (this.adjutant.inEventLoop()) {
-                continueBindExecuteInEventLoop(sink, 0);
+                continueBindExecuteInEventLoop(sink, 0, null);
             } else {
-                this.adjutant.execute(() -> continueBindExecuteInEventLoop(sink, 0));
+                this.adjutant.execute(() -> continueBindExecuteInEventLoop(sink, 0, null));
             }
         });
     }
@@ -221,9 +500,9 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
         if (!supportFetch()) {
             throw new IllegalStateException("Not support fetch.");
         }
-        List<ByteBuf> messageList = new ArrayList<>(1);
-        appendExecuteMessage(messageList);
-        return Flux.fromIterable(messageList);
+        final ByteBuf message = this.adjutant.allocator().buffer(executeMessageCapacity());
+        writeExecuteMessage(message);
+        return Mono.just(message);
     }
 
     @Override
@@ -231,8 +510,8 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
         if (!isNeedClose()) {
             throw new IllegalStateException("Don't need close.");
         }
-        final byte[] nameBytes = this.statementName.getBytes(this.adjutant.clientCharset());
-        final int length = 7 + nameBytes.length;
+        final byte[] nameBytes = this.statementNameBytes;
+        final int length = 6 + nameBytes.length;
         final ByteBuf message = this.adjutant.allocator().buffer(length + 1);
 
         message.writeByte(Messages.C);
@@ -257,68 +536,185 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
         }
     }
 
+    /**
+     * @return the parameter types of Bind message :
+     * <ul>
+     *     <li>{@link PrepareStmt} : from ParameterDescription , cached statement or shared metadata</li>
+     *     <li>{@link ServerCacheStmt} of one round trip : the types of cached statement</li>
+     *     <li>others : the types of first group , that are declared in Parse message</li>
+     * </ul>
+     * @see #bindParamOidInParseMessage(ByteBuf)
+     */
+    private List<? extends DataType> bindParamTypes() {
+        if (!this.oneRoundTrip) {
+            return this.stmtTask.getParamTypes();
+        } else if (this.parsedStmt instanceof ServerCacheStmt) {
+            return ((ServerCacheStmt) this.parsedStmt).getParamOidList();
+        }
+        List<DataType> paramTypeList = this.declaredParamTypes;
+        if (paramTypeList == null) {
+            final List<ParamValue> firstGroup = getBindGroup(0);
+            assert firstGroup != null;
+            paramTypeList = new ArrayList<>(firstGroup.size());
+            for (ParamValue paramValue : firstGroup) {
+                paramTypeList.add(paramValue.getType());
+            }
+            this.declaredParamTypes = paramTypeList;
+        }
+        return paramTypeList;
+    }
+
+    /**
+     * @see #executeOneRoundTrip()
+     */
+    private static boolean hasAsyncParameter(final List<ParamValue> paramGroup) {
+        Object value;
+        for (ParamValue paramValue : paramGroup) {
+            value = paramValue.getValue();
+            if (value instanceof PublisherParameter || value instanceof Path) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * @see #executeOneRoundTrip()
-     * @see #prepare()
-     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Parse (F)</a>
      */
     private ByteBuf createParseMessage() {
-        final Charset charset = this.clientCharset;
-        final String statementName = this.statementName;
+        final String sql = this.parsedStmt.postgreSql();
+        final int paramCount;
+        if (this.sharedMeta != null) {
+            paramCount = this.sharedMeta.paramTypeList.size();
+        } else if (this.stmt instanceof PrepareStmt) {
+            paramCount = 0;
+        } else {
+            paramCount = getBindGroup(0).size();
+        }
+        final List<String> evictedNames = this.adjutant.pollEvictedStmtNames();
+        final int capacity = closeMessagesCapacity(evictedNames) + parseMessageCapacity(sql, paramCount);
+        final ByteBuf message;
+        message = this.adjutant.allocator().buffer(capacity, Messages.MAX_CAPACITY);
+        try {
+            writeEvictedCloseMessages(evictedNames, message);
+            writeParseMessage(sql, message);
+        } catch (Throwable e) {
+            message.release();
+            throw e;
+        }
+        return message;
+    }
 
-        final byte[] sqlBytes;
-        sqlBytes = this.parsedStmt.postgreSql().getBytes(charset);
-        int capacity;
-        capacity = 7 + statementName.length() + sqlBytes.length;
-        if (!(this.stmt instanceof PrepareStmt)) {
-            capacity += 128;
+    private int closeMessagesCapacity(final List<String> evictedNames) {
+        int capacity = 0;
+        for (String name : evictedNames) {
+            // 'C' + length + 'S' + name + terminator
+            capacity += 7 + name.length();
         }
+        return capacity;
+    }
 
+    /**
+     * <p>
+     * Write Close messages of statements that is evicted from statement cache, piggy-backed on current round trip,
+     * server response CloseComplete for each, that is skipped by task.
+     * </p>
+     *
+     * @see TaskAdjutant#pollEvictedStmtNames()
+     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Close (F)</a>
+     */
+    private void writeEvictedCloseMessages(final List<String> evictedNames, final ByteBuf message) {
+        int startIndex;
+        for (String name : evictedNames) {
+            startIndex = message.writerIndex();
+            message.writeByte(Messages.C);
+            message.writeZero(Messages.LENGTH_SIZE); // placeholder of length
+            message.writeByte('S');
+            Messages.writeText(message, name, this.clientCharset);
+            message.writeByte(Messages.STRING_TERMINATOR);
+            Messages.writeLength(message, startIndex);
+        }
+    }
 
-        final ByteBuf message = this.adjutant.allocator().buffer(capacity, Messages.MAX_CAPACITY);
+    private void removeSharedMeta() {
+        final PostgreStmt stmt = this.parsedStmt;
+        this.adjutant.factory().parseCache.removeStmtMeta(stmt.originalSql(), stmt.isStandardConformingStrings());
+    }
+
+    private void recordParseNanos() {
+        final long startNanos = this.parseStartNanos;
+        if (startNanos == 0L) {
+            return;
+        }
+        this.parseStartNanos = 0L;
+        final PostgreStmt stmt = getCache();
+        // elapsed time contain one round trip , see RoundTripBaseline
+        final long parseNanos = this.adjutant.excludeRoundTrip(System.nanoTime() - startNanos);
+        (stmt == null ? this.parsedStmt : stmt).recordParseNanos(parseNanos);
+    }
+
+    /**
+     * @param paramCount the count of parameter type oid.
+     */
+    private int parseMessageCapacity(final String sql, final int paramCount) {
+        // 'P' + length + name + terminator + sql + terminator + oid count + oid list
+        final long capacity;
+        capacity = 9 + this.statementNameBytes.length + Messages.encodedBytes(sql, this.clientCharset) + (paramCount << 2);
+        if (capacity > Messages.MAX_CAPACITY) {
+            throw PgExceptions.tooLargeObject();
+        }
+        return (int) capacity;
+    }
+
+
+    /**
+     * @see #executeOneRoundTrip()
+     * @see #prepare()
+     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Parse (F)</a>
+     */
+    private void writeParseMessage(final String sql, final ByteBuf message) {
+        final int startIndex = message.writerIndex();
+        this.parseStartNanos = System.nanoTime() | 1L; // non-zero
 
         //  write Parse message
         message.writeByte(Messages.P);
         message.writeZero(Messages.LENGTH_SIZE); // placeholder of length
 
-        if (!statementName.isEmpty()) {
-            message.writeBytes(statementName.getBytes(charset)); //definite statement name for caching statement
-        }
+        message.writeBytes(this.statementNameBytes); //definite statement name for caching statement
         message.writeByte(Messages.STRING_TERMINATOR);
 
-        message.writeBytes(sqlBytes);
+        Messages.writeText(message, sql, this.clientCharset); // encode directly without intermediate byte array
         message.writeByte(Messages.STRING_TERMINATOR);
 
-        if (this.stmt instanceof PrepareStmt) {
+        if (this.sharedMeta != null) {
+            final List<DataType> paramTypeList = this.sharedMeta.paramTypeList;
+            message.writeShort(paramTypeList.size());
+            for (DataType type : paramTypeList) {
+                message.writeInt(((PgType) type).oid); // shared metadata only contain build-in type
+            }
+        } else if (this.stmt instanceof PrepareStmt) {
             message.writeShort(0); // PreparedStatement
         } else {
             bindParamOidInParseMessage(message);
         }
-        Messages.writeLength(message);
-        return message;
+        Messages.writeLength(message, startIndex);
+    }
+
+    private int executeMessageCapacity() {
+        // 'E' + length + portal + terminator + row count
+        return 10 + (supportFetch() ? this.portalNameBytes.length : 0);
     }
 
     /**
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Execute</a>
      */
-    private void appendExecuteMessage(List<ByteBuf> messageList) {
+    private void writeExecuteMessage(final ByteBuf message) {
         final boolean supportFetch = supportFetch();
-        final byte[] portalNameBytes;
-        if (supportFetch) {
-            final String portalName = Objects.requireNonNull(this.portalName, "this.portalName");
-            portalNameBytes = portalName.getBytes(this.adjutant.clientCharset());
-        } else {
-            portalNameBytes = new byte[0];
-        }
-        final int length = 9 + portalNameBytes.length;
-        final ByteBuf message = getByteBufByNeedCapacity(messageList, length + 1);
+        final byte[] portalNameBytes = supportFetch ? this.portalNameBytes : EMPTY_BYTES;
 
         message.writeByte(Messages.E);
-        message.writeInt(length);
-        if (portalNameBytes.length > 0) {
-            message.writeBytes(portalNameBytes);
-        }
+        message.writeInt(9 + portalNameBytes.length);
+        message.writeBytes(portalNameBytes);
         message.writeByte(Messages.STRING_TERMINATOR);
         if (supportFetch) {
             message.writeInt(this.fetchSize);
@@ -328,6 +724,11 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
     }
 
+    private int describeMessageCapacity(final boolean describeStatement) {
+        // 'D' + length + type + name + terminator
+        return 7 + (describeStatement ? this.statementNameBytes.length : this.portalNameBytes.length);
+    }
+
     /**
      * <p>Describe message :
      * <ul>
@@ -339,102 +740,194 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
      * @see #prepare()
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Describe (F)</a>
      */
-    private void appendDescribeMessage(final List<ByteBuf> messageList, final boolean describeStatement) {
-        final String name = describeStatement ? this.statementName : this.portalName;
-        final byte[] nameBytes;
-        if (PgStrings.hasText(name)) {
-            nameBytes = name.getBytes(this.adjutant.clientCharset());
-        } else {
-            nameBytes = new byte[0];
-        }
-        final int length = 6 + nameBytes.length, needCapacity = 1 + length;
-
-        final ByteBuf message = getByteBufByNeedCapacity(messageList, needCapacity);
+    private void writeDescribeMessage(final ByteBuf message, final boolean describeStatement) {
+        final byte[] nameBytes = describeStatement ? this.statementNameBytes : this.portalNameBytes;
 
         message.writeByte(Messages.D);
-        message.writeInt(length);
+        message.writeInt(6 + nameBytes.length);
         message.writeByte(describeStatement ? 'S' : 'P'); // S : response ParameterDescription and RowDescription ; P : response only RowDescription
-        if (nameBytes.length > 0) {
-            message.writeBytes(nameBytes);
-        }
+        message.writeBytes(nameBytes);
         message.writeByte(Messages.STRING_TERMINATOR);
 
     }
 
     /**
-     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Sync</a>
-     */
-    private void appendSyncMessage(final List<ByteBuf> messageList) {
-        writeSyncMessage(getByteBufByNeedCapacity(messageList, 5));
-    }
-
-    /**
-     * @see #appendSyncMessage(List)
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Sync (F)</a>
      */
-    private void writeSyncMessage(ByteBuf message) {
+    private static void writeSyncMessage(ByteBuf message) {
         message.writeByte(Messages.S);
         message.writeInt(Messages.LENGTH_SIZE); // length
     }
 
     /**
-     * @see #appendDescribeMessage(List, boolean)
-     * @see #appendExecuteMessage(List)
-     * @see #appendSyncMessage(List)
+     * @return the estimated bytes of Bind message, buffer grows when estimated capacity isn't enough.
      */
-    private ByteBuf getByteBufByNeedCapacity(final List<ByteBuf> messageList, final int needCapacity) {
-        final int messageSize = messageList.size();
-        final ByteBuf message;
-        if (messageSize > 0) {// netty generally return cache ByteBuf with capacity 1024,so we can append.
-            final ByteBuf lastMessage = messageList.get(messageSize - 1);
-            if (lastMessage.isReadOnly() || lastMessage.writableBytes() < needCapacity) {
-                message = this.adjutant.allocator().buffer(needCapacity);
-                messageList.add(message);
+    private int estimateBindCapacity(final List<ParamValue> paramGroup) {
+        // 'B' + length + portal terminator + statement terminator + format code count + value count
+        int capacity = 11 + this.portalNameBytes.length + this.statementNameBytes.length;
+        capacity += paramGroup.size() << 1; // format codes
+        Object value;
+        for (ParamValue paramValue : paramGroup) {
+            capacity += 4; // value length
+            value = paramValue.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof String) {
+                capacity += ((String) value).length();
+            } else if (value instanceof byte[]) {
+                capacity += ((byte[]) value).length;
             } else {
-                message = lastMessage;
+                capacity += 16;
             }
-        } else {
-            message = this.adjutant.allocator().buffer(needCapacity);
-            messageList.add(message);
         }
-        return message;
+        final PgRowMeta rowMeta = knownRowMeta();
+        capacity += 2 + (rowMeta == null ? 0 : rowMeta.columnMetaArray.length << 1); // result format codes
+        return capacity;
     }
 
 
     /**
+     * @return new buffer of batch window, the Bind/Describe/Execute messages of multi group are written to it.
+     * @see #continueBindExecuteInEventLoop(FluxSink, int, ByteBuf)
+     */
+    private ByteBuf createWindowMessage(final List<ParamValue> paramGroup) {
+        final int groupCapacity;
+        groupCapacity = estimateBindCapacity(paramGroup)
+                + describeMessageCapacity(false)
+                + executeMessageCapacity();
+        final int capacity = Math.max(Math.min(this.batchWindowBytes, Messages.MAX_CAPACITY - SYNC_MESSAGE_SIZE),
+                groupCapacity) + SYNC_MESSAGE_SIZE;
+        return this.adjutant.allocator().buffer(capacity, Messages.MAX_CAPACITY);
+    }
+
+    /**
+     * <p>
+     * Write Bind message until parameter values.
+     * </p>
+     *
      * @see #executeOneRoundTrip()
+     * @see #continueBindExecuteInEventLoop(FluxSink, int, ByteBuf)
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Bind (F)</a>
      */
-    private ByteBuf createBindMessage(final int batchIndex, final int groupSize) throws JdbdException {
+    private void writeBindHeader(final int batchIndex, final List<ParamValue> paramGroup, final ByteBuf message)
+            throws JdbdException {
+
+        final BindTemplate template = this.bindTemplate;
+        if (template != null) {
+            writeBindHeaderWithTemplate(template, batchIndex, paramGroup, message);
+            return;
+        }
 
-        final Charset clientCharset = this.clientCharset;
-        final ByteBuf message = this.adjutant.allocator().buffer(1024);
         message.writeByte(Messages.B);
         message.writeZero(Messages.LENGTH_SIZE);//placeholder of length
         // The name of the destination portal (an empty string selects the unnamed portal).
-        final String portalName = this.portalName;
-        if (!portalName.isEmpty()) {
-            message.writeBytes(portalName.getBytes(clientCharset));
-        }
+        message.writeBytes(this.portalNameBytes);
         message.writeByte(Messages.STRING_TERMINATOR);
         // The name of the source prepared statement (an empty string selects the unnamed prepared statement).
-        final String statementName = this.statementName;
-        if (PgStrings.hasText(statementName)) {
-            message.writeBytes(statementName.getBytes(clientCharset));
-        }
+        message.writeBytes(this.statementNameBytes);
         message.writeByte(Messages.STRING_TERMINATOR);
 
-        final List<? extends DataType> paramTypeList = this.stmtTask.getParamTypes();
+        final List<? extends DataType> paramTypeList = bindParamTypes();
         final int paramCount = paramTypeList.size();
-        if (groupSize != paramCount) {
-            throw PgExceptions.parameterCountMatch(batchIndex, paramCount, groupSize);
+        if (paramGroup.size() != paramCount) {
+            throw PgExceptions.parameterCountMatch(batchIndex, paramCount, paramGroup.size());
         }
+        final ParamEncoder[] paramEncoders = this.paramEncoders;
         message.writeShort(paramCount); // The number of parameter format codes
-        for (DataType type : paramTypeList) {
-            message.writeShort(PgBinds.decideFormatCode(type));
+        for (int i = 0; i < paramCount; i++) {
+            message.writeShort(bindFormatCode(paramEncoders, i, paramGroup.get(i), paramTypeList.get(i)));
         }
         message.writeShort(paramCount); // The number of parameter values
-        return message;
+    }
+
+    /**
+     * <p>
+     * Write pre-encoded header, then patch the format code of the parameter whose value isn't accepted by encoder.
+     * </p>
+     *
+     * @see #writeBindHeader(int, List, ByteBuf)
+     */
+    private void writeBindHeaderWithTemplate(final BindTemplate template, final int batchIndex,
+                                             final List<ParamValue> paramGroup, final ByteBuf message) {
+        final int[] formatCodes = template.formatCodes;
+        final int paramCount = formatCodes.length;
+        if (paramGroup.size() != paramCount) {
+            throw PgExceptions.parameterCountMatch(batchIndex, paramCount, paramGroup.size());
+        }
+        final List<? extends DataType> paramTypeList = bindParamTypes();
+        final ParamEncoder[] paramEncoders = this.paramEncoders;
+
+        final int formatCodeIndex = message.writerIndex() + template.formatCodeOffset;
+        message.writeBytes(template.headerBytes);
+
+        for (int i = 0, formatCode; i < paramCount; i++) {
+            formatCode = bindFormatCode(paramEncoders, i, paramGroup.get(i), paramTypeList.get(i));
+            if (formatCode != formatCodes[i]) {
+                message.setShort(formatCodeIndex + (i << 1), formatCode);
+            }
+        }
+    }
+
+    /**
+     * @see #writeBindHeader(int, List, ByteBuf)
+     * @see #writeBindHeaderWithTemplate(BindTemplate, int, List, ByteBuf)
+     */
+    private int bindFormatCode(final @Nullable ParamEncoder[] paramEncoders, final int paramIndex,
+                               final ParamValue paramValue, final DataType type) {
+        final Object value = paramValue.getValue();
+        final ParamEncoder paramEncoder;
+        final int formatCode;
+        if (paramEncoders != null
+                && value != null
+                && (paramEncoder = paramEncoders[paramIndex]) != null
+                && paramEncoder.accept(value)) {
+            formatCode = paramEncoder.formatCode();
+        } else {
+            formatCode = paramFormatCode(type);
+        }
+        return formatCode;
+    }
+
+    /**
+     * @see #createBindMessage(int, List)
+     */
+    private int paramFormatCode(final DataType type) {
+        final PgEncoder encoder;
+        encoder = encoderOf(type);
+        final int formatCode;
+        if (encoder == null) {
+            formatCode = PgBinds.decideFormatCode(type);
+        } else {
+            formatCode = encoder.binaryFormat() ? 1 : 0;
+        }
+        return formatCode;
+    }
+
+    /**
+     * @see #continueWriteBindParam(ByteBuf, int, int, int, List, FluxSink)
+     */
+    private static int resultFormatCode(final PgColumnMeta meta) {
+        return meta.binaryResult ? 1 : 0;
+    }
+
+    /**
+     * @return null : RowDescription is unknown or statement don't return result set.
+     * @see #continueWriteBindParam(ByteBuf, int, int, int, List, FluxSink)
+     */
+    @Nullable
+    private PgRowMeta knownRowMeta() {
+        final ResultRowMeta rowMeta;
+        rowMeta = this.stmtTask.getRowMeta();
+        final PgRowMeta pgRowMeta;
+        if (rowMeta instanceof PgRowMeta) { // from prior Describe
+            pgRowMeta = (PgRowMeta) rowMeta;
+        } else if (this.parsedStmt instanceof ServerCacheStmt) {
+            pgRowMeta = ((ServerCacheStmt) this.parsedStmt).getRowMeta();
+        } else {
+            pgRowMeta = null;
+        }
+        return pgRowMeta;
     }
 
     /**
@@ -532,35 +1025,72 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
     }
 
     /**
+     * <p>
+     * Pipeline the Bind/Describe/Execute messages of all group behind single Sync message.
+     * The messages are written to window buffer, the window is emitted when it reach {@link #batchWindowBytes},
+     * and next window is written after channel is writable, so memory is bounded no matter how large the batch is.
+     * If {@link #yieldBetweenWindows} is true, next window is written by new event loop task, so the tasks of other channels
+     * on same event loop run between windows. All windows are written in event loop, because the state of task and
+     * statement cache is only accessed in event loop.
+     * </p>
+     *
+     * @param message null or the window that have been written some group.
      * @see #bindAndExecute()
      * @see ParameterSubscriber#onCompleteInEventLoop()
      */
-    private void continueBindExecuteInEventLoop(final FluxSink<ByteBuf> sink, int batchIndex) {
-        ByteBuf message = null;
+    private void continueBindExecuteInEventLoop(final FluxSink<ByteBuf> sink, int batchIndex,
+                                                @Nullable ByteBuf message) {
+        int bindIndex = -1;
         try {
-            List<ParamValue> nextBindGroup = getBindGroup(batchIndex);
-            while (nextBindGroup != null) {
-                message = createBindMessage(batchIndex, nextBindGroup.size());
-                if (continueWriteBindParam(message, batchIndex, 0, nextBindGroup, sink)) {
-                    nextBindGroup = handBindComplete(message, batchIndex, sink);
-                } else {
-                    // exists Publisher type parameter.
-                    break;
+            List<ParamValue> bindGroup;
+            while ((bindGroup = getBindGroup(batchIndex)) != null) {
+                if (message != null && message.readableBytes() >= this.batchWindowBytes) {
+                    sink.next(message);
+                    message = null;
+                    if (!this.adjutant.isChannelWritable()) {
+                        final int nextBatchIndex = batchIndex;
+                        this.adjutant.onChannelWritable(() -> continueBindExecuteInEventLoop(sink, nextBatchIndex, null)
+                                , sink::error);
+                        return;
+                    } else if (this.yieldBetweenWindows) {
+                        final int nextBatchIndex = batchIndex;
+                        this.adjutant.execute(() -> continueBindExecuteInEventLoop(sink, nextBatchIndex, null));
+                        return;
+                    }
+                }
+                if (message == null) {
+                    message = createWindowMessage(bindGroup);
+                }
+                bindIndex = message.writerIndex();
+                writeBindHeader(batchIndex, bindGroup, message);
+                if (!continueWriteBindParam(message, bindIndex, batchIndex, 0, bindGroup, sink)) {
+                    if (this.streamParamIndex > -1) {
+                        // exists large Path parameter, PathParameterStreamer continue.
+                        startPathStream(sink, message, bindIndex, batchIndex, bindGroup);
+                    }
+                    // else exists Publisher type parameter, ParameterSubscriber continue.
+                    return;
                 }
-                message = null; // avoid createBindMessage throw error.
+                handBindComplete(message, bindIndex, batchIndex);
                 batchIndex++;
             }
+
+            if (message != null) {
+                sink.next(message);
+            }
+            sink.complete();
         } catch (Throwable e) {
             if (message != null) {
-                handleBindError(message, e, batchIndex, sink);
+                handleBindError(message, bindIndex, e, batchIndex, sink);
+            } else {
+                handleBindError(null, -1, e, batchIndex, sink);
             }
-
         }
     }
 
 
     /**
-     * @see #continueWriteBindParam(ByteBuf, int, int, List, FluxSink)
+     * @see #continueWriteBindParam(ByteBuf, int, int, int, List, FluxSink)
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Bind message</a>
      */
     private void bindParameter(final ByteBuf message, final int batchIndex, final PgType pgType,
@@ -608,7 +1138,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 } else {
                     value = PgBinds.bindToDecimal(batchIndex, pgType, paramValue).toPlainString();
                 }
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case NUMRANGE:
@@ -625,7 +1155,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             case UUID: {
                 final String value;
                 value = PgBinds.bindToString(batchIndex, pgType, paramValue);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case VARCHAR:
@@ -636,20 +1166,20 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 } else {
                     final String value;
                     value = PgBinds.bindToString(batchIndex, pgType, paramValue);
-                    message.writeBytes(value.getBytes(clientCharset));
+                    Messages.writeText(message, value, clientCharset);
                 }
             }
             break;
             case BIT: {// text format
                 final String value;
                 value = PgBinds.bindNonNullToBit(batchIndex, pgType, paramValue);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case VARBIT: {// text format
                 final String value;
                 value = PgBinds.bindNonNullToVarBit(batchIndex, pgType, paramValue);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case BYTEA: {// binary format
@@ -660,14 +1190,14 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 final String value;
                 value = PgBinds.bindToLocalTime(batchIndex, pgType, paramValue)
                         .format(PgTimes.ISO_LOCAL_TIME_FORMATTER);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case TIMETZ: {// text format
                 final String value;
                 value = PgBinds.bindToOffsetTime(batchIndex, pgType, paramValue)
                         .format(PgTimes.ISO_OFFSET_TIME_FORMATTER);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             case DATE: {// text format
@@ -685,7 +1215,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             case INTERVAL: {// text format
                 final String value;
                 value = PgBinds.bindToInterval(batchIndex, pgType, paramValue);
-                message.writeBytes(value.getBytes(clientCharset));
+                Messages.writeText(message, value, clientCharset);
             }
             break;
             // below bind array with non-array value.
@@ -761,7 +1291,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
     }
 
     /**
-     * @see #continueWriteBindParam(ByteBuf, int, int, List, FluxSink)
+     * @see #continueWriteBindParam(ByteBuf, int, int, int, List, FluxSink)
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Bind message</a>
      */
     private void writeNonNullArray(final int batchIndex, final PgType pgType, ParamValue paramValue, ByteBuf message)
@@ -884,7 +1414,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             }
         }
 
-        message.writeBytes(v.getBytes(clientCharset));
+        Messages.writeText(message, v, clientCharset);
 
     }
 
@@ -938,7 +1468,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             value = PgBinds.bindToLocalDate(batchIndex, pgType, paramValue)
                     .format(PgTimes.PG_ISO_LOCAL_DATE_FORMATTER);
         }
-        message.writeBytes(value.getBytes(this.adjutant.clientCharset()));
+        Messages.writeText(message, value, this.adjutant.clientCharset());
     }
 
     /**
@@ -963,7 +1493,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             value = PgBinds.bindToLocalDateTime(batchIndex, pgType, paramValue)
                     .format(PgTimes.PG_ISO_LOCAL_DATETIME_FORMATTER);
         }
-        message.writeBytes(value.getBytes(this.adjutant.clientCharset()));
+        Messages.writeText(message, value, this.adjutant.clientCharset());
     }
 
     /**
@@ -988,7 +1518,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             value = PgBinds.bindToOffsetDateTime(batchIndex, pgType, paramValue)
                     .format(PgTimes.PG_ISO_OFFSET_DATETIME_FORMATTER);
         }
-        message.writeBytes(value.getBytes(this.adjutant.clientCharset()));
+        Messages.writeText(message, value, this.adjutant.clientCharset());
     }
 
 
@@ -1004,7 +1534,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             message.writeBytes((byte[]) bindValue);
         } else {
             final String text = PgBinds.bindToString(batchIndex, pgType, paramValue);
-            message.writeBytes(text.getBytes(this.adjutant.clientCharset()));
+            Messages.writeText(message, text, this.adjutant.clientCharset());
         }
     }
 
@@ -1080,24 +1610,30 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
 
     /**
+     * @param channelSink null when paramGroup no {@link PublisherParameter} and no {@link Path}.
      * @return true : no {@link Publisher} ,all parameter write complete; false : async bind {@link Publisher}
+     * or stream large {@link Path} ( {@link #streamParamIndex} is set)
      * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">Bind</a>
-     * @see #continueBindExecuteInEventLoop(FluxSink, int)
+     * @see #continueBindExecuteInEventLoop(FluxSink, int, ByteBuf)
      */
-    private boolean continueWriteBindParam(final ByteBuf message, final int batchIndex, int paramIndex,
-                                           final List<ParamValue> paramGroup, final FluxSink<ByteBuf> channelSink)
+    private boolean continueWriteBindParam(final ByteBuf message, final int bindIndex, final int batchIndex,
+                                           int paramIndex,
+                                           final List<ParamValue> paramGroup,
+                                           final @Nullable FluxSink<ByteBuf> channelSink)
             throws JdbdException {
 
         final int paramCount = paramGroup.size();
-        if (paramIndex < 0 || (paramCount > 0 && paramIndex >= paramCount)) {
+        if (paramIndex < 0 || paramIndex > paramCount) {
             throw new IllegalArgumentException(String.format("paramIndex[%s] error.", paramIndex));
         }
 
-        final List<DataType> paramTypeList = this.paramTypeList;
-        final boolean prepareStmt = this.stmt instanceof PrepareStmt;
+        final List<? extends DataType> paramTypeList = bindParamTypes();
+        final ParamEncoder[] paramEncoders = this.paramEncoders;
         ParamValue paramValue;
         DataType dataType;
         Object value;
+        PgEncoder encoder;
+        ParamEncoder paramEncoder;
 
         for (int valueLengthIndex, valueEndIndex; paramIndex < paramCount; paramIndex++) {
             paramValue = paramGroup.get(paramIndex);
@@ -1112,6 +1648,14 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 continue;
             }
 
+            // the type that server have been told , so all group of batch are encoded as same type.
+            dataType = paramTypeList.get(paramIndex);
+            if (value instanceof Path && channelSink != null && isStreamPath(dataType, (Path) value)) {
+                // large file is streamed by PathParameterStreamer,see startPathStream()
+                this.streamParamIndex = paramIndex;
+                break;
+            }
+
             valueLengthIndex = message.writerIndex();
             message.writeZero(4); // placeholder of parameter value length.
 
@@ -1128,35 +1672,19 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 }
                 break;
             }
-            if (prepareStmt) {
-                dataType = paramTypeList.get(paramIndex);
-            } else {
-                dataType = paramValue.getType();
-            }
 
-            if (dataType.isArray()) {
-                if (value instanceof String || !(dataType instanceof PgType)) {
-                    bindStringToArray(batchIndex, paramValue, message);
-                } else if (value.getClass().isArray()) {
-                    writeArrayObject(batchIndex, paramValue, message);
-                } else {
-                    throw PgExceptions.nonSupportBindSqlTypeError(batchIndex, paramValue);
-                }
-            } else if (dataType instanceof PgType) {
-                bindBuildInType(batchIndex, paramValue, message);
-            } else if (isIllegalTypeName(dataType)) {
-                throw PgExceptions.errorTypeName(dataType);
-            } else if (value instanceof String) {
-                message.writeBytes(((String) value).getBytes(this.clientCharset));
+            if (paramEncoders != null
+                    && (paramEncoder = paramEncoders[paramIndex]) != null
+                    && paramEncoder.accept(value)) {
+                // encoder decided by ParameterDescription, see createBindMessage(int,List)
+                paramEncoder.encode(batchIndex, paramValue, message, this.clientCharset);
+            } else if ((encoder = encoderOf(dataType)) != null) {
+                // encoder registered by application developer has priority over build-in
+                encoder.encode(value, message, this.clientCharset);
+            } else if (!(value instanceof byte[]) && value.getClass().isArray()) {
+                writeNonNullArray(batchIndex, bindPgType(dataType), paramValue, message);// write array parameter
             } else {
-                throw PgExceptions.nonSupportBindSqlTypeError(stmtIndex, paramValue);
-            }
-
-
-            if (!(value instanceof byte[]) && value.getClass().isArray()) {
-                writeNonNullArray(batchIndex, dataType, paramValue, message);// write array parameter
-            } else {
-                bindParameter(message, batchIndex, dataType, paramValue); // write non-array parameter
+                bindParameter(message, batchIndex, bindPgType(dataType), paramValue); // write non-array parameter
             }
             valueEndIndex = message.writerIndex();
 
@@ -1171,15 +1699,17 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             if (message.maxWritableBytes() < (paramCount << 1) + 2) {
                 throw PgExceptions.tooLargeObject();
             }
-            final ResultRowMeta rowMeta = this.stmtTask.getRowMeta();
-            if (rowMeta == null) {
-                message.writeShort(0);
+            final PgRowMeta rowMeta;
+            if (this.bindTemplate != null) {
+                message.writeBytes(this.bindTemplate.resultFormatBytes);
+            } else if ((rowMeta = knownRowMeta()) == null) {
+                message.writeShort(0); // all result columns use text format
             } else {
-                final int columnCount = rowMeta.getColumnCount();
-                message.writeShort(columnCount);
-                for (int i = 0; i < columnCount; i++) {
+                final PgColumnMeta[] columnMetaArray = rowMeta.columnMetaArray;
+                message.writeShort(columnMetaArray.length);
+                for (PgColumnMeta meta : columnMetaArray) {
                     // write result format
-                    message.writeShort(PgBinds.decideFormatCode((PgType) rowMeta.getSQLType(i)));
+                    message.writeShort(resultFormatCode(meta));
                 }
             }
         }
@@ -1188,55 +1718,189 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
     }
 
     /**
-     * @see #continueBindExecuteInEventLoop(FluxSink, int)
+     * <p>
+     * Write Bind message length,Describe message,Execute message and write Sync message if last group.
+     * </p>
+     *
+     * @param bindIndex the start index of Bind message in message.
+     * @see #continueBindExecuteInEventLoop(FluxSink, int, ByteBuf)
      * @see ParameterSubscriber#onCompleteInEventLoop()
      */
-    @Nullable
-    private List handBindComplete(final ByteBuf bindMessage, final int batchIndex
-            , FluxSink<ByteBuf> channelSink) {
-
-
-        final List nextBindGroup = getBindGroup(batchIndex + 1);
+    private void handBindComplete(final ByteBuf message, final int bindIndex, final int batchIndex) {
+        Messages.writeLength(message, bindIndex); // write bind message length .
+        writeBindTrailer(message, batchIndex);
+    }
 
-        Messages.writeLength(bindMessage); // write bind message length .
+    /**
+     * <p>
+     * Write Describe message,Execute message and write Sync message if last group.
+     * </p>
+     *
+     * @see #handBindComplete(ByteBuf, int, int)
+     * @see PathParameterStreamer
+     */
+    private void writeBindTrailer(final ByteBuf message, final int batchIndex) {
+        final boolean lastGroup = getBindGroup(batchIndex + 1) == null;
 
-        final List<ByteBuf> messageList = new ArrayList<>(2);
-        messageList.add(bindMessage);               // Bind message
         if (this.stmtTask.getRowMeta() != null) {
-            appendDescribeMessage(messageList, false);  // Describe message for portal
+            writeDescribeMessage(message, false);  // Describe message for portal
         }
-        appendExecuteMessage(messageList);          // Execute message
-
-        if (nextBindGroup == null) {
-            appendSyncMessage(messageList);         // Sync message
+        if (lastGroup && this.bindTemplate != null) {
+            message.writeBytes(this.bindTemplate.executeSyncBytes); // Execute and Sync message
+        } else {
+            writeExecuteMessage(message);          // Execute message
+            if (lastGroup) {
+                writeSyncMessage(message);         // single Sync message for all group
+            }
         }
+    }
 
-        for (ByteBuf message : messageList) {
-            channelSink.next(message);
+    /**
+     * @return true : the {@link Path} parameter is streamed to channel by chunks instead of reading into Bind message.
+     * @see #continueWriteBindParam(ByteBuf, int, int, int, List, FluxSink)
+     */
+    private boolean isStreamPath(final DataType dataType, final Path path) {
+        if (!(dataType instanceof PgType)) {
+            return false;
         }
-        if (nextBindGroup == null) {
-            channelSink.complete();
+        switch ((PgType) dataType) {
+            case BYTEA:
+                break;
+            case TEXT:
+            case XML:
+            case JSON: {
+                if (!this.clientUtf8) {
+                    // non-utf8 client charset need transcode ,see writePathWithString()
+                    return false;
+                }
+            }
+            break;
+            default:
+                return false;
         }
-        return nextBindGroup;
+        try {
+            return Files.size(path) >= this.batchWindowBytes;
+        } catch (IOException e) {
+            // error is reported by writePathWithBinary() or writePathWithString()
+            return false;
+        }
+    }
+
+    /**
+     * @see #isStreamPath(DataType, Path)
+     */
+    /**
+     * @return {@link PgType#UNSPECIFIED} for user defined type and internal type, they are text format,
+     * see {@link PgBinds#decideFormatCode(DataType)}.
+     */
+    private static PgType bindPgType(final DataType dataType) {
+        return dataType instanceof PgType ? (PgType) dataType : PgType.UNSPECIFIED;
     }
 
-    private void handleBindError(final ByteBuf message, Throwable error, final int batchIndex
-            , FluxSink<ByteBuf> channelSInk) {
+    private PgType pathTypeOf(final int paramIndex, final ParamValue paramValue) {
+        return bindPgType(bindParamTypes().get(paramIndex));
+    }
 
-        if (error instanceof IndexOutOfBoundsException
+    /**
+     * <p>
+     * Write the rest of Bind message of current group as segments,the {@link Path} parameter is a segment that is read
+     * by chunks when channel is writable,so memory is bounded by {@link #batchWindowBytes} no matter how large the file is.
+     * </p>
+     *
+     * @param message   the window that have been written the Bind message before the {@link Path} parameter.
+     * @param bindIndex the start index of Bind message in message.
+     * @see #continueBindExecuteInEventLoop(FluxSink, int, ByteBuf)
+     */
+    private void startPathStream(final FluxSink<ByteBuf> sink, final ByteBuf message, final int bindIndex,
+                                 final int batchIndex, final List<ParamValue> bindGroup) {
+        final List<Object> partList = new ArrayList<>();
+        partList.add(message);
+        ByteBuf trailer = null;
+        try {
+            int paramIndex = this.streamParamIndex;
+            ParamValue paramValue;
+            long bindLength = message.writerIndex() - bindIndex - 1, size;
+            ByteBuf segment = message;
+            while (paramIndex > -1) {
+                this.streamParamIndex = -1;
+                paramValue = bindGroup.get(paramIndex);
+                size = Files.size((Path) paramValue.getNonNull());
+                bindLength += 4 + size;
+                if (bindLength > Integer.MAX_VALUE) {
+                    throw PgExceptions.tooLargeObject();
+                }
+                segment.writeInt((int) size); // parameter value length
+                partList.add(new PathPart(pathTypeOf(paramIndex, paramValue), paramValue, size));
+
+                segment = this.adjutant.allocator().buffer(128, Messages.MAX_CAPACITY);
+                partList.add(segment);
+                if (!continueWriteBindParam(segment, bindIndex, batchIndex, paramIndex + 1, bindGroup, sink)
+                        && this.streamParamIndex < 0) {
+                    throw new JdbdException("Publisher parameter and large Path parameter can't exist in same group.");
+                }
+                bindLength += segment.readableBytes();
+                paramIndex = this.streamParamIndex;
+            }
+            if (bindLength > Integer.MAX_VALUE) {
+                throw PgExceptions.tooLargeObject();
+            }
+            message.setInt(bindIndex + 1, (int) bindLength); // write bind message length .
+
+            trailer = this.adjutant.allocator().buffer(128, Messages.MAX_CAPACITY);
+            writeBindTrailer(trailer, batchIndex);
+        } catch (Throwable e) {
+            this.streamParamIndex = -1;
+            Object part;
+            for (int i = 1, partCount = partList.size(); i < partCount; i++) {
+                part = partList.get(i);
+                if (part instanceof ByteBuf) {
+                    ((ByteBuf) part).release();
+                }
+            }
+            if (trailer != null) {
+                trailer.release();
+            }
+            handleBindError(message, bindIndex, e, batchIndex, sink);
+            return;
+        }
+        new PathParameterStreamer(sink, batchIndex, partList, trailer)
+                .streamInEventLoop();
+    }
+
+    /**
+     * <p>
+     * The messages of the groups before error group are still sent with Sync message,
+     * so the result of each group still map to its batch index.
+     * </p>
+     *
+     * @param message   null or the window that contains the error group.
+     * @param bindIndex the start index of error group in message.
+     */
+    private void handleBindError(final @Nullable ByteBuf message, final int bindIndex, Throwable error,
+                                 final int batchIndex, FluxSink<ByteBuf> channelSInk) {
+
+        if (message != null
+                && error instanceof IndexOutOfBoundsException
                 && (Integer.MAX_VALUE - message.readableBytes()) < 1024) { // here only simple type ,eg: int,boolean
             this.stmtTask.addErrorToTask(PgExceptions.tooLargeObject());
         } else {
             this.stmtTask.addErrorToTask(error);
         }
-        if (message.refCnt() > 0) {
-            message.release();
-        }
 
-        if (batchIndex > 0) {
-            final ByteBuf syncMessage = this.adjutant.allocator().buffer(5);
-            writeSyncMessage(syncMessage);
-            channelSInk.next(syncMessage);
+        if (message != null && bindIndex > 0 && message.refCnt() > 0) {
+            // discard error group, send the groups before it.
+            message.writerIndex(bindIndex);
+            writeSyncMessage(message);
+            channelSInk.next(message);
+        } else {
+            if (message != null && message.refCnt() > 0) {
+                message.release();
+            }
+            if (batchIndex > 0) {
+                final ByteBuf syncMessage = this.adjutant.allocator().buffer(SYNC_MESSAGE_SIZE);
+                writeSyncMessage(syncMessage);
+                channelSInk.next(syncMessage);
+            }
         }
         channelSInk.complete(); // don't emit error to netty channel
         if (batchIndex == 0) {
@@ -1302,6 +1966,19 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
         return onlyOne;
     }
 
+    private static int getGroupCount(ParamSingleStmt stmt) {
+        if (stmt instanceof PrepareStmt) {
+            stmt = ((PrepareStmt) stmt).getStmt();
+        }
+        final int groupCount;
+        if (stmt instanceof ParamBatchStmt) {
+            groupCount = ((ParamBatchStmt) stmt).getGroupList().size();
+        } else {
+            groupCount = 1;
+        }
+        return groupCount;
+    }
+
     private static int getFirstBatchBindCount(final ParamSingleStmt stmt) {
         final int bindCount;
         if (stmt instanceof ParamStmt) {
@@ -1334,6 +2011,8 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
         private final int valueLengthIndex;
 
+        private final int bindIndex;
+
         private final int paramIndex;
 
         private final FluxSink<ByteBuf> channelSInk;
@@ -1354,12 +2033,13 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
 
         private boolean end;
 
-        private ParameterSubscriber(ByteBuf message, final int batchIndex, int paramIndex
+        private ParameterSubscriber(ByteBuf message, final int bindIndex, final int batchIndex, int paramIndex
                 , PgType pgType, FluxSink<ByteBuf> channelSInk) {
             this.valueLengthIndex = message.writerIndex();
             message.writeZero(Messages.LENGTH_SIZE); // placeholder parameter value length
 
             this.message = message;
+            this.bindIndex = bindIndex;
             this.batchIndex = batchIndex;
             this.paramIndex = paramIndex;
             this.channelSInk = channelSInk;
@@ -1410,7 +2090,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 return;
             }
             this.end = true;
-            List nextBindGroup = null;
+            boolean bindComplete = false;
             final ByteBuf message = this.message;
             try {
                 List bindGroup = getBindGroup(this.batchIndex);
@@ -1426,14 +2106,19 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 message.writerIndex(valueEndIndex);
 
                 final int nextIndex = this.paramIndex + 1;
-                if (continueWriteBindParam(message, this.batchIndex, nextIndex, bindGroup, this.channelSInk)) {
-                    nextBindGroup = handBindComplete(message, this.batchIndex, this.channelSInk);
+                if (continueWriteBindParam(message, this.bindIndex, this.batchIndex, nextIndex, bindGroup,
+                        this.channelSInk)) {
+                    handBindComplete(message, this.bindIndex, this.batchIndex);
+                    bindComplete = true;
+                } else if (streamParamIndex > -1) {
+                    startPathStream(this.channelSInk, message, this.bindIndex, this.batchIndex, bindGroup);
                 }
             } catch (Throwable e) {
-                handleBindError(message, e, this.batchIndex, this.channelSInk);
+                handleBindError(message, this.bindIndex, e, this.batchIndex, this.channelSInk);
             }
-            if (nextBindGroup != null) {
-                continueBindExecuteInEventLoop(this.channelSInk, this.batchIndex + 1);
+            if (bindComplete) {
+                // continue pipeline next group in same window
+                continueBindExecuteInEventLoop(this.channelSInk, this.batchIndex + 1, message);
             }
 
         }
@@ -1446,7 +2131,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
             String msg = String.format("batch[%s] parameter[%s] Publisher error.", this.batchIndex, this.paramIndex);
             final Throwable error = new LongDataReadException(msg, t);
             this.error = error;
-            handleBindError(this.message, error, this.batchIndex, this.channelSInk);
+            handleBindError(this.message, this.bindIndex, error, this.batchIndex, this.channelSInk);
         }
 
         private void onNextInEventLoop(final Object obj) {
@@ -1458,7 +2143,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 String msg = String.format("batch[%s] parameter[%s] Publisher element isn't byte[]."
                         , this.batchIndex, this.paramIndex);
                 cancelSubscribe();
-                handleBindError(this.message, new SQLException(msg), this.batchIndex, this.channelSInk);
+                handleBindError(this.message, this.bindIndex, new SQLException(msg), this.batchIndex, this.channelSInk);
                 return;
             }
 
@@ -1482,7 +2167,7 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
                 this.error = error;
                 stmtTask.addErrorToTask(error);
                 cancelSubscribe();
-                handleBindError(this.message, error, this.batchIndex, this.channelSInk);
+                handleBindError(this.message, this.bindIndex, error, this.batchIndex, this.channelSInk);
             }
 
         }
@@ -1503,4 +2188,188 @@ final class PgExtendedCommandWriter extends CommandWriter implements ExtendedCom
     }
 
 
+
+    /**
+     * <p>
+     * This class emit the segments of Bind message that contains large {@link Path} parameter,
+     * the file is read by chunks ,next chunk is read only when channel is writable, see {@link FileChunks}.
+     * If read file failure after the Bind message have been partly sent,the rest bytes of file is filled with zero
+     * to keep the declared Bind message length,and the Execute message of current group is replaced with Sync message,
+     * so server don't execute current group.
+     * </p>
+     *
+     * @see #startPathStream(FluxSink, ByteBuf, int, int, List)
+     */
+    private final class PathParameterStreamer {
+
+        private final FluxSink<ByteBuf> channelSink;
+
+        private final int batchIndex;
+
+        private final List<Object> partList;
+
+        private final ByteBuf trailer;
+
+        private int partIndex;
+
+        private FileChannel fileChannel;
+
+        private long remainBytes = -1;
+
+        private Throwable error;
+
+        private PathParameterStreamer(FluxSink<ByteBuf> channelSink, int batchIndex, List<Object> partList,
+                                      ByteBuf trailer) {
+            this.channelSink = channelSink;
+            this.batchIndex = batchIndex;
+            this.partList = partList;
+            this.trailer = trailer;
+        }
+
+        private void streamInEventLoop() {
+            final List<Object> partList = this.partList;
+            final int partCount = partList.size();
+            final FluxSink<ByteBuf> sink = this.channelSink;
+            if (sink.isCancelled()) {
+                // task end or channel close, stop reading file.
+                releaseRest();
+                return;
+            }
+            try {
+                Object part;
+                while (this.partIndex < partCount) {
+                    part = partList.get(this.partIndex);
+                    if (part instanceof ByteBuf) {
+                        partList.set(this.partIndex++, null); // netty release the segment
+                        sink.next((ByteBuf) part);
+                        continue;
+                    }
+                    writeChunk((PathPart) part);
+                    if (this.remainBytes == 0) {
+                        closeFileChannel();
+                        this.remainBytes = -1;
+                        this.partIndex++;
+                    }
+                    if (!adjutant.isChannelWritable()) {
+                        adjutant.onChannelWritable(this::streamInEventLoop, this::onChannelError);
+                        return;
+                    }
+                }
+            } catch (Throwable e) {
+                handleStreamError(e);
+                return;
+            }
+
+            if (this.error == null) {
+                // continue pipeline next group with trailer of current group as window
+                continueBindExecuteInEventLoop(sink, this.batchIndex + 1, this.trailer);
+            } else {
+                this.trailer.release();
+                final ByteBuf syncMessage = adjutant.allocator().buffer(SYNC_MESSAGE_SIZE);
+                writeSyncMessage(syncMessage);
+                sink.next(syncMessage);
+                sink.complete(); // don't emit error to netty channel
+            }
+        }
+
+        private void writeChunk(final PathPart part) throws IOException {
+            if (this.remainBytes < 0) {
+                this.remainBytes = part.size;
+                if (this.error == null) {
+                    this.fileChannel = FileChannel.open((Path) part.paramValue.getNonNull(), StandardOpenOption.READ);
+                }
+            }
+            final int chunkSize;
+            chunkSize = (int) Math.min(this.remainBytes, batchWindowBytes);
+            if (chunkSize == 0) {
+                return;
+            }
+            final ByteBuf chunk;
+            if (this.error == null) {
+                final long position = part.size - this.remainBytes;
+                chunk = FileChunks.readChunk(this.fileChannel, position, chunkSize, adjutant.allocator());
+            } else {
+                chunk = adjutant.allocator().buffer(chunkSize);
+                chunk.writeZero(chunkSize);
+            }
+            this.remainBytes -= chunkSize;
+            this.channelSink.next(chunk);
+        }
+
+        private void handleStreamError(final Throwable cause) {
+            closeFileChannel();
+            final Object part = this.partList.get(this.partIndex);
+            if (this.error != null || !(part instanceof PathPart)) {
+                // can't complete the declared Bind message length,can't recover protocol
+                this.trailer.release();
+                this.channelSink.error(cause);
+                return;
+            }
+            final PathPart pathPart = (PathPart) part;
+            final Throwable error;
+            error = PgExceptions.localFileWriteError(this.batchIndex, pathPart.pgType, pathPart.paramValue, cause);
+            this.error = error;
+            stmtTask.addErrorToTask(error);
+            // fill the rest bytes of Bind message
+            streamInEventLoop();
+        }
+
+        /**
+         * @see TaskAdjutant#onChannelWritable(Runnable, java.util.function.Consumer)
+         */
+        private void onChannelError(final Throwable cause) {
+            releaseRest();
+            this.channelSink.error(cause);
+        }
+
+        /**
+         * release file channel and the segments that haven't been emitted.
+         */
+        private void releaseRest() {
+            closeFileChannel();
+            final List<Object> partList = this.partList;
+            Object part;
+            for (int i = this.partIndex; i < partList.size(); i++) {
+                part = partList.get(i);
+                if (part instanceof ByteBuf) {
+                    partList.set(i, null);
+                    ((ByteBuf) part).release();
+                }
+            }
+            this.trailer.release();
+        }
+
+        private void closeFileChannel() {
+            final FileChannel channel = this.fileChannel;
+            if (channel == null) {
+                return;
+            }
+            this.fileChannel = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("close file channel failure.", e);
+            }
+        }
+
+
+    }
+
+    private static final class PathPart {
+
+        private final PgType pgType;
+
+        private final ParamValue paramValue;
+
+        private final long size;
+
+        private PathPart(PgType pgType, ParamValue paramValue, long size) {
+            this.pgType = pgType;
+            this.paramValue = paramValue;
+            this.size = size;
+        }
+
+    }
+
+
 }
@@ -0,0 +1,252 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.syntax.PgParser;
+import io.jdbd.postgre.syntax.PgStatement;
+import io.jdbd.postgre.util.PgCollections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * This class is the parse result cache of {@link ProtocolFactory}, shared by all sessions of factory,
+ * so same sql is parsed only once by {@link PgParser} , not once per connection.
+ * </p>
+ * <p>
+ * Parse result depend on server parameter standard_conforming_strings , so there are two maps.
+ * Hit is lock-free {@link ConcurrentMap#get(Object)} ; miss parse in {@link ConcurrentMap#computeIfAbsent(Object, java.util.function.Function)} ,
+ * so concurrent misses of same sql don't parse repeatedly.
+ * </p>
+ * <p>
+ * The cache is bounded by entry count and weight (estimated bytes), when beyond bound ,
+ * one thread evict the statements that is least recently accessed until cache is under 90% of bound,
+ * other threads don't wait eviction.
+ * </p>
+ *
+ * @see io.jdbd.postgre.env.PgKey#PARSE_CACHE_ENTRIES
+ * @see io.jdbd.postgre.env.PgKey#PARSE_CACHE_SIZE_MIB
+ * @since 1.0
+ */
+final class PgParseCache implements PgStatementCacheStats {
+
+    static PgParseCache create(int maxEntries, long maxWeight) {
+        return new PgParseCache(maxEntries, maxWeight);
+    }
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private final ConcurrentMap<String, Entry> onMap = PgCollections.concurrentHashMap();
+
+    private final ConcurrentMap<String, Entry> offMap = PgCollections.concurrentHashMap();
+
+    /**
+     * advance when new entry is added, entry record the clock when it's accessed.
+     */
+    private final AtomicLong clock = new AtomicLong(0);
+
+    private final AtomicLong weight = new AtomicLong(0);
+
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private PgParseCache(int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public long hitCount() {
+        return this.hitCount.sum();
+    }
+
+    @Override
+    public long missCount() {
+        return this.missCount.sum();
+    }
+
+    @Override
+    public long evictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    @Override
+    public int size() {
+        return this.onMap.size() + this.offMap.size();
+    }
+
+    /**
+     * @param standardConformingStrings the value of server parameter standard_conforming_strings
+     * @param parser                    the parser of session,parse sql only when cache miss.
+     * @throws io.jdbd.JdbdException throw when sql syntax error , error isn't cached.
+     */
+    PgStatement parse(final String sql, final boolean standardConformingStrings, final PgParser parser) {
+        final ConcurrentMap<String, Entry> map = standardConformingStrings ? this.onMap : this.offMap;
+        Entry entry;
+        entry = map.get(sql); // java 8 computeIfAbsent lock bin even if present, so get firstly.
+        if (entry == null) {
+            final boolean[] parsed = new boolean[1];
+            entry = map.computeIfAbsent(sql, key -> {
+                parsed[0] = true;
+                return new Entry(parser.parse(key), standardConformingStrings, this.clock.incrementAndGet());
+            });
+            if (parsed[0]) {
+                this.missCount.increment();
+                if (this.weight.addAndGet(entry.weight) > this.maxWeight || size() > this.maxEntries) {
+                    evictIfNeed();
+                }
+                return entry.statement;
+            }
+        }
+        this.hitCount.increment();
+        final long now = this.clock.get();
+        if (entry.accessClock != now) {
+            // avoid writing shared cache line on every hit.
+            entry.accessClock = now;
+        }
+        return entry.statement;
+    }
+
+    /**
+     * @param scope the scope of session , see {@link TaskAdjutant#stmtMetaScope()}
+     * @return null or the metadata that is shared by other session that have same scope.
+     * @see PgStmtMeta
+     */
+    @Nullable
+    PgStmtMeta stmtMeta(final String sql, final boolean standardConformingStrings, final @Nullable String scope) {
+        if (scope == null) {
+            return null;
+        }
+        final Entry entry = (standardConformingStrings ? this.onMap : this.offMap).get(sql);
+        final PgStmtMeta stmtMeta;
+        if (entry == null || (stmtMeta = entry.stmtMeta) == null || !stmtMeta.scope.equals(scope)) {
+            return null;
+        }
+        return stmtMeta;
+    }
+
+    /**
+     * <p>
+     * Share metadata with other sessions that have same scope , if the sql have been evicted , no-op.
+     * The metadata of other scope is replaced.
+     * </p>
+     */
+    void shareStmtMeta(final String sql, final boolean standardConformingStrings, final PgStmtMeta stmtMeta) {
+        final Entry entry = (standardConformingStrings ? this.onMap : this.offMap).get(sql);
+        if (entry != null) {
+            entry.stmtMeta = stmtMeta;
+        }
+    }
+
+    /**
+     * <p>
+     * Remove metadata , because it is stale , for example after DDL.
+     * </p>
+     */
+    void removeStmtMeta(final String sql, final boolean standardConformingStrings) {
+        final Entry entry = (standardConformingStrings ? this.onMap : this.offMap).get(sql);
+        if (entry != null) {
+            entry.stmtMeta = null;
+        }
+    }
+
+    /**
+     * @return the sql list of the most recently used statements , most recent first.
+     * @see io.jdbd.postgre.env.PgKey#PREWARM_HOT_STATEMENTS
+     */
+    List<String> hotSqlList(final int limit) {
+        final List<Entry> entryList = new ArrayList<>(size());
+        entryList.addAll(this.onMap.values());
+        entryList.addAll(this.offMap.values());
+        entryList.sort(Comparator.comparingLong((Entry e) -> e.accessClock).reversed());
+
+        final List<String> sqlList = new ArrayList<>(Math.min(limit, entryList.size()));
+        String sql;
+        for (Entry e : entryList) {
+            if (sqlList.size() == limit) {
+                break;
+            }
+            sql = e.statement.originalSql();
+            if (PreparePolicy.isPlannable(sql) && !sqlList.contains(sql)) {
+                sqlList.add(sql);
+            }
+        }
+        return sqlList;
+    }
+
+    private void evictIfNeed() {
+        if (!this.evictLock.tryLock()) {
+            // other thread is evicting.
+            return;
+        }
+        try {
+            final long weightBound = this.maxWeight - this.maxWeight / 10;
+            final int entriesBound = this.maxEntries - this.maxEntries / 10;
+            if (this.weight.get() <= weightBound && size() <= entriesBound) {
+                return;
+            }
+            final List<Entry> entryList = new ArrayList<>(size());
+            entryList.addAll(this.onMap.values());
+            entryList.addAll(this.offMap.values());
+            entryList.sort(Comparator.comparingLong(e -> e.accessClock));
+
+            ConcurrentMap<String, Entry> map;
+            for (Entry e : entryList) {
+                if (this.weight.get() <= weightBound && size() <= entriesBound) {
+                    break;
+                }
+                map = e.standardConformingStrings ? this.onMap : this.offMap;
+                if (map.remove(e.statement.originalSql(), e)) {
+                    this.weight.addAndGet(-e.weight);
+                    this.evictionCount.increment();
+                }
+            }
+        } finally {
+            this.evictLock.unlock();
+        }
+    }
+
+
+    private static final class Entry {
+
+        private final PgStatement statement;
+
+        private final boolean standardConformingStrings;
+
+        private final int weight;
+
+        /**
+         * racy write is acceptable,it's just hint of eviction.
+         */
+        private volatile long accessClock;
+
+        /**
+         * @see PgStmtMeta
+         */
+        private volatile PgStmtMeta stmtMeta;
+
+        private Entry(PgStatement statement, boolean standardConformingStrings, long accessClock) {
+            this.statement = statement;
+            this.standardConformingStrings = standardConformingStrings;
+            // two bytes per char of sql and sql parts ,plus object header and list.
+            this.weight = (statement.originalSql().length() << 2) + 32 * statement.sqlPartList().size() + 96;
+            this.accessClock = accessClock;
+        }
+
+    }
+
+
+}
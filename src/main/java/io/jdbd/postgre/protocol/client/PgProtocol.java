@@ -1,12 +1,22 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgBatchSummary;
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.result.RefCursor;
+import io.jdbd.result.ResultStates;
 import io.jdbd.session.DatabaseSession;
 import io.jdbd.session.Option;
 import io.jdbd.vendor.protocol.DatabaseProtocol;
+import io.jdbd.vendor.stmt.ParamBatchStmt;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.jdbd.vendor.stmt.StmtOption;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.function.Function;
@@ -35,4 +45,37 @@ public interface PgProtocol extends DatabaseProtocol {
 
     Mono<Void> queryUnknownTypesIfNeed(Set<String> unknownTypeSet);
 
+    /**
+     * <p>
+     * Execute unbounded parameter group stream as pipelined micro-batches with extended query protocol.
+     * </p>
+     *
+     * @param groupPublisher the publisher of parameter group,it's requested by in-flight window.
+     */
+    Flux<ResultStates> paramStreamUpdate(String sql, Publisher<List<ParamValue>> groupPublisher, StmtOption option);
+
+    /**
+     * <p>
+     * Execute batch update with extended query protocol and only emit one {@link PgBatchSummary}.
+     * </p>
+     *
+     * @param itemCounts true : {@link PgBatchSummary#itemAffectedRows()} is non-null.
+     */
+    Mono<PgBatchSummary> paramBatchSummary(ParamBatchStmt stmt, boolean itemCounts);
+
+    /**
+     * <p>
+     * Override the adaptive decision that whether sql is prepared as server-side prepared statement,
+     * the override is effective for following executions of sql by current connection.
+     * </p>
+     *
+     * @param prepare null : adaptive decision ; true : always prepare ; false : never prepare.
+     */
+    void overridePrepare(String sql, @Nullable Boolean prepare);
+
+    /**
+     * @return the counters of server-side prepared statement cache of current connection.
+     */
+    PgStatementCacheStats statementCacheStats();
+
 }
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.*;
@@ -138,7 +139,9 @@ final class PgResultSetReader implements ResultSetReader {
                     continue;
                 }
                 meta = columnMetaArray[i];
-                if (meta.textFormat) {
+                if (meta.decoder != null) {
+                    columnArray[i] = readColumnWithDecoder(cumulateBuffer, valueLength, rowMeta.clientCharset, meta);
+                } else if (meta.textFormat) {
                     columnArray[i] = readColumnFromText(cumulateBuffer, valueLength, rowMeta, meta);
                 } else {
                     columnArray[i] = readColumnFromBinary(cumulateBuffer, valueLength, meta);
@@ -155,6 +158,23 @@ final class PgResultSetReader implements ResultSetReader {
     }
 
 
+    /**
+     * @see PgColumnMeta#decoder
+     */
+    static Object readColumnWithDecoder(final ByteBuf cumulateBuffer, final int valueLength, final Charset charset,
+                                        final PgColumnMeta meta) {
+        final int valueIndex = cumulateBuffer.readerIndex();
+        final Object value;
+        value = meta.decoder.decode(cumulateBuffer.slice(valueIndex, valueLength), !meta.textFormat, charset);
+        cumulateBuffer.readerIndex(valueIndex + valueLength); // decoder maybe don't read all bytes.
+        if (value == null) {
+            String m = String.format("%s return null for column[%s]", meta.decoder, meta.columnLabel);
+            throw new JdbdException(m);
+        }
+        return value;
+    }
+
+
     private Object readColumnFromText(final ByteBuf cumulateBuffer, final int valueLength, final PgRowMeta rowMeta,
                                       final PgColumnMeta meta) {
 
@@ -361,7 +381,7 @@ final class PgResultSetReader implements ResultSetReader {
                 if (valueLength != 8) {
                     throw binaryFormatLengthError(dataType, valueLength);
                 }
-                columnValue = cumulateBuffer.readInt();
+                columnValue = cumulateBuffer.readLong();
             }
             break;
             case OID: {
@@ -405,6 +425,13 @@ final class PgResultSetReader implements ResultSetReader {
                 columnValue = valueBytes;
             }
             break;
+            case UUID: {
+                if (valueLength != 16) {
+                    throw binaryFormatLengthError(dataType, valueLength);
+                }
+                columnValue = new UUID(cumulateBuffer.readLong(), cumulateBuffer.readLong());
+            }
+            break;
             default:
                 throw unexpectedBinaryFormat(dataType);
         }
@@ -635,7 +662,7 @@ final class PgResultSetReader implements ResultSetReader {
 
             final PgColumnMeta meta = rowMeta.columnMetaArray[indexBasedZero];
             final DataType dataType = meta.dataType;
-            if (!(dataType instanceof PgType) || dataType.isArray()) {
+            if (meta.decoder != null || !(dataType instanceof PgType) || dataType.isArray()) {
                 return source;
             }
             try {
@@ -661,7 +688,11 @@ final class PgResultSetReader implements ResultSetReader {
                         columnValue = JdbdStrings.bitStringToBitSet((String) source, true);
                         break;
                     case UUID:
-                        columnValue = UUID.fromString((String) source);
+                        if (source instanceof UUID) { // binary format
+                            columnValue = source;
+                        } else {
+                            columnValue = UUID.fromString((String) source);
+                        }
                         break;
                     case POINT:
                         columnValue = PgGeometries.point((String) source);
@@ -695,7 +726,14 @@ final class PgResultSetReader implements ResultSetReader {
             final DataType dataType = meta.dataType;
             try {
                 final T columnValue;
-                if (dataType == PgType.REF_CURSOR_ARRAY) {
+                if (meta.decoder != null) {
+                    // value decoded by the decoder that is registered by application developer.
+                    if (columnClass.isInstance(source)) {
+                        columnValue = columnClass.cast(source);
+                    } else {
+                        columnValue = ColumnConverts.convertToTarget(meta, source, columnClass, rowMeta.serverEnv.serverZone());
+                    }
+                } else if (dataType == PgType.REF_CURSOR_ARRAY) {
                     columnValue = convertRefCursorArray(source, meta, columnClass);
                 } else if (dataType.isArray()) {
                     if (!columnClass.isArray()
@@ -851,11 +889,13 @@ final class PgResultSetReader implements ResultSetReader {
                 break;
                 case UUID: {
                     if (columnClass == String.class) {
+                        columnValue = source.toString();
+                    } else if (columnClass != UUID.class) {
+                        throw PgExceptions.cannotConvertColumnValue(meta, source, columnClass, null);
+                    } else if (source instanceof UUID) { // binary format
                         columnValue = source;
-                    } else if (columnClass == UUID.class) {
-                        columnValue = UUID.fromString((String) source);
                     } else {
-                        throw PgExceptions.cannotConvertColumnValue(meta, source, columnClass, null);
+                        columnValue = UUID.fromString((String) source);
                     }
                 }
                 break;
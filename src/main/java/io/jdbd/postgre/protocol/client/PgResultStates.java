@@ -1,5 +1,7 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.JdbdException;
+import io.jdbd.postgre.PgBatchSummary;
 import io.jdbd.postgre.PgServerVersion;
 import io.jdbd.result.ResultStates;
 import io.jdbd.result.Warning;
@@ -15,6 +17,36 @@ abstract class PgResultStates implements ResultStates {
         return new CommandResultStates(params);
     }
 
+    /**
+     * <p>
+     * The {@link ResultStates#affectedRows()} of group of rewritten batch, when the affected rows of rewritten statement
+     * couldn't be attributed to each group, for example : {@code ON CONFLICT DO NOTHING} skip some rows.
+     * Same with {@code java.sql.Statement#SUCCESS_NO_INFO} , the group is executed successfully ,
+     * but the count of rows affected by the group is unknown.
+     * </p>
+     *
+     * @see #rewrittenGroup(ResultStates, int, long, boolean, PgServerVersion)
+     */
+    static final long SUCCESS_NO_INFO = -2L;
+
+    /**
+     * @param source       the states of rewritten statement that contains the group.
+     * @param affectedRows the affected rows of group or {@link #SUCCESS_NO_INFO}
+     * @see BatchInsertRewriter
+     * @see BatchCopyConverter
+     */
+    static PgResultStates rewrittenGroup(ResultStates source, int resultIndex, long affectedRows, boolean moreResult,
+                                         PgServerVersion version) {
+        return new RewrittenGroupResultStates(source, resultIndex, affectedRows, moreResult, version);
+    }
+
+    /**
+     * @see PgCommandTask#emitBatchSummaryIfNeed()
+     */
+    static PgResultStates batchSummary(BatchSummary summary, PgServerVersion version) {
+        return new SummaryResultStates(summary, version);
+    }
+
     private final int resultIndex;
 
     private final boolean supportInsertId;
@@ -85,6 +117,179 @@ abstract class PgResultStates implements ResultStates {
     }
 
 
+    private static final class RewrittenGroupResultStates extends PgResultStates {
+
+        private final ResultStates source;
+
+        private final long affectedRows;
+
+        private final boolean moreResult;
+
+        private RewrittenGroupResultStates(ResultStates source, int resultIndex, long affectedRows,
+                                           boolean moreResult, PgServerVersion version) {
+            super(resultIndex, version);
+            this.source = source;
+            this.affectedRows = affectedRows;
+            this.moreResult = moreResult;
+        }
+
+        @Override
+        public long affectedRows() {
+            return this.affectedRows;
+        }
+
+        @Override
+        public long lastInsertedId() {
+            return 0L;
+        }
+
+        @Override
+        public String message() {
+            return this.source.message();
+        }
+
+        @Override
+        public boolean hasMoreResult() {
+            return this.moreResult;
+        }
+
+        @Override
+        public boolean hasMoreFetch() {
+            return false;
+        }
+
+        @Override
+        public long rowCount() {
+            return 0L;
+        }
+
+        @Override
+        public boolean hasColumn() {
+            return false;
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return this.source.inTransaction();
+        }
+
+        @Override
+        public Warning warning() {
+            return this.source.warning();
+        }
+
+        @Override
+        public <T> T valueOf(Option<T> option) {
+            return this.source.valueOf(option);
+        }
+
+    }
+
+
+    private static final class SummaryResultStates extends PgResultStates implements PgBatchSummary {
+
+        private final int groupCount;
+
+        private final long affectedRows;
+
+        private final int successCount;
+
+        private final int[] errorPositions;
+
+        private final JdbdException firstError;
+
+        private final long[] itemAffectedRows;
+
+        private SummaryResultStates(BatchSummary summary, PgServerVersion version) {
+            super(0, version);
+            this.groupCount = summary.groupCount;
+            this.affectedRows = summary.affectedRows();
+            this.successCount = summary.successCount();
+            this.errorPositions = summary.errorPositions();
+            this.firstError = summary.firstError();
+            this.itemAffectedRows = summary.itemAffectedRows();
+        }
+
+        @Override
+        public int groupCount() {
+            return this.groupCount;
+        }
+
+        @Override
+        public int successCount() {
+            return this.successCount;
+        }
+
+        @Override
+        public int[] errorPositions() {
+            final int[] positions = this.errorPositions;
+            return positions.length == 0 ? positions : positions.clone();
+        }
+
+        @Override
+        public JdbdException firstError() {
+            return this.firstError;
+        }
+
+        @Override
+        public long[] itemAffectedRows() {
+            final long[] itemAffectedRows = this.itemAffectedRows;
+            return itemAffectedRows == null ? null : itemAffectedRows.clone();
+        }
+
+        @Override
+        public long affectedRows() {
+            return this.affectedRows;
+        }
+
+        @Override
+        public long lastInsertedId() {
+            return 0L;
+        }
+
+        @Override
+        public String message() {
+            return "";
+        }
+
+        @Override
+        public boolean hasMoreResult() {
+            return false;
+        }
+
+        @Override
+        public boolean hasMoreFetch() {
+            return false;
+        }
+
+        @Override
+        public long rowCount() {
+            return 0L;
+        }
+
+        @Override
+        public boolean hasColumn() {
+            return false;
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return false;
+        }
+
+        @Override
+        public Warning warning() {
+            return null;
+        }
+
+        @Override
+        public <T> T valueOf(Option<T> option) {
+            return null;
+        }
+
+    }
+
+
     private static final class CommandResultStates extends PgResultStates {
 
         private final boolean moreResult;
@@ -38,6 +38,13 @@ final class PgRowMeta extends VendorResultRowMeta {
         return new PgRowMeta(-1, columnMetaArray, adjutant);
     }
 
+    /**
+     * @see PgStmtMeta#createRowMeta(TaskAdjutant)
+     */
+    static PgRowMeta createForPrepare(PgColumnMeta[] columnMetaArray, TaskAdjutant adjutant) {
+        return new PgRowMeta(-1, columnMetaArray, adjutant);
+    }
+
     final int resultIndex;
 
     final PgColumnMeta[] columnMetaArray;
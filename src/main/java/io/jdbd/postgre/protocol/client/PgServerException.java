@@ -40,12 +40,46 @@ final class PgServerException extends ServerException {
 
     private final Map<Byte, Object> fieldMap;
 
+    private final int batchIndex;
+
     /**
      * private constructor
      */
     private PgServerException(Map<Byte, Object> fieldMap) {
         super((String) fieldMap.getOrDefault(MultiFieldMessage.MESSAGE, ""), (String) fieldMap.get(MultiFieldMessage.SQLSTATE), 0);
         this.fieldMap = fieldMap;
+        this.batchIndex = -1;
+    }
+
+    /**
+     * private constructor
+     */
+    private PgServerException(PgServerException error, int batchIndex) {
+        super(String.format("batch[%s] execute failure,%s", batchIndex,
+                error.fieldMap.getOrDefault(MultiFieldMessage.MESSAGE, "")),
+                (String) error.fieldMap.get(MultiFieldMessage.SQLSTATE), 0);
+        this.fieldMap = error.fieldMap;
+        this.batchIndex = batchIndex;
+        this.setStackTrace(error.getStackTrace());
+    }
+
+    /**
+     * @return new instance that have same fields and SQLSTATE with this instance and carry the batch index of error group.
+     * @see #getBatchIndex()
+     */
+    PgServerException withBatchIndex(final int batchIndex) {
+        if (batchIndex < 0) {
+            throw new IllegalArgumentException(String.format("batchIndex[%s] is negative.", batchIndex));
+        }
+        return new PgServerException(this, batchIndex);
+    }
+
+    /**
+     * @return the batch index of error group, -1 : not batch error.
+     * @see #withBatchIndex(int)
+     */
+    public int getBatchIndex() {
+        return this.batchIndex;
     }
 
 
@@ -60,6 +94,27 @@ final class PgServerException extends ServerException {
         return (T) this.fieldMap.get(code);
     }
 
+    /**
+     * @return true : the server-side prepared statement is invalid , need re-Parse :
+     * <ul>
+     *     <li>26000 : prepared statement don't exist ,for example DISCARD ALL</li>
+     *     <li>0A000 : cached plan must not change result type , after DDL or search_path change</li>
+     * </ul>
+     */
+    boolean isInvalidCachedPlan() {
+        final Object sqlState = this.fieldMap.get(MultiFieldMessage.SQLSTATE);
+        final boolean invalid;
+        if ("26000".equals(sqlState)) {
+            invalid = true;
+        } else if ("0A000".equals(sqlState)) {
+            // message is localized , so test routine.
+            invalid = "RevalidateCachedQuery".equals(this.fieldMap.get(MultiFieldMessage.ROUTINE));
+        } else {
+            invalid = false;
+        }
+        return invalid;
+    }
+
     @Override
     public String toString() {
         final String className = PgServerException.class.getName();
@@ -67,6 +122,10 @@ final class PgServerException extends ServerException {
         builder.append(className)
                 .append("[");
         MultiFieldMessage.appendFieldToString(builder, this.fieldMap, true);
+        if (this.batchIndex > -1) {
+            builder.append(",\nbatchIndex=")
+                    .append(this.batchIndex);
+        }
         return builder.append(",\nhash=")
                 .append(System.identityHashCode(this))
                 .append(" ]")
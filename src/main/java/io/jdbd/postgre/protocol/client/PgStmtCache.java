@@ -0,0 +1,504 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.syntax.PgStatement;
+
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * <p>
+ * This class is the statement cache of one connection, key is the sql that parameter placeholder is {@code ?} .
+ * There are two maps :
+ *     <ul>
+ *         <li>{@link ServerCacheStmt} map , bounded by statement count and estimated bytes,
+ *         least recently used statement is evicted</li>
+ *         <li>unprepared statement map , only hold the statistics of sql that isn't prepared , see {@link PreparePolicy} ,
+ *         it's bounded separately , so a burst of ad-hoc sql don't evict hot prepared statements</li>
+ *     </ul>
+ * The name of evicted {@link ServerCacheStmt} is queued, the Close messages are piggy-backed on next round trip,
+ * see {@link #pollEvictedNames()}. If the statement is pinned by {@link io.jdbd.vendor.stmt.PrepareStmt}
+ * that is waiting for binding , its Close message is deferred until {@link #unpin(String)}.
+ * </p>
+ * <p>
+ * This class is only accessed in netty event loop , except the counters of {@link PgStatementCacheStats}.
+ * </p>
+ *
+ * @see io.jdbd.postgre.env.PgKey#PREPARED_STATEMENT_CACHE_QUERIES
+ * @see io.jdbd.postgre.env.PgKey#PREPARED_STATEMENT_CACHE_SIZE_MIB
+ * @since 1.0
+ */
+final class PgStmtCache implements PgStatementCacheStats {
+
+    static PgStmtCache create(ProtocolFactory factory) {
+        return new PgStmtCache(factory.stmtCacheQueries, factory.stmtCacheBytes);
+    }
+
+    static PgStmtCache create(int maxCount, long maxBytes) {
+        return new PgStmtCache(maxCount, maxBytes);
+    }
+
+    /**
+     * @return the statement that haven't been prepared by server.
+     */
+    static PostgreStmt createStmt(PgStatement statement, int useCount) {
+        return new UnpreparedStmt(statement, useCount);
+    }
+
+    /**
+     * @param stmt    the statement that is prepared with stmtName
+     * @param rowMeta null : statement don't return result set.
+     */
+    static ServerCacheStmt createServerStmt(PostgreStmt stmt, String stmtName, List<DataType> paramTypeList,
+                                            @Nullable PgRowMeta rowMeta, ParamEncoder[] paramEncoders,
+                                            Charset charset) {
+        return new PreparedStmt((AbstractStmt) stmt, stmtName, paramTypeList, rowMeta, paramEncoders, charset);
+    }
+
+    private static final List<String> EMPTY_NAMES = Collections.emptyList();
+
+    private final int maxCount;
+
+    private final long maxBytes;
+
+    /**
+     * {@link ServerCacheStmt} map , access order
+     */
+    private final LinkedHashMap<String, PostgreStmt> stmtMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * unprepared statement map , access order
+     */
+    private final LinkedHashMap<String, PostgreStmt> unpreparedMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    private long unpreparedBytes;
+
+    private List<String> evictedNameList;
+
+    /**
+     * key : statement name ; value : pin count
+     */
+    private Map<String, Integer> pinMap;
+
+    /**
+     * the names of pinned statement that have been evicted.
+     */
+    private Set<String> deferredNameSet;
+
+    // below are written by netty event loop and read by application
+    private volatile long hitCount;
+
+    private volatile long missCount;
+
+    private volatile long evictionCount;
+
+    private volatile int size;
+
+    private PgStmtCache(int maxCount, long maxBytes) {
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    @Override
+    public long missCount() {
+        return this.missCount;
+    }
+
+    @Override
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * @return the count of {@link ServerCacheStmt} , don't contain unprepared statement.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return null or cached statement whose use count have been increased.
+     */
+    @Nullable
+    PostgreStmt get(final String sql) {
+        PostgreStmt stmt = this.stmtMap.get(sql);
+        if (stmt == null) {
+            stmt = this.unpreparedMap.get(sql);
+        }
+        if (stmt == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+            ((AbstractStmt) stmt).useCount++;
+        }
+        return stmt;
+    }
+
+    /**
+     * @return null or cached statement whose use count isn't increased.
+     */
+    @Nullable
+    PostgreStmt peek(final String sql) {
+        final PostgreStmt stmt = this.stmtMap.get(sql);
+        return stmt == null ? this.unpreparedMap.get(sql) : stmt;
+    }
+
+    /**
+     * <p>
+     * Put statement ,replace the old statement of same sql , then evict least recently used statement of same map if need.
+     * </p>
+     */
+    void put(final PostgreStmt stmt) {
+        final String sql = stmt.originalSql();
+        PostgreStmt old;
+        if (stmt instanceof ServerCacheStmt) {
+            if ((old = this.unpreparedMap.remove(sql)) != null) {
+                this.unpreparedBytes -= ((AbstractStmt) old).estimatedBytes;
+            }
+            if ((old = this.stmtMap.put(sql, stmt)) != null) {
+                this.bytes -= ((AbstractStmt) old).estimatedBytes;
+                if (!((ServerCacheStmt) stmt).stmtName().equals(((ServerCacheStmt) old).stmtName())) {
+                    addEvictedName(((ServerCacheStmt) old).stmtName());
+                }
+            }
+            this.bytes += ((AbstractStmt) stmt).estimatedBytes;
+
+            final Iterator<PostgreStmt> iterator = this.stmtMap.values().iterator();
+            PostgreStmt eldest;
+            while ((this.stmtMap.size() > this.maxCount || this.bytes > this.maxBytes) && iterator.hasNext()) {
+                eldest = iterator.next();
+                iterator.remove();
+                this.bytes -= ((AbstractStmt) eldest).estimatedBytes;
+                this.evictionCount++;
+                addEvictedName(((ServerCacheStmt) eldest).stmtName());
+            }
+        } else {
+            if ((old = this.stmtMap.remove(sql)) != null) {
+                // invalidate
+                this.bytes -= ((AbstractStmt) old).estimatedBytes;
+                addEvictedName(((ServerCacheStmt) old).stmtName());
+            }
+            if ((old = this.unpreparedMap.put(sql, stmt)) != null) {
+                this.unpreparedBytes -= ((AbstractStmt) old).estimatedBytes;
+            }
+            this.unpreparedBytes += ((AbstractStmt) stmt).estimatedBytes;
+
+            final Iterator<PostgreStmt> iterator = this.unpreparedMap.values().iterator();
+            PostgreStmt eldest;
+            while ((this.unpreparedMap.size() > this.maxCount || this.unpreparedBytes > this.maxBytes)
+                    && iterator.hasNext()) {
+                eldest = iterator.next();
+                iterator.remove();
+                this.unpreparedBytes -= ((AbstractStmt) eldest).estimatedBytes;
+            }
+        }
+        this.size = this.stmtMap.size();
+    }
+
+    /**
+     * <p>
+     * Replace the {@link ServerCacheStmt} of sql with unprepared statement , statistics is retained ,
+     * so next execution re-Parse it. The name of invalid statement is queued for Close message.
+     * </p>
+     */
+    void invalidate(final String sql) {
+        final PostgreStmt stmt = this.stmtMap.get(sql);
+        if (stmt instanceof ServerCacheStmt) {
+            final AbstractStmt invalidStmt = (AbstractStmt) stmt;
+            final UnpreparedStmt unpreparedStmt = new UnpreparedStmt(invalidStmt.statement, invalidStmt.useCount);
+            unpreparedStmt.copyStatistics(invalidStmt);
+            put(unpreparedStmt);
+        }
+    }
+
+    /**
+     * <p>
+     * Evict all statements ,for example server parameter that affect parsing or planning have changed.
+     * </p>
+     */
+    void invalidateAll() {
+        final int size = this.stmtMap.size();
+        for (PostgreStmt stmt : this.stmtMap.values()) {
+            addEvictedName(((ServerCacheStmt) stmt).stmtName());
+        }
+        this.stmtMap.clear();
+        this.unpreparedMap.clear();
+        this.bytes = 0L;
+        this.unpreparedBytes = 0L;
+        this.evictionCount += size;
+        this.size = 0;
+    }
+
+    /**
+     * @return the names of evicted {@link ServerCacheStmt} that need to be closed , empty if none.
+     */
+    List<String> pollEvictedNames() {
+        final List<String> nameList = this.evictedNameList;
+        if (nameList == null) {
+            return EMPTY_NAMES;
+        }
+        this.evictedNameList = null;
+        return nameList;
+    }
+
+    /**
+     * <p>
+     * Queue the name of server-side statement that isn't put into cache, so it is closed with evicted statements.
+     * </p>
+     *
+     * @see #pollEvictedNames()
+     */
+    void closeLater(final String stmtName) {
+        addEvictedName(stmtName);
+    }
+
+    /**
+     * <p>
+     * Pin the statement that is used by {@link io.jdbd.vendor.stmt.PrepareStmt} waiting for binding ,
+     * if the statement is evicted before {@link #unpin(String)} , its Close message is deferred.
+     * </p>
+     */
+    void pin(final String stmtName) {
+        Map<String, Integer> pinMap = this.pinMap;
+        if (pinMap == null) {
+            this.pinMap = pinMap = new HashMap<>();
+        }
+        pinMap.merge(stmtName, 1, Integer::sum);
+    }
+
+    /**
+     * @see #pin(String)
+     */
+    void unpin(final String stmtName) {
+        final Map<String, Integer> pinMap = this.pinMap;
+        if (pinMap == null || pinMap.computeIfPresent(stmtName, (k, v) -> v == 1 ? null : v - 1) != null) {
+            return;
+        }
+        final Set<String> deferredNameSet = this.deferredNameSet;
+        if (deferredNameSet != null && deferredNameSet.remove(stmtName)) {
+            addEvictedName(stmtName);
+        }
+    }
+
+    private void addEvictedName(final String stmtName) {
+        final Map<String, Integer> pinMap = this.pinMap;
+        if (pinMap != null && pinMap.containsKey(stmtName)) {
+            Set<String> deferredNameSet = this.deferredNameSet;
+            if (deferredNameSet == null) {
+                this.deferredNameSet = deferredNameSet = new HashSet<>();
+            }
+            deferredNameSet.add(stmtName);
+            return;
+        }
+        List<String> nameList = this.evictedNameList;
+        if (nameList == null) {
+            this.evictedNameList = nameList = new ArrayList<>();
+        }
+        nameList.add(stmtName);
+    }
+
+
+    /**
+     * @return the sql that parameter placeholder is {@code $n} .
+     */
+    private static String postgreSqlOf(final PgStatement statement) {
+        final List<String> partList = statement.sqlPartList();
+        final int partCount = partList.size();
+        if (partCount == 1) {
+            return partList.get(0);
+        }
+        final StringBuilder builder = new StringBuilder(statement.originalSql().length() + (partCount << 1));
+        for (int i = 0; i < partCount; i++) {
+            if (i > 0) {
+                builder.append('$')
+                        .append(i);
+            }
+            builder.append(partList.get(i));
+        }
+        return builder.toString();
+    }
+
+
+    private static abstract class AbstractStmt implements PostgreStmt {
+
+        final PgStatement statement;
+
+        final String postgreSql;
+
+        final int estimatedBytes;
+
+        final boolean plannable;
+
+        int useCount;
+
+        long parseNanos = -1L;
+
+        long rowsSum;
+
+        long resultCount;
+
+        Boolean prepareOverride;
+
+        private AbstractStmt(PgStatement statement, String postgreSql, int useCount, int extraBytes) {
+            this.statement = statement;
+            this.postgreSql = postgreSql;
+            this.plannable = PreparePolicy.isPlannable(postgreSql);
+            this.useCount = useCount;
+            // two bytes per char of originalSql and postgreSql
+            this.estimatedBytes = ((statement.originalSql().length() + postgreSql.length()) << 1) + 64 + extraBytes;
+        }
+
+        @Override
+        public final String originalSql() {
+            return this.statement.originalSql();
+        }
+
+        @Override
+        public final String postgreSql() {
+            return this.postgreSql;
+        }
+
+        @Override
+        public final boolean isStandardConformingStrings() {
+            return this.statement.isStandardConformingStrings();
+        }
+
+        @Override
+        public final int useCount() {
+            return this.useCount;
+        }
+
+        @Override
+        public final boolean isPlannable() {
+            return this.plannable;
+        }
+
+        @Override
+        public final long parseNanos() {
+            return this.parseNanos;
+        }
+
+        @Override
+        public final long averageRows() {
+            final long resultCount = this.resultCount;
+            return resultCount == 0 ? -1L : this.rowsSum / resultCount;
+        }
+
+        @Nullable
+        @Override
+        public final Boolean prepareOverride() {
+            return this.prepareOverride;
+        }
+
+        @Override
+        public final void recordParseNanos(long nanos) {
+            this.parseNanos = nanos;
+        }
+
+        @Override
+        public final void recordRows(final long rowCount) {
+            if (this.resultCount == Integer.MAX_VALUE) {
+                // halve history, so recent result sizes have more weight and sum don't overflow.
+                this.rowsSum >>= 1;
+                this.resultCount >>= 1;
+            }
+            this.rowsSum += rowCount;
+            this.resultCount++;
+        }
+
+        @Override
+        public final void overridePrepare(@Nullable Boolean prepare) {
+            this.prepareOverride = prepare;
+        }
+
+        /**
+         * copy statistics from the statement of same sql.
+         */
+        final void copyStatistics(final AbstractStmt stmt) {
+            this.parseNanos = stmt.parseNanos;
+            this.rowsSum = stmt.rowsSum;
+            this.resultCount = stmt.resultCount;
+            this.prepareOverride = stmt.prepareOverride;
+        }
+
+        @Override
+        public final String toString() {
+            return String.format("%s[sql:%s,useCount:%s,parseNanos:%s,averageRows:%s]", getClass().getSimpleName(),
+                    originalSql(), this.useCount, this.parseNanos, averageRows());
+        }
+
+    }
+
+
+    private static final class UnpreparedStmt extends AbstractStmt {
+
+        private UnpreparedStmt(PgStatement statement, int useCount) {
+            super(statement, postgreSqlOf(statement), useCount, 0);
+        }
+
+    }
+
+    private static final class PreparedStmt extends AbstractStmt implements ServerCacheStmt {
+
+        private final String stmtName;
+
+        private final List<DataType> paramTypeList;
+
+        private final PgRowMeta rowMeta;
+
+        private final ParamEncoder[] paramEncoders;
+
+        private final BindTemplate bindTemplate;
+
+        private PreparedStmt(AbstractStmt stmt, String stmtName, List<DataType> paramTypeList,
+                             @Nullable PgRowMeta rowMeta, ParamEncoder[] paramEncoders, Charset charset) {
+            super(stmt.statement, stmt.postgreSql, stmt.useCount,
+                    (paramTypeList.size() << 4) + (rowMeta == null ? 0 : rowMeta.getColumnCount() << 7));
+            copyStatistics(stmt);
+            this.stmtName = stmtName;
+            this.paramTypeList = Collections.unmodifiableList(paramTypeList);
+            this.rowMeta = rowMeta;
+            this.paramEncoders = paramEncoders;
+            this.bindTemplate = BindTemplate.create(stmtName, paramTypeList, paramEncoders, rowMeta, charset);
+        }
+
+        @Override
+        public String stmtName() {
+            return this.stmtName;
+        }
+
+        @Override
+        public List<DataType> getParamOidList() {
+            return this.paramTypeList;
+        }
+
+        @Nullable
+        @Override
+        public PgRowMeta getRowMeta() {
+            return this.rowMeta;
+        }
+
+        @Override
+        public ParamEncoder[] paramEncoders() {
+            return this.paramEncoders;
+        }
+
+        @Override
+        public BindTemplate bindTemplate() {
+            return this.bindTemplate;
+        }
+
+    }
+
+
+}
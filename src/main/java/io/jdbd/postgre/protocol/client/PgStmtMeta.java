@@ -0,0 +1,104 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * This class representing the metadata of statement that is learned by prepare round trip of one session,
+ * and shared by other sessions of factory , so {@link io.jdbd.vendor.stmt.PrepareStmt} of other sessions
+ * send Parse message with Bind message , don't need prepare round trip.
+ * </p>
+ * <p>
+ * Only the statement whose parameter types and column types are all build-in type is shared ,
+ * because the oid of user-defined type is resolved by each session.
+ * The metadata is verified lazily by the RowDescription of portal and the error of execution.
+ * </p>
+ * <p>
+ * Same sql may resolve different relations and functions by different user or search_path,
+ * so metadata is shared only by the sessions that have same {@link #scope}.
+ * </p>
+ *
+ * @see PgParseCache#stmtMeta(String, boolean, String)
+ * @see TaskAdjutant#stmtMetaScope()
+ * @since 1.0
+ */
+final class PgStmtMeta {
+
+    /**
+     * @param rowMeta null : statement don't return result set.
+     * @param scope   null : the scope of session is unknown , see {@link TaskAdjutant#stmtMetaScope()}
+     * @return null : exists non-build-in type or scope is unknown , can't share.
+     */
+    @Nullable
+    static PgStmtMeta createIfShareable(final List<DataType> paramTypeList, final @Nullable PgRowMeta rowMeta,
+                                        final @Nullable String scope) {
+        if (scope == null) {
+            return null;
+        }
+        for (DataType type : paramTypeList) {
+            if (!(type instanceof PgType) || type == PgType.UNSPECIFIED) {
+                return null;
+            }
+        }
+        if (rowMeta != null) {
+            for (PgColumnMeta columnMeta : rowMeta.columnMetaArray) {
+                if (!(columnMeta.dataType instanceof PgType)) {
+                    return null;
+                }
+            }
+        }
+        return new PgStmtMeta(paramTypeList, rowMeta == null ? null : rowMeta.columnMetaArray, scope);
+    }
+
+    final List<DataType> paramTypeList;
+
+    /**
+     * null : statement don't return result set.
+     */
+    final PgColumnMeta[] columnMetaArray;
+
+    /**
+     * the user and search_path of the session that learned this metadata.
+     */
+    final String scope;
+
+    private PgStmtMeta(List<DataType> paramTypeList, @Nullable PgColumnMeta[] columnMetaArray, String scope) {
+        this.paramTypeList = Collections.unmodifiableList(paramTypeList);
+        this.columnMetaArray = columnMetaArray;
+        this.scope = scope;
+    }
+
+    /**
+     * @return row meta of session , because {@link PgRowMeta} depend on session ,for example lc_monetary.
+     */
+    @Nullable
+    PgRowMeta createRowMeta(TaskAdjutant adjutant) {
+        final PgColumnMeta[] columnMetaArray = this.columnMetaArray;
+        return columnMetaArray == null ? null : PgRowMeta.createForPrepare(columnMetaArray, adjutant);
+    }
+
+    /**
+     * @param rowMeta the row meta of RowDescription of portal.
+     * @return true : shape of result set don't change.
+     */
+    boolean isMatch(final PgRowMeta rowMeta) {
+        final PgColumnMeta[] columnMetaArray = this.columnMetaArray, actualArray = rowMeta.columnMetaArray;
+        if (columnMetaArray == null || columnMetaArray.length != actualArray.length) {
+            return false;
+        }
+        for (int i = 0; i < columnMetaArray.length; i++) {
+            if (columnMetaArray[i].columnTypeOid != actualArray[i].columnTypeOid
+                    || !columnMetaArray[i].columnLabel.equals(actualArray[i].columnLabel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+}
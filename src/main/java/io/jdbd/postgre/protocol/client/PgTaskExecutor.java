@@ -1,19 +1,30 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.JdbdException;
+import io.jdbd.meta.DataType;
 import io.jdbd.postgre.Encoding;
 import io.jdbd.postgre.PgServerVersion;
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.postgre.ServerParameter;
 import io.jdbd.postgre.session.SessionAdjutant;
 import io.jdbd.postgre.syntax.PgParser;
+import io.jdbd.postgre.syntax.PgStatement;
 import io.jdbd.postgre.util.PgExceptions;
 import io.jdbd.postgre.util.PgStrings;
 import io.jdbd.postgre.util.PgTimes;
 import io.jdbd.result.ResultRow;
 import io.jdbd.result.ResultRowMeta;
+import io.jdbd.session.SessionCloseException;
 import io.jdbd.vendor.env.HostInfo;
 import io.jdbd.vendor.task.CommunicationTask;
 import io.jdbd.vendor.task.CommunicationTaskExecutor;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.FileRegion;
+import io.netty.handler.ssl.SslHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
@@ -26,6 +37,7 @@ import java.nio.charset.Charset;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Consumer;
 
 final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
 
@@ -57,10 +69,28 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
 
     private final SessionAdjutant sessionAdjutant;
 
+    private final Channel channel;
+
+    /**
+     * modify only in netty event loop
+     *
+     * @see TaskAdjutant#onChannelWritable(Runnable, Consumer)
+     */
+    private Runnable writableTask;
+
+    /**
+     * modify only in netty event loop
+     *
+     * @see TaskAdjutant#onChannelWritable(Runnable, Consumer)
+     */
+    private Consumer<Throwable> writableErrorHandler;
+
     private PgTaskExecutor(Connection connection, PgHost0 host, SessionAdjutant sessionAdjutant) {
         super(connection);
         this.host = host;
         this.sessionAdjutant = sessionAdjutant;
+        this.channel = connection.channel();
+        connection.addHandlerLast("pgWritabilityHandler", new WritabilityHandler(this));
     }
 
     @Override
@@ -132,11 +162,73 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
     }
 
 
+    /**
+     * @see WritabilityHandler#channelWritabilityChanged(ChannelHandlerContext)
+     */
+    private void onWritableInEventLoop() {
+        final Runnable task = this.writableTask;
+        if (task != null) {
+            final Consumer<Throwable> errorHandler = this.writableErrorHandler;
+            this.writableTask = null;
+            this.writableErrorHandler = null;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    /**
+     * @see WritabilityHandler#channelInactive(ChannelHandlerContext)
+     */
+    private void onInactiveInEventLoop() {
+        final Consumer<Throwable> errorHandler = this.writableErrorHandler;
+        if (errorHandler != null) {
+            this.writableTask = null;
+            this.writableErrorHandler = null;
+            errorHandler.accept(new SessionCloseException("Session unexpected close"));
+        }
+    }
+
+
     /*################################## blow private static class ##################################*/
 
+    private static final class WritabilityHandler extends ChannelInboundHandlerAdapter {
+
+        private final PgTaskExecutor taskExecutor;
+
+        private WritabilityHandler(PgTaskExecutor taskExecutor) {
+            this.taskExecutor = taskExecutor;
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            if (ctx.channel().isWritable()) {
+                this.taskExecutor.onWritableInEventLoop();
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            this.taskExecutor.onInactiveInEventLoop();
+            super.channelInactive(ctx);
+        }
+
+    }
+
 
     private static final class TaskAdjutantWrapper extends JdbdTaskAdjutant implements TaskAdjutant {
 
+        /**
+         * @see #isParseOrPlanParameterChanged(ServerImpl, Map)
+         */
+        private static final ServerParameter[] PARSE_OR_PLAN_PARAMETERS = {
+                ServerParameter.standard_conforming_strings,
+                ServerParameter.session_authorization,
+                ServerParameter.search_path};
+
         private final PgTaskExecutor taskExecutor;
 
         private String stmtNamePrefix = "S0@";
@@ -157,9 +249,24 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
 
         private List<String> urgencyParamList;
 
+        private final PgStmtCache stmtCache;
+
+        private final RoundTripBaseline roundTripBaseline = RoundTripBaseline.create();
+
+        /**
+         * @see #stmtMetaScope()
+         */
+        private String stmtMetaScope;
+
+        /**
+         * true : search_path or role have been changed by SET command but server don't report it.
+         */
+        private boolean stmtMetaScopeUnknown;
+
         private TaskAdjutantWrapper(PgTaskExecutor taskExecutor) {
             super(taskExecutor);
             this.taskExecutor = taskExecutor;
+            this.stmtCache = PgStmtCache.create(factory());
         }
 
         @Override
@@ -253,8 +360,13 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
         @Override
         public void appendSetCommandParameter(final String parameterName) {
 
+            final String parameter = parameterName.toLowerCase();
+            if (parameter.equals("role")) {
+                // role is never reported by server, current user is unknown.
+                this.stmtMetaScopeUnknown = true;
+                return;
+            }
             try {
-                final String parameter = parameterName.toLowerCase();
                 switch (ServerParameter.valueOf(parameter)) {
                     case statement_timeout:
                     case lc_monetary: {
@@ -268,6 +380,14 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
                         }
                     }
                     break;
+                    case search_path: {// search_path was not reported by releases before 18.
+                        // cached plan must not change result type
+                        this.stmtCache.invalidateAll();
+                        if (Objects.requireNonNull(this.server, "this.server").parameter(ServerParameter.search_path) == null) {
+                            this.stmtMetaScopeUnknown = true;
+                        }
+                    }
+                    break;
                     case application_name://application_name was not reported by releases before 9.0.
                     case integer_datetimes://below three were not reported by releases before 8.0
                     case server_encoding:
@@ -285,6 +405,150 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
 
         }
 
+        @Override
+        public final PostgreStmt parseAsPostgreStmt(final String sql) {
+            final PgStmtCache stmtCache = this.stmtCache;
+            PostgreStmt stmt;
+            stmt = stmtCache.get(sql);
+            if (stmt == null) {
+                stmt = PgStmtCache.createStmt(parse(sql), 1);
+                stmtCache.put(stmt);
+            }
+            return stmt;
+        }
+
+        @Override
+        public final void overridePrepare(final String sql, final @Nullable Boolean prepare) {
+            final PgStmtCache stmtCache = this.stmtCache;
+            PostgreStmt stmt;
+            stmt = stmtCache.peek(sql);
+            if (stmt == null && prepare != null) {
+                try {
+                    stmt = PgStmtCache.createStmt(parse(sql), 0);
+                } catch (JdbdException e) {
+                    // syntax error is emitted by execution
+                    return;
+                }
+                stmtCache.put(stmt);
+            }
+            if (stmt != null) {
+                stmt.overridePrepare(prepare);
+            }
+        }
+
+        /**
+         * <p>
+         * Parse sql with the parse cache of factory , so same sql is parsed once by all sessions of factory.
+         * </p>
+         */
+        @Override
+        public final PgStatement parse(final String sql) throws JdbdException {
+            final String status = server().parameter(ServerParameter.standard_conforming_strings);
+            final boolean standardConformingStrings = status != null && ServerParameter.isOn(status);
+            return factory().parseCache.parse(sql, standardConformingStrings, sqlParser());
+        }
+
+        @Override
+        public final void invalidatePostgreStmt(final String sql) {
+            this.stmtCache.invalidate(sql);
+        }
+
+        @Override
+        public final ServerCacheStmt cachePostgreStmt(PostgreStmt stmt, String stmtName, List<DataType> paramTypeList,
+                                                      @Nullable PgRowMeta rowMeta, ParamEncoder[] paramEncoders) {
+            final ServerCacheStmt serverStmt;
+            serverStmt = PgStmtCache.createServerStmt(stmt, stmtName, paramTypeList, rowMeta, paramEncoders,
+                    clientCharset());
+            this.stmtCache.put(serverStmt);
+            return serverStmt;
+        }
+
+        @Override
+        public final List<String> pollEvictedStmtNames() {
+            return this.stmtCache.pollEvictedNames();
+        }
+
+        @Override
+        public final void closeStmtLater(final String stmtName) {
+            this.stmtCache.closeLater(stmtName);
+        }
+
+        @Override
+        public final void pinStmt(final String stmtName) {
+            this.stmtCache.pin(stmtName);
+        }
+
+        @Override
+        public final void unpinStmt(final String stmtName) {
+            this.stmtCache.unpin(stmtName);
+        }
+
+        @Override
+        public final PgStatementCacheStats stmtCacheStats() {
+            return this.stmtCache;
+        }
+
+        @Override
+        public final long excludeRoundTrip(final long elapsedNanos) {
+            return this.roundTripBaseline.exclude(elapsedNanos);
+        }
+
+        @Override
+        public final String stmtMetaScope() {
+            if (this.stmtMetaScopeUnknown) {
+                return null;
+            }
+            String scope = this.stmtMetaScope;
+            if (scope == null) {
+                final ServerImpl server = Objects.requireNonNull(this.server, "this.server");
+                String user, searchPath;
+                user = server.parameter(ServerParameter.session_authorization);
+                if (user == null) {
+                    user = obtainHost().getUser();
+                }
+                searchPath = server.parameter(ServerParameter.search_path);
+                if (searchPath == null) {
+                    // not reported, all sessions of factory start with same search_path.
+                    searchPath = "";
+                }
+                this.stmtMetaScope = scope = user + '\0' + searchPath;
+            }
+            return scope;
+        }
+
+        @Override
+        public final boolean isChannelWritable() {
+            return this.taskExecutor.channel.isWritable();
+        }
+
+        @Override
+        public final boolean isChannelEncrypted() {
+            return this.taskExecutor.channel.pipeline().get(SslHandler.class) != null;
+        }
+
+        @Override
+        public final ChannelFuture writeFileRegion(final ByteBuf header, final FileRegion region) {
+            final Channel channel = this.taskExecutor.channel;
+            channel.write(header);
+            return channel.writeAndFlush(region);
+        }
+
+        @Override
+        public final void onChannelWritable(final Runnable task, final Consumer<Throwable> errorHandler) {
+            final PgTaskExecutor taskExecutor = this.taskExecutor;
+            final Channel channel = taskExecutor.channel;
+            if (!channel.isActive()) {
+                errorHandler.accept(new SessionCloseException("Session unexpected close"));
+            } else if (channel.isWritable()) {
+                task.run();
+            } else if (taskExecutor.writableTask == null) {
+                taskExecutor.writableTask = task;
+                taskExecutor.writableErrorHandler = errorHandler;
+            } else {
+                errorHandler.accept(new IllegalStateException("Exists pending writable task."));
+            }
+        }
+
         /**
          * @see #appendSetCommandParameter(String)
          */
@@ -371,9 +635,36 @@ final class PgTaskExecutor extends CommunicationTaskExecutor<TaskAdjutant> {
                 throw new IllegalStateException("Not in netty EventLoop.");
             }
             final ServerImpl server = Objects.requireNonNull(this.server, "this.server");
+            if (isParseOrPlanParameterChanged(server, paramStatusMap)) {
+                this.stmtCache.invalidateAll();
+            }
+            if (paramStatusMap.containsKey(ServerParameter.session_authorization.name())
+                    || paramStatusMap.containsKey(ServerParameter.search_path.name())) {
+                this.stmtMetaScope = null; // recompute
+            }
             server.updateServerParams(paramStatusMap);
         }
 
+        /**
+         * @return true : the server parameter that affect sql parsing or planning have changed,
+         * so cached statements are invalid.
+         */
+        private static boolean isParseOrPlanParameterChanged(final ServerImpl server,
+                                                             final Map<String, String> paramStatusMap) {
+            String newValue, oldValue;
+            for (ServerParameter parameter : PARSE_OR_PLAN_PARAMETERS) {
+                newValue = paramStatusMap.get(parameter.name());
+                if (newValue == null) {
+                    continue;
+                }
+                oldValue = server.paramStatusMap.get(parameter.name());
+                if (oldValue != null && !oldValue.equals(newValue)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         private void updateTxStatus(TxStatus txStatus) {
             this.txStatus = txStatus;
         }
@@ -1,5 +1,7 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.lang.Nullable;
+
 /**
  * <p>
  * This interface representing extended query statement.
@@ -26,4 +28,35 @@ interface PostgreStmt {
 
     int useCount();
 
+    /**
+     * @return true : first key word is SELECT , INSERT , UPDATE , DELETE , WITH , VALUES , MERGE or TABLE ,
+     * so server plan can be reused ; false : utility statement ,for example DDL.
+     * @see PreparePolicy
+     */
+    boolean isPlannable();
+
+    /**
+     * @return the last observed nanos from Parse message to ParseComplete/BindComplete message that the round trip
+     * of session is excluded from , -1 if not observed.
+     * @see TaskAdjutant#excludeRoundTrip(long)
+     */
+    long parseNanos();
+
+    /**
+     * @return the average row count of result set , -1 if not observed.
+     */
+    long averageRows();
+
+    /**
+     * @return null : no override ; true : always prepare ; false : never prepare.
+     */
+    @Nullable
+    Boolean prepareOverride();
+
+    void recordParseNanos(long nanos);
+
+    void recordRows(long rowCount);
+
+    void overridePrepare(@Nullable Boolean prepare);
+
 }
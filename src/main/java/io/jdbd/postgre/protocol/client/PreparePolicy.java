@@ -0,0 +1,106 @@
+package io.jdbd.postgre.protocol.client;
+
+/**
+ * <p>
+ * This class decide whether statement is prepared as named statement (server-side prepared statement)
+ * with the statistics of {@link PostgreStmt} , not only one static threshold for all sql.
+ * </p>
+ * <p>
+ * Decision order :
+ *     <ol>
+ *         <li>{@link PostgreStmt#prepareOverride()} , the statement option of application</li>
+ *         <li>utility statement (for example DDL) isn't prepared , server plan can't be reused</li>
+ *         <li>use count reach {@link ProtocolFactory#prepareThreshold}</li>
+ *         <li>expensive plan ( {@link PostgreStmt#parseNanos()} reach {@link ProtocolFactory#prepareExpensiveParseNanos} )
+ *         is prepared on second execution , the network round trip isn't counted, see {@link RoundTripBaseline}</li>
+ *         <li>point lookup ( average rows not greater than one) is prepared on half threshold,
+ *         because parse and plan is the major cost of it</li>
+ *     </ol>
+ * </p>
+ *
+ * @see io.jdbd.postgre.env.PgKey#PREPARE_THRESHOLD
+ * @see io.jdbd.postgre.env.PgKey#PREPARE_EXPENSIVE_PARSE_MILLIS
+ * @since 1.0
+ */
+abstract class PreparePolicy {
+
+    private PreparePolicy() {
+        throw new UnsupportedOperationException();
+    }
+
+
+    static boolean shouldPrepare(final PostgreStmt stmt, final ProtocolFactory factory) {
+        final Boolean override = stmt.prepareOverride();
+        if (override != null) {
+            return override;
+        }
+        if (!stmt.isPlannable()) {
+            return false;
+        }
+        final int useCount = stmt.useCount(), threshold = factory.prepareThreshold;
+        final boolean prepare;
+        if (useCount >= threshold) {
+            prepare = true;
+        } else if (useCount < 2) {
+            // statistics is observed by first execution.
+            prepare = false;
+        } else if (stmt.parseNanos() >= factory.prepareExpensiveParseNanos) {
+            prepare = true;
+        } else {
+            final long averageRows = stmt.averageRows();
+            prepare = averageRows > -1 && averageRows < 2 && useCount >= ((threshold + 1) >> 1);
+        }
+        return prepare;
+    }
+
+
+    /**
+     * @param sql the sql that parameter placeholder is {@code $n} .
+     * @return true : first key word is plannable statement.
+     */
+    static boolean isPlannable(final String sql) {
+        final int length = sql.length();
+        int i = 0;
+        char ch;
+        while (i < length) {
+            ch = sql.charAt(i);
+            if (Character.isWhitespace(ch) || ch == '(') {
+                i++;
+            } else if (ch == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                i = sql.indexOf('\n', i + 2);
+                if (i < 0) {
+                    return false;
+                }
+            } else if (ch == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                i = sql.indexOf("*/", i + 2);
+                if (i < 0) {
+                    return false;
+                }
+                i += 2;
+            } else {
+                break;
+            }
+        }
+        final int start = i;
+        while (i < length && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        switch (i - start) {
+            case 4:
+                return sql.regionMatches(true, start, "WITH", 0, 4);
+            case 5:
+                return sql.regionMatches(true, start, "MERGE", 0, 5)
+                        || sql.regionMatches(true, start, "TABLE", 0, 5);
+            case 6:
+                return sql.regionMatches(true, start, "SELECT", 0, 6)
+                        || sql.regionMatches(true, start, "INSERT", 0, 6)
+                        || sql.regionMatches(true, start, "UPDATE", 0, 6)
+                        || sql.regionMatches(true, start, "DELETE", 0, 6)
+                        || sql.regionMatches(true, start, "VALUES", 0, 6);
+            default:
+                return false;
+        }
+    }
+
+
+}
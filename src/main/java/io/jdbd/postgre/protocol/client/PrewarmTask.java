@@ -0,0 +1,250 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.util.PgCollections;
+import io.jdbd.postgre.util.PgExceptions;
+import io.jdbd.session.SessionCloseException;
+import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * <p>
+ * This class prepare statements on new connection in one round trip , so the first executions of them
+ * don't pay the round trip of preparing.
+ * Each statement is Parse , Describe and Sync , so error of one statement don't affect others.
+ * Prepared statements are put into {@link PgStmtCache} as {@link ServerCacheStmt}.
+ * </p>
+ *
+ * @see io.jdbd.postgre.env.PgKey#PREWARM_STATEMENTS
+ * @see io.jdbd.postgre.env.PgKey#PREWARM_HOT_STATEMENTS
+ * @see <a href="https://www.postgresql.org/docs/current/protocol-flow.html#PROTOCOL-FLOW-EXT-QUERY">Extended Query</a>
+ * @since 1.0
+ */
+final class PrewarmTask extends PgTask {
+
+    /**
+     * @return the count of prepared statements.
+     */
+    static Mono<Integer> prewarm(final List<String> sqlList, final TaskAdjutant adjutant) {
+        return Mono.create(sink -> {
+            try {
+                PrewarmTask task = new PrewarmTask(sqlList, adjutant, sink);
+                task.submit(sink::error);
+            } catch (Throwable e) {
+                sink.error(PgExceptions.wrapIfNonJvmFatal(e));
+            }
+        });
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrewarmTask.class);
+
+    private final List<String> sqlList;
+
+    private final MonoSink<Integer> sink;
+
+    private List<PostgreStmt> stmtList;
+
+    private List<String> stmtNameList;
+
+    private int groupIndex;
+
+    private int preparedCount;
+
+    private List<DataType> paramTypeList;
+
+    private PgRowMeta rowMeta;
+
+    private boolean groupError;
+
+    private PrewarmTask(List<String> sqlList, TaskAdjutant adjutant, MonoSink<Integer> sink) {
+        super(adjutant, sink::error);
+        this.sqlList = sqlList;
+        this.sink = sink;
+    }
+
+
+    @Override
+    protected Publisher<ByteBuf> start() {
+        final TaskAdjutant adjutant = this.adjutant;
+        final Charset charset = adjutant.clientCharset();
+
+        final List<PostgreStmt> stmtList = new ArrayList<>(this.sqlList.size());
+        final List<String> stmtNameList = new ArrayList<>(this.sqlList.size());
+        final ByteBuf message = adjutant.allocator().buffer(1024, Messages.MAX_CAPACITY);
+        try {
+            PostgreStmt stmt;
+            String stmtName;
+            byte[] nameBytes;
+            int startIndex;
+            for (String sql : this.sqlList) {
+                try {
+                    stmt = adjutant.parseAsPostgreStmt(sql);
+                } catch (Throwable e) {
+                    LOG.debug("prewarm sql[{}] syntax error,skip.", sql, e);
+                    continue;
+                }
+                if (stmt instanceof ServerCacheStmt || !stmt.isPlannable()) {
+                    continue;
+                }
+                stmtName = adjutant.nextStmtName();
+                nameBytes = stmtName.getBytes(charset);
+
+                // Parse message , parameter types are inferred by server
+                startIndex = message.writerIndex();
+                message.writeByte(Messages.P);
+                message.writeZero(Messages.LENGTH_SIZE); // placeholder of length
+                message.writeBytes(nameBytes);
+                message.writeByte(Messages.STRING_TERMINATOR);
+                Messages.writeText(message, stmt.postgreSql(), charset);
+                message.writeByte(Messages.STRING_TERMINATOR);
+                message.writeShort(0);
+                Messages.writeLength(message, startIndex);
+
+                // Describe statement message
+                message.writeByte(Messages.D);
+                message.writeInt(6 + nameBytes.length);
+                message.writeByte('S');
+                message.writeBytes(nameBytes);
+                message.writeByte(Messages.STRING_TERMINATOR);
+
+                // Sync message
+                message.writeByte(Messages.S);
+                message.writeInt(Messages.LENGTH_SIZE);
+
+                stmtList.add(stmt);
+                stmtNameList.add(stmtName);
+            }
+        } catch (Throwable e) {
+            message.release();
+            throw e;
+        }
+        if (stmtList.isEmpty()) {
+            // only Sync message , server response ReadyForQuery.
+            message.writeByte(Messages.S);
+            message.writeInt(Messages.LENGTH_SIZE);
+        }
+        this.stmtList = stmtList;
+        this.stmtNameList = stmtNameList;
+        return Mono.just(message);
+    }
+
+    @Override
+    protected boolean decode(final ByteBuf cumulateBuffer, final Consumer<Object> serverStatusConsumer) {
+        final Charset charset = this.adjutant.clientCharset();
+        boolean taskEnd = false;
+        while (!taskEnd && Messages.hasOneMessage(cumulateBuffer)) {
+            switch (cumulateBuffer.getByte(cumulateBuffer.readerIndex())) {
+                case Messages.t: // ParameterDescription message
+                    this.paramTypeList = readParameterDescription(cumulateBuffer);
+                    break;
+                case Messages.T: // RowDescription message
+                    this.rowMeta = PgRowMeta.readForPrepare(cumulateBuffer, this.adjutant);
+                    break;
+                case Messages.E: {// ErrorResponse message
+                    final PgServerException error = PgServerException.read(cumulateBuffer, charset);
+                    this.groupError = true;
+                    LOG.debug("prewarm sql[{}] failure,skip.", this.stmtList.get(this.groupIndex).originalSql(), error);
+                }
+                break;
+                case Messages.S: // ParameterStatus message
+                    serverStatusConsumer.accept(Messages.readParameterStatus(cumulateBuffer, charset));
+                    break;
+                case Messages.Z: {// ReadyForQuery message
+                    serverStatusConsumer.accept(TxStatus.read(cumulateBuffer));
+                    taskEnd = this.stmtList.isEmpty() || endGroup();
+                }
+                break;
+                case Messages.CHAR_ONE: // ParseComplete message
+                case Messages.n: // NoData message
+                case Messages.N: // NoticeResponse message
+                default:
+                    Messages.skipOneMessage(cumulateBuffer);
+            }
+        }
+        if (taskEnd) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("prewarm {} statements of {} sql.", this.preparedCount, this.sqlList.size());
+            }
+            this.sink.success(this.preparedCount);
+        }
+        return taskEnd;
+    }
+
+    @Override
+    protected Action onError(final Throwable e) {
+        this.sink.error(PgExceptions.wrapIfNonJvmFatal(e));
+        return Action.TASK_END;
+    }
+
+    @Override
+    protected void onChannelClose() {
+        this.sink.error(new SessionCloseException("Session unexpected close"));
+    }
+
+
+    /**
+     * @return true : task end
+     */
+    private boolean endGroup() {
+        final int groupIndex = this.groupIndex++;
+        final List<DataType> paramTypeList = this.paramTypeList;
+        final TaskAdjutant adjutant = this.adjutant;
+        if (!this.groupError && paramTypeList == null) {
+            // statement is prepared by server but can't be cached , close it with next round trip.
+            adjutant.closeStmtLater(this.stmtNameList.get(groupIndex));
+        } else if (!this.groupError) {
+            adjutant.cachePostgreStmt(this.stmtList.get(groupIndex), this.stmtNameList.get(groupIndex),
+                    paramTypeList, this.rowMeta, ParamEncoders.create(paramTypeList, adjutant.factory().codecRegistry));
+            this.preparedCount++;
+        }
+        this.paramTypeList = null;
+        this.rowMeta = null;
+        this.groupError = false;
+        return this.groupIndex == this.stmtList.size();
+    }
+
+
+    /**
+     * @return null : exists unknown type ,for example user-defined type , so don't cache,
+     * the statement is closed with next round trip , see {@link TaskAdjutant#closeStmtLater(String)}.
+     * @see <a href="https://www.postgresql.org/docs/current/protocol-message-formats.html">ParameterDescription (B)</a>
+     */
+    private List<DataType> readParameterDescription(final ByteBuf cumulateBuffer) {
+        cumulateBuffer.readByte();
+        final int nextMsgIndex = cumulateBuffer.readerIndex() + cumulateBuffer.readInt();
+        final int count = cumulateBuffer.readShort();
+
+        final IntFunction<DataType> typeFunc = this.adjutant.oidToDataTypeFunc();
+        List<DataType> paramTypeList = count == 0 ? Collections.emptyList() : PgCollections.arrayList(count);
+        DataType dataType;
+        int oid;
+        for (int i = 0; i < count; i++) {
+            oid = cumulateBuffer.readInt();
+            dataType = PgType.from(oid);
+            if (dataType == PgType.UNSPECIFIED) {
+                dataType = typeFunc.apply(oid);
+            }
+            if (dataType == PgType.UNSPECIFIED) {
+                paramTypeList = null;
+                break;
+            }
+            paramTypeList.add(dataType);
+        }
+        cumulateBuffer.readerIndex(nextMsgIndex);
+        return paramTypeList;
+    }
+
+
+}
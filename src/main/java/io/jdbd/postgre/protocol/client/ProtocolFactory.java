@@ -1,8 +1,23 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.JdbdException;
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.jdbd.postgre.codec.PgDecoder;
 import io.jdbd.postgre.env.PgKey;
+import io.jdbd.postgre.util.PgBinds;
+import io.jdbd.postgre.util.PgCollections;
+import io.jdbd.postgre.util.PgStrings;
 import io.jdbd.vendor.env.Environment;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
 abstract class ProtocolFactory {
 
 
@@ -10,9 +25,244 @@ abstract class ProtocolFactory {
 
     final int prepareThreshold;
 
+    /**
+     * @see PgKey#PREPARE_EXPENSIVE_PARSE_MILLIS
+     */
+    final long prepareExpensiveParseNanos;
+
+    final PgCodecRegistry codecRegistry;
+
+    /**
+     * @see PgKey#BINARY_TRANSFER
+     */
+    final boolean binaryTransfer;
+
+    /**
+     * @see PgKey#BINARY_TRANSFER_ENABLE
+     */
+    final Set<Integer> binaryEnableOidSet;
+
+    /**
+     * @see PgKey#BINARY_TRANSFER_DISABLE
+     */
+    final Set<Integer> binaryDisableOidSet;
+
+    /**
+     * @see PgKey#BATCH_WINDOW_BYTES
+     */
+    final int batchWindowBytes;
+
+    /**
+     * @see PgKey#REWRITE_BATCHED_INSERTS
+     */
+    final boolean reWriteBatchedInserts;
+
+    /**
+     * @see PgKey#BATCH_COPY_THRESHOLD
+     */
+    final int batchCopyThreshold;
+
+    /**
+     * @see PgKey#BATCH_UNNEST
+     */
+    final boolean batchUnnest;
+
+    /**
+     * @see PgKey#STREAM_BATCH_COUNT
+     */
+    final int streamBatchCount;
+
+    /**
+     * @see PgKey#STREAM_BATCH_BYTES
+     */
+    final int streamBatchBytes;
+
+    /**
+     * @see PgKey#STREAM_BATCH_MILLIS
+     */
+    final int streamBatchMillis;
+
+    /**
+     * @see PgKey#BATCH_YIELD_THRESHOLD
+     */
+    final int batchYieldThreshold;
+
+    /**
+     * @see PgKey#PREPARED_STATEMENT_CACHE_QUERIES
+     */
+    final int stmtCacheQueries;
+
+    /**
+     * @see PgKey#PREPARED_STATEMENT_CACHE_SIZE_MIB
+     */
+    final long stmtCacheBytes;
+
+    /**
+     * @see PgKey#AUTO_PARAMETERIZE
+     */
+    final boolean autoParameterize;
+
+    /**
+     * shared by all sessions of this factory.
+     *
+     * @see PgKey#PARSE_CACHE_ENTRIES
+     * @see PgKey#PARSE_CACHE_SIZE_MIB
+     */
+    final PgParseCache parseCache;
+
+    /**
+     * @see PgKey#PREWARM_STATEMENTS
+     */
+    final String prewarmStatements;
+
+    /**
+     * @see PgKey#PREWARM_HOT_STATEMENTS
+     */
+    final int prewarmHotStatements;
+
     ProtocolFactory(Environment env) {
         this.env = env;
         this.prepareThreshold = env.getOrDefault(PgKey.PREPARE_THRESHOLD);
+        this.prepareExpensiveParseNanos = positiveValue(env, PgKey.PREPARE_EXPENSIVE_PARSE_MILLIS) * 1000_000L;
+
+        final PgCodecRegistry codecRegistry = env.get(PgKey.CODEC_REGISTRY);
+        this.codecRegistry = codecRegistry == null ? PgCodecRegistry.empty() : codecRegistry;
+
+        this.binaryTransfer = env.getOrDefault(PgKey.BINARY_TRANSFER);
+        this.binaryEnableOidSet = parseOidSet(PgKey.BINARY_TRANSFER_ENABLE, env.get(PgKey.BINARY_TRANSFER_ENABLE));
+        this.binaryDisableOidSet = parseOidSet(PgKey.BINARY_TRANSFER_DISABLE, env.get(PgKey.BINARY_TRANSFER_DISABLE));
+
+        final int batchWindowBytes = env.getOrDefault(PgKey.BATCH_WINDOW_BYTES);
+        if (batchWindowBytes < 1) {
+            String m = String.format("%s value[%s] error.", PgKey.BATCH_WINDOW_BYTES, batchWindowBytes);
+            throw new JdbdException(m);
+        }
+        this.batchWindowBytes = batchWindowBytes;
+        this.reWriteBatchedInserts = env.getOrDefault(PgKey.REWRITE_BATCHED_INSERTS);
+
+        final int batchCopyThreshold = env.getOrDefault(PgKey.BATCH_COPY_THRESHOLD);
+        if (batchCopyThreshold < 0) {
+            String m = String.format("%s value[%s] error.", PgKey.BATCH_COPY_THRESHOLD, batchCopyThreshold);
+            throw new JdbdException(m);
+        }
+        this.batchCopyThreshold = batchCopyThreshold;
+        this.batchUnnest = env.getOrDefault(PgKey.BATCH_UNNEST);
+
+        this.streamBatchCount = positiveValue(env, PgKey.STREAM_BATCH_COUNT);
+
+        this.prewarmStatements = env.get(PgKey.PREWARM_STATEMENTS);
+        final int prewarmHotStatements = env.getOrDefault(PgKey.PREWARM_HOT_STATEMENTS);
+        if (prewarmHotStatements < 0) {
+            String m = String.format("%s value[%s] error.", PgKey.PREWARM_HOT_STATEMENTS, prewarmHotStatements);
+            throw new JdbdException(m);
+        }
+        this.prewarmHotStatements = prewarmHotStatements;
+        this.streamBatchBytes = positiveValue(env, PgKey.STREAM_BATCH_BYTES);
+        this.streamBatchMillis = positiveValue(env, PgKey.STREAM_BATCH_MILLIS);
+
+        final int batchYieldThreshold = env.getOrDefault(PgKey.BATCH_YIELD_THRESHOLD);
+        if (batchYieldThreshold < 0) {
+            String m = String.format("%s value[%s] error.", PgKey.BATCH_YIELD_THRESHOLD, batchYieldThreshold);
+            throw new JdbdException(m);
+        }
+        this.batchYieldThreshold = batchYieldThreshold;
+
+        this.stmtCacheQueries = positiveValue(env, PgKey.PREPARED_STATEMENT_CACHE_QUERIES);
+        this.stmtCacheBytes = ((long) positiveValue(env, PgKey.PREPARED_STATEMENT_CACHE_SIZE_MIB)) << 20;
+
+        this.autoParameterize = env.getOrDefault(PgKey.AUTO_PARAMETERIZE);
+        this.parseCache = PgParseCache.create(positiveValue(env, PgKey.PARSE_CACHE_ENTRIES),
+                ((long) positiveValue(env, PgKey.PARSE_CACHE_SIZE_MIB)) << 20);
+    }
+
+
+    /**
+     * <p>
+     * Decide the result format of column,following is order:
+     *     <ol>
+     *         <li>{@link PgKey#BINARY_TRANSFER} is false : text</li>
+     *         <li>type oid in {@link PgKey#BINARY_TRANSFER_DISABLE} : text</li>
+     *         <li>{@link PgDecoder} registered by application developer : {@link PgDecoder#binaryFormat()}</li>
+     *         <li>type oid in {@link PgKey#BINARY_TRANSFER_ENABLE} : binary if jdbd-postgre can read binary format</li>
+     *         <li>default : {@link PgBinds#decideFormatCode(DataType)}</li>
+     *     </ol>
+     * </p>
+     *
+     * @return true : column result is binary format.
+     * @see PgColumnMeta#binaryResult
+     */
+    final boolean isBinaryResult(final int typeOid, final DataType dataType, final @Nullable PgDecoder decoder) {
+        final boolean binary;
+        if (!this.binaryTransfer || this.binaryDisableOidSet.contains(typeOid)) {
+            binary = false;
+        } else if (decoder != null) {
+            binary = decoder.binaryFormat();
+        } else if (this.binaryEnableOidSet.contains(typeOid)) {
+            binary = PgBinds.supportBinaryResult(dataType);
+        } else {
+            binary = PgBinds.decideFormatCode(dataType) == 1;
+        }
+        return binary;
+    }
+
+
+    /**
+     * @return the counters of sql parse cache that is shared by all sessions of this factory.
+     */
+    public final PgStatementCacheStats parseCacheStats() {
+        return this.parseCache;
+    }
+
+    /**
+     * @return the environment of this factory.
+     */
+    public final Environment environment() {
+        return this.env;
+    }
+
+
+    private static int positiveValue(final Environment env, final PgKey<Integer> key) {
+        final int value = env.getOrDefault(key);
+        if (value < 1) {
+            String m = String.format("%s value[%s] error.", key, value);
+            throw new JdbdException(m);
+        }
+        return value;
+    }
+
+    /**
+     * @param value comma separated list of type oid or build-in type name , for example : 2950,int8,bytea
+     */
+    private static Set<Integer> parseOidSet(final PgKey<String> key, final @Nullable String value) {
+        if (!PgStrings.hasText(value)) {
+            return Collections.emptySet();
+        }
+        Map<String, PgType> typeMap = null;
+        final Set<Integer> oidSet = PgCollections.hashSet();
+        String item;
+        for (String token : value.split(",")) {
+            item = token.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            if (Character.isDigit(item.charAt(0))) {
+                try {
+                    oidSet.add(Integer.parseInt(item));
+                } catch (NumberFormatException e) {
+                    throw new JdbdException(String.format("%s value[%s] error.", key, value), e);
+                }
+                continue;
+            }
+            if (typeMap == null) {
+                typeMap = PgBinds.createPgTypeMap();
+            }
+            final PgType type = typeMap.get(item.toUpperCase(Locale.ROOT));
+            if (type == null) {
+                throw new JdbdException(String.format("%s value[%s] unknown type %s .", key, value, item));
+            }
+            oidSet.add((int) type.oid);
+        }
+        return Collections.unmodifiableSet(oidSet);
     }
 
 
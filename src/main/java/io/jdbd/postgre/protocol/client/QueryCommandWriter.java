@@ -4,6 +4,7 @@ import io.jdbd.JdbdException;
 import io.jdbd.meta.DataType;
 import io.jdbd.postgre.PgConstant;
 import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgEncoder;
 import io.jdbd.postgre.syntax.PgStatement;
 import io.jdbd.postgre.util.PgExceptions;
 import io.jdbd.vendor.stmt.*;
@@ -12,6 +13,8 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,20 +31,26 @@ import java.util.List;
  */
 final class QueryCommandWriter extends CommandWriter {
 
+    private static final byte[] NULL_BYTES = PgConstant.NULL.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * quote, E prefix and type suffix of literal.
+     */
+    private static final int LITERAL_EXTRA_BYTES = 16;
+
     static Publisher<ByteBuf> staticCommand(final String sql, final TaskAdjutant adjutant) throws JdbdException {
-        final byte[] sqlBytes;
-        sqlBytes = sql.getBytes(adjutant.clientCharset());
+        final Charset charset = adjutant.clientCharset();
 
-        final int capacity = sqlBytes.length + 6;
-        if (capacity < 0) {
+        final long capacity = Messages.encodedBytes(sql, charset) + 6;
+        if (capacity > Messages.MAX_CAPACITY) {
             throw PgExceptions.createObjectTooLargeError();
         }
         final ByteBuf message;
-        message = adjutant.allocator().buffer(capacity);
+        message = adjutant.allocator().buffer((int) capacity);
 
         message.writeByte(Messages.Q);
         message.writeZero(Messages.LENGTH_SIZE); // placeholder
-        message.writeBytes(sqlBytes);
+        Messages.writeText(message, sql, charset); // encode directly without intermediate byte array
         message.writeByte(Messages.STRING_TERMINATOR);
 
         Messages.writeLength(message);
@@ -53,12 +62,16 @@ final class QueryCommandWriter extends CommandWriter {
             throws JdbdException {
         final List<String> sqlGroup = stmt.getSqlGroup();
         final int groupSize = sqlGroup.size();
-        final ByteBuf message = adjutant.allocator().buffer(groupSize * 50, Integer.MAX_VALUE);
+        final Charset charset = adjutant.clientCharset();
+
+        long capacity = 6;
+        for (String sql : sqlGroup) {
+            capacity += Messages.encodedBytes(sql, charset) + 3;
+        }
+        final ByteBuf message = adjutant.allocator().buffer(capacityOf(capacity), Integer.MAX_VALUE);
         message.writeByte(Messages.Q);
         message.writeZero(Messages.LENGTH_SIZE); // placeholder of length
         try {
-            final Charset charset = adjutant.clientCharset();
-            final byte[] semicolonBytes = PgConstant.SPACE_SEMICOLON_SPACE.getBytes(charset);
             String sql;
             for (int i = 0; i < groupSize; i++) {
                 sql = sqlGroup.get(i);
@@ -67,9 +80,11 @@ final class QueryCommandWriter extends CommandWriter {
                     throw PgExceptions.createMultiStatementError();
                 }
                 if (i > 0) {
-                    message.writeBytes(semicolonBytes);
+                    message.writeByte(PgConstant.SPACE); // because jdbd-postgre support only the charset that ASCII is one byte
+                    message.writeByte(PgConstant.SEMICOLON);
+                    message.writeByte(PgConstant.SPACE);
                 }
-                message.writeBytes(sql.getBytes(charset));
+                Messages.writeText(message, sql, charset);
 
             }
 
@@ -124,24 +139,20 @@ final class QueryCommandWriter extends CommandWriter {
 
 
     private ByteBuf writeParamStmt(final ParamStmt stmt) throws JdbdException {
-        final String sql = stmt.getSql();
         final TaskAdjutant adjutant = this.adjutant;
 
-        final PgStatement pgStmt;
-        pgStmt = adjutant.parse(sql);
-        final List<String> sqlPartList = pgStmt.sqlPartList();
+        final List<byte[]> partBytesList;
+        partBytesList = adjutant.parse(stmt.getSql()).sqlPartBytes(this.clientCharset);
+        final List<ParamValue> paramGroup = stmt.getParamGroup();
 
-        int capacity = sql.length() + (sqlPartList.size() << 3);
-        if (capacity < 0) {
-            capacity = Integer.MAX_VALUE - 128;
-        }
-        final ByteBuf message = adjutant.allocator().buffer(capacity, Integer.MAX_VALUE);
+        final long capacity = 6 + estimateStatementBytes(partBytesList, paramGroup);
+        final ByteBuf message = adjutant.allocator().buffer(capacityOf(capacity), Integer.MAX_VALUE);
 
         try {
             message.writeByte(Messages.Q);
             message.writeZero(Messages.LENGTH_SIZE); // placeholder
 
-            writeStatement(-1, sqlPartList, stmt.getParamGroup(), message);
+            writeStatement(-1, partBytesList, paramGroup, message);
 
             message.writeByte(Messages.STRING_TERMINATOR);
 
@@ -156,28 +167,30 @@ final class QueryCommandWriter extends CommandWriter {
 
     private ByteBuf writeMultiBindCommand(final List<ParamStmt> stmtList) throws JdbdException {
         final TaskAdjutant adjutant = this.adjutant;
-        int capacity = stmtList.size() << 7;
-        if (capacity < 0) {
-            capacity = Integer.MAX_VALUE - 128;
+        final Charset clientCharset = this.clientCharset;
+        final int stmtCount = stmtList.size();
+
+        final List<List<byte[]>> statementList = new ArrayList<>(stmtCount);
+        long capacity = 6;
+        List<byte[]> partBytesList;
+        for (ParamStmt stmt : stmtList) {
+            partBytesList = adjutant.parse(stmt.getSql()).sqlPartBytes(clientCharset);
+            statementList.add(partBytesList);
+            capacity += 3 + estimateStatementBytes(partBytesList, stmt.getParamGroup());
         }
-        final ByteBuf message = adjutant.allocator().buffer(capacity, Integer.MAX_VALUE);
+        final ByteBuf message = adjutant.allocator().buffer(capacityOf(capacity), Integer.MAX_VALUE);
 
         try {
             message.writeByte(Messages.Q);
             message.writeZero(Messages.LENGTH_SIZE); // placeholder
 
-            PgStatement statement;
-            ParamStmt stmt;
-            final int stmtCount = stmtList.size();
             for (int i = 0; i < stmtCount; i++) {
-                stmt = stmtList.get(i);
-                statement = adjutant.parse(stmt.getSql());
                 if (i > 0) {
                     message.writeByte(PgConstant.SPACE); // because jdbd-postgre support only the charset that ASCII is one byte
                     message.writeByte(PgConstant.SEMICOLON);
                     message.writeByte(PgConstant.SPACE);
                 }
-                writeStatement(i, statement.sqlPartList(), stmt.getParamGroup(), message);
+                writeStatement(i, statementList.get(i), stmtList.get(i).getParamGroup(), message);
             }
 
             message.writeByte(Messages.STRING_TERMINATOR);
@@ -193,19 +206,18 @@ final class QueryCommandWriter extends CommandWriter {
 
     private ByteBuf writeParamBatchCommand(final ParamBatchStmt stmt) throws JdbdException {
         final TaskAdjutant adjutant = this.adjutant;
-        final String sql = stmt.getSql();
         final List<List<ParamValue>> groupList = stmt.getGroupList();
         final int stmtCount = groupList.size();
 
-        int capacity = (sql.length() + 40) * stmtCount;
-        if (capacity < 0) {
-            capacity = Integer.MAX_VALUE - 128;
-        }
-
-        final List<String> sqlPartList;
-        sqlPartList = adjutant.parse(sql).sqlPartList();
+        // sql fragments are encoded only once for all group
+        final List<byte[]> partBytesList;
+        partBytesList = adjutant.parse(stmt.getSql()).sqlPartBytes(this.clientCharset);
 
-        final ByteBuf message = adjutant.allocator().buffer(capacity, Integer.MAX_VALUE);
+        long capacity = 6;
+        for (List<ParamValue> group : groupList) {
+            capacity += 3 + estimateStatementBytes(partBytesList, group);
+        }
+        final ByteBuf message = adjutant.allocator().buffer(capacityOf(capacity), Integer.MAX_VALUE);
         try {
             message.writeByte(Messages.Q);
             message.writeZero(Messages.LENGTH_SIZE); // placeholder
@@ -216,7 +228,7 @@ final class QueryCommandWriter extends CommandWriter {
                     message.writeByte(PgConstant.SEMICOLON);
                     message.writeByte(PgConstant.SPACE);
                 }
-                writeStatement(i, sqlPartList, groupList.get(i), message);
+                writeStatement(i, partBytesList, groupList.get(i), message);
             }
 
             message.writeByte(Messages.STRING_TERMINATOR);
@@ -230,35 +242,39 @@ final class QueryCommandWriter extends CommandWriter {
     }
 
     /**
+     * @param partBytesList the sql fragments encoded by client charset,see {@link PgStatement#sqlPartBytes(Charset)}
      * @see #writeParamStmt(ParamStmt)
      * @see #writeParamBatchCommand(ParamBatchStmt)
      * @see #writeMultiBindCommand(List)
      */
-    private void writeStatement(final int stmtIndex, final List<String> sqlPartList, final List<ParamValue> valueList,
+    private void writeStatement(final int stmtIndex, final List<byte[]> partBytesList, final List<ParamValue> valueList,
                                 final ByteBuf message) throws JdbdException {
 
-        final int paramCount = sqlPartList.size() - 1;
+        final int paramCount = partBytesList.size() - 1;
         if (valueList.size() != paramCount) {
             throw PgExceptions.createBindCountNotMatchError(stmtIndex, paramCount, valueList.size());
         }
         final Charset clientCharset = this.clientCharset;
-        final byte[] nullBytes = PgConstant.NULL.getBytes(clientCharset);
         ParamValue paramValue;
         Object value;
         DataType dataType;
+        PgEncoder encoder;
         for (int i = 0; i < paramCount; i++) {
             paramValue = valueList.get(i);
             if (paramValue.getIndex() != i) {
                 throw PgExceptions.createBindIndexNotMatchError(stmtIndex, i, paramValue);
             }
-            message.writeBytes(sqlPartList.get(i).getBytes(clientCharset));
+            message.writeBytes(partBytesList.get(i));
             value = paramValue.getValue();
             if (value == null) {
-                message.writeBytes(nullBytes);
+                message.writeBytes(NULL_BYTES); // because jdbd-postgre support only the charset that ASCII is one byte
                 continue;
             }
             dataType = paramValue.getType();
-            if (dataType.isArray()) {
+            if ((encoder = encoderOf(dataType)) != null && !encoder.binaryFormat()) {
+                // simple query protocol support only text format
+                bindWithTextEncoder(stmtIndex, encoder, paramValue, message);
+            } else if (dataType.isArray()) {
                 if (value instanceof String || !(dataType instanceof PgType)) {
                     bindStringToArray(stmtIndex, paramValue, message);
                 } else if (value.getClass().isArray()) {
@@ -271,7 +287,7 @@ final class QueryCommandWriter extends CommandWriter {
             } else if (isIllegalTypeName(dataType)) {
                 throw PgExceptions.errorTypeName(dataType);
             } else if (value instanceof String) {
-                message.writeBytes(dataType.typeName().getBytes(clientCharset));
+                Messages.writeText(message, dataType.typeName(), clientCharset);
                 message.writeByte(PgConstant.SPACE);
                 writeBackslashEscapes((String) value, message);
             } else {
@@ -280,12 +296,70 @@ final class QueryCommandWriter extends CommandWriter {
 
         }
 
-        message.writeBytes(sqlPartList.get(paramCount).getBytes(clientCharset));
+        message.writeBytes(partBytesList.get(paramCount));
+
+    }
+
+    /**
+     * @return the bytes of sql fragments plus the estimated bytes of literal of parameters.
+     * @see #writeStatement(int, List, List, ByteBuf)
+     */
+    private static long estimateStatementBytes(final List<byte[]> partBytesList, final List<ParamValue> valueList) {
+        long bytes = 0;
+        for (byte[] partBytes : partBytesList) {
+            bytes += partBytes.length;
+        }
+        Object value;
+        for (ParamValue paramValue : valueList) {
+            value = paramValue.getValue();
+            if (value == null) {
+                bytes += NULL_BYTES.length;
+            } else if (value instanceof String) {
+                bytes += ((String) value).length() + LITERAL_EXTRA_BYTES; // E'' and type suffix
+            } else if (value instanceof byte[]) {
+                bytes += (((byte[]) value).length << 1) + LITERAL_EXTRA_BYTES; // hex format
+            } else {
+                bytes += 32 + LITERAL_EXTRA_BYTES;
+            }
+        }
+        return bytes;
+    }
 
+    private static int capacityOf(final long capacity) {
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 128);
     }
 
 
 
+    /**
+     * @see #writeStatement(int, List, List, ByteBuf)
+     * @see io.jdbd.postgre.codec.PgCodecRegistry
+     */
+    private void bindWithTextEncoder(final int batchIndex, final PgEncoder encoder, final ParamValue paramValue,
+                                     final ByteBuf message) throws JdbdException {
+        final DataType dataType = paramValue.getType();
+        if (!(dataType instanceof PgType) && isIllegalTypeName(dataType)) {
+            throw PgExceptions.errorTypeName(dataType);
+        }
+        final Charset clientCharset = this.clientCharset;
+        final ByteBuf valueBuffer = this.adjutant.allocator().buffer();
+        final String textValue;
+        try {
+            encoder.encode(paramValue.getNonNull(), valueBuffer, clientCharset);
+            textValue = valueBuffer.toString(clientCharset);
+        } catch (JdbdException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw PgExceptions.wrap(e);
+        } finally {
+            valueBuffer.release();
+        }
+        writeBackslashEscapes(textValue, message);
+        Messages.writeText(message, "::", clientCharset);
+        Messages.writeText(message, dataType.typeName(), clientCharset);
+
+    }
+
     /**
      * @see #writeStatement(int, List, List, ByteBuf)
      */
@@ -309,7 +383,7 @@ final class QueryCommandWriter extends CommandWriter {
             builder.append("[]");
         }
 
-        message.writeBytes(builder.toString().getBytes(this.clientCharset));
+        Messages.writeText(message, builder.toString(), this.clientCharset);
 
 
     }
@@ -0,0 +1,73 @@
+package io.jdbd.postgre.protocol.client;
+
+/**
+ * <p>
+ * This class estimate the network round trip of session, so it's excluded from observed parse time.
+ * The parse time is observed from writing Parse message to receiving ParseComplete/BindComplete message,
+ * that contain one round trip, the round trip is often greater than {@link io.jdbd.postgre.env.PgKey#PREPARE_EXPENSIVE_PARSE_MILLIS}
+ * on remote server, then every statement would look expensive.
+ * </p>
+ * <p>
+ * The cheapest statement (for example {@code SELECT 1}) is parsed and planned in microseconds, so the minimum
+ * of observed time is close to the round trip. The minimum is windowed (new minimum every {@link #WINDOW_SAMPLES} samples),
+ * so baseline follows the round trip when network become slower.
+ * </p>
+ * <p>
+ * This class isn't thread safe, it's accessed only in netty event loop.
+ * </p>
+ *
+ * @see TaskAdjutant#excludeRoundTrip(long)
+ * @see PostgreStmt#parseNanos()
+ * @since 1.0
+ */
+final class RoundTripBaseline {
+
+    static RoundTripBaseline create() {
+        return new RoundTripBaseline();
+    }
+
+    static final int WINDOW_SAMPLES = 256;
+
+    private long minNanos = Long.MAX_VALUE;
+
+    private long windowMinNanos = Long.MAX_VALUE;
+
+    private int windowSamples;
+
+    /**
+     * private constructor
+     */
+    private RoundTripBaseline() {
+    }
+
+    /**
+     * @param elapsedNanos the observed nanos from Parse message to ParseComplete/BindComplete message.
+     * @return the parse time that round trip is excluded, not negative.
+     */
+    long exclude(final long elapsedNanos) {
+        if (elapsedNanos < this.windowMinNanos) {
+            this.windowMinNanos = elapsedNanos;
+        }
+        if (elapsedNanos < this.minNanos) {
+            this.minNanos = elapsedNanos;
+        }
+        final long parseNanos = elapsedNanos - this.minNanos;
+
+        if (++this.windowSamples == WINDOW_SAMPLES) {
+            this.minNanos = this.windowMinNanos;
+            this.windowMinNanos = Long.MAX_VALUE;
+            this.windowSamples = 0;
+        }
+        return parseNanos;
+    }
+
+    /**
+     * @return the estimated round trip nanos, -1 if no sample.
+     */
+    long baselineNanos() {
+        final long minNanos = this.minNanos;
+        return minNanos == Long.MAX_VALUE ? -1L : minNanos;
+    }
+
+
+}
@@ -1,7 +1,7 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
-import io.jdbd.result.ResultRowMeta;
 
 import java.util.List;
 
@@ -11,7 +11,23 @@ interface ServerCacheStmt extends PostgreStmt {
 
     List<DataType> getParamOidList();
 
-    ResultRowMeta getRowMeta();
+    /**
+     * @return the RowDescription of statement , that decide the result format of each column;
+     * null if statement don't return result set.
+     */
+    @Nullable
+    PgRowMeta getRowMeta();
+
+    /**
+     * @return the encoder array created by {@link #getParamOidList()} , element null representing text format.
+     * @see ParamEncoders#create(List, io.jdbd.postgre.codec.PgCodecRegistry)
+     */
+    ParamEncoder[] paramEncoders();
+
+    /**
+     * @return the pre-encoded Bind header and Execute/Sync trailer, created when statement is cached.
+     */
+    BindTemplate bindTemplate();
 
 
 }
@@ -311,6 +311,26 @@ final class SimpleQueryTask extends PgCommandTask {
         });
     }
 
+    /**
+     * <p>
+     * This method is underlying api of batch INSERT that is converted to COPY FROM STDIN.
+     * </p>
+     *
+     * @param stdinPublisher the CopyData messages and CopyDone(or CopyFail) message.
+     * @see BatchCopyConverter
+     */
+    static Mono<ResultStates> copyIn(StaticStmt stmt, Publisher<ByteBuf> stdinPublisher, TaskAdjutant adjutant) {
+        return MultiResults.update(sink -> {
+            try {
+                SimpleQueryTask task = new SimpleQueryTask(stmt, sink, adjutant);
+                task.stdinPublisher = stdinPublisher;
+                task.submit(sink::error);
+            } catch (Throwable e) {
+                sink.error(PgExceptions.wrapIfNonJvmFatal(e));
+            }
+        });
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger(SimpleQueryTask.class);
 
     final Stmt stmt;
@@ -2,16 +2,20 @@ package io.jdbd.postgre.protocol.client;
 
 import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.postgre.syntax.PgParser;
-import io.jdbd.result.ResultRowMeta;
 import io.jdbd.vendor.env.Environment;
 import io.jdbd.vendor.task.ITaskAdjutant;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.FileRegion;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.Charset;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 
 interface TaskAdjutant extends ITaskAdjutant, PgParser {
@@ -63,6 +67,25 @@ interface TaskAdjutant extends ITaskAdjutant, PgParser {
 
     PostgreStmt parseAsPostgreStmt(String sql);
 
+    /**
+     * <p>
+     * Override the prepare decision of sql , this method must be invoked in netty event loop.
+     * </p>
+     *
+     * @param prepare null : adaptive decision ; true : always prepare ; false : never prepare.
+     * @see PreparePolicy
+     */
+    void overridePrepare(String sql, @Nullable Boolean prepare);
+
+    /**
+     * <p>
+     * Invalidate the server-side prepared statement of sql, next execution re-Parse sql.
+     * </p>
+     *
+     * @see PgServerException#isInvalidCachedPlan()
+     */
+    void invalidatePostgreStmt(String sql);
+
     String nextStmtName();
 
     String nextPortName(String stmtName);
@@ -70,10 +93,106 @@ interface TaskAdjutant extends ITaskAdjutant, PgParser {
 
     IntFunction<DataType> oidToDataTypeFunc();
 
-    void cachePostgreStmt(PostgreStmt stmt, List<DataType> paramTypeList, @Nullable ResultRowMeta rowMeta);
+    /**
+     * @param stmt     the statement that have been prepared with stmtName.
+     * @param stmtName non-empty statement name.
+     * @return the cached statement.
+     * @see PgStmtCache
+     */
+    ServerCacheStmt cachePostgreStmt(PostgreStmt stmt, String stmtName, List<DataType> paramTypeList,
+                                     @Nullable PgRowMeta rowMeta, ParamEncoder[] paramEncoders);
+
+    /**
+     * @return the names of statements that is evicted from statement cache, the Close messages of them
+     * should be sent with next round trip; empty if none.
+     */
+    List<String> pollEvictedStmtNames();
+
+    /**
+     * <p>
+     * Close the server-side statement that is prepared but not cached, the Close message is sent with the Close messages
+     * of evicted statements, see {@link #pollEvictedStmtNames()}. This method must be invoked in netty event loop.
+     * </p>
+     */
+    void closeStmtLater(String stmtName);
+
+    /**
+     * <p>
+     * Pin the cached statement that is used by {@link io.jdbd.vendor.stmt.PrepareStmt} waiting for binding ,
+     * so the statement isn't closed by eviction until {@link #unpinStmt(String)}.
+     * This method must be invoked in netty event loop.
+     * </p>
+     */
+    void pinStmt(String stmtName);
+
+    /**
+     * @see #pinStmt(String)
+     */
+    void unpinStmt(String stmtName);
+
+    PgStatementCacheStats stmtCacheStats();
+
+    /**
+     * <p>
+     * Exclude the estimated network round trip of session from observed parse time.
+     * This method must be invoked in netty event loop.
+     * </p>
+     *
+     * @param elapsedNanos the observed nanos from Parse message to ParseComplete/BindComplete message.
+     * @return the parse and plan nanos of server , not negative.
+     * @see RoundTripBaseline
+     */
+    long excludeRoundTrip(long elapsedNanos);
+
+    /**
+     * <p>
+     * Same sql may resolve different relations and functions by different user or search_path ,
+     * so the statement metadata is shared only by the sessions that have same scope.
+     * </p>
+     *
+     * @return the user and search_path of session ; null : search_path or role have been changed but server don't report it,
+     * so the session don't share statement metadata.
+     * @see PgStmtMeta
+     */
+    @Nullable
+    String stmtMetaScope();
 
     void appendSetCommandParameter(String parameterName);
 
+    /**
+     * @return true : netty channel outbound buffer is below high water mark.
+     */
+    boolean isChannelWritable();
+
+    /**
+     * @return true : netty channel is encrypted by TLS ,so file content must be encrypted in user space.
+     */
+    boolean isChannelEncrypted();
+
+    /**
+     * <p>
+     * Write message header and file region directly to netty channel and flush,the file region is transferred by kernel
+     * (sendfile) without copying to user space. This method bypass the packet publisher of task,so caller must invoke it
+     * in event loop and only when the packet publisher of task don't emit other message.
+     * </p>
+     *
+     * @return the future of writing region.
+     * @see #isChannelEncrypted()
+     */
+    ChannelFuture writeFileRegion(ByteBuf header, FileRegion region);
+
+    /**
+     * <p>
+     * Run task in event loop after netty channel become writable,if channel is writable now,run task immediately.
+     * Only one pending task is allowed.
+     * </p>
+     * <p>
+     * errorHandler is invoked in event loop instead of task when channel is inactive, when channel close before
+     * pending task run, or when other task is pending, so caller can release its resource and end its sink.
+     * </p>
+     */
+    void onChannelWritable(Runnable task, Consumer<Throwable> errorHandler);
+
     @Nullable
     DataType internalOrUserType(String upperCaseName);
 
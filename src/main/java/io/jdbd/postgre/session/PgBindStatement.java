@@ -454,7 +454,8 @@ final class PgBindStatement extends PgParametrizedStatement<BindStatement> imple
 
 
     private boolean isUsePrepare() {
-        return this.forcePrepare || this.usePrepare || this.fetchSize > 0;
+        final Boolean serverPrepare = applyServerPrepare(this.sql);
+        return this.forcePrepare || this.usePrepare || this.fetchSize > 0 || Boolean.TRUE.equals(serverPrepare);
     }
 
     private void clearStatementToAvoidReuse() {
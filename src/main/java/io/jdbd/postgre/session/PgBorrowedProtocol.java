@@ -0,0 +1,392 @@
+package io.jdbd.postgre.session;
+
+import io.jdbd.lang.Nullable;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgBatchSummary;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.protocol.client.PgProtocol;
+import io.jdbd.postgre.util.PgExceptions;
+import io.jdbd.result.*;
+import io.jdbd.session.*;
+import io.jdbd.vendor.result.MultiResults;
+import io.jdbd.vendor.stmt.*;
+import io.jdbd.vendor.task.PrepareTask;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * This class is the handle of one borrowing of {@link PgSessionPool} , every borrowing create new handle.
+ * {@link #close()} return connection to pool and invalidate this handle , after that all method that access connection
+ * emit or throw {@link PgExceptions#sessionHaveClosed()} , so the session and its statements that is held by
+ * application after close can't access the connection that have been borrowed by other session.
+ * </p>
+ *
+ * @see PgLocalDatabaseSession#forBuildInPool(PgDatabaseSessionFactory, PgSessionPool, PgSessionPool.PooledProtocol)
+ * @since 1.0
+ */
+final class PgBorrowedProtocol implements PgProtocol {
+
+    static PgBorrowedProtocol create(PgSessionPool pool, PgSessionPool.PooledProtocol pooled) {
+        return new PgBorrowedProtocol(pool, pooled);
+    }
+
+    private final PgSessionPool pool;
+
+    private final PgSessionPool.PooledProtocol pooled;
+
+    private final PgProtocol protocol;
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    private PgBorrowedProtocol(PgSessionPool pool, PgSessionPool.PooledProtocol pooled) {
+        this.pool = pool;
+        this.pooled = pooled;
+        this.protocol = pooled.protocol;
+    }
+
+    @Override
+    public long sessionIdentifier() {
+        checkBorrowed();
+        return this.protocol.sessionIdentifier();
+    }
+
+    @Override
+    public void bindIdentifier(StringBuilder builder, String identifier) {
+        this.protocol.bindIdentifier(builder, identifier);
+    }
+
+    @Override
+    public Mono<ResultStates> update(StaticStmt stmt) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.update(stmt);
+    }
+
+    @Override
+    public <R> Flux<R> query(StaticStmt stmt, Function<CurrentRow, R> function) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.query(stmt, function);
+    }
+
+    @Override
+    public Flux<ResultStates> batchUpdate(StaticBatchStmt stmt) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.batchUpdate(stmt);
+    }
+
+    @Override
+    public BatchQuery batchQuery(StaticBatchStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.batchQueryError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.batchQuery(stmt);
+    }
+
+    @Override
+    public MultiResult batchAsMulti(StaticBatchStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.multiError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.batchAsMulti(stmt);
+    }
+
+    @Override
+    public OrderedFlux batchAsFlux(StaticBatchStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.fluxError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.batchAsFlux(stmt);
+    }
+
+    @Override
+    public OrderedFlux executeAsFlux(StaticMultiStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.fluxError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.executeAsFlux(stmt);
+    }
+
+    @Override
+    public Mono<ResultStates> paramUpdate(ParamStmt stmt, boolean usePrepare) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramUpdate(stmt, usePrepare);
+    }
+
+    @Override
+    public <R> Flux<R> paramQuery(ParamStmt stmt, boolean usePrepare, Function<CurrentRow, R> function) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramQuery(stmt, usePrepare, function);
+    }
+
+    @Override
+    public Flux<ResultStates> paramBatchUpdate(ParamBatchStmt stmt, boolean usePrepare) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramBatchUpdate(stmt, usePrepare);
+    }
+
+    @Override
+    public Flux<ResultStates> paramStreamUpdate(String sql, Publisher<List<ParamValue>> groupPublisher,
+                                                StmtOption option) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramStreamUpdate(sql, groupPublisher, option);
+    }
+
+    @Override
+    public Mono<PgBatchSummary> paramBatchSummary(ParamBatchStmt stmt, boolean itemCounts) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramBatchSummary(stmt, itemCounts);
+    }
+
+    @Override
+    public void overridePrepare(String sql, @Nullable Boolean prepare) {
+        checkBorrowed();
+        this.protocol.overridePrepare(sql, prepare);
+    }
+
+    @Override
+    public PgStatementCacheStats statementCacheStats() {
+        return this.protocol.statementCacheStats();
+    }
+
+    @Override
+    public BatchQuery paramBatchQuery(ParamBatchStmt stmt, boolean usePrepare) {
+        if (this.released.get()) {
+            return MultiResults.batchQueryError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramBatchQuery(stmt, usePrepare);
+    }
+
+    @Override
+    public MultiResult paramBatchAsMulti(ParamBatchStmt stmt, boolean usePrepare) {
+        if (this.released.get()) {
+            return MultiResults.multiError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramBatchAsMulti(stmt, usePrepare);
+    }
+
+    @Override
+    public OrderedFlux paramBatchAsFlux(ParamBatchStmt stmt, boolean usePrepare) {
+        if (this.released.get()) {
+            return MultiResults.fluxError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.paramBatchAsFlux(stmt, usePrepare);
+    }
+
+    @Override
+    public Flux<ResultStates> multiStmtBatchUpdate(ParamMultiStmt stmt) {
+        if (this.released.get()) {
+            return Flux.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.multiStmtBatchUpdate(stmt);
+    }
+
+    @Override
+    public BatchQuery multiStmtBatchQuery(ParamMultiStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.batchQueryError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.multiStmtBatchQuery(stmt);
+    }
+
+    @Override
+    public MultiResult multiStmtAsMulti(ParamMultiStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.multiError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.multiStmtAsMulti(stmt);
+    }
+
+    @Override
+    public OrderedFlux multiStmtAsFlux(ParamMultiStmt stmt) {
+        if (this.released.get()) {
+            return MultiResults.fluxError(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.multiStmtAsFlux(stmt);
+    }
+
+    /**
+     * <p>
+     * {@link io.jdbd.statement.PreparedStatement} execute by {@link PrepareTask} instead of this handle ,
+     * so {@link PgPreparedStatement} check {@link PgDatabaseSession#isClosed()} before execution.
+     * </p>
+     */
+    @Override
+    public Mono<PrepareTask> prepare(String sql) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.prepare(sql);
+    }
+
+    @Override
+    public RefCursor refCursor(String name, Function<Option<?>, ?> optionFunc, DatabaseSession session) {
+        checkBorrowed();
+        return this.protocol.refCursor(name, optionFunc, session);
+    }
+
+    @Override
+    public Mono<ResultStates> startTransaction(@Nullable TransactionOption option, @Nullable HandleMode mode) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.startTransaction(option, mode);
+    }
+
+    @Override
+    public Mono<ResultStates> setTransactionCharacteristics(@Nullable TransactionOption option) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.setTransactionCharacteristics(option);
+    }
+
+    @Override
+    public Mono<TransactionStatus> transactionStatus() {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.transactionStatus();
+    }
+
+    @Override
+    public Mono<Void> ping(int timeSeconds) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.ping(timeSeconds);
+    }
+
+    @Override
+    public Mono<Void> reset() {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.reset();
+    }
+
+    @Override
+    public Mono<Void> reconnect() {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.reconnect();
+    }
+
+    @Override
+    public boolean supportMultiStmt() {
+        return this.protocol.supportMultiStmt();
+    }
+
+    @Override
+    public boolean supportOutParameter() {
+        return this.protocol.supportOutParameter();
+    }
+
+    @Override
+    public boolean supportStmtVar() {
+        return this.protocol.supportStmtVar();
+    }
+
+    @Override
+    public ServerVersion serverVersion() {
+        return this.protocol.serverVersion();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        checkBorrowed();
+        return this.protocol.inTransaction();
+    }
+
+    @Override
+    public Mono<ResultStates> commit(Function<Option<?>, ?> optionFunc) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.commit(optionFunc);
+    }
+
+    @Override
+    public Mono<ResultStates> rollback(Function<Option<?>, ?> optionFunc) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.rollback(optionFunc);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.released.get() || this.protocol.isClosed();
+    }
+
+    /**
+     * <p>
+     * Invalidate this handle and return connection to pool , don't close connection.
+     * </p>
+     *
+     * @see PgSessionPool#release(PgSessionPool.PooledProtocol)
+     */
+    @Override
+    public <T> Mono<T> close() {
+        if (!this.released.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return this.pool.release(this.pooled)
+                .then(Mono.empty());
+    }
+
+    @Override
+    public <T> T valueOf(Option<T> option) {
+        checkBorrowed();
+        return this.protocol.valueOf(option);
+    }
+
+    @Override
+    public Function<String, DataType> internalOrUserTypeFunc() {
+        return this.protocol.internalOrUserTypeFunc();
+    }
+
+    @Override
+    public boolean isNeedQueryUnknownType(Set<String> unknownTypeSet) {
+        return this.protocol.isNeedQueryUnknownType(unknownTypeSet);
+    }
+
+    @Override
+    public Mono<Void> queryUnknownTypesIfNeed(Set<String> unknownTypeSet) {
+        if (this.released.get()) {
+            return Mono.error(PgExceptions.sessionHaveClosed());
+        }
+        return this.protocol.queryUnknownTypesIfNeed(unknownTypeSet);
+    }
+
+
+    private void checkBorrowed() {
+        if (this.released.get()) {
+            throw PgExceptions.sessionHaveClosed();
+        }
+    }
+
+
+}
@@ -4,6 +4,8 @@ import io.jdbd.JdbdException;
 import io.jdbd.lang.Nullable;
 import io.jdbd.meta.DataType;
 import io.jdbd.meta.DatabaseMetaData;
+import io.jdbd.postgre.PgBatchSummary;
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.postgre.protocol.client.PgProtocol;
 import io.jdbd.postgre.util.PgCollections;
 import io.jdbd.postgre.util.PgExceptions;
@@ -20,6 +22,7 @@ import io.jdbd.statement.StaticStatement;
 import io.jdbd.vendor.protocol.DatabaseProtocol;
 import io.jdbd.vendor.result.MultiResults;
 import io.jdbd.vendor.result.NamedSavePoint;
+import io.jdbd.vendor.stmt.ParamValue;
 import io.jdbd.vendor.stmt.Stmts;
 import io.jdbd.vendor.task.PrepareTask;
 import org.reactivestreams.Publisher;
@@ -48,7 +51,8 @@ import java.util.function.Function;
  * @see <a href="https://www.postgresql.org/docs/current/sql-rollback-to.html">ROLLBACK TO SAVEPOINT</a>
  * @since 1.0
  */
-abstract class PgDatabaseSession<S extends DatabaseSession> extends PgDatabaseMetaSpec implements DatabaseSession {
+abstract class PgDatabaseSession<S extends DatabaseSession> extends PgDatabaseMetaSpec implements DatabaseSession,
+        PgStreamingSession {
 
     final PgDatabaseSessionFactory factory;
 
@@ -146,6 +150,41 @@ abstract class PgDatabaseSession<S extends DatabaseSession> extends PgDatabaseMe
         return this.protocol.executeAsFlux(Stmts.multiStmtWithSession(multiStmt, this));
     }
 
+    @Override
+    public final Publisher<ResultStates> executeStreamBatchUpdate(final String sql,
+                                                                  final Publisher<List<ParamValue>> groupPublisher) {
+        final Flux<ResultStates> flux;
+        if (!PgStrings.hasText(sql)) {
+            flux = Flux.error(PgExceptions.sqlHaveNoText());
+        } else if (groupPublisher == null) {
+            flux = Flux.error(new NullPointerException("groupPublisher"));
+        } else {
+            flux = this.protocol.paramStreamUpdate(sql, groupPublisher, Stmts.stmtWithSession(sql, this));
+        }
+        return flux;
+    }
+
+    @Override
+    public final Publisher<PgBatchSummary> executeBatchSummary(final String sql,
+                                                               final List<List<ParamValue>> groupList,
+                                                               final boolean itemCounts) {
+        final Mono<PgBatchSummary> mono;
+        if (!PgStrings.hasText(sql)) {
+            mono = Mono.error(PgExceptions.sqlHaveNoText());
+        } else if (PgCollections.isEmpty(groupList)) {
+            mono = Mono.error(PgExceptions.noAnyParamGroupError());
+        } else {
+            mono = this.protocol.paramBatchSummary(Stmts.paramBatch(sql, groupList, Stmts.stmtWithSession(sql, this)),
+                    itemCounts);
+        }
+        return mono;
+    }
+
+    @Override
+    public final PgStatementCacheStats statementCacheStats() {
+        return this.protocol.statementCacheStats();
+    }
+
     @Override
     public final DatabaseMetaData databaseMetaData() {
         if (this.protocol.isClosed()) {
@@ -316,12 +355,12 @@ abstract class PgDatabaseSession<S extends DatabaseSession> extends PgDatabaseMe
     }
 
     @Override
-    public final boolean isClosed() {
+    public boolean isClosed() {
         return this.protocol.isClosed();
     }
 
     @Override
-    public final <T> Publisher<T> close() {
+    public <T> Publisher<T> close() {
         return this.protocol.close();
     }
 
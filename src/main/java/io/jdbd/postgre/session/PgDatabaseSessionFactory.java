@@ -3,6 +3,7 @@ package io.jdbd.postgre.session;
 import io.jdbd.DriverVersion;
 import io.jdbd.JdbdException;
 import io.jdbd.postgre.PgDriver;
+import io.jdbd.postgre.PgStatementCacheStats;
 import io.jdbd.postgre.env.PgHost;
 import io.jdbd.postgre.env.PgUrlParser;
 import io.jdbd.postgre.protocol.PgProtocolFactory;
@@ -47,6 +48,11 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
 
     private final boolean forPoolVendor;
 
+    /**
+     * null : build-in pool is disabled , or this factory is for pool vendor.
+     */
+    private final PgSessionPool pool;
+
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
 
@@ -59,6 +65,11 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
         this.protocolFactory = protocolFactory;
         this.name = protocolFactory.factoryName();
         this.forPoolVendor = forPoolVendor;
+        if (forPoolVendor) {
+            this.pool = null;
+        } else {
+            this.pool = PgSessionPool.createIfNeed(this.name, protocolFactory);
+        }
     }
 
     @Override
@@ -71,6 +82,11 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
         if (this.closed.get()) {
             return Mono.error(PgExceptions.factoryClosed(this.name));
         }
+        final PgSessionPool pool = this.pool;
+        if (pool != null) {
+            return pool.acquire()
+                    .map(this::createPooledLocalSession);
+        }
         return this.protocolFactory.createProtocol()
                 .map(this::createLocalSession);
     }
@@ -87,7 +103,12 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
     @Override
     public <T> Publisher<T> close() {
         this.closed.set(true);
-        return Mono.empty();
+        final PgSessionPool pool = this.pool;
+        if (pool == null) {
+            return Mono.empty();
+        }
+        return pool.close()
+                .then(Mono.empty());
     }
 
     @Override
@@ -116,6 +137,13 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
         return null;
     }
 
+    /**
+     * @return the counters of sql parse cache that is shared by all sessions of this factory.
+     */
+    public PgStatementCacheStats parseCacheStats() {
+        return this.protocolFactory.parseCacheStats();
+    }
+
 
     @Override
     public String toString() {
@@ -152,6 +180,18 @@ public final class PgDatabaseSessionFactory implements DatabaseSessionFactory {
         return session;
     }
 
+    /**
+     * @see #localSession()
+     */
+    private LocalDatabaseSession createPooledLocalSession(final PgSessionPool.PooledProtocol pooled) {
+        final PgSessionPool pool = this.pool;
+        assert pool != null;
+        final LocalDatabaseSession session;
+        session = PgLocalDatabaseSession.forBuildInPool(this, pool, pooled);
+        pool.track(pooled, session);
+        return session;
+    }
+
     /**
      * @see #rmSession()
      */
@@ -31,6 +31,14 @@ class PgLocalDatabaseSession extends PgDatabaseSession<LocalDatabaseSession> imp
         return new PgPoolLocalDatabaseSession(factory, protocol);
     }
 
+    /**
+     * @see PgSessionPool
+     */
+    static LocalDatabaseSession forBuildInPool(PgDatabaseSessionFactory factory, PgSessionPool pool,
+                                               PgSessionPool.PooledProtocol pooled) {
+        return new PgPooledLocalDatabaseSession(factory, pool, pooled);
+    }
+
     /**
      * <p>
      * private constructor.
@@ -142,5 +150,22 @@ class PgLocalDatabaseSession extends PgDatabaseSession<LocalDatabaseSession> imp
 
     }//PgPoolLocalDatabaseSession
 
+    /**
+     * <p>
+     * The session that borrow connection from {@link PgSessionPool} , {@link #close()} return connection to pool.
+     * The protocol of this session is {@link PgBorrowedProtocol} , so this session and its statements
+     * can't access connection after close.
+     * </p>
+     */
+    private static final class PgPooledLocalDatabaseSession extends PgLocalDatabaseSession {
+
+        private PgPooledLocalDatabaseSession(PgDatabaseSessionFactory factory, PgSessionPool pool,
+                                             PgSessionPool.PooledProtocol pooled) {
+            super(factory, PgBorrowedProtocol.create(pool, pooled));
+        }
+
+
+    }//PgPooledLocalDatabaseSession
+
 
 }
@@ -172,6 +172,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (this.rowMeta != null) {
             error = new SubscribeException(ResultType.UPDATE, ResultType.QUERY);
         } else if (this.paramGroupList != null) {
@@ -226,6 +228,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (this.rowMeta == null) {
             error = new SubscribeException(ResultType.QUERY, ResultType.UPDATE);
         } else if (this.paramGroupList != null) {
@@ -271,6 +275,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (paramGroup != null) {
             error = PgExceptions.noInvokeAddBatch();
         } else if (paramGroupList == null || paramGroupList.size() == 0) {
@@ -310,6 +316,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (paramGroup != null) {
             error = PgExceptions.noInvokeAddBatch();
         } else if (paramGroupList == null || paramGroupList.size() == 0) {
@@ -351,6 +359,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (paramGroup != null) {
             error = PgExceptions.noInvokeAddBatch();
         } else if (paramGroupList == null || paramGroupList.size() == 0) {
@@ -393,6 +403,8 @@ final class PgPreparedStatement extends PgParametrizedStatement<PreparedStatemen
         final RuntimeException error;
         if (paramGroup == EMPTY_PARAM_GROUP) {
             error = PgExceptions.cannotReuseStatement(PreparedStatement.class);
+        } else if (this.session.isClosed()) {
+            error = PgExceptions.sessionHaveClosed();
         } else if (paramGroup != null) {
             error = PgExceptions.noInvokeAddBatch();
         } else if (paramGroupList == null || paramGroupList.size() == 0) {
@@ -0,0 +1,609 @@
+package io.jdbd.postgre.session;
+
+import io.jdbd.JdbdException;
+import io.jdbd.lang.Nullable;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.postgre.protocol.PgProtocolFactory;
+import io.jdbd.postgre.protocol.client.PgProtocol;
+import io.jdbd.postgre.util.PgCollections;
+import io.jdbd.postgre.util.PgExceptions;
+import io.jdbd.vendor.env.Environment;
+import io.jdbd.vendor.protocol.DatabaseProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * This class is the build-in non-blocking pool of {@link PgDatabaseSessionFactory} , only for {@link PgLocalDatabaseSession}.
+ * Pool hold {@link PgProtocol} directly , so :
+ *     <ul>
+ *         <li>don't need reactive hop of pool vendor</li>
+ *         <li>pool can use protocol-level state , for example : {@link PgProtocol#inTransaction()}</li>
+ *         <li>statement cache of connection is reused by next session</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * Acquire and release are lock-free :
+ *     <ul>
+ *         <li>idle connection is hold by {@link ConcurrentLinkedDeque} , most recently returned connection is borrowed first,
+ *         so cold connection is evicted by idle timeout</li>
+ *         <li>connection count is {@link AtomicInteger} , increment by CAS before creating connection</li>
+ *         <li>waiter is dispatched by queue-drain loop , so only one thread dispatch at same time without lock</li>
+ *         <li>state of connection is changed by CAS , so housekeeping and borrowing don't take same connection</li>
+ *     </ul>
+ * </p>
+ * <p>
+ * Every borrowing is wrapped by new {@link PgBorrowedProtocol} , the handle is invalid after session close ,
+ * so session and its statements that is held by application can't access the connection of next borrowing.
+ * </p>
+ * <p>
+ * Session that is garbage collected without close is detected by {@link WeakReference} ,
+ * its connection is closed and stack trace of borrowing is logged if {@link PgKey#LOG_UNCLOSED_CONNECTIONS} is true.
+ * </p>
+ *
+ * @see PgKey#POOL_MAX_SIZE
+ * @see PgKey#POOL_MIN_SIZE
+ * @see PgKey#POOL_ACQUIRE_TIMEOUT_MILLIS
+ * @see PgKey#POOL_IDLE_TIMEOUT_MILLIS
+ * @see PgKey#POOL_MAX_LIFETIME_MILLIS
+ * @see PgKey#POOL_VALIDATION_TIMEOUT_SECONDS
+ * @since 1.0
+ */
+final class PgSessionPool {
+
+    /**
+     * @return null : {@link PgKey#POOL_MAX_SIZE} is 0 , build-in pool is disabled.
+     * @throws JdbdException throw when config error.
+     */
+    @Nullable
+    static PgSessionPool createIfNeed(final String name, final PgProtocolFactory protocolFactory) {
+        final Environment env = protocolFactory.environment();
+        final int maxSize = nonNegativeValue(env, PgKey.POOL_MAX_SIZE);
+        if (maxSize == 0) {
+            return null;
+        }
+        final int minSize = nonNegativeValue(env, PgKey.POOL_MIN_SIZE);
+        if (minSize > maxSize) {
+            String m = String.format("%s value[%s] greater than %s value[%s].", PgKey.POOL_MIN_SIZE, minSize,
+                    PgKey.POOL_MAX_SIZE, maxSize);
+            throw new JdbdException(m);
+        }
+        return new PgSessionPool(name, protocolFactory, env, minSize, maxSize);
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgSessionPool.class);
+
+    /**
+     * connection that is returned in this window isn't validated by ping when borrow.
+     */
+    private static final long ALIVE_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final long MAX_HOUSEKEEPING_MILLIS = 30_000L;
+
+    private final String name;
+
+    private final PgProtocolFactory protocolFactory;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final long acquireTimeoutMillis;
+
+    private final long idleTimeoutNanos;
+
+    private final long maxLifetimeNanos;
+
+    private final int validationTimeoutSeconds;
+
+    private final boolean logUnclosed;
+
+    private final ConcurrentLinkedDeque<PooledProtocol> idleDeque = new ConcurrentLinkedDeque<>();
+
+    private final ConcurrentLinkedDeque<Waiter> waiterDeque = new ConcurrentLinkedDeque<>();
+
+    private final ConcurrentMap<PooledProtocol, Boolean> allMap = PgCollections.concurrentHashMap();
+
+    /**
+     * count of connections , contain the connection that is creating.
+     */
+    private final AtomicInteger totalSize = new AtomicInteger(0);
+
+    /**
+     * work-in-progress counter of queue-drain loop.
+     */
+    private final AtomicInteger drainWip = new AtomicInteger(0);
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final ReferenceQueue<Object> leakQueue = new ReferenceQueue<>();
+
+    private final Disposable housekeeper;
+
+    private PgSessionPool(String name, PgProtocolFactory protocolFactory, Environment env, int minSize, int maxSize) {
+        this.name = name;
+        this.protocolFactory = protocolFactory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+
+        this.acquireTimeoutMillis = positiveValue(env, PgKey.POOL_ACQUIRE_TIMEOUT_MILLIS);
+        final long idleTimeoutMillis = nonNegativeValue(env, PgKey.POOL_IDLE_TIMEOUT_MILLIS);
+        final long maxLifetimeMillis = nonNegativeValue(env, PgKey.POOL_MAX_LIFETIME_MILLIS);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+        this.validationTimeoutSeconds = positiveValue(env, PgKey.POOL_VALIDATION_TIMEOUT_SECONDS);
+        this.logUnclosed = env.getOrDefault(PgKey.LOG_UNCLOSED_CONNECTIONS);
+
+        long period = MAX_HOUSEKEEPING_MILLIS;
+        if (idleTimeoutMillis > 0) {
+            period = Math.min(period, idleTimeoutMillis >> 1);
+        }
+        if (maxLifetimeMillis > 0) {
+            period = Math.min(period, maxLifetimeMillis >> 1);
+        }
+        period = Math.max(period, 100L);
+        this.housekeeper = Schedulers.parallel()
+                .schedulePeriodically(this::housekeeping, 0L, period, TimeUnit.MILLISECONDS);
+    }
+
+
+    /**
+     * @return the connection that is validated.
+     */
+    Mono<PooledProtocol> acquire() {
+        if (this.closed.get()) {
+            return Mono.error(PgExceptions.factoryClosed(this.name));
+        }
+        return Mono.<PooledProtocol>create(this::addWaiter)
+                .timeout(Duration.ofMillis(this.acquireTimeoutMillis), Mono.defer(this::acquireTimeout));
+    }
+
+    /**
+     * <p>
+     * Track the session that hold connection , for detecting session that is garbage collected without close.
+     * </p>
+     */
+    void track(final PooledProtocol pooled, final Object session) {
+        final Throwable allocation;
+        if (this.logUnclosed) {
+            allocation = new Throwable(String.format("%s borrowed from pool of factory[%s]", session, this.name));
+        } else {
+            allocation = null;
+        }
+        pooled.leakRef = new LeakRef(session, this.leakQueue, pooled, allocation);
+    }
+
+    /**
+     * <p>
+     * Return connection to pool , following is order :
+     *     <ol>
+     *         <li>rollback if connection in transaction</li>
+     *         <li>{@link PgProtocol#reset()}</li>
+     *         <li>push to the head of idle deque</li>
+     *     </ol>
+     *     connection is closed if pool closed , connection reach max lifetime or error occur.
+     * </p>
+     */
+    Mono<Void> release(final PooledProtocol pooled) {
+        if (!pooled.compareAndSetState(PooledProtocol.BORROWED, PooledProtocol.RETURNING)) {
+            return Mono.empty(); // duplicate close
+        }
+        final LeakRef leakRef = pooled.leakRef;
+        if (leakRef != null) {
+            pooled.leakRef = null;
+            leakRef.clear();
+        }
+        final PgProtocol protocol = pooled.protocol;
+        if (this.closed.get() || protocol.isClosed() || isExpired(pooled, System.nanoTime())) {
+            return destroy(pooled);
+        }
+        final Mono<Void> mono;
+        if (protocol.inTransaction()) {
+            mono = protocol.rollback(DatabaseProtocol.OPTION_FUNC)
+                    .then(Mono.defer(protocol::reset));
+        } else {
+            mono = protocol.reset();
+        }
+        return mono.doOnSuccess(v -> recycle(pooled))
+                .onErrorResume(error -> {
+                    LOG.debug("reset connection of pool[{}] failure,close it.", this.name, error);
+                    return destroy(pooled);
+                });
+    }
+
+    Mono<Void> close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        this.housekeeper.dispose();
+
+        final Throwable error = PgExceptions.factoryClosed(this.name);
+        Waiter waiter;
+        while ((waiter = this.waiterDeque.poll()) != null) {
+            waiter.error(error);
+        }
+        final List<Mono<Void>> closeList = new ArrayList<>();
+        PooledProtocol pooled;
+        while ((pooled = this.idleDeque.poll()) != null) {
+            if (pooled.compareAndSetState(PooledProtocol.IDLE, PooledProtocol.BORROWED)) {
+                closeList.add(destroy(pooled));
+            }
+        }
+        // borrowed connections are closed when released.
+        return Flux.concat(closeList)
+                .then();
+    }
+
+
+    /*################################## blow private method ##################################*/
+
+    /**
+     * @see #acquire()
+     */
+    private void addWaiter(final MonoSink<PooledProtocol> sink) {
+        final Waiter waiter = new Waiter(sink);
+        sink.onDispose(waiter::cancel);
+        this.waiterDeque.offer(waiter);
+        if (this.closed.get()) {
+            // close() may have drained waiter deque before offer
+            if (this.waiterDeque.remove(waiter)) {
+                waiter.error(PgExceptions.factoryClosed(this.name));
+            }
+            return;
+        }
+        drain();
+    }
+
+    private Mono<PooledProtocol> acquireTimeout() {
+        final String m = String.format("acquire session from pool of factory[%s] timeout after %s ms , pool size %s/%s.",
+                this.name, this.acquireTimeoutMillis, this.totalSize.get(), this.maxSize);
+        return Mono.error(new JdbdException(m));
+    }
+
+    /**
+     * <p>
+     * Queue-drain loop : dispatch idle connection or new connection to waiter.
+     * Only one thread run loop at same time , other thread only increment {@link #drainWip}.
+     * </p>
+     */
+    private void drain() {
+        if (this.drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        Waiter waiter;
+        PooledProtocol pooled;
+        do {
+            while ((waiter = this.waiterDeque.peek()) != null) {
+                if (waiter.isCancelled()) {
+                    this.waiterDeque.remove(waiter);
+                } else if ((pooled = pollIdle()) != null) {
+                    this.waiterDeque.remove(waiter);
+                    borrow(waiter, pooled);
+                } else if (tryIncrementSize(this.maxSize)) {
+                    this.waiterDeque.remove(waiter);
+                    createFor(waiter);
+                } else {
+                    break; // wait for release
+                }
+            }
+            missed = this.drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * @return null : no idle connection.
+     */
+    @Nullable
+    private PooledProtocol pollIdle() {
+        final long now = System.nanoTime();
+        PooledProtocol pooled;
+        while ((pooled = this.idleDeque.pollFirst()) != null) {
+            if (!pooled.compareAndSetState(PooledProtocol.IDLE, PooledProtocol.BORROWED)) {
+                continue; // evicted by housekeeping
+            }
+            if (isExpired(pooled, now) || pooled.protocol.isClosed()) {
+                destroy(pooled).subscribe();
+                continue;
+            }
+            break;
+        }
+        return pooled;
+    }
+
+    /**
+     * validate connection with ping , unless connection is returned just now.
+     */
+    private void borrow(final Waiter waiter, final PooledProtocol pooled) {
+        if (System.nanoTime() - pooled.lastAccessNanos < ALIVE_BYPASS_NANOS) {
+            handOver(waiter, pooled);
+            return;
+        }
+        pooled.protocol.ping(this.validationTimeoutSeconds)
+                .subscribe(null, error -> {
+                    LOG.debug("validate connection of pool[{}] failure,close it.", this.name, error);
+                    destroy(pooled).subscribe();
+                    this.waiterDeque.offerFirst(waiter);
+                    drain();
+                }, () -> handOver(waiter, pooled));
+    }
+
+    private void createFor(final Waiter waiter) {
+        this.protocolFactory.createProtocol()
+                .subscribe(protocol -> {
+                    final PooledProtocol pooled = new PooledProtocol(protocol);
+                    this.allMap.put(pooled, Boolean.TRUE);
+                    if (this.closed.get()) {
+                        destroy(pooled).subscribe();
+                        waiter.error(PgExceptions.factoryClosed(this.name));
+                    } else {
+                        handOver(waiter, pooled);
+                    }
+                }, error -> {
+                    this.totalSize.decrementAndGet();
+                    waiter.error(error);
+                    drain();
+                });
+    }
+
+    private void handOver(final Waiter waiter, final PooledProtocol pooled) {
+        if (!waiter.complete(pooled)) {
+            // waiter timeout or cancelled
+            recycle(pooled);
+        }
+    }
+
+    /**
+     * push connection to head of idle deque.
+     */
+    private void recycle(final PooledProtocol pooled) {
+        pooled.lastAccessNanos = System.nanoTime();
+        final int state = pooled.state.get();
+        if ((state != PooledProtocol.BORROWED && state != PooledProtocol.RETURNING)
+                || !pooled.compareAndSetState(state, PooledProtocol.IDLE)) {
+            return;
+        }
+        this.idleDeque.offerFirst(pooled);
+        if (this.closed.get() && this.idleDeque.remove(pooled)
+                && pooled.compareAndSetState(PooledProtocol.IDLE, PooledProtocol.BORROWED)) {
+            destroy(pooled).subscribe();
+            return;
+        }
+        drain();
+    }
+
+    private Mono<Void> destroy(final PooledProtocol pooled) {
+        if (pooled.state.getAndSet(PooledProtocol.CLOSED) == PooledProtocol.CLOSED) {
+            return Mono.empty();
+        }
+        if (this.allMap.remove(pooled) != null) {
+            this.totalSize.decrementAndGet();
+        }
+        if (!this.closed.get()) {
+            drain(); // capacity is released
+        }
+        return pooled.protocol.close()
+                .then()
+                .onErrorResume(error -> {
+                    LOG.debug("close connection of pool[{}] failure.", this.name, error);
+                    return Mono.empty();
+                });
+    }
+
+    private boolean isExpired(final PooledProtocol pooled, final long now) {
+        return this.maxLifetimeNanos > 0 && now - pooled.createdNanos >= this.maxLifetimeNanos;
+    }
+
+    private boolean tryIncrementSize(final int limit) {
+        int size;
+        do {
+            size = this.totalSize.get();
+            if (size >= limit) {
+                return false;
+            }
+        } while (!this.totalSize.compareAndSet(size, size + 1));
+        return true;
+    }
+
+    /**
+     * <p>
+     * Following is order :
+     *     <ol>
+     *         <li>close connection of session that is garbage collected without close</li>
+     *         <li>close idle connection that reach max lifetime , or idle timeout and pool size greater than min size</li>
+     *         <li>fill pool to min size</li>
+     *     </ol>
+     * </p>
+     */
+    private void housekeeping() {
+        if (this.closed.get()) {
+            return;
+        }
+        try {
+            reclaimLeakedConnections();
+            evictIdleConnections();
+            fillMinSize();
+        } catch (Throwable e) {
+            LOG.warn("housekeeping of pool[{}] failure.", this.name, e);
+        }
+    }
+
+    private void reclaimLeakedConnections() {
+        Reference<?> reference;
+        LeakRef leakRef;
+        PooledProtocol pooled;
+        while ((reference = this.leakQueue.poll()) != null) {
+            leakRef = (LeakRef) reference;
+            pooled = leakRef.pooled;
+            if (pooled.leakRef != leakRef || pooled.state.get() != PooledProtocol.BORROWED) {
+                continue;
+            }
+            pooled.leakRef = null;
+            if (leakRef.allocation == null) {
+                LOG.warn("session of pool[{}] is garbage collected without close,close connection.", this.name);
+            } else {
+                LOG.warn("session of pool[{}] is garbage collected without close,close connection.", this.name,
+                        leakRef.allocation);
+            }
+            destroy(pooled).subscribe();
+        }
+    }
+
+    private void evictIdleConnections() {
+        final long now = System.nanoTime();
+        final long idleTimeoutNanos = this.idleTimeoutNanos;
+        boolean evict;
+        for (PooledProtocol pooled : this.idleDeque) {
+            if (isExpired(pooled, now)) {
+                evict = true;
+            } else {
+                evict = idleTimeoutNanos > 0
+                        && now - pooled.lastAccessNanos >= idleTimeoutNanos
+                        && this.totalSize.get() > this.minSize;
+            }
+            if (evict && pooled.compareAndSetState(PooledProtocol.IDLE, PooledProtocol.BORROWED)) {
+                this.idleDeque.remove(pooled);
+                destroy(pooled).subscribe();
+            }
+        }
+    }
+
+    private void fillMinSize() {
+        while (tryIncrementSize(this.minSize)) {
+            this.protocolFactory.createProtocol()
+                    .subscribe(protocol -> {
+                        final PooledProtocol pooled = new PooledProtocol(protocol);
+                        pooled.state.set(PooledProtocol.BORROWED);
+                        this.allMap.put(pooled, Boolean.TRUE);
+                        recycle(pooled);
+                    }, error -> {
+                        this.totalSize.decrementAndGet();
+                        LOG.debug("fill min size of pool[{}] failure.", this.name, error);
+                    });
+        }
+    }
+
+
+    private static int positiveValue(final Environment env, final PgKey<Integer> key) {
+        final int value = env.getOrDefault(key);
+        if (value < 1) {
+            String m = String.format("%s value[%s] error.", key, value);
+            throw new JdbdException(m);
+        }
+        return value;
+    }
+
+    private static int nonNegativeValue(final Environment env, final PgKey<Integer> key) {
+        final int value = env.getOrDefault(key);
+        if (value < 0) {
+            String m = String.format("%s value[%s] error.", key, value);
+            throw new JdbdException(m);
+        }
+        return value;
+    }
+
+
+    static final class PooledProtocol {
+
+        private static final int IDLE = 0;
+
+        private static final int BORROWED = 1;
+
+        private static final int RETURNING = 2;
+
+        private static final int CLOSED = 3;
+
+        final PgProtocol protocol;
+
+        private final long createdNanos = System.nanoTime();
+
+        private final AtomicInteger state = new AtomicInteger(BORROWED);
+
+        private volatile long lastAccessNanos = this.createdNanos;
+
+        private volatile LeakRef leakRef;
+
+        private PooledProtocol(PgProtocol protocol) {
+            this.protocol = protocol;
+        }
+
+        private boolean compareAndSetState(int expect, int update) {
+            return this.state.compareAndSet(expect, update);
+        }
+
+
+    }//PooledProtocol
+
+    private static final class Waiter {
+
+        private final MonoSink<PooledProtocol> sink;
+
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private Waiter(MonoSink<PooledProtocol> sink) {
+            this.sink = sink;
+        }
+
+        private boolean isCancelled() {
+            return this.done.get();
+        }
+
+        private void cancel() {
+            this.done.set(true);
+        }
+
+        /**
+         * @return false : waiter is cancelled , connection isn't accepted.
+         */
+        private boolean complete(PooledProtocol pooled) {
+            if (!this.done.compareAndSet(false, true)) {
+                return false;
+            }
+            this.sink.success(pooled);
+            return true;
+        }
+
+        private void error(Throwable error) {
+            if (this.done.compareAndSet(false, true)) {
+                this.sink.error(error);
+            }
+        }
+
+
+    }//Waiter
+
+    private static final class LeakRef extends WeakReference<Object> {
+
+        private final PooledProtocol pooled;
+
+        private final Throwable allocation;
+
+        private LeakRef(Object session, ReferenceQueue<Object> queue, PooledProtocol pooled,
+                        @Nullable Throwable allocation) {
+            super(session, queue);
+            this.pooled = pooled;
+            this.allocation = allocation;
+        }
+
+
+    }//LeakRef
+
+
+}
@@ -47,6 +47,13 @@ abstract class PgStatement<S extends Statement> implements Statement, StmtOption
 
     private Function<ChunkOption, Subscriber<byte[]>> exportPublisher;
 
+    /**
+     * @see PgDriver#SERVER_PREPARE
+     */
+    private boolean serverPrepareSet;
+
+    private Boolean serverPrepare;
+
 
     PgStatement(PgDatabaseSession<?> session) {
         this.session = session;
@@ -86,8 +93,12 @@ abstract class PgStatement<S extends Statement> implements Statement, StmtOption
         return this instanceof BindSingleStatement;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public final <T> T valueOf(Option<T> option) {
+        if (option == PgDriver.SERVER_PREPARE) {
+            return (T) this.serverPrepare;
+        }
         //TODO
         return null;
     }
@@ -140,8 +151,14 @@ abstract class PgStatement<S extends Statement> implements Statement, StmtOption
         return (S) this;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public final <T> S setOption(Option<T> option, @Nullable T value) throws JdbdException {
+        if (option == PgDriver.SERVER_PREPARE && this instanceof PgBindStatement) {
+            this.serverPrepareSet = true;
+            this.serverPrepare = (Boolean) value;
+            return (S) this;
+        }
         final JdbdException error;
         error = PgExceptions.dontSupportSetOption(option);
         closeOnBindError(error);
@@ -150,6 +167,9 @@ abstract class PgStatement<S extends Statement> implements Statement, StmtOption
 
     @Override
     public final List<Option<?>> supportedOptionList() {
+        if (this instanceof PgBindStatement) {
+            return Collections.singletonList(PgDriver.SERVER_PREPARE);
+        }
         return Collections.emptyList();
     }
 
@@ -203,6 +223,22 @@ abstract class PgStatement<S extends Statement> implements Statement, StmtOption
     /**
      * just for {@link PgMultiStatement}
      */
+    /**
+     * <p>
+     * Send the value of {@link PgDriver#SERVER_PREPARE} to protocol , if application have set it.
+     * </p>
+     *
+     * @return null or the value of {@link PgDriver#SERVER_PREPARE}
+     */
+    @Nullable
+    final Boolean applyServerPrepare(final String sql) {
+        final Boolean serverPrepare = this.serverPrepare;
+        if (this.serverPrepareSet) {
+            this.session.protocol.overridePrepare(sql, serverPrepare);
+        }
+        return serverPrepare;
+    }
+
     final void resetChunkOptions() {
         this.importPublisher = null;
         this.exportPublisher = null;
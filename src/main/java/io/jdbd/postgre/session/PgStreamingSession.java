@@ -0,0 +1,55 @@
+package io.jdbd.postgre.session;
+
+import io.jdbd.postgre.PgBatchSummary;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.env.PgKey;
+import io.jdbd.result.ResultStates;
+import io.jdbd.session.DatabaseSession;
+import io.jdbd.vendor.stmt.ParamValue;
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+
+/**
+ * <p>
+ * This interface is postgre extension of {@link DatabaseSession},all session of jdbd-postgre implement this interface.
+ * </p>
+ *
+ * @since 1.0
+ */
+public interface PgStreamingSession {
+
+    /**
+     * <p>
+     * Execute unbounded stream of parameter group as continuously pipelined micro-batches with extended query protocol.
+     * The micro-batch is flushed by group count, bytes or time , see {@link PgKey#STREAM_BATCH_COUNT},
+     * {@link PgKey#STREAM_BATCH_BYTES} and {@link PgKey#STREAM_BATCH_MILLIS} .
+     * The groupPublisher is requested only when in-flight window have room, so the groups don't be buffered.
+     * </p>
+     *
+     * @param sql            the sql that have parameter placeholder {@code ?} .
+     * @param groupPublisher the publisher of parameter group,the index of {@link ParamValue} is based zero.
+     * @return the {@link ResultStates} of each group , in the order of groupPublisher.
+     */
+    Publisher<ResultStates> executeStreamBatchUpdate(String sql, Publisher<List<ParamValue>> groupPublisher);
+
+    /**
+     * <p>
+     * Execute batch update in aggregate mode : only totals are accumulated and one {@link PgBatchSummary} is emitted
+     * at the end, instead of one {@link ResultStates} per group. The error of group is reported by
+     * {@link PgBatchSummary#errorPositions()} and {@link PgBatchSummary#firstError()} .
+     * </p>
+     *
+     * @param sql        the sql that have parameter placeholder {@code ?} .
+     * @param groupList  the parameter group list,the index of {@link ParamValue} is based zero.
+     * @param itemCounts true : {@link PgBatchSummary#itemAffectedRows()} is non-null.
+     */
+    Publisher<PgBatchSummary> executeBatchSummary(String sql, List<List<ParamValue>> groupList, boolean itemCounts);
+
+    /**
+     * @return the counters of server-side prepared statement cache of the connection of this session.
+     */
+    PgStatementCacheStats statementCacheStats();
+
+
+}
@@ -1,17 +1,18 @@
 package io.jdbd.postgre.syntax;
 
+import io.jdbd.lang.Nullable;
 import io.jdbd.postgre.ServerParameter;
 import io.jdbd.postgre.util.PgExceptions;
-import io.qinarmy.util.FastStack;
 import io.qinarmy.util.Pair;
-import io.qinarmy.util.Stack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -57,6 +58,45 @@ final class DefaultPgParser implements PgParser {
 
     private static final char DOLLAR = '$';
 
+    private static final String INSERT = "INSERT";
+
+    private static final String VALUES = "VALUES";
+
+    private static final String RETURNING = "RETURNING";
+
+    private static final String UPDATE = "UPDATE";
+
+    private static final String DELETE = "DELETE";
+
+    /**
+     * state of recognizing single VALUES row INSERT statement.
+     *
+     * @see #doParse(String, Mode)
+     */
+    private static final byte INSERT_NONE = 0, INSERT_KEYWORD = 1, INSERT_VALUES = 2, INSERT_ROW = 3,
+            INSERT_ROW_END = 4, INSERT_AFTER_ROW = 5, INSERT_NOT_MATCH = -1;
+
+    /**
+     * kind of previous token of parameterizing.
+     *
+     * @see #doParameterize(String)
+     */
+    private static final int TOKEN_NONE = 0, TOKEN_WORD = 1, TOKEN_IDENTIFIER = 2, TOKEN_LITERAL = 3,
+            TOKEN_OPERATOR = 4, TOKEN_OPEN_PAREN = 5, TOKEN_CLOSE_PAREN = 6, TOKEN_COMMA = 7, TOKEN_CAST = 8,
+            TOKEN_OTHER = 9;
+
+    /**
+     * numeric constant after these key words is liftable.
+     */
+    private static final String[] NUMBER_LIFT_KEY_WORDS = {"SELECT", "WHERE", "AND", "OR", "THEN", "ELSE", "WHEN",
+            "BETWEEN", "LIMIT", "OFFSET"};
+
+    /**
+     * these key words end ORDER BY / GROUP BY list.
+     */
+    private static final String[] BY_LIST_END_KEY_WORDS = {"LIMIT", "OFFSET", "HAVING", "WINDOW", "FETCH", "FOR",
+            "UNION", "INTERSECT", "EXCEPT"};
+
     private final Function<ServerParameter, String> paramFunction;
 
 
@@ -66,6 +106,10 @@ final class DefaultPgParser implements PgParser {
 
     @Override
     public final PgStatement parse(final String sql) throws SQLException {
+        if (isSimpleStmt(sql)) {
+            // fast path , no parameter placeholder , no comment and no string constant.
+            return PgStatementImpl.single(sql);
+        }
         return (PgStatement) doParse(sql, Mode.BIND);
     }
 
@@ -78,23 +122,23 @@ final class DefaultPgParser implements PgParser {
     @Override
     public final CopyIn parseCopyIn(final String sql) throws SQLException {
 
-        final char[] charArray = sql.toCharArray();
-        final int lastIndex = charArray.length - 1;
+        final int length = sql.length();
+        final int lastIndex = length - 1;
         char ch;
         boolean copyCommand = false, fromClause = false, program = false;
         CopyIn copyIn = null;
-        for (int i = 0, bindIndex = 0; i < charArray.length; i++) {
-            ch = charArray[i];
+        for (int i = 0, bindIndex = 0; i < length; i++) {
+            ch = sql.charAt(i);
             if (Character.isWhitespace(ch)) {
                 continue;
             }
-            if (ch == SLASH && i < lastIndex && charArray[i + 1] == STAR) {
+            if (ch == SLASH && i < lastIndex && sql.charAt(i + 1) == STAR) {
                 // block comment.
                 i = skipBlockComment(sql, i);
-            } else if (ch == DASH && i < lastIndex && charArray[i + 1] == DASH) {
+            } else if (ch == DASH && i < lastIndex && sql.charAt(i + 1) == DASH) {
                 // line comment
                 int index = sql.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
-                i = index > 0 ? index : charArray.length;
+                i = index > 0 ? index : length;
             } else if (!copyCommand) {
                 if (i == lastIndex
                         || !sql.regionMatches(true, i, COPY, 0, COPY.length())
@@ -112,9 +156,9 @@ final class DefaultPgParser implements PgParser {
                 }
             } else if (!fromClause) {
                 if ((ch == 'f' || ch == 'F')
-                        && Character.isWhitespace(charArray[i - 1])
+                        && Character.isWhitespace(sql.charAt(i - 1))
                         && (i + FROM.length()) < lastIndex
-                        && Character.isWhitespace(charArray[i + FROM.length()])
+                        && Character.isWhitespace(sql.charAt(i + FROM.length()))
                         && sql.regionMatches(true, i, FROM, 0, FROM.length())) {
                     i += FROM.length();
                     fromClause = true;
@@ -130,19 +174,19 @@ final class DefaultPgParser implements PgParser {
             } else if (!program
                     && (ch == 'p' || ch == 'P')
                     && sql.regionMatches(true, i, PROGRAM, 0, PROGRAM.length())
-                    && Character.isWhitespace(charArray[i + PROGRAM.length()])) {
+                    && Character.isWhitespace(sql.charAt(i + PROGRAM.length()))) {
                 // PROGRAM 'command' not supported by client,because command only find in postgre server.
                 program = true;
                 i += PROGRAM.length();
             } else if ((ch == 's' || ch == 'S')
                     && sql.regionMatches(true, i, STDIN, 0, STDIN.length())
-                    && (i + STDIN.length() == lastIndex || Character.isWhitespace(charArray[i + STDIN.length()]))) {
+                    && (i + STDIN.length() == lastIndex || Character.isWhitespace(sql.charAt(i + STDIN.length())))) {
                 copyIn = CopyInFromStdin.INSTANCE;
                 break;
             } else { // 'filename'
                 try {
                     final String constant;
-                    constant = parseStringConstant(sql, charArray, i);
+                    constant = parseStringConstant(sql, i);
                     copyIn = program ? new CopyInFromProgramCommand(constant)
                             : new CopyInFromLocalFile(Paths.get(constant));
                     break;
@@ -163,23 +207,23 @@ final class DefaultPgParser implements PgParser {
     @Override
     public final CopyOut parseCopyOut(final String sql) throws SQLException {
 
-        final char[] charArray = sql.toCharArray();
-        final int lastIndex = charArray.length - 1;
+        final int length = sql.length();
+        final int lastIndex = length - 1;
         char ch;
         boolean copyCommand = false, toClause = false, sourceParsed = false, program = false;
         CopyOut copyOut = null;
-        for (int i = 0, bindIndex = 0; i < charArray.length; i++) {
-            ch = charArray[i];
+        for (int i = 0, bindIndex = 0; i < length; i++) {
+            ch = sql.charAt(i);
             if (Character.isWhitespace(ch)) {
                 continue;
             }
-            if (ch == SLASH && i < lastIndex && charArray[i + 1] == STAR) {
+            if (ch == SLASH && i < lastIndex && sql.charAt(i + 1) == STAR) {
                 // block comment.
                 i = skipBlockComment(sql, i);
-            } else if (ch == DASH && i < lastIndex && charArray[i + 1] == DASH) {
+            } else if (ch == DASH && i < lastIndex && sql.charAt(i + 1) == DASH) {
                 // line comment
                 int index = sql.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
-                i = index > 0 ? index : charArray.length;
+                i = index > 0 ? index : length;
             } else if (!copyCommand) {
                 if (i == lastIndex
                         || !sql.regionMatches(true, i, COPY, 0, COPY.length())
@@ -192,7 +236,7 @@ final class DefaultPgParser implements PgParser {
                 if (ch == '(') {
                     // query ,skip query
                     final Pair<Integer, Integer> pair;
-                    pair = skipCopyOutQuery(sql, charArray, i, bindIndex);
+                    pair = skipCopyOutQuery(sql, i, bindIndex);
                     i = pair.getFirst();
                     bindIndex = pair.getSecond();
                 }
@@ -206,9 +250,9 @@ final class DefaultPgParser implements PgParser {
                 }
             } else if (!toClause) {
                 if ((ch == 't' || ch == 'T')
-                        && Character.isWhitespace(charArray[i - 1])
+                        && Character.isWhitespace(sql.charAt(i - 1))
                         && (i + TO.length()) < lastIndex
-                        && Character.isWhitespace(charArray[i + TO.length()])
+                        && Character.isWhitespace(sql.charAt(i + TO.length()))
                         && sql.regionMatches(true, i, TO, 0, TO.length())) {
                     i += TO.length();
                     toClause = true;
@@ -224,18 +268,18 @@ final class DefaultPgParser implements PgParser {
             } else if (!program
                     && (ch == 'p' || ch == 'P')
                     && sql.regionMatches(true, i, PROGRAM, 0, PROGRAM.length())
-                    && Character.isWhitespace(charArray[i + PROGRAM.length()])) {
+                    && Character.isWhitespace(sql.charAt(i + PROGRAM.length()))) {
                 program = true;
                 i += PROGRAM.length();
             } else if ((ch == 's' || ch == 'S')
                     && sql.regionMatches(true, i, STDOUT, 0, STDOUT.length())
-                    && (i + STDOUT.length() == lastIndex || Character.isWhitespace(charArray[i + STDOUT.length()]))) {
+                    && (i + STDOUT.length() == lastIndex || Character.isWhitespace(sql.charAt(i + STDOUT.length())))) {
                 copyOut = CopyOutToStdout.INSTANCE;
                 break;
             } else { // 'filename'
                 try {
                     final String constant;
-                    constant = parseStringConstant(sql, charArray, i);
+                    constant = parseStringConstant(sql, i);
                     copyOut = program ? new CopyOutToProgramCommand(constant)
                             : new CopyOutToLocalFile(Paths.get(constant));
                     break;
@@ -260,29 +304,29 @@ final class DefaultPgParser implements PgParser {
 
     @Override
     public final String parseSetParameter(final String sql) throws SQLException {
-        final char[] charArray = sql.toCharArray();
-        final int lastIndex = charArray.length - 1;
+        final int length = sql.length();
+        final int lastIndex = length - 1;
         char ch;
         String parameterName = null;
-        for (int i = 0; i < charArray.length; i++) {
-            ch = charArray[i];
-            if (ch == SLASH && i < lastIndex && charArray[i + 1] == STAR) {
+        for (int i = 0; i < length; i++) {
+            ch = sql.charAt(i);
+            if (ch == SLASH && i < lastIndex && sql.charAt(i + 1) == STAR) {
                 // block comment.
                 i = skipBlockComment(sql, i);
-            } else if (ch == DASH && i < lastIndex && charArray[i + 1] == DASH) {
+            } else if (ch == DASH && i < lastIndex && sql.charAt(i + 1) == DASH) {
                 // line comment
                 int index = sql.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
-                i = index > 0 ? index : charArray.length;
+                i = index > 0 ? index : length;
             } else if (!Character.isWhitespace(ch) && sql.regionMatches(i, "SET", 0, 3)) {
                 i += 3;
-                for (; i < charArray.length; i++) {
-                    if (!Character.isWhitespace(charArray[i])) {
+                for (; i < length; i++) {
+                    if (!Character.isWhitespace(sql.charAt(i))) {
                         break;
                     }
                 }
                 final int startIndex = i;
-                for (; i < charArray.length; i++) {
-                    if (Character.isWhitespace(charArray[i])) {
+                for (; i < length; i++) {
+                    if (Character.isWhitespace(sql.charAt(i))) {
                         break;
                     }
                 }
@@ -302,36 +346,53 @@ final class DefaultPgParser implements PgParser {
         return parameterName;
     }
 
+    @Nullable
+    @Override
+    public final ParameterizedSql parameterize(final String sql) {
+        try {
+            return doParameterize(sql);
+        } catch (SQLException e) {
+            // syntax error is reported by execution of original sql.
+            return null;
+        }
+    }
+
     /**
      * @see #parse(String)
      * @see #separateMultiStmt(String)
      * @see #parseCopyIn(String)
      */
     private Object doParse(final String multiStmt, final Mode mode) throws SQLException {
-        final char[] charArray = multiStmt.toCharArray();
-        final int lastIndex = charArray.length - 1;
+        final int length = multiStmt.length();
+        final int lastIndex = length - 1;
 
         final boolean isTrace = LOG.isTraceEnabled();
         final long startMillis = isTrace ? System.currentTimeMillis() : 0;
         final boolean confirmStringOff = confirmStringIsOff();
 
         boolean inQuoteString = false, inCStyleEscapes = false, inUnicodeEscapes = false, inDoubleIdentifier = false;
-        List<String> endpointList = new ArrayList<>();
+        // BIND mode record the index of parameter placeholder , SEPARATE mode record statement.
+        final List<String> endpointList = mode == Mode.SEPARATE ? new ArrayList<>() : null;
+        int[] placeholderIndexes = null;
         char ch;
-        int lastEndpointEnd = 0, stmtCount = 1;
+        int lastEndpointEnd = 0, stmtCount = 1, paramCount = 0;
+
+        // below for recognizing single VALUES row INSERT statement, see PgStatement#valuesRowStart()
+        byte insertState = mode == Mode.BIND ? INSERT_NONE : INSERT_NOT_MATCH;
+        int parenDepth = 0, valuesRowStart = -1, valuesRowEnd = -1;
         loop:
-        for (int i = 0; i < charArray.length; i++) {
-            ch = charArray[i];
+        for (int i = 0; i < length; i++) {
+            ch = multiStmt.charAt(i);
 
             if (inQuoteString) {
                 final int index = multiStmt.indexOf(QUOTE, i);
                 if (index < 0) {
                     throw createQuoteNotCloseError(multiStmt, i);
                 }
-                if ((confirmStringOff || inCStyleEscapes) && charArray[index - 1] == BACK_SLASH) {
+                if ((confirmStringOff || inCStyleEscapes) && multiStmt.charAt(index - 1) == BACK_SLASH) {
                     // C-Style Escapes TODO fix //"
                     i = index;
-                } else if (index < lastIndex && charArray[index + 1] == QUOTE) {
+                } else if (index < lastIndex && multiStmt.charAt(index + 1) == QUOTE) {
                     // double quote Escapes
                     i = index + 1;
                 } else {
@@ -353,28 +414,28 @@ final class DefaultPgParser implements PgParser {
                     inUnicodeEscapes = false;
                 }
                 i = index;
-            } else if (ch == SLASH && i < lastIndex && charArray[i + 1] == STAR) {
+            } else if (ch == SLASH && i < lastIndex && multiStmt.charAt(i + 1) == STAR) {
                 // block comment.
                 i = skipBlockComment(multiStmt, i);
-            } else if (ch == DASH && i < lastIndex && charArray[i + 1] == DASH) {
+            } else if (ch == DASH && i < lastIndex && multiStmt.charAt(i + 1) == DASH) {
                 // line comment
                 int index = multiStmt.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
-                i = index > 0 ? index : charArray.length;
+                i = index > 0 ? index : length;
             } else if (ch == QUOTE) {
                 inQuoteString = true;
-            } else if ((ch == 'E' || ch == 'e') && i < lastIndex && charArray[i + 1] == QUOTE) {
+            } else if ((ch == 'E' || ch == 'e') && i < lastIndex && multiStmt.charAt(i + 1) == QUOTE) {
                 inQuoteString = inCStyleEscapes = true;
                 i++;
             } else if ((ch == 'U' || ch == 'u')
-                    && i < lastIndex && charArray[i + 1] == '&'
-                    && i + 2 < charArray.length && charArray[i + 2] == QUOTE) {
+                    && i < lastIndex && multiStmt.charAt(i + 1) == '&'
+                    && i + 2 < length && multiStmt.charAt(i + 2) == QUOTE) {
                 inQuoteString = inUnicodeEscapes = true;
                 i += 2;
             } else if (ch == DOUBLE_QUOTE) {
                 inDoubleIdentifier = true;
             } else if ((ch == 'U' || ch == 'u')
-                    && i < lastIndex && charArray[i + 1] == '&'
-                    && i + 2 < charArray.length && charArray[i + 2] == DOUBLE_QUOTE) {
+                    && i < lastIndex && multiStmt.charAt(i + 1) == '&'
+                    && i + 2 < length && multiStmt.charAt(i + 2) == DOUBLE_QUOTE) {
                 inDoubleIdentifier = inUnicodeEscapes = true;
                 i += 2;
             } else if (ch == DOLLAR) {
@@ -393,8 +454,16 @@ final class DefaultPgParser implements PgParser {
                 i = index + dollarTag.length() - 1;
             } else if (ch == '?') {
                 if (mode == Mode.BIND) {
-                    endpointList.add(multiStmt.substring(lastEndpointEnd, i));
-                    lastEndpointEnd = i + 1;
+                    if (placeholderIndexes == null) {
+                        placeholderIndexes = new int[8];
+                    } else if (paramCount == placeholderIndexes.length) {
+                        placeholderIndexes = Arrays.copyOf(placeholderIndexes, paramCount << 1);
+                    }
+                    placeholderIndexes[paramCount++] = i;
+                    if (insertState != INSERT_ROW) {
+                        // parameter placeholder out of VALUES row
+                        insertState = INSERT_NOT_MATCH;
+                    }
                 }
             } else if (ch == ';') {
                 switch (mode) {
@@ -413,6 +482,33 @@ final class DefaultPgParser implements PgParser {
                     default:
                         throw PgExceptions.createUnexpectedEnumException(mode);
                 }
+            } else if (insertState != INSERT_NOT_MATCH && !Character.isWhitespace(ch)) {
+                if (insertState == INSERT_ROW_END) {
+                    // first significant character after VALUES row, ',' representing multi rows.
+                    insertState = ch == ',' ? INSERT_NOT_MATCH : INSERT_AFTER_ROW;
+                }
+                if (ch == '(') {
+                    if (parenDepth == 0 && insertState == INSERT_VALUES) {
+                        valuesRowStart = i;
+                        insertState = INSERT_ROW;
+                    }
+                    parenDepth++;
+                } else if (ch == ')') {
+                    parenDepth--;
+                    if (parenDepth == 0 && insertState == INSERT_ROW) {
+                        valuesRowEnd = i + 1;
+                        insertState = INSERT_ROW_END;
+                    }
+                } else if (Character.isLetter(ch) && (i == 0 || !isIdentifierPart(multiStmt.charAt(i - 1)))) {
+                    int end = i + 1;
+                    while (end < length && isIdentifierPart(multiStmt.charAt(end))) {
+                        end++;
+                    }
+                    insertState = nextInsertState(insertState, parenDepth, multiStmt, i, end);
+                    i = end - 1;
+                } else if (insertState == INSERT_VALUES) {
+                    insertState = INSERT_NOT_MATCH; // VALUES isn't followed by '('
+                }
             }
 
         } // for
@@ -427,19 +523,21 @@ final class DefaultPgParser implements PgParser {
         final Object parseResult;
         switch (mode) {
             case BIND: {
-                if (lastEndpointEnd < charArray.length) {
-                    endpointList.add(multiStmt.substring(lastEndpointEnd));
+                if (paramCount == 0) {
+                    parseResult = PgStatementImpl.single(multiStmt);
+                } else if (insertState == INSERT_ROW_END || insertState == INSERT_AFTER_ROW) {
+                    parseResult = PgStatementImpl.create(multiStmt, placeholderIndexes, paramCount, valuesRowStart,
+                            valuesRowEnd);
                 } else {
-                    endpointList.add("");
+                    parseResult = PgStatementImpl.create(multiStmt, placeholderIndexes, paramCount, -1, -1);
                 }
-                parseResult = PgStatementImpl.create(multiStmt, endpointList);
             }
             break;
             case CHECK_SINGLE:
                 parseResult = stmtCount == 1;
                 break;
             case SEPARATE: {
-                if (lastEndpointEnd < charArray.length) {
+                if (lastEndpointEnd < length) {
                     endpointList.add(multiStmt.substring(lastEndpointEnd));
                 }
                 if (endpointList.size() == 1) {
@@ -458,38 +556,416 @@ final class DefaultPgParser implements PgParser {
         return parseResult;
     }
 
+    /**
+     * <p>
+     * Single forward scan, literal is lifted only when the previous token make sure that parameter is legal
+     * and parameter type is same with literal type , see {@link #isNumberLiftable(String, int, int, int)}
+     * and {@link #isStringLiftable(String, int, int, int, boolean)}.
+     * </p>
+     *
+     * @see #parameterize(String)
+     */
+    @Nullable
+    private ParameterizedSql doParameterize(final String sql) throws SQLException {
+        final int length = sql.length(), lastIndex = length - 1;
+        final boolean confirmStringOff = confirmStringIsOff();
+
+        StringBuilder builder = null;
+        List<Object> literalList = null;
+        int copyFrom = 0;
+
+        // previous token : one of word ,operator and punctuation
+        int prevStart = -1, prevEnd = -1, prevKind = TOKEN_NONE;
+        boolean insert = false, afterCast = false;
+        // bit n is 1 : parenthesis of depth n is IN list or INSERT VALUES row ,string constant is liftable in it.
+        long liftParenBits = 0;
+        int parenDepth = 0, typeModDepth = -1, byListDepth = -1;
+
+        char ch;
+        for (int i = 0, end; i < length; ) {
+            ch = sql.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                i++;
+                continue;
+            }
+            if (ch == SLASH && i < lastIndex && sql.charAt(i + 1) == STAR) {
+                i = skipBlockComment(sql, i) + 1;
+                continue;
+            }
+            if (ch == DASH && i < lastIndex && sql.charAt(i + 1) == DASH) {
+                end = sql.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
+                i = end < 0 ? length : end + 1;
+                continue;
+            }
+
+            if (ch == '?' || ch == ';' || ch == DOLLAR) {
+                // parameter placeholder ,multi statement , positional parameter or dollar quoted constant.
+                return null;
+            } else if (ch == DOUBLE_QUOTE) {
+                end = sql.indexOf(DOUBLE_QUOTE, i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                afterCast = prevKind == TOKEN_CAST || isPrevWord(sql, prevKind, prevStart, prevEnd, "AS");
+                prevKind = TOKEN_IDENTIFIER;
+                prevStart = i;
+                prevEnd = i = end + 1;
+            } else if (ch == QUOTE) {
+                boolean backslash = false;
+                end = -1;
+                for (int j = i + 1; j < length; j++) {
+                    ch = sql.charAt(j);
+                    if (ch == BACK_SLASH) {
+                        backslash = true;
+                    } else if (ch != QUOTE) {
+                        continue;
+                    } else if (j < lastIndex && sql.charAt(j + 1) == QUOTE) {
+                        j++; // double quote escapes
+                    } else {
+                        end = j;
+                        break;
+                    }
+                }
+                if (end < 0 || (backslash && confirmStringOff)) {
+                    // not close , or backslash escapes that meaning depend on server.
+                    return null;
+                }
+                if (isStringLiftable(sql, prevKind, prevStart, prevEnd,
+                        parenDepth < 64 && (liftParenBits & (1L << parenDepth)) != 0)) {
+                    if (builder == null) {
+                        builder = new StringBuilder(length);
+                        literalList = new ArrayList<>();
+                    }
+                    builder.append(sql, copyFrom, i)
+                            .append('?');
+                    copyFrom = end + 1;
+                    literalList.add(sql.substring(i + 1, end).replace("''", "'"));
+                }
+                prevKind = TOKEN_LITERAL;
+                i = end + 1;
+            } else if (Character.isLetter(ch) || ch == '_') {
+                end = i + 1;
+                while (end < length && isIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+                if (end < length && (sql.charAt(end) == QUOTE || sql.charAt(end) == '&')) {
+                    // E'' , U&'' , B'' , X'' constant
+                    return null;
+                }
+                if (prevKind == TOKEN_NONE) {
+                    if (isKeyWord(sql, i, end, INSERT)) {
+                        insert = true;
+                    } else if (!isKeyWord(sql, i, end, "SELECT")
+                            && !isKeyWord(sql, i, end, UPDATE)
+                            && !isKeyWord(sql, i, end, DELETE)
+                            && !isKeyWord(sql, i, end, "WITH")) {
+                        return null;
+                    }
+                } else if (isKeyWord(sql, i, end, "BY")
+                        && (isPrevWord(sql, prevKind, prevStart, prevEnd, "ORDER")
+                        || isPrevWord(sql, prevKind, prevStart, prevEnd, "GROUP"))) {
+                    // ORDER BY 1 , GROUP BY 1 : column position
+                    byListDepth = parenDepth;
+                } else if (byListDepth == parenDepth && isByListEnd(sql, i, end)) {
+                    byListDepth = -1;
+                }
+                afterCast = prevKind == TOKEN_CAST || isPrevWord(sql, prevKind, prevStart, prevEnd, "AS");
+                prevKind = TOKEN_WORD;
+                prevStart = i;
+                prevEnd = i = end;
+            } else if (isDigit(ch) || (ch == '.' && i < lastIndex && isDigit(sql.charAt(i + 1)))) {
+                boolean decimal = false;
+                end = i;
+                while (end < length && isDigit(sql.charAt(end))) {
+                    end++;
+                }
+                if (end < length && sql.charAt(end) == '.') {
+                    decimal = true;
+                    end++;
+                    while (end < length && isDigit(sql.charAt(end))) {
+                        end++;
+                    }
+                }
+                if (end < lastIndex && (sql.charAt(end) == 'e' || sql.charAt(end) == 'E')) {
+                    int j = end + 1;
+                    if (sql.charAt(j) == '+' || sql.charAt(j) == '-') {
+                        j++;
+                    }
+                    if (j < length && isDigit(sql.charAt(j))) {
+                        decimal = true;
+                        end = j;
+                        while (end < length && isDigit(sql.charAt(end))) {
+                            end++;
+                        }
+                    }
+                }
+                if (end < length && (isIdentifierPart(sql.charAt(end)) || sql.charAt(end) == '.')) {
+                    // for example : 0x1F , 1_000 , 1..2
+                    return null;
+                }
+                final Object value;
+                if (parenDepth == typeModDepth
+                        || (parenDepth == byListDepth && (prevKind == TOKEN_COMMA || prevKind == TOKEN_WORD))
+                        || !isNumberLiftable(sql, prevKind, prevStart, prevEnd)) {
+                    value = null;
+                } else if (decimal) {
+                    value = new BigDecimal(sql.substring(i, end));
+                } else if (end - i > 10) {
+                    value = null;
+                } else {
+                    final long v = Long.parseLong(sql.substring(i, end));
+                    // bigint constant isn't lifted,so INTEGER parameter type of same shape is stable.
+                    value = v <= Integer.MAX_VALUE ? (Object) (int) v : null;
+                }
+                if (value != null) {
+                    if (builder == null) {
+                        builder = new StringBuilder(length);
+                        literalList = new ArrayList<>();
+                    }
+                    builder.append(sql, copyFrom, i)
+                            .append('?');
+                    copyFrom = end;
+                    literalList.add(value);
+                }
+                prevKind = TOKEN_LITERAL;
+                i = end;
+            } else if (ch == '(') {
+                parenDepth++;
+                if (parenDepth < 64 && (isPrevWord(sql, prevKind, prevStart, prevEnd, "IN")
+                        || (insert && parenDepth == 1 && (isPrevWord(sql, prevKind, prevStart, prevEnd, VALUES)
+                        || (prevKind == TOKEN_COMMA && (liftParenBits & 2L) != 0))))) {
+                    liftParenBits |= (1L << parenDepth);
+                } else if (parenDepth < 64 && insert && parenDepth == 1) {
+                    liftParenBits &= ~2L; // other parenthesis of depth 1 end VALUES rows
+                }
+                if ((prevKind == TOKEN_WORD || prevKind == TOKEN_IDENTIFIER) && afterCast && typeModDepth < 0) {
+                    // type modifier , for example : CAST(a AS varchar(20)) , a::numeric(10,2)
+                    typeModDepth = parenDepth;
+                }
+                prevKind = TOKEN_OPEN_PAREN;
+                i++;
+            } else if (ch == ')') {
+                if (parenDepth < 64 && !(insert && parenDepth == 1)) {
+                    // INSERT VALUES row keep bit ,for next row
+                    liftParenBits &= ~(1L << parenDepth);
+                }
+                if (typeModDepth == parenDepth) {
+                    typeModDepth = -1;
+                }
+                if (byListDepth == parenDepth) {
+                    byListDepth = -1;
+                }
+                parenDepth--;
+                prevKind = TOKEN_CLOSE_PAREN;
+                i++;
+            } else if (ch == ',') {
+                prevKind = TOKEN_COMMA;
+                i++;
+            } else if (ch == ':' && i < lastIndex && sql.charAt(i + 1) == ':') {
+                prevKind = TOKEN_CAST;
+                i += 2;
+            } else if (isOperatorChar(ch)) {
+                end = i + 1;
+                while (end < length && isOperatorChar(sql.charAt(end))
+                        && !(sql.charAt(end) == DASH && end < lastIndex && sql.charAt(end + 1) == DASH)
+                        && !(sql.charAt(end) == SLASH && end < lastIndex && sql.charAt(end + 1) == STAR)) {
+                    end++;
+                }
+                prevKind = TOKEN_OPERATOR;
+                prevStart = i;
+                prevEnd = i = end;
+            } else {
+                // other punctuation , for example : [ ] .
+                prevKind = ch == '[' ? TOKEN_OPEN_PAREN : TOKEN_OTHER;
+                i++;
+            }
+
+        } // for
+
+        if (builder == null || parenDepth != 0) {
+            return null;
+        }
+        builder.append(sql, copyFrom, length);
+        return new ParameterizedSqlImpl(builder.toString(), Collections.unmodifiableList(literalList));
+    }
+
+    /**
+     * <p>
+     * numeric constant is lifted as {@link Integer} or {@link BigDecimal} ,same with the type of constant,
+     * so it's legal after operator ,parenthesis ,comma and expression key word.
+     * </p>
+     */
+    private static boolean isNumberLiftable(final String sql, final int prevKind, final int prevStart,
+                                            final int prevEnd) {
+        boolean liftable = false;
+        switch (prevKind) {
+            case TOKEN_OPERATOR:
+            case TOKEN_OPEN_PAREN:
+            case TOKEN_COMMA:
+                liftable = true;
+                break;
+            case TOKEN_WORD: {
+                for (String keyWord : NUMBER_LIFT_KEY_WORDS) {
+                    if (isKeyWord(sql, prevStart, prevEnd, keyWord)) {
+                        liftable = true;
+                        break;
+                    }
+                }
+            }
+            break;
+            default:
+                // not liftable
+        }
+        return liftable;
+    }
+
+    /**
+     * <p>
+     * string constant is lifted as parameter of unspecified type ,server resolve type from context ,
+     * so it's lifted only when context decide type : comparison operator , LIKE ,IN list and INSERT VALUES row.
+     * </p>
+     */
+    private static boolean isStringLiftable(final String sql, final int prevKind, final int prevStart,
+                                            final int prevEnd, final boolean liftParen) {
+        final boolean liftable;
+        switch (prevKind) {
+            case TOKEN_OPERATOR: {
+                final int length = prevEnd - prevStart;
+                final char first = sql.charAt(prevStart);
+                if (length == 1) {
+                    liftable = first == '=' || first == '<' || first == '>';
+                } else if (length == 2) {
+                    final char second = sql.charAt(prevStart + 1);
+                    liftable = second == '=' ? first == '<' || first == '>' || first == '!'
+                            : first == '<' && second == '>';
+                } else {
+                    liftable = false;
+                }
+            }
+            break;
+            case TOKEN_OPEN_PAREN:
+            case TOKEN_COMMA:
+                liftable = liftParen;
+                break;
+            case TOKEN_WORD:
+                liftable = isKeyWord(sql, prevStart, prevEnd, "LIKE")
+                        || isKeyWord(sql, prevStart, prevEnd, "ILIKE");
+                break;
+            default:
+                liftable = false;
+        }
+        return liftable;
+    }
+
+    private static boolean isByListEnd(final String sql, final int start, final int end) {
+        for (String keyWord : BY_LIST_END_KEY_WORDS) {
+            if (isKeyWord(sql, start, end, keyWord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPrevWord(final String sql, final int prevKind, final int prevStart, final int prevEnd,
+                                      final String keyWord) {
+        return prevKind == TOKEN_WORD && isKeyWord(sql, prevStart, prevEnd, keyWord);
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isOperatorChar(final char ch) {
+        switch (ch) {
+            case '+':
+            case '-':
+            case '*':
+            case '/':
+            case '<':
+            case '>':
+            case '=':
+            case '~':
+            case '!':
+            case '@':
+            case '#':
+            case '%':
+            case '^':
+            case '&':
+            case '|':
+            case '`':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param start the index of first character of key word.
+     * @param end   the index after last character of key word.
+     * @see #doParse(String, Mode)
+     */
+    private static byte nextInsertState(final byte state, final int parenDepth, final String sql, final int start,
+                                        final int end) {
+        final byte nextState;
+        switch (state) {
+            case INSERT_NONE:
+                nextState = isKeyWord(sql, start, end, INSERT) ? INSERT_KEYWORD : INSERT_NOT_MATCH;
+                break;
+            case INSERT_KEYWORD:
+                nextState = parenDepth == 0 && isKeyWord(sql, start, end, VALUES) ? INSERT_VALUES : state;
+                break;
+            case INSERT_AFTER_ROW:
+                // RETURNING rows can't be mapped to batch group.
+                nextState = parenDepth == 0 && isKeyWord(sql, start, end, RETURNING) ? INSERT_NOT_MATCH : state;
+                break;
+            case INSERT_VALUES: // VALUES isn't followed by '(' ,for example : VALUES DEFAULT
+                nextState = INSERT_NOT_MATCH;
+                break;
+            default:
+                nextState = state;
+        }
+        return nextState;
+    }
+
+    private static boolean isKeyWord(final String sql, final int start, final int end, final String keyWord) {
+        return end - start == keyWord.length() && sql.regionMatches(true, start, keyWord, 0, keyWord.length());
+    }
+
+    private static boolean isIdentifierPart(final char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == DOLLAR;
+    }
+
     /**
      * @return first: index of {@code )} ; second: next bind index.
      * @see #parseCopyOut(String)
      */
-    private Pair<Integer, Integer> skipCopyOutQuery(final String sql, final char[] charArray, int i, int bindIndex)
+    private Pair<Integer, Integer> skipCopyOutQuery(final String sql, int i, int bindIndex)
             throws SQLException {
 
-        final Stack<Boolean> bracketStack = new FastStack<>();
-        if (charArray[i] != '(') {
+        if (sql.charAt(i) != '(') {
             throw new IllegalArgumentException("Not Query");
         }
         i++;
-        bracketStack.push(Boolean.TRUE);
+        int parenDepth = 1;
 
 
-        final int lastIndex = charArray.length - 1;
+        final int length = sql.length(), lastIndex = length - 1;
         final boolean confirmStringOff = confirmStringIsOff();
 
 
         boolean inQuoteString = false, inCStyleEscapes = false, inUnicodeEscapes = false, inDoubleIdentifier = false;
         char ch;
-        for (; i < charArray.length; i++) {
-            ch = charArray[i];
+        for (; i < length; i++) {
+            ch = sql.charAt(i);
             if (inQuoteString) {
                 final int index = sql.indexOf(QUOTE, i);
                 if (index < 0) {
                     throw createQuoteNotCloseError(sql, i);
                 }
-                if ((confirmStringOff || inCStyleEscapes) && charArray[index - 1] == BACK_SLASH) {
+                if ((confirmStringOff || inCStyleEscapes) && sql.charAt(index - 1) == BACK_SLASH) {
                     // C-Style Escapes
                     i = index;
-                } else if (index < lastIndex && charArray[index + 1] == QUOTE) {
+                } else if (index < lastIndex && sql.charAt(index + 1) == QUOTE) {
                     // double quote Escapes
                     i = index + 1;
                 } else {
@@ -511,28 +987,28 @@ final class DefaultPgParser implements PgParser {
                     inUnicodeEscapes = false;
                 }
                 i = index;
-            } else if (ch == SLASH && i < lastIndex && charArray[i + 1] == STAR) {
+            } else if (ch == SLASH && i < lastIndex && sql.charAt(i + 1) == STAR) {
                 // block comment.
                 i = skipBlockComment(sql, i);
-            } else if (ch == DASH && i < lastIndex && charArray[i + 1] == DASH) {
+            } else if (ch == DASH && i < lastIndex && sql.charAt(i + 1) == DASH) {
                 // line comment
                 int index = sql.indexOf('\n', i + DOUBLE_DASH_COMMENT_MARKER.length());
-                i = index > 0 ? index : charArray.length;
+                i = index > 0 ? index : length;
             } else if (ch == QUOTE) {
                 inQuoteString = true;
-            } else if ((ch == 'E' || ch == 'e') && i < lastIndex && charArray[i + 1] == QUOTE) {
+            } else if ((ch == 'E' || ch == 'e') && i < lastIndex && sql.charAt(i + 1) == QUOTE) {
                 inQuoteString = inCStyleEscapes = true;
                 i++;
             } else if ((ch == 'U' || ch == 'u')
-                    && i < lastIndex && charArray[i + 1] == '&'
-                    && i + 2 < charArray.length && charArray[i + 2] == QUOTE) {
+                    && i < lastIndex && sql.charAt(i + 1) == '&'
+                    && i + 2 < length && sql.charAt(i + 2) == QUOTE) {
                 inQuoteString = inUnicodeEscapes = true;
                 i += 2;
             } else if (ch == DOUBLE_QUOTE) {
                 inDoubleIdentifier = true;
             } else if ((ch == 'U' || ch == 'u')
-                    && i < lastIndex && charArray[i + 1] == '&'
-                    && i + 2 < charArray.length && charArray[i + 2] == DOUBLE_QUOTE) {
+                    && i < lastIndex && sql.charAt(i + 1) == '&'
+                    && i + 2 < length && sql.charAt(i + 2) == DOUBLE_QUOTE) {
                 inDoubleIdentifier = inUnicodeEscapes = true;
                 i += 2;
             } else if (ch == DOLLAR) {
@@ -552,18 +1028,46 @@ final class DefaultPgParser implements PgParser {
             } else if (ch == '?') {
                 bindIndex++;
             } else if (ch == ')') {
-                bracketStack.pop();
-                if (bracketStack.isEmpty()) {
+                parenDepth--;
+                if (parenDepth == 0) {
                     // query end.
                     break;
                 }
             } else if (ch == '(') {
-                bracketStack.push(Boolean.TRUE);
+                parenDepth++;
             }
         }
         return new Pair<>(i, bindIndex);
     }
 
+    /**
+     * <p>
+     * Single forward scan without allocation.
+     * </p>
+     *
+     * @return true : sql don't contain parameter placeholder , statement separator ,comment ,string constant
+     * and quoted identifier ,so sql is one part.
+     * @see #parse(String)
+     */
+    private static boolean isSimpleStmt(final String sql) {
+        final int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            switch (sql.charAt(i)) {
+                case '?':
+                case ';':
+                case QUOTE:
+                case DOUBLE_QUOTE:
+                case DOLLAR:
+                case SLASH:
+                case DASH:
+                    return false;
+                default:
+                    // continue
+            }
+        }
+        return true;
+    }
+
     private boolean confirmStringIsOff() {
         String status = this.paramFunction.apply(ServerParameter.standard_conforming_strings);
         Objects.requireNonNull(status, "standard_conforming_strings value");
@@ -577,22 +1081,22 @@ final class DefaultPgParser implements PgParser {
             throws SQLException {
 
         final int length = sql.length(), markerLength = BLOCK_COMMENT_START_MARKER.length();
-        final Stack<String> stack = new FastStack<>();
         final String errorMsg = "Block comment marker quote(/*) not close.";
 
-        stack.push(BLOCK_COMMENT_START_MARKER);
+        int depth = 1; // nest depth of block comment
         for (int i = firstStartMarkerIndex + markerLength, startMarkerIndex, endMarkerIndex; i < length; ) {
             endMarkerIndex = sql.indexOf(BLOCK_COMMENT_END_MARKER, i);
             if (endMarkerIndex < 0) {
                 throw PgExceptions.createSyntaxError(errorMsg);
             }
-            startMarkerIndex = sql.indexOf(BLOCK_COMMENT_START_MARKER, i);
-            if (startMarkerIndex > 0 && startMarkerIndex < endMarkerIndex) {
-                // nest, push start marker
-                stack.push(BLOCK_COMMENT_START_MARKER);
+            // every start marker before end marker open a nest block comment
+            while ((startMarkerIndex = sql.indexOf(BLOCK_COMMENT_START_MARKER, i)) > -1
+                    && startMarkerIndex < endMarkerIndex) {
+                depth++;
+                i = startMarkerIndex + markerLength;
             }
-            stack.pop();
-            if (stack.isEmpty()) {
+            depth--;
+            if (depth == 0) {
                 return endMarkerIndex + markerLength - 1;
             }
             // nest ,continue search
@@ -610,25 +1114,25 @@ final class DefaultPgParser implements PgParser {
     /**
      * @see #parseCopyIn(String)
      */
-    private String parseStringConstant(final String sql, final char[] charArray, int i)
+    private String parseStringConstant(final String sql, int i)
             throws SQLException {
 
         final String stringConstant;
 
-        final char ch = charArray[i];
+        final char ch = sql.charAt(i);
         if (ch == QUOTE) {
             // string constant
             final boolean confirmStringOff = confirmStringIsOff();
-            stringConstant = parseQuoteStringConstant(sql, charArray, i, confirmStringOff);
+            stringConstant = parseQuoteStringConstant(sql, i, confirmStringOff);
         } else if ((ch == 'e' || ch == 'E')
-                && charArray[i + 1] == QUOTE) {
+                && sql.charAt(i + 1) == QUOTE) {
             // string constant with c-style escapes.
-            stringConstant = parseQuoteStringConstant(sql, charArray, i + 1, false);
+            stringConstant = parseQuoteStringConstant(sql, i + 1, false);
         } else if ((ch == 'u' || ch == 'U')
-                && charArray[i + 1] == '&'
-                && charArray[i + 2] == QUOTE) {
+                && sql.charAt(i + 1) == '&'
+                && sql.charAt(i + 2) == QUOTE) {
             // string constant with unicode escapes.
-            stringConstant = parseQuoteStringConstant(sql, charArray, i + 2, true);
+            stringConstant = parseQuoteStringConstant(sql, i + 2, true);
         } else if (ch == DOLLAR) {
             // dollar-quoted string constant
             stringConstant = parseDollarQuotedStringConstant(sql, i);
@@ -643,19 +1147,19 @@ final class DefaultPgParser implements PgParser {
     /**
      * @see #parseCopyIn(String)
      */
-    private static String parseQuoteStringConstant(final String sql, final char[] charArray, final int i
+    private static String parseQuoteStringConstant(final String sql, final int i
             , final boolean recognizesBackslash)
             throws SQLException {
-        final int lastIndex = charArray.length - 1;
+        final int length = sql.length(), lastIndex = length - 1;
 
-        for (int j = i + 1; j < charArray.length; j++) {
-            if (charArray[j] != QUOTE) {
+        for (int j = i + 1; j < length; j++) {
+            if (sql.charAt(j) != QUOTE) {
                 continue;
             }
-            if (recognizesBackslash && charArray[j - 1] == BACK_SLASH) {
+            if (recognizesBackslash && sql.charAt(j - 1) == BACK_SLASH) {
                 // C-Style Escapes
                 continue;
-            } else if (j < lastIndex && charArray[j + 1] == QUOTE) {
+            } else if (j < lastIndex && sql.charAt(j + 1) == QUOTE) {
                 //  double quote Escapes
                 j++;
                 continue;
@@ -717,6 +1221,29 @@ final class DefaultPgParser implements PgParser {
         return new IllegalStateException(String.format("Bind index[%s] great -1.", bindIndex));
     }
 
+    private static final class ParameterizedSqlImpl implements ParameterizedSql {
+
+        private final String sql;
+
+        private final List<Object> literalList;
+
+        private ParameterizedSqlImpl(String sql, List<Object> literalList) {
+            this.sql = sql;
+            this.literalList = literalList;
+        }
+
+        @Override
+        public String sql() {
+            return this.sql;
+        }
+
+        @Override
+        public List<Object> literalList() {
+            return this.literalList;
+        }
+
+    }
+
     private enum Mode {
         BIND,
         CHECK_SINGLE,
@@ -0,0 +1,30 @@
+package io.jdbd.postgre.syntax;
+
+import java.util.List;
+
+/**
+ * <p>
+ * This interface representing the static sql whose literals have been lifted to parameter placeholder {@code ?} .
+ * </p>
+ *
+ * @see PgParser#parameterize(String)
+ * @since 1.0
+ */
+public interface ParameterizedSql {
+
+    /**
+     * @return the normalized sql , literals are replaced with {@code ?} , so same shape have same sql.
+     */
+    String sql();
+
+    /**
+     * @return the unmodifiable list of lifted literal ,element is one of :
+     * <ul>
+     *     <li>{@link Integer} : integer constant</li>
+     *     <li>{@link java.math.BigDecimal} : numeric constant with decimal point or exponent</li>
+     *     <li>{@link String} : string constant, type is resolved by server from context</li>
+     * </ul>
+     */
+    List<Object> literalList();
+
+}
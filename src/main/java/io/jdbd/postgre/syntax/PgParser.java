@@ -1,6 +1,7 @@
 package io.jdbd.postgre.syntax;
 
 import io.jdbd.JdbdException;
+import io.jdbd.lang.Nullable;
 import io.jdbd.postgre.ServerParameter;
 import io.jdbd.vendor.syntax.SQLParser;
 
@@ -19,6 +20,21 @@ public interface PgParser extends SQLParser {
 
     String parseSetParameter(String sql) throws JdbdException;
 
+    /**
+     * <p>
+     * Lift numeric and string constants of SELECT/INSERT/UPDATE/DELETE/WITH statement to parameter placeholder ,
+     * only the constants that is safe to be replaced by parameter are lifted , for example :
+     * <ul>
+     *     <li>{@code ORDER BY 1} is column position , not lifted</li>
+     *     <li>{@code DATE '2023-01-01'} , {@code varchar(20)} require constant , not lifted</li>
+     * </ul>
+     * </p>
+     *
+     * @return null : sql couldn't be parameterized , for example : no literal, multi statement,parameter placeholder.
+     */
+    @Nullable
+    ParameterizedSql parameterize(String sql);
+
 
     static PgParser create(Function<ServerParameter, String> paramFunction) {
         return DefaultPgParser.create(paramFunction);
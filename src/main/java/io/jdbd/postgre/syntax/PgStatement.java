@@ -2,9 +2,29 @@ package io.jdbd.postgre.syntax;
 
 import io.jdbd.vendor.syntax.SQLStatement;
 
+import java.nio.charset.Charset;
+import java.util.List;
+
 public interface PgStatement extends SQLStatement {
 
     boolean isStandardConformingStrings();
 
+    /**
+     * @return the index of {@code (} of VALUES row , if statement is INSERT statement that have only one VALUES row
+     * and all parameter placeholder in the row and without RETURNING clause; else -1 .
+     */
+    int valuesRowStart();
+
+    /**
+     * @return the index after {@code )} of VALUES row ; -1 when {@link #valuesRowStart()} is -1 .
+     */
+    int valuesRowEnd();
+
+    /**
+     * @return the unmodifiable list of {@link #sqlPartList()} encoded by charset, the list is cached by statement,
+     * so sql fragments are encoded only once by simple query writer.
+     */
+    List<byte[]> sqlPartBytes(Charset charset);
+
 
 }
@@ -1,29 +1,98 @@
 package io.jdbd.postgre.syntax;
 
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 final class PgStatementImpl implements PgStatement {
 
-    static PgStatementImpl create(String sql, List<String> staticSqlList) {
-        return new PgStatementImpl(sql, staticSqlList);
+    /**
+     * @param placeholderIndexes the index of parameter placeholder {@code ?} in sql, only first paramCount is valid.
+     */
+    static PgStatementImpl create(String sql, int[] placeholderIndexes, int paramCount, int valuesRowStart,
+                                  int valuesRowEnd) {
+        return new PgStatementImpl(sql, placeholderIndexes, paramCount, valuesRowStart, valuesRowEnd);
     }
 
+    /**
+     * @return the statement that have only one sql part and no parameter placeholder.
+     */
+    static PgStatementImpl single(String sql) {
+        return new PgStatementImpl(sql, EMPTY_INDEXES, 0, -1, -1);
+    }
+
+    private static final int[] EMPTY_INDEXES = new int[0];
+
     private final String sql;
 
-    private final List<String> staticSqlList;
+    private final int[] placeholderIndexes;
 
     private final int paramCount;
 
-    private PgStatementImpl(String sql, List<String> staticSqlList) {
+    private final int valuesRowStart;
+
+    private final int valuesRowEnd;
+
+    /**
+     * the sql fragments that is split by parameter placeholder, created lazily from {@link #placeholderIndexes}.
+     *
+     * @see #sqlPartList()
+     */
+    private volatile List<String> staticSqlList;
+
+    /**
+     * @see #sqlPartBytes(Charset)
+     */
+    private volatile PartBytes partBytes;
+
+    private PgStatementImpl(String sql, int[] placeholderIndexes, int paramCount, int valuesRowStart,
+                            int valuesRowEnd) {
         this.sql = sql;
-        this.staticSqlList = Collections.unmodifiableList(staticSqlList);
-        this.paramCount = staticSqlList.size() - 1;
+        this.placeholderIndexes = placeholderIndexes;
+        this.paramCount = paramCount;
+        this.valuesRowStart = valuesRowStart;
+        this.valuesRowEnd = valuesRowEnd;
+        if (paramCount == 0) {
+            this.staticSqlList = Collections.singletonList(sql);
+        }
     }
 
     @Override
     public final List<String> sqlPartList() {
-        return this.staticSqlList;
+        List<String> staticSqlList = this.staticSqlList;
+        if (staticSqlList == null) {
+            // racy single-check is safe ,list is immutable.
+            final String sql = this.sql;
+            final int[] placeholderIndexes = this.placeholderIndexes;
+            final int paramCount = this.paramCount;
+            final List<String> partList = new ArrayList<>(paramCount + 1);
+            for (int i = 0, start = 0; i <= paramCount; i++) {
+                if (i < paramCount) {
+                    partList.add(sql.substring(start, placeholderIndexes[i]));
+                    start = placeholderIndexes[i] + 1;
+                } else {
+                    partList.add(sql.substring(start));
+                }
+            }
+            this.staticSqlList = staticSqlList = Collections.unmodifiableList(partList);
+        }
+        return staticSqlList;
+    }
+
+    @Override
+    public final List<byte[]> sqlPartBytes(final Charset charset) {
+        PartBytes partBytes = this.partBytes;
+        if (partBytes == null || !partBytes.charset.equals(charset)) {
+            final List<String> staticSqlList = sqlPartList();
+            final List<byte[]> byteList = new ArrayList<>(staticSqlList.size());
+            for (String part : staticSqlList) {
+                byteList.add(part.getBytes(charset));
+            }
+            partBytes = new PartBytes(charset, Collections.unmodifiableList(byteList));
+            this.partBytes = partBytes;
+        }
+        return partBytes.byteList;
     }
 
     @Override
@@ -36,5 +105,29 @@ final class PgStatementImpl implements PgStatement {
         return this.sql;
     }
 
+    @Override
+    public final int valuesRowStart() {
+        return this.valuesRowStart;
+    }
+
+    @Override
+    public final int valuesRowEnd() {
+        return this.valuesRowEnd;
+    }
+
+
+    private static final class PartBytes {
+
+        private final Charset charset;
+
+        private final List<byte[]> byteList;
+
+        private PartBytes(Charset charset, List<byte[]> byteList) {
+            this.charset = charset;
+            this.byteList = byteList;
+        }
+
+    }
+
 
 }
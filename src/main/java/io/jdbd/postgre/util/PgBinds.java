@@ -102,6 +102,16 @@ public abstract class PgBinds extends JdbdBinds {
         return formatCode;
     }
 
+    /**
+     * @return true : jdbd-postgre can read the binary format of column value of type.
+     * @see io.jdbd.postgre.env.PgKey#BINARY_TRANSFER_ENABLE
+     * @see io.jdbd.postgre.env.PgKey#BINARY_TRANSFER_DISABLE
+     */
+    public static boolean supportBinaryResult(final DataType type) {
+        // if change this ,change io.jdbd.postgre.protocol.client.PgResultSetReader.readColumnFromBinary
+        return type == PgType.UUID || decideFormatCode(type) == 1;
+    }
+
     public static String bindToPostgreDate(final int batchIndex, final Value paramValue) {
         final Object source = paramValue.getValue();
         String value;
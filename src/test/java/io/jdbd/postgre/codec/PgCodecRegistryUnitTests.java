@@ -0,0 +1,93 @@
+package io.jdbd.postgre.codec;
+
+import io.jdbd.postgre.PgType;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.nio.charset.Charset;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see PgCodecRegistry
+ */
+public class PgCodecRegistryUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgCodecRegistryUnitTests.class);
+
+
+    /**
+     * @see PgCodecRegistry#empty()
+     */
+    @Test
+    public void empty() {
+        final PgCodecRegistry registry = PgCodecRegistry.empty();
+        assertTrue(registry.isEmpty());
+        assertNull(registry.decoder(PgType.TEXT.oid, PgType.TEXT.typeName()));
+        assertNull(registry.encoder(PgType.TEXT.oid, PgType.TEXT.typeName()));
+    }
+
+    /**
+     * @see PgCodecRegistry#decoder(int, String)
+     * @see PgCodecRegistry#encoder(int, String)
+     */
+    @Test
+    public void lookup() {
+        final PgDecoder oidDecoder, nameDecoder;
+        oidDecoder = createDecoder();
+        nameDecoder = createDecoder();
+
+        final PgEncoder nameEncoder = createEncoder();
+
+        final PgCodecRegistry registry;
+        registry = PgCodecRegistry.builder()
+                .decoder(16392, oidDecoder)
+                .decoder("HStore", nameDecoder)
+                .encoder("citext", nameEncoder)
+                .build();
+
+        LOG.debug("{}", registry);
+        assertFalse(registry.isEmpty());
+
+        // oid has priority over type name
+        assertSame(registry.decoder(16392, "hstore"), oidDecoder);
+        assertSame(registry.decoder(0, "HSTORE"), nameDecoder);
+        assertSame(registry.encoder(0, "CITEXT"), nameEncoder);
+
+        assertNull(registry.decoder(0, "citext"));
+        assertNull(registry.encoder(16392, "hstore"));
+    }
+
+
+    private static PgDecoder createDecoder() {
+        return new PgDecoder() {
+            @Override
+            public Object decode(ByteBuf value, boolean binary, Charset charset) {
+                return value.toString(charset);
+            }
+
+            @Override
+            public boolean binaryFormat() {
+                return false;
+            }
+        };
+    }
+
+    private static PgEncoder createEncoder() {
+        return new PgEncoder() {
+            @Override
+            public void encode(Object value, ByteBuf message, Charset charset) {
+                message.writeBytes(value.toString().getBytes(charset));
+            }
+
+            @Override
+            public boolean binaryFormat() {
+                return false;
+            }
+        };
+    }
+
+
+}
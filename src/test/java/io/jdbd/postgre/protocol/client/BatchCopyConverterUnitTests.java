@@ -0,0 +1,49 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.postgre.syntax.PgParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see BatchCopyConverter
+ */
+public class BatchCopyConverterUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchCopyConverterUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    /**
+     * @see BatchCopyConverter#copySql(io.jdbd.postgre.syntax.PgStatement)
+     */
+    @Test
+    public void copySql() {
+        String sql;
+
+        sql = "INSERT INTO my_user(id, name, create_time) VALUES (?, ?, ?)";
+        assertEquals(BatchCopyConverter.copySql(PARSER.parse(sql)), "COPY my_user(id, name, create_time) FROM STDIN (FORMAT binary)");
+
+        sql = " insert into public.\"user\" (\"id\") values(?) ";
+        assertEquals(BatchCopyConverter.copySql(PARSER.parse(sql)), "COPY public.\"user\" (\"id\") FROM STDIN (FORMAT binary)");
+
+        // without column list
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user VALUES (?, ?)")));
+        // VALUES row contains non-placeholder
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user(id, create_time) VALUES (?, now())")));
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user(id, age) VALUES (?, ?::int)")));
+        // ON CONFLICT clause
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user(id) VALUES (?) ON CONFLICT DO NOTHING")));
+        // alias
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user AS u (id) VALUES (?)")));
+        // RETURNING clause
+        assertNull(BatchCopyConverter.copySql(PARSER.parse("INSERT INTO my_user(id) VALUES (?) RETURNING id")));
+
+        LOG.info("copySql test success");
+    }
+
+
+}
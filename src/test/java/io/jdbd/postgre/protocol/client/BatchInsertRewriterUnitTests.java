@@ -0,0 +1,77 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.postgre.syntax.PgParser;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see BatchInsertRewriter
+ */
+public class BatchInsertRewriterUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchInsertRewriterUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    /**
+     * @see BatchInsertRewriter#rewriteSql(io.jdbd.postgre.syntax.PgStatement, int)
+     */
+    @Test
+    public void rewriteSql() {
+        final String sql = "INSERT INTO my_user(id, name) VALUES (?, lower(?)) ON CONFLICT DO NOTHING";
+        assertEquals(BatchInsertRewriter.rewriteSql(PARSER.parse(sql), 1), sql);
+        assertEquals(BatchInsertRewriter.rewriteSql(PARSER.parse(sql), 3),
+                "INSERT INTO my_user(id, name) VALUES (?, lower(?)),(?, lower(?)),(?, lower(?)) ON CONFLICT DO NOTHING");
+
+        assertEquals(BatchInsertRewriter.maxRowsOfChunk(2), BatchInsertRewriter.MAX_ROWS);
+        assertEquals(BatchInsertRewriter.maxRowsOfChunk(1000), 32);
+        LOG.info("rewriteSql test success");
+    }
+
+    /**
+     * @see BatchInsertRewriter#mapChunkError(PgServerException, int[], int)
+     */
+    @Test
+    public void mapChunkError() {
+        final ByteBuf body = Unpooled.buffer();
+        body.writeByte(MultiFieldMessage.SQLSTATE);
+        body.writeBytes("23505".getBytes(StandardCharsets.UTF_8));
+        body.writeByte(Messages.STRING_TERMINATOR);
+        body.writeByte(MultiFieldMessage.MESSAGE);
+        body.writeBytes("duplicate key value".getBytes(StandardCharsets.UTF_8));
+        body.writeByte(Messages.STRING_TERMINATOR);
+        body.writeByte(0);
+
+        final PgServerException serverError;
+        serverError = PgServerException.readBody(body, body.writerIndex(), StandardCharsets.UTF_8);
+        body.release();
+
+        // 300 groups : two full chunks of 128 rows and remaining chunk of 44 rows
+        final int[] firstGroups = new int[]{0, 128, 256, 300};
+
+        PgServerException error;
+        // the error of remaining chunk is attributed to first group of remaining chunk , not index in chunk
+        error = BatchInsertRewriter.mapChunkError(serverError, firstGroups, 2);
+        assertEquals(error.getBatchIndex(), 256);
+        assertEquals(error.getMessage(), "batch[256] execute failure,duplicate key value");
+
+        // the batch index from task is index of chunk
+        error = BatchInsertRewriter.mapChunkError(serverError.withBatchIndex(1), firstGroups, 1);
+        assertEquals(error.getBatchIndex(), 128);
+
+        // error after all chunks isn't attributed to any group
+        assertSame(BatchInsertRewriter.mapChunkError(serverError, firstGroups, 3), serverError);
+
+        LOG.info("mapChunkError test success");
+    }
+
+
+}
@@ -0,0 +1,91 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.postgre.PgType;
+import io.jdbd.vendor.stmt.JdbdValues;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see BatchStreamer
+ */
+public class BatchStreamerUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchStreamerUnitTests.class);
+
+
+    /**
+     * @see BatchStreamer#splitByBytes(List, int)
+     */
+    @Test
+    public void splitByBytes() {
+        final List<List<ParamValue>> groupList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // 4 + 12 bytes per group
+            groupList.add(Collections.singletonList(JdbdValues.paramValue(0, PgType.TEXT, "abcdefghijkl")));
+        }
+        List<List<List<ParamValue>>> batchList;
+
+        batchList = BatchStreamer.splitByBytes(groupList, 1 << 20);
+        assertEquals(batchList.size(), 1);
+        assertSame(batchList.get(0), groupList);
+
+        batchList = BatchStreamer.splitByBytes(groupList, 48);
+        assertEquals(batchList.size(), 4);
+        assertEquals(batchList.get(0).size(), 3);
+        assertEquals(batchList.get(3).size(), 1);
+
+        // single group bigger than max bytes
+        batchList = BatchStreamer.splitByBytes(groupList, 8);
+        assertEquals(batchList.size(), groupList.size());
+
+        LOG.info("splitByBytes test success");
+    }
+
+    /**
+     * @see BatchStreamer#microBatchError(long, Throwable)
+     */
+    @Test
+    public void microBatchError() {
+        final ByteBuf body = Unpooled.buffer();
+        body.writeByte(MultiFieldMessage.SQLSTATE);
+        body.writeBytes("23505".getBytes(StandardCharsets.UTF_8));
+        body.writeByte(Messages.STRING_TERMINATOR);
+        body.writeByte(MultiFieldMessage.MESSAGE);
+        body.writeBytes("duplicate key value".getBytes(StandardCharsets.UTF_8));
+        body.writeByte(Messages.STRING_TERMINATOR);
+        body.writeByte(0);
+
+        final PgServerException serverError;
+        serverError = PgServerException.readBody(body, body.writerIndex(), StandardCharsets.UTF_8);
+        body.release();
+
+        // server error of group[3] of micro-batch that start from group[100]
+        Throwable error = BatchStreamer.microBatchError(100, serverError.withBatchIndex(3));
+        assertTrue(error instanceof PgServerException, error.getClass().getName());
+        assertEquals(((PgServerException) error).getBatchIndex(), 103);
+        assertEquals(error.getMessage(), "batch[103] execute failure,duplicate key value");
+
+        // server error without batch index isn't attributed to any group
+        error = BatchStreamer.microBatchError(100, serverError);
+        assertSame(error, serverError);
+
+        error = BatchStreamer.microBatchError(100, new IllegalStateException("test"));
+        assertTrue(error instanceof JdbdException, error.getClass().getName());
+
+        LOG.info("microBatchError test success");
+    }
+
+
+}
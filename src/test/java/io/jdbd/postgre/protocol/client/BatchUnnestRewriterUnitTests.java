@@ -0,0 +1,47 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.syntax.PgParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see BatchUnnestRewriter
+ */
+public class BatchUnnestRewriterUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchUnnestRewriterUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    /**
+     * @see BatchUnnestRewriter#rewriteSql(io.jdbd.postgre.syntax.PgStatement, PgType[])
+     */
+    @Test
+    public void rewriteSql() {
+        final PgType[] twoTypes = new PgType[]{PgType.BIGINT_ARRAY, PgType.TEXT_ARRAY};
+        String sql;
+
+        sql = "INSERT INTO my_user(id, name) VALUES (?, lower(?)) ON CONFLICT DO NOTHING";
+        assertEquals(BatchUnnestRewriter.rewriteSql(PARSER.parse(sql), twoTypes),
+                "INSERT INTO my_user(id, name) SELECT jdbd_u.c1, lower(jdbd_u.c2) FROM unnest(?::BIGINT[], ?::TEXT[]) AS jdbd_u(c1, c2) ON CONFLICT DO NOTHING");
+
+        final PgType[] oneType = new PgType[]{PgType.BIGINT_ARRAY};
+        // DEFAULT in VALUES row
+        assertNull(BatchUnnestRewriter.rewriteSql(PARSER.parse("INSERT INTO my_user(id, name) VALUES (?, DEFAULT)"), oneType));
+        // RETURNING clause
+        assertNull(BatchUnnestRewriter.rewriteSql(PARSER.parse("INSERT INTO my_user(id) VALUES (?) RETURNING name"), oneType));
+        // UPDATE/DELETE : groups that match same row would be lost
+        assertNull(BatchUnnestRewriter.rewriteSql(PARSER.parse("UPDATE my_user AS u SET name = ? WHERE u.id = ?"),
+                new PgType[]{PgType.TEXT_ARRAY, PgType.BIGINT_ARRAY}));
+        assertNull(BatchUnnestRewriter.rewriteSql(PARSER.parse("DELETE FROM my_user WHERE id = ? AND name = ?"), twoTypes));
+
+        LOG.info("rewriteSql test success");
+    }
+
+
+}
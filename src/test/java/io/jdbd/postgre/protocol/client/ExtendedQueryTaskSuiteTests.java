@@ -1,17 +1,21 @@
 package io.jdbd.postgre.protocol.client;
 
+import io.jdbd.postgre.PgBatchSummary;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.stmt.BindValue;
 import io.jdbd.result.ResultRow;
 import io.jdbd.result.ResultStates;
+import io.jdbd.vendor.stmt.ParamBatchStmt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
-import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.*;
 
 /**
  * This class is test class of the methods of  {@link ExtendedQueryTask}.
@@ -50,5 +54,213 @@ public class ExtendedQueryTaskSuiteTests extends AbstractTaskTests {
         assertEquals(rowList.size(), 1, "rowList size");
     }
 
+    /**
+     * <p>
+     * Multi-group batch that isn't prepared : Parse message then Bind/Execute of all group behind single Sync.
+     * </p>
+     *
+     * @see ExtendedQueryTask#batchUpdate(ParamBatchStmt, TaskAdjutant)
+     */
+    @Test
+    public void batchUpdateMultiGroup() {
+        final PgProtocol protocol;
+        protocol = obtainProtocolWithSync();
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+
+        final String marker = "batch_multi_" + System.nanoTime();
+        final String sql = "INSERT INTO my_types(my_integer,my_varchar) VALUES ($1,$2)";
+        final int groupCount = 3;
+
+        final List<List<BindValue>> groupList = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            final List<BindValue> valueList = new ArrayList<>(2);
+            valueList.add(BindValue.wrap(0, PgType.INTEGER, i));
+            valueList.add(BindValue.wrap(1, PgType.VARCHAR, marker));
+            groupList.add(Collections.unmodifiableList(valueList));
+        }
+
+        final List<ResultStates> stateList;
+        stateList = ExtendedQueryTask.batchUpdate(PgStmts.bindBatch(sql, groupList), adjutant)
+                .collectList()
+                .block();
+
+        assertNotNull(stateList, "stateList");
+        assertEquals(stateList.size(), groupCount, "stateList size");
+        for (int i = 0; i < groupCount; i++) {
+            final ResultStates state = stateList.get(i);
+            assertEquals(state.getResultNo(), i, "resultNo");
+            assertEquals(state.affectedRows(), 1L, "affectedRows");
+            assertEquals(state.hasMoreResult(), i < groupCount - 1, "more result");
+        }
+
+        assertEquals(countRowsByVarchar(protocol, marker), groupCount, "inserted rows");
+    }
+
+    /**
+     * <p>
+     * Multi-group aggregate batch that isn't prepared : all groups must be executed and summed up.
+     * </p>
+     *
+     * @see ExtendedQueryTask#batchSummary(ParamBatchStmt, boolean, TaskAdjutant)
+     */
+    @Test
+    public void batchSummaryMultiGroup() {
+        final PgProtocol protocol;
+        protocol = obtainProtocolWithSync();
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+
+        final String marker = "batch_summary_" + System.nanoTime();
+        final String sql = "INSERT INTO my_types(my_integer,my_varchar) VALUES ($1,$2)";
+        final int groupCount = 3;
+
+        final List<List<BindValue>> groupList = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            final List<BindValue> valueList = new ArrayList<>(2);
+            valueList.add(BindValue.wrap(0, PgType.INTEGER, i));
+            valueList.add(BindValue.wrap(1, PgType.VARCHAR, marker));
+            groupList.add(Collections.unmodifiableList(valueList));
+        }
+
+        final ResultStates states;
+        states = ExtendedQueryTask.batchSummary(PgStmts.bindBatch(sql, groupList), true, adjutant)
+                .block();
+
+        assertNotNull(states, "states");
+        assertTrue(states instanceof PgBatchSummary, states.getClass().getName());
+        final PgBatchSummary summary = (PgBatchSummary) states;
+
+        assertEquals(summary.groupCount(), groupCount, "groupCount");
+        assertEquals(summary.successCount(), groupCount, "successCount");
+        assertEquals(summary.affectedRows(), groupCount, "total affectedRows");
+        assertEquals(summary.errorPositions().length, 0, "errorPositions");
+        assertNull(summary.firstError(), "firstError");
+
+        final long[] itemAffectedRows = summary.itemAffectedRows();
+        assertNotNull(itemAffectedRows, "itemAffectedRows");
+        assertEquals(itemAffectedRows.length, groupCount, "itemAffectedRows length");
+        for (long affectedRows : itemAffectedRows) {
+            assertEquals(affectedRows, 1L, "item affectedRows");
+        }
+
+        assertEquals(countRowsByVarchar(protocol, marker), groupCount, "inserted rows");
+    }
+
+
+    /**
+     * <p>
+     * The result type of cached statement is changed by ALTER TABLE between executions,
+     * server respond 0A000 (cached plan must not change result type) , task re-Parse and retry once.
+     * </p>
+     *
+     * @see ExtendedQueryTask#handleInvalidCachedPlan(PgServerException)
+     */
+    @Test
+    public void retryOnInvalidCachedPlan() {
+        final PgProtocol protocol;
+        protocol = obtainProtocolWithSync();
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+
+        final String sql = "SELECT t.* FROM my_retry_plan AS t WHERE t.id = $1";
+        createRetryPlanTable(adjutant);
+        protocol.overridePrepare(sql, Boolean.TRUE); // named statement is cached by session
+
+        List<ResultRow> rowList;
+        rowList = queryRetryPlan(sql, adjutant);
+        assertEquals(rowList.size(), 1, "rowList size");
+        assertEquals(rowList.get(0).getRowMeta().getColumnCount(), 2, "column count");
+
+        SimpleQueryTask.update(PgStmts.stmt("ALTER TABLE my_retry_plan ADD COLUMN my_age integer"), adjutant)
+                .block();
+
+        // cached plan is invalid , re-Parse and retry
+        rowList = queryRetryPlan(sql, adjutant);
+        assertEquals(rowList.size(), 1, "rowList size");
+        assertEquals(rowList.get(0).getRowMeta().getColumnCount(), 3, "column count after ALTER TABLE");
+
+        releaseConnection(protocol).block();
+    }
+
+    /**
+     * <p>
+     * In transaction block , the error of invalid cached plan make transaction failed, server reject all command
+     * until end of transaction block, so task don't retry and emit the server error.
+     * </p>
+     *
+     * @see ExtendedQueryTask#handleInvalidCachedPlan(PgServerException)
+     */
+    @Test
+    public void noRetryInFailedTransaction() {
+        final PgProtocol protocol;
+        protocol = obtainProtocolWithSync();
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+
+        final String sql = "SELECT t.* FROM my_retry_plan AS t WHERE t.id = $1";
+        createRetryPlanTable(adjutant);
+        protocol.overridePrepare(sql, Boolean.TRUE); // named statement is cached by session
+
+        assertEquals(queryRetryPlan(sql, adjutant).size(), 1, "rowList size");
+
+        SimpleQueryTask.update(PgStmts.stmt("ALTER TABLE my_retry_plan ADD COLUMN my_age integer"), adjutant)
+                .block();
+        SimpleQueryTask.update(PgStmts.stmt("BEGIN"), adjutant)
+                .block();
+
+        Throwable error = null;
+        try {
+            queryRetryPlan(sql, adjutant);
+        } catch (Throwable e) {
+            error = e;
+        }
+        assertTrue(error instanceof PgServerException, String.valueOf(error));
+        assertTrue(((PgServerException) error).isInvalidCachedPlan(), "invalid cached plan");
+        assertEquals(adjutant.txStatus(), TxStatus.ERROR, "txStatus");
+
+        SimpleQueryTask.update(PgStmts.stmt("ROLLBACK"), adjutant)
+                .block();
+
+        // after transaction block , statement is re-Parsed.
+        final List<ResultRow> rowList = queryRetryPlan(sql, adjutant);
+        assertEquals(rowList.size(), 1, "rowList size");
+
+        releaseConnection(protocol).block();
+    }
+
+    /**
+     * create temporary table of session , so test don't affect other session.
+     */
+    private static void createRetryPlanTable(final TaskAdjutant adjutant) {
+        final List<String> sqlGroup = new ArrayList<>(2);
+        sqlGroup.add("CREATE TEMPORARY TABLE my_retry_plan(id bigint PRIMARY KEY, my_name varchar(20))");
+        sqlGroup.add("INSERT INTO my_retry_plan(id, my_name) VALUES (1, 'army')");
+        SimpleQueryTask.batchUpdate(PgStmts.batch(sqlGroup), adjutant)
+                .blockLast();
+    }
+
+    private static List<ResultRow> queryRetryPlan(final String sql, final TaskAdjutant adjutant) {
+        final List<BindValue> valueList = Collections.singletonList(BindValue.wrap(0, PgType.BIGINT, 1L));
+        final List<ResultRow> rowList;
+        rowList = ExtendedQueryTask.query(PgStmts.bind(sql, valueList), adjutant)
+                .collectList()
+                .block();
+        assertNotNull(rowList, "rowList");
+        return rowList;
+    }
+
+
+    /**
+     * @return the row count of my_types whose my_varchar is marker , connection is released.
+     */
+    static long countRowsByVarchar(final PgProtocol protocol, final String marker) {
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+        final String sql = String.format("SELECT count(*) AS c FROM my_types AS t WHERE t.my_varchar = '%s'", marker);
+        final ResultRow row;
+        row = SimpleQueryTask.query(PgStmts.stmt(sql), adjutant)
+                .concatWith(releaseConnection(protocol))
+                .onErrorResume(releaseConnectionOnError(protocol))
+                .blockLast();
+        assertNotNull(row, "row");
+        return row.getNonNull("c", Long.class);
+    }
+
 
 }
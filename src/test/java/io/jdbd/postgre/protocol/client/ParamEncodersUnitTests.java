@@ -0,0 +1,81 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see ParamEncoders
+ */
+public class ParamEncodersUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParamEncodersUnitTests.class);
+
+
+    /**
+     * @see ParamEncoders#writeNumeric(BigDecimal, ByteBuf)
+     */
+    @Test
+    public void writeNumeric() {
+        // ndigits, weight, sign, dscale, digits...
+        assertNumeric("0", 0, 0, 0, 0);
+        assertNumeric("12345.6", 3, 1, 0, 1, 1, 2345, 6000);
+        assertNumeric("-0.0001", 1, -1, 0x4000, 4, 1);
+        assertNumeric("10000", 1, 1, 0, 0, 1);
+        assertNumeric("1E+5", 1, 1, 0, 0, 10);
+    }
+
+    /**
+     * @see ParamEncoders#encoderOf(io.jdbd.meta.DataType, PgCodecRegistry)
+     */
+    @Test
+    public void encoderOf() {
+        final PgCodecRegistry registry = PgCodecRegistry.empty();
+        ParamEncoder encoder;
+
+        encoder = ParamEncoders.encoderOf(PgType.DATE, registry);
+        assertNotNull(encoder);
+        assertEquals(encoder.formatCode(), 1);
+        assertTrue(encoder.accept(LocalDate.now()));
+        assertFalse(encoder.accept("infinity"));
+
+        encoder = ParamEncoders.encoderOf(PgType.INTEGER_ARRAY, registry);
+        assertNotNull(encoder);
+        assertTrue(encoder.accept(new int[]{1, 2}));
+        assertTrue(encoder.accept(new Integer[][]{{1}, {2}}));
+        assertFalse(encoder.accept("{1,2}"));
+
+        encoder = ParamEncoders.encoderOf(PgType.BYTEA_ARRAY, registry);
+        assertNotNull(encoder);
+        assertTrue(encoder.accept(new byte[][]{{1}}));
+        assertFalse(encoder.accept(new byte[]{1}));
+
+        assertNull(ParamEncoders.encoderOf(PgType.INTERVAL, registry));
+    }
+
+
+    private static void assertNumeric(final String value, final int... expected) {
+        final ByteBuf buffer = Unpooled.buffer();
+        try {
+            ParamEncoders.writeNumeric(new BigDecimal(value), buffer);
+            assertEquals(buffer.readableBytes(), expected.length << 1, value);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(buffer.readShort(), (short) expected[i], value);
+            }
+        } finally {
+            buffer.release();
+        }
+        LOG.debug("numeric {} binary encoding ok.", value);
+    }
+
+
+}
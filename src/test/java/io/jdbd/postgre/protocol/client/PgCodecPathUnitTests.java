@@ -0,0 +1,367 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.JdbdException;
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.codec.PgCodecRegistry;
+import io.jdbd.postgre.codec.PgDecoder;
+import io.jdbd.postgre.codec.PgEncoder;
+import io.jdbd.postgre.syntax.PgParser;
+import io.jdbd.vendor.env.SimpleEnvironment;
+import io.jdbd.vendor.stmt.JdbdValues;
+import io.jdbd.vendor.stmt.ParamStmt;
+import io.jdbd.vendor.stmt.ParamValue;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+/**
+ * <p>
+ * This class is test class of the path of {@link PgCodecRegistry} in protocol : column decoder , simple query encoder
+ * and extended query encoder. The adjutant is stub , so don't need database.
+ * </p>
+ *
+ * @see PgColumnMeta
+ * @see PgResultSetReader#readColumnWithDecoder(ByteBuf, int, Charset, PgColumnMeta)
+ * @see QueryCommandWriter
+ * @see ParamEncoders#create(List, PgCodecRegistry)
+ */
+public class PgCodecPathUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgCodecPathUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+    private static final int TEXT_FORMAT = 0;
+
+    private static final int BINARY_FORMAT = 1;
+
+
+    /**
+     * <p>
+     * Text decoder is used only for text format column , binary decoder is used for both format.
+     * </p>
+     *
+     * @see PgColumnMeta#decoder
+     * @see PgColumnMeta#binaryResult
+     */
+    @Test
+    public void columnDecoder() {
+        final PgDecoder textDecoder, binaryDecoder;
+        textDecoder = new StubDecoder(false);
+        binaryDecoder = new StubDecoder(true);
+
+        final PgCodecRegistry registry;
+        registry = PgCodecRegistry.builder()
+                .decoder(PgType.JSON.oid, textDecoder)
+                .decoder(PgType.BYTEA.typeName(), binaryDecoder)
+                .build();
+        final TaskAdjutant adjutant = createAdjutant(registry);
+
+        final ByteBuf message = Unpooled.buffer();
+        try {
+            writeRowDescription(message,
+                    new Object[]{"json_text", PgType.JSON.oid, TEXT_FORMAT},
+                    new Object[]{"json_binary", PgType.JSON.oid, BINARY_FORMAT},
+                    new Object[]{"bytea_binary", PgType.BYTEA.oid, BINARY_FORMAT},
+                    new Object[]{"int_text", PgType.INTEGER.oid, TEXT_FORMAT}
+            );
+            final PgColumnMeta[] metaArray = PgColumnMeta.read(message, adjutant);
+            assertEquals(metaArray.length, 4);
+            assertEquals(message.readableBytes(), 0);
+
+            assertSame(metaArray[0].decoder, textDecoder);
+            assertFalse(metaArray[0].binaryResult, "text decoder require text result");
+
+            // text decoder can't decode binary format, build-in decoder is used.
+            assertNull(metaArray[1].decoder);
+
+            assertSame(metaArray[2].decoder, binaryDecoder);
+            assertTrue(metaArray[2].binaryResult, "binary decoder");
+
+            assertNull(metaArray[3].decoder, "no decoder is registered");
+        } finally {
+            message.release();
+        }
+        LOG.info("columnDecoder test success");
+    }
+
+    /**
+     * @see PgResultSetReader#readColumnWithDecoder(ByteBuf, int, Charset, PgColumnMeta)
+     */
+    @Test
+    public void readColumnWithDecoder() {
+        final StubDecoder decoder = new StubDecoder(false);
+        final PgCodecRegistry registry = PgCodecRegistry.builder()
+                .decoder(PgType.JSON.oid, decoder)
+                .build();
+        final TaskAdjutant adjutant = createAdjutant(registry);
+
+        final ByteBuf message = Unpooled.buffer();
+        try {
+            writeRowDescription(message, new Object[]{"j", PgType.JSON.oid, TEXT_FORMAT});
+            final PgColumnMeta meta = PgColumnMeta.read(message, adjutant)[0];
+            assertSame(meta.decoder, decoder);
+            message.clear();
+
+            final byte[] valueBytes = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+            message.writeBytes(valueBytes);
+            message.writeInt(0x7FFF_FFFF); // the bytes of next column
+
+            decoder.readBytes = 2; // decoder don't read all bytes
+            final Object value;
+            value = PgResultSetReader.readColumnWithDecoder(message, valueBytes.length, StandardCharsets.UTF_8, meta);
+            assertEquals(value, "{\"a\":1}");
+            assertFalse(decoder.lastBinary);
+            assertEquals(message.readerIndex(), valueBytes.length, "reader index of next column");
+            assertEquals(message.readInt(), 0x7FFF_FFFF);
+
+            // decoder return null
+            message.clear();
+            message.writeBytes(valueBytes);
+            decoder.returnNull = true;
+            expectThrows(JdbdException.class,
+                    () -> PgResultSetReader.readColumnWithDecoder(message, valueBytes.length, StandardCharsets.UTF_8,
+                            meta));
+        } finally {
+            message.release();
+        }
+        LOG.info("readColumnWithDecoder test success");
+    }
+
+    /**
+     * <p>
+     * Simple query protocol support only text format , so binary encoder is skipped.
+     * </p>
+     *
+     * @see QueryCommandWriter#paramCommand(ParamStmt, TaskAdjutant)
+     */
+    @Test
+    public void simpleQueryEncoder() {
+        final StubEncoder textEncoder, binaryEncoder;
+        textEncoder = new StubEncoder(false);
+        binaryEncoder = new StubEncoder(true);
+
+        final PgCodecRegistry registry = PgCodecRegistry.builder()
+                .encoder(PgType.JSON.oid, textEncoder)
+                .encoder(PgType.INTEGER.typeName(), binaryEncoder)
+                .build();
+        final TaskAdjutant adjutant = createAdjutant(registry);
+
+        final List<ParamValue> paramGroup = new ArrayList<>(2);
+        paramGroup.add(JdbdValues.paramValue(0, PgType.JSON, "{\"name\":\"o'neil\"}"));
+        paramGroup.add(JdbdValues.paramValue(1, PgType.INTEGER, 7));
+
+        final ByteBuf message;
+        message = Mono.from(QueryCommandWriter.paramCommand(createParamStmt("SELECT ?, ?", paramGroup), adjutant))
+                .block();
+        assertNotNull(message);
+        try {
+            assertEquals(message.readByte(), Messages.Q);
+            message.skipBytes(Messages.LENGTH_SIZE);
+            final String sql = message.toString(message.readerIndex(), message.readableBytes() - 1,
+                    StandardCharsets.UTF_8);
+            LOG.debug("simple query : {}", sql);
+
+            assertEquals(textEncoder.encodeCount.get(), 1);
+            assertTrue(sql.contains("'[encoded]{\"name\":\"o''neil\"}'::" + PgType.JSON.typeName()), sql);
+
+            assertEquals(binaryEncoder.encodeCount.get(), 0, "binary encoder is used by simple query");
+            assertTrue(sql.endsWith("7::INTEGER"), sql);
+        } finally {
+            message.release();
+        }
+        LOG.info("simpleQueryEncoder test success");
+    }
+
+    /**
+     * <p>
+     * Extended query protocol use both text and binary encoder , the format code of Bind message is decided by encoder.
+     * </p>
+     *
+     * @see ParamEncoders#create(List, PgCodecRegistry)
+     * @see BindTemplate
+     */
+    @Test
+    public void extendedQueryEncoder() {
+        final StubEncoder textEncoder, binaryEncoder;
+        textEncoder = new StubEncoder(false);
+        binaryEncoder = new StubEncoder(true);
+
+        final PgCodecRegistry registry = PgCodecRegistry.builder()
+                .encoder(PgType.JSON.oid, textEncoder)          // build-in is binary
+                .encoder(PgType.INTERVAL.typeName(), binaryEncoder)   // build-in is text
+                .build();
+
+        final List<DataType> paramTypeList = Arrays.asList(PgType.JSON, PgType.INTERVAL, PgType.BIGINT);
+        final ParamEncoder[] encoders = ParamEncoders.create(paramTypeList, registry);
+
+        assertEquals(encoders[0].formatCode(), TEXT_FORMAT);
+        assertEquals(encoders[1].formatCode(), BINARY_FORMAT);
+        assertTrue(encoders[1].accept(new Object()), "registered encoder accept all value");
+        assertNotNull(encoders[2], "build-in encoder");
+
+        final BindTemplate template;
+        template = BindTemplate.create("S1", paramTypeList, encoders, null, StandardCharsets.UTF_8);
+        assertEquals(template.formatCodes, new int[]{TEXT_FORMAT, BINARY_FORMAT, BINARY_FORMAT});
+
+        final ByteBuf message = Unpooled.buffer();
+        try {
+            encoders[1].encode(0, JdbdValues.paramValue(1, PgType.INTERVAL, "1 day"), message,
+                    StandardCharsets.UTF_8);
+            assertEquals(binaryEncoder.encodeCount.get(), 1);
+            assertEquals(message.toString(StandardCharsets.UTF_8), "[encoded]1 day");
+        } finally {
+            message.release();
+        }
+        LOG.info("extendedQueryEncoder test success");
+    }
+
+
+    /**
+     * @param columns each column is array of label, type oid and format code.
+     */
+    private static void writeRowDescription(final ByteBuf message, final Object[]... columns) {
+        final int startIndex = message.writerIndex();
+        message.writeByte(Messages.T);
+        message.writeZero(Messages.LENGTH_SIZE);
+        message.writeShort(columns.length);
+        for (Object[] column : columns) {
+            message.writeBytes(((String) column[0]).getBytes(StandardCharsets.UTF_8));
+            message.writeByte(Messages.STRING_TERMINATOR);
+            message.writeInt(0);                              // table oid
+            message.writeShort(0);                            // attribute number
+            message.writeInt(((Number) column[1]).intValue());  // type oid
+            message.writeShort(-1);                           // type size
+            message.writeInt(-1);                             // type modifier
+            message.writeShort((Integer) column[2]);          // format code
+        }
+        Messages.writeLength(message, startIndex);
+    }
+
+    /**
+     * @return the adjutant that only support the methods that are invoked by codec path.
+     */
+    private static TaskAdjutant createAdjutant(final PgCodecRegistry registry) {
+        final Map<String, Object> map = new HashMap<>(); // see PgKey
+        map.put("codecRegistry", registry);
+        final ProtocolFactory factory = new ProtocolFactory(SimpleEnvironment.from(map)) {
+        };
+        return (TaskAdjutant) Proxy.newProxyInstance(TaskAdjutant.class.getClassLoader(),
+                new Class<?>[]{TaskAdjutant.class}, (proxy, method, args) -> {
+                    final Object result;
+                    switch (method.getName()) {
+                        case "factory":
+                            result = factory;
+                            break;
+                        case "clientCharset":
+                            result = StandardCharsets.UTF_8;
+                            break;
+                        case "allocator":
+                            result = UnpooledByteBufAllocator.DEFAULT;
+                            break;
+                        case "parse":
+                            result = PARSER.parse((String) args[0]);
+                            break;
+                        case "toString":
+                            result = "StubTaskAdjutant";
+                            break;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result;
+                });
+    }
+
+    private static ParamStmt createParamStmt(final String sql, final List<ParamValue> paramGroup) {
+        return (ParamStmt) Proxy.newProxyInstance(ParamStmt.class.getClassLoader(), new Class<?>[]{ParamStmt.class},
+                (proxy, method, args) -> {
+                    final Object result;
+                    switch (method.getName()) {
+                        case "getSql":
+                            result = sql;
+                            break;
+                        case "getParamGroup":
+                            result = paramGroup;
+                            break;
+                        case "toString":
+                            result = sql;
+                            break;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result;
+                });
+    }
+
+
+    private static final class StubDecoder implements PgDecoder {
+
+        private final boolean binaryFormat;
+
+        private int readBytes = -1;
+
+        private boolean returnNull;
+
+        private boolean lastBinary;
+
+        private StubDecoder(boolean binaryFormat) {
+            this.binaryFormat = binaryFormat;
+        }
+
+        @Override
+        public Object decode(final ByteBuf value, final boolean binary, final Charset charset) {
+            this.lastBinary = binary;
+            final String text = value.toString(charset);
+            if (this.readBytes > 0) {
+                value.skipBytes(this.readBytes);
+            } else {
+                value.skipBytes(value.readableBytes());
+            }
+            return this.returnNull ? null : text;
+        }
+
+        @Override
+        public boolean binaryFormat() {
+            return this.binaryFormat;
+        }
+
+    }//StubDecoder
+
+    private static final class StubEncoder implements PgEncoder {
+
+        private final boolean binaryFormat;
+
+        private final AtomicInteger encodeCount = new AtomicInteger(0);
+
+        private StubEncoder(boolean binaryFormat) {
+            this.binaryFormat = binaryFormat;
+        }
+
+        @Override
+        public void encode(final Object value, final ByteBuf message, final Charset charset) {
+            this.encodeCount.incrementAndGet();
+            message.writeBytes(("[encoded]" + value).getBytes(charset));
+        }
+
+        @Override
+        public boolean binaryFormat() {
+            return this.binaryFormat;
+        }
+
+    }//StubEncoder
+
+
+}
@@ -0,0 +1,96 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.syntax.PgParser;
+import io.jdbd.postgre.syntax.PgStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see PgParseCache
+ */
+public class PgParseCacheUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgParseCacheUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    @Test
+    public void hitAndMiss() {
+        final PgParseCache cache = PgParseCache.create(16, 1 << 20);
+        final String sql = "SELECT t.id FROM my_user AS t WHERE t.id = ?";
+
+        final PgStatement stmt = cache.parse(sql, true, PARSER);
+        assertSame(cache.parse(sql, true, PARSER), stmt);
+        assertEquals(cache.missCount(), 1L);
+        assertEquals(cache.hitCount(), 1L);
+
+        // different standard_conforming_strings is different entry.
+        assertNotSame(cache.parse(sql, false, PARSER), stmt);
+        assertEquals(cache.missCount(), 2L);
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.hitRate(), 1.0 / 3, 0.0001);
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final PgParseCache cache = PgParseCache.create(10, 1 << 20);
+        final String hotSql = "SELECT 0 AS hot";
+        cache.parse(hotSql, true, PARSER);
+        for (int i = 1; i <= 10; i++) {
+            cache.parse(hotSql, true, PARSER);
+            cache.parse("SELECT " + i, true, PARSER);
+        }
+        LOG.debug("size {} , evictionCount {}", cache.size(), cache.evictionCount());
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.evictionCount() > 0);
+
+        final long missCount = cache.missCount();
+        cache.parse(hotSql, true, PARSER);
+        assertEquals(cache.missCount(), missCount, "hot sql is evicted");
+    }
+
+    /**
+     * @see PgParseCache#stmtMeta(String, boolean, String)
+     */
+    @Test
+    public void stmtMetaScope() {
+        final PgParseCache cache = PgParseCache.create(16, 1 << 20);
+        final String sql = "UPDATE my_user AS t SET t.nick_name = ? WHERE t.id = ?";
+        final String scopeA = "army\0public", scopeB = "army\0my_schema,public";
+        cache.parse(sql, true, PARSER);
+
+        final List<DataType> paramTypeList = Arrays.asList(PgType.VARCHAR, PgType.BIGINT);
+        assertNull(PgStmtMeta.createIfShareable(paramTypeList, null, null), "unknown scope");
+
+        final PgStmtMeta metaA = PgStmtMeta.createIfShareable(paramTypeList, null, scopeA);
+        assertNotNull(metaA);
+        cache.shareStmtMeta(sql, true, metaA);
+
+        assertSame(cache.stmtMeta(sql, true, scopeA), metaA);
+        assertNull(cache.stmtMeta(sql, true, scopeB), "other search_path");
+        assertNull(cache.stmtMeta(sql, true, "other\0public"), "other user");
+        assertNull(cache.stmtMeta(sql, true, null), "unknown scope");
+        assertNull(cache.stmtMeta(sql, false, scopeA), "other standard_conforming_strings");
+
+        // other scope replace metadata
+        final PgStmtMeta metaB = PgStmtMeta.createIfShareable(paramTypeList, null, scopeB);
+        assertNotNull(metaB);
+        cache.shareStmtMeta(sql, true, metaB);
+        assertNull(cache.stmtMeta(sql, true, scopeA));
+        assertSame(cache.stmtMeta(sql, true, scopeB), metaB);
+
+        cache.removeStmtMeta(sql, true);
+        assertNull(cache.stmtMeta(sql, true, scopeB), "removed");
+    }
+
+
+}
@@ -0,0 +1,118 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.meta.DataType;
+import io.jdbd.postgre.syntax.PgParser;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see PgStmtCache
+ */
+public class PgStmtCacheUnitTests {
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    /**
+     * <p>
+     * A burst of ad-hoc sql only evict unprepared statistics , don't close hot prepared statement.
+     * </p>
+     */
+    @Test
+    public void adHocSqlDontEvictPreparedStmt() {
+        final PgStmtCache cache = PgStmtCache.create(2, 1 << 20);
+        final String hotSql = "SELECT t.id FROM my_user AS t WHERE t.id = ?";
+        cache.put(serverStmt(hotSql, "S1"));
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(PgStmtCache.createStmt(PARSER.parse("SELECT " + i), 1));
+        }
+        assertEquals(cache.size(), 1, "prepared statement count");
+        assertTrue(cache.peek(hotSql) instanceof ServerCacheStmt, "hot statement is evicted");
+        assertTrue(cache.pollEvictedNames().isEmpty(), "evicted names");
+        assertEquals(cache.evictionCount(), 0L, "eviction count");
+
+        // only the statistics of last two ad-hoc sql are retained.
+        assertNull(cache.peek("SELECT 0"));
+        assertNotNull(cache.peek("SELECT 9"));
+    }
+
+    @Test
+    public void evictPreparedStmt() {
+        final PgStmtCache cache = PgStmtCache.create(2, 1 << 20);
+        cache.put(serverStmt("SELECT 1 AS a", "S1"));
+        cache.put(serverStmt("SELECT 2 AS b", "S2"));
+        assertNotNull(cache.get("SELECT 1 AS a")); // S2 is least recently used
+        cache.put(serverStmt("SELECT 3 AS c", "S3"));
+
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.evictionCount(), 1L);
+        assertEquals(cache.pollEvictedNames(), Collections.singletonList("S2"));
+        assertTrue(cache.pollEvictedNames().isEmpty(), "names is polled");
+    }
+
+    /**
+     * @see PgStmtCache#pin(String)
+     * @see PgStmtCache#unpin(String)
+     */
+    @Test
+    public void closeOfPinnedStmtIsDeferred() {
+        final PgStmtCache cache = PgStmtCache.create(1, 1 << 20);
+        cache.put(serverStmt("SELECT 1 AS a", "S1"));
+        cache.pin("S1");
+        cache.pin("S1"); // two PreparedStatement use same statement
+
+        cache.put(serverStmt("SELECT 2 AS b", "S2"));
+        assertNull(cache.peek("SELECT 1 AS a"), "S1 is evicted");
+        assertTrue(cache.pollEvictedNames().isEmpty(), "Close of pinned statement is deferred");
+
+        cache.unpin("S1");
+        assertTrue(cache.pollEvictedNames().isEmpty(), "S1 is still pinned");
+        cache.unpin("S1");
+        assertEquals(cache.pollEvictedNames(), Collections.singletonList("S1"));
+
+        // pinned statement that isn't evicted isn't closed by unpin.
+        cache.pin("S2");
+        cache.unpin("S2");
+        assertTrue(cache.pollEvictedNames().isEmpty());
+        assertNotNull(cache.peek("SELECT 2 AS b"));
+    }
+
+    @Test
+    public void invalidate() {
+        final PgStmtCache cache = PgStmtCache.create(4, 1 << 20);
+        final String sql = "SELECT 1 AS a";
+        cache.put(serverStmt(sql, "S1"));
+        cache.put(serverStmt("SELECT 2 AS b", "S2"));
+        cache.pin("S2");
+
+        cache.invalidate(sql);
+        final PostgreStmt stmt = cache.peek(sql);
+        assertNotNull(stmt, "statistics is retained");
+        assertFalse(stmt instanceof ServerCacheStmt);
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.pollEvictedNames(), Collections.singletonList("S1"));
+
+        cache.invalidateAll();
+        assertEquals(cache.size(), 0);
+        assertNull(cache.peek(sql));
+        assertTrue(cache.pollEvictedNames().isEmpty(), "S2 is pinned");
+        cache.unpin("S2");
+        assertEquals(cache.pollEvictedNames(), Collections.singletonList("S2"));
+    }
+
+
+    private static ServerCacheStmt serverStmt(final String sql, final String stmtName) {
+        final PostgreStmt stmt = PgStmtCache.createStmt(PARSER.parse(sql), 1);
+        final List<DataType> paramTypeList = Collections.emptyList();
+        return PgStmtCache.createServerStmt(stmt, stmtName, paramTypeList, null, new ParamEncoder[0],
+                StandardCharsets.UTF_8);
+    }
+
+
+}
@@ -0,0 +1,51 @@
+package io.jdbd.postgre.protocol.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see PreparePolicy
+ */
+public class PreparePolicyUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreparePolicyUnitTests.class);
+
+
+    @Test
+    public void plannable() {
+        final String[] sqlArray = {
+                "SELECT 1",
+                "  (select t.id FROM my_user AS t WHERE t.id = $1)",
+                "/* insert user */ insert into my_user(id) values($1)",
+                "-- update\nUPDATE my_user SET name = $1",
+                "with a as (select 1) select * from a",
+                "VALUES (1)",
+                "TABLE my_user",
+                "MERGE INTO my_user AS t USING s ON t.id = s.id WHEN MATCHED THEN DO NOTHING"
+        };
+        for (String sql : sqlArray) {
+            assertTrue(PreparePolicy.isPlannable(sql), sql);
+        }
+    }
+
+    @Test
+    public void utilityStatement() {
+        final String[] sqlArray = {
+                "CREATE TABLE my_user(id bigint)",
+                "ALTER TABLE my_user ADD COLUMN name text",
+                "BEGIN",
+                "SET statement_timeout = 3000",
+                "SELECTX",
+                "/* unclosed comment"
+        };
+        for (String sql : sqlArray) {
+            LOG.debug("utility statement : {}", sql);
+            assertFalse(PreparePolicy.isPlannable(sql), sql);
+        }
+    }
+
+
+}
@@ -0,0 +1,75 @@
+package io.jdbd.postgre.protocol.client;
+
+import io.jdbd.postgre.PgType;
+import io.jdbd.postgre.stmt.BindValue;
+import io.jdbd.result.ResultRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * This class is test class of {@link PrewarmTask}.
+ */
+public class PrewarmTaskSuiteTests extends AbstractTaskTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrewarmTaskSuiteTests.class);
+
+
+    /**
+     * <p>
+     * The statement whose parameter is unknown user-defined type is prepared by server but can't be cached,
+     * it must be closed with next round trip instead of left on server until session close.
+     * </p>
+     *
+     * @see PrewarmTask#prewarm(List, TaskAdjutant)
+     * @see TaskAdjutant#closeStmtLater(String)
+     */
+    @Test
+    public void closeUncachedStatement() {
+        final PgProtocol protocol;
+        protocol = obtainProtocolWithSync();
+        final TaskAdjutant adjutant = mapToTaskAdjutant(protocol);
+
+        final List<String> sqlGroup = new ArrayList<>(2);
+        sqlGroup.add("DROP TYPE IF EXISTS my_prewarm_mood");
+        // session don't know the oid of new type.
+        sqlGroup.add("CREATE TYPE my_prewarm_mood AS ENUM ('sad', 'ok', 'happy')");
+        SimpleQueryTask.batchUpdate(PgStmts.batch(sqlGroup), adjutant)
+                .blockLast();
+
+        final List<String> sqlList = new ArrayList<>(2);
+        sqlList.add("SELECT t.* FROM my_types AS t WHERE t.id = ?");
+        sqlList.add("SELECT CAST(? AS my_prewarm_mood) AS mood");
+
+        final Integer count;
+        count = PrewarmTask.prewarm(sqlList, adjutant)
+                .block();
+        assertEquals(count, Integer.valueOf(1), "prepared count");
+        assertEquals(adjutant.stmtCacheStats().size(), 1, "statement cache size");
+
+        // the Close message of uncached statement is piggy-backed on this round trip.
+        final String sql = "SELECT count(*) AS c FROM pg_prepared_statements AS s WHERE s.statement LIKE $1";
+        final List<BindValue> valueList;
+        valueList = Collections.singletonList(BindValue.wrap(0, PgType.VARCHAR, "%my_prewarm_" + "mood%"));
+        final ResultRow row;
+        row = ExtendedQueryTask.query(PgStmts.bind(sql, valueList), adjutant)
+                .blockLast();
+        assertNotNull(row, "row");
+        assertEquals(row.getNonNull("c", Long.class), Long.valueOf(0L), "uncached prepared statement count");
+
+        SimpleQueryTask.update(PgStmts.stmt("DROP TYPE IF EXISTS my_prewarm_mood"), adjutant)
+                .concatWith(releaseConnection(protocol))
+                .onErrorResume(releaseConnectionOnError(protocol))
+                .blockLast();
+
+        LOG.info("closeUncachedStatement test success");
+    }
+
+
+}
@@ -0,0 +1,73 @@
+package io.jdbd.postgre.protocol.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see RoundTripBaseline
+ */
+public class RoundTripBaselineUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoundTripBaselineUnitTests.class);
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private static final long EXPENSIVE = TimeUnit.MILLISECONDS.toNanos(5);
+
+
+    /**
+     * <p>
+     * The round trip (20 ms) is greater than {@link io.jdbd.postgre.env.PgKey#PREPARE_EXPENSIVE_PARSE_MILLIS},
+     * only the statement whose parse and plan time is long is expensive.
+     * </p>
+     */
+    @Test
+    public void excludeRoundTrip() {
+        final RoundTripBaseline baseline = RoundTripBaseline.create();
+        assertEquals(baseline.baselineNanos(), -1L);
+
+        // first sample is taken as baseline
+        assertEquals(baseline.exclude(RTT + 100_000L), 0L);
+        // cheap statement
+        assertEquals(baseline.exclude(RTT + 50_000L), 0L);
+        assertEquals(baseline.baselineNanos(), RTT + 50_000L);
+
+        final long cheap = baseline.exclude(RTT + 300_000L);
+        assertTrue(cheap < EXPENSIVE, "cheap statement is expensive");
+
+        final long expensive = baseline.exclude(RTT + TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(expensive >= EXPENSIVE, "expensive statement is cheap");
+        LOG.info("excludeRoundTrip test success");
+    }
+
+    /**
+     * <p>
+     * Baseline follows the round trip when network become slower.
+     * </p>
+     */
+    @Test
+    public void slowerNetwork() {
+        final RoundTripBaseline baseline = RoundTripBaseline.create();
+        baseline.exclude(RTT);
+
+        final long slowRtt = RTT * 3;
+        for (int i = 1; i < RoundTripBaseline.WINDOW_SAMPLES; i++) {
+            baseline.exclude(slowRtt);
+        }
+        // first window is end, the minimum of first window is still the baseline of second window
+        assertEquals(baseline.baselineNanos(), RTT);
+
+        for (int i = 0; i < RoundTripBaseline.WINDOW_SAMPLES; i++) {
+            baseline.exclude(slowRtt);
+        }
+        assertEquals(baseline.baselineNanos(), slowRtt);
+        assertEquals(baseline.exclude(slowRtt + 1000L), 1000L);
+    }
+
+
+}
@@ -0,0 +1,393 @@
+package io.jdbd.postgre.session;
+
+import io.jdbd.JdbdException;
+import io.jdbd.postgre.PgStatementCacheStats;
+import io.jdbd.postgre.protocol.PgProtocolFactory;
+import io.jdbd.postgre.protocol.client.PgProtocol;
+import io.jdbd.vendor.env.Environment;
+import io.jdbd.vendor.env.SimpleEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.*;
+
+/**
+ * <p>
+ * This class is test class of {@link PgSessionPool} and {@link PgBorrowedProtocol} ,
+ * connection is stub , so don't need database.
+ * </p>
+ *
+ * @see PgSessionPool
+ * @see PgBorrowedProtocol
+ */
+public class PgSessionPoolUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PgSessionPoolUnitTests.class);
+
+
+    @Test
+    public void acquireTimeout() {
+        final Map<String, Object> map = new HashMap<>(); // see PgKey
+        map.put("poolMaxSize", "1");
+        map.put("poolAcquireTimeoutMillis", "100");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+        try {
+            final PgSessionPool.PooledProtocol pooled = pool.acquire().block();
+            assertNotNull(pooled);
+
+            final long startNanos = System.nanoTime();
+            final JdbdException error;
+            error = expectThrows(JdbdException.class, () -> pool.acquire().block(Duration.ofSeconds(5)));
+            final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            LOG.debug("acquire timeout after {} ms : {}", millis, error.getMessage());
+            assertTrue(error.getMessage().contains("timeout"), error.getMessage());
+            assertTrue(millis >= 100, "timeout millis");
+            assertEquals(factory.createCount.get(), 1, "timeout waiter don't create connection beyond max size");
+
+            // timeout waiter don't take connection that is released later.
+            pool.release(pooled).block();
+            assertSame(pool.acquire().block(), pooled);
+        } finally {
+            pool.close().block();
+        }
+    }
+
+    /**
+     * @see PgSessionPool#release(PgSessionPool.PooledProtocol)
+     */
+    @Test
+    public void releaseAndReset() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("poolMaxSize", "2");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+        try {
+            final PgSessionPool.PooledProtocol pooled = pool.acquire().block();
+            assertNotNull(pooled);
+            final StubState state = factory.stateList.get(0);
+            state.inTransaction.set(true);
+
+            pool.release(pooled).block();
+            assertEquals(state.rollbackCount.get(), 1, "rollback count");
+            assertEquals(state.resetCount.get(), 1, "reset count");
+            assertFalse(state.closed.get(), "connection closed");
+
+            // duplicate release is no-op
+            pool.release(pooled).block();
+            assertEquals(state.resetCount.get(), 1, "reset count");
+
+            // most recently returned connection is reused without ping.
+            assertSame(pool.acquire().block(), pooled);
+            assertEquals(state.pingCount.get(), 0, "ping count");
+            assertEquals(factory.createCount.get(), 1, "create count");
+
+            // connection is closed when reset failure
+            state.resetError.set(true);
+            pool.release(pooled).block();
+            assertTrue(state.closed.get(), "connection closed after reset failure");
+
+            final PgSessionPool.PooledProtocol newPooled = pool.acquire().block();
+            assertNotNull(newPooled);
+            assertNotSame(newPooled, pooled);
+            assertEquals(factory.createCount.get(), 2, "create count");
+        } finally {
+            pool.close().block();
+        }
+    }
+
+    @Test
+    public void fillMinSize() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("poolMaxSize", "4");
+        map.put("poolMinSize", "2");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+        try {
+            // housekeeping run immediately after pool created.
+            waitUntil(() -> factory.createCount.get() >= 2, "fill pool to min size");
+            sleep(300); // some housekeeping rounds
+            assertEquals(factory.createCount.get(), 2, "pool don't fill beyond min size");
+
+            // idle connections are borrowed without creating.
+            final PgSessionPool.PooledProtocol first, second;
+            first = pool.acquire().block();
+            second = pool.acquire().block();
+            assertNotNull(first);
+            assertNotNull(second);
+            assertNotSame(first, second);
+            assertEquals(factory.createCount.get(), 2, "create count");
+
+            pool.release(first).block();
+            pool.release(second).block();
+        } finally {
+            pool.close().block();
+        }
+    }
+
+    @Test
+    public void evictIdleConnection() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("poolMaxSize", "2");
+        map.put("poolMinSize", "0");
+        map.put("poolIdleTimeoutMillis", "200");
+        map.put("poolMaxLifetimeMillis", "0");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+        try {
+            final PgSessionPool.PooledProtocol pooled = pool.acquire().block();
+            assertNotNull(pooled);
+            final StubState state = factory.stateList.get(0);
+
+            sleep(400);
+            assertFalse(state.closed.get(), "borrowed connection is evicted");
+
+            pool.release(pooled).block();
+            waitUntil(state.closed::get, "evict idle connection");
+
+            final PgSessionPool.PooledProtocol newPooled = pool.acquire().block();
+            assertNotNull(newPooled);
+            assertNotSame(newPooled, pooled);
+            pool.release(newPooled).block();
+        } finally {
+            pool.close().block();
+        }
+    }
+
+    /**
+     * @see PgSessionPool#close()
+     */
+    @Test
+    public void closeWithQueuedWaiters() throws Exception {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("poolMaxSize", "1");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+
+        final PgSessionPool.PooledProtocol pooled = pool.acquire().block();
+        assertNotNull(pooled);
+
+        final CompletableFuture<PgSessionPool.PooledProtocol> firstWaiter, secondWaiter;
+        firstWaiter = pool.acquire().toFuture();
+        secondWaiter = pool.acquire().toFuture();
+        sleep(50);
+        assertFalse(firstWaiter.isDone(), "waiter is queued");
+
+        pool.close().block();
+
+        for (CompletableFuture<PgSessionPool.PooledProtocol> waiter : Arrays.asList(firstWaiter, secondWaiter)) {
+            final ExecutionException e = expectThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof JdbdException, "waiter error");
+        }
+        expectThrows(JdbdException.class, () -> pool.acquire().block());
+
+        // borrowed connection is closed when released after pool close.
+        final StubState state = factory.stateList.get(0);
+        assertFalse(state.closed.get());
+        pool.release(pooled).block();
+        assertTrue(state.closed.get(), "connection closed");
+        assertEquals(state.resetCount.get(), 0, "reset count");
+    }
+
+    /**
+     * @see PgBorrowedProtocol#close()
+     */
+    @Test
+    public void borrowedProtocolInvalidOnClose() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("poolMaxSize", "1");
+        final StubProtocolFactory factory = new StubProtocolFactory(map);
+        final PgSessionPool pool = createPool(factory);
+        try {
+            final PgSessionPool.PooledProtocol pooled = pool.acquire().block();
+            assertNotNull(pooled);
+            final PgBorrowedProtocol handle = PgBorrowedProtocol.create(pool, pooled);
+            assertFalse(handle.isClosed());
+            assertFalse(handle.inTransaction());
+
+            handle.close().block();
+            assertTrue(handle.isClosed(), "handle closed");
+            expectThrows(JdbdException.class, handle::inTransaction);
+            expectThrows(JdbdException.class, () -> handle.ping(1).block());
+            expectThrows(JdbdException.class, () -> handle.reset().block());
+            expectThrows(JdbdException.class, () -> handle.prepare("SELECT 1").block());
+
+            // connection is returned to pool , not closed.
+            final StubState state = factory.stateList.get(0);
+            assertFalse(state.closed.get(), "connection closed");
+            assertEquals(state.resetCount.get(), 1, "reset count");
+
+            // duplicate close don't release connection of next borrowing.
+            final PgSessionPool.PooledProtocol next = pool.acquire().block();
+            assertSame(next, pooled);
+            final PgBorrowedProtocol nextHandle = PgBorrowedProtocol.create(pool, next);
+            handle.close().block();
+            assertFalse(nextHandle.isClosed(), "next handle closed");
+            assertEquals(state.resetCount.get(), 1, "reset count");
+
+            nextHandle.close().block();
+            assertEquals(state.resetCount.get(), 2, "reset count");
+        } finally {
+            pool.close().block();
+        }
+    }
+
+
+    private static PgSessionPool createPool(StubProtocolFactory factory) {
+        final PgSessionPool pool;
+        pool = PgSessionPool.createIfNeed(factory.factoryName(), factory);
+        assertNotNull(pool, "pool");
+        return pool;
+    }
+
+    private static void waitUntil(final BooleanSupplier condition, final String message) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail(message + " timeout");
+            }
+            sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    private static final class StubState {
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private final AtomicBoolean inTransaction = new AtomicBoolean(false);
+
+        private final AtomicBoolean resetError = new AtomicBoolean(false);
+
+        private final AtomicInteger resetCount = new AtomicInteger(0);
+
+        private final AtomicInteger rollbackCount = new AtomicInteger(0);
+
+        private final AtomicInteger pingCount = new AtomicInteger(0);
+
+    }//StubState
+
+
+    private static final class StubProtocolFactory implements PgProtocolFactory {
+
+        private final Environment env;
+
+        private final AtomicInteger createCount = new AtomicInteger(0);
+
+        private final List<StubState> stateList = new CopyOnWriteArrayList<>();
+
+        private StubProtocolFactory(Map<String, Object> map) {
+            this.env = SimpleEnvironment.from(map);
+        }
+
+        @Override
+        public String factoryName() {
+            return "pool_unit_test";
+        }
+
+        @Override
+        public Mono<PgProtocol> createProtocol() {
+            return Mono.fromSupplier(() -> {
+                this.createCount.incrementAndGet();
+                final StubState state = new StubState();
+                this.stateList.add(state);
+                return createStubProtocol(state);
+            });
+        }
+
+        @Override
+        public PgStatementCacheStats parseCacheStats() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Environment environment() {
+            return this.env;
+        }
+
+        @Override
+        public String toString() {
+            return StubProtocolFactory.class.getSimpleName();
+        }
+
+
+    }//StubProtocolFactory
+
+    /**
+     * @return the protocol that only support the methods that are invoked by {@link PgSessionPool}.
+     */
+    private static PgProtocol createStubProtocol(final StubState state) {
+        return (PgProtocol) Proxy.newProxyInstance(PgProtocol.class.getClassLoader(), new Class<?>[]{PgProtocol.class},
+                (proxy, method, args) -> {
+                    final Object result;
+                    switch (method.getName()) {
+                        case "isClosed":
+                            result = state.closed.get();
+                            break;
+                        case "inTransaction":
+                            result = state.inTransaction.get();
+                            break;
+                        case "rollback":
+                            result = Mono.fromRunnable(() -> {
+                                state.rollbackCount.incrementAndGet();
+                                state.inTransaction.set(false);
+                            });
+                            break;
+                        case "reset":
+                            result = Mono.defer(() -> {
+                                state.resetCount.incrementAndGet();
+                                if (state.resetError.get()) {
+                                    return Mono.error(new JdbdException("stub reset failure"));
+                                }
+                                return Mono.empty();
+                            });
+                            break;
+                        case "ping":
+                            result = Mono.fromRunnable(state.pingCount::incrementAndGet);
+                            break;
+                        case "close":
+                            result = Mono.fromRunnable(() -> state.closed.set(true));
+                            break;
+                        case "hashCode":
+                            result = System.identityHashCode(proxy);
+                            break;
+                        case "equals":
+                            result = proxy == args[0];
+                            break;
+                        case "toString":
+                            result = "StubProtocol@" + System.identityHashCode(proxy);
+                            break;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                    return result;
+                });
+    }
+
+
+}
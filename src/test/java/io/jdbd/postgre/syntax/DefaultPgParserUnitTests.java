@@ -0,0 +1,196 @@
+package io.jdbd.postgre.syntax;
+
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see DefaultPgParser
+ * @see PgStatementImpl
+ */
+public class DefaultPgParserUnitTests {
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    /**
+     * <p>
+     * The sql that don't contain any special character is returned by fast path without scanning.
+     * </p>
+     */
+    @Test
+    public void fastPath() throws SQLException {
+        String sql;
+        PgStatement stmt;
+
+        sql = "SELECT t.id, t.name FROM my_user AS t WHERE t.id = 1 ORDER BY t.id";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.getParamCount(), 0);
+        assertEquals(stmt.sqlPartList(), Collections.singletonList(sql));
+        assertEquals(stmt.valuesRowStart(), -1);
+        assertEquals(stmt.valuesRowEnd(), -1);
+
+        // parameterless INSERT isn't recognized as VALUES row, it can't be rewritten.
+        sql = "INSERT INTO my_user(id, name) VALUES (1, now())";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.getParamCount(), 0);
+        assertEquals(stmt.sqlPartList(), Collections.singletonList(sql));
+        assertEquals(stmt.valuesRowStart(), -1);
+        assertEquals(stmt.valuesRowEnd(), -1);
+
+        // parameterless sql with comment is scanned, but still single part.
+        sql = "SELECT t.id /* ? */ FROM my_user AS t -- ?\n WHERE t.name = '?'";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.getParamCount(), 0);
+        assertEquals(stmt.sqlPartList(), Collections.singletonList(sql));
+        assertEquals(stmt.valuesRowStart(), -1);
+    }
+
+    @Test
+    public void placeholderOffsets() throws SQLException {
+        PgStatement stmt;
+
+        // start
+        stmt = PARSER.parse("? + 1");
+        assertEquals(stmt.getParamCount(), 1);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("", " + 1"));
+
+        // middle
+        stmt = PARSER.parse("SELECT t.id FROM my_user AS t WHERE t.id = ? AND t.name = ? LIMIT 10");
+        assertEquals(stmt.getParamCount(), 2);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT t.id FROM my_user AS t WHERE t.id = ",
+                " AND t.name = ", " LIMIT 10"));
+
+        // end
+        stmt = PARSER.parse("SELECT ?");
+        assertEquals(stmt.getParamCount(), 1);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT ", ""));
+
+        // adjacent
+        stmt = PARSER.parse("SELECT ?,?");
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT ", ",", ""));
+
+        // placeholder in string constant ,identifier and comment isn't counted.
+        stmt = PARSER.parse("SELECT '?' AS \"?\" /* ? */, ? -- ?");
+        assertEquals(stmt.getParamCount(), 1);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT '?' AS \"?\" /* ? */, ", " -- ?"));
+    }
+
+    /**
+     * <p>
+     * More than initial capacity (8) of placeholder index array.
+     * </p>
+     */
+    @Test
+    public void manyPlaceholders() throws SQLException {
+        final int paramCount = 37;
+        final StringBuilder builder = new StringBuilder("SELECT ");
+        for (int i = 0; i < paramCount; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('?');
+        }
+        final PgStatement stmt = PARSER.parse(builder.toString());
+        assertEquals(stmt.getParamCount(), paramCount);
+
+        final List<String> partList = stmt.sqlPartList();
+        assertEquals(partList.size(), paramCount + 1);
+        assertEquals(partList.get(0), "SELECT ");
+        for (int i = 1; i < paramCount; i++) {
+            assertEquals(partList.get(i), ", ", "part " + i);
+        }
+        assertEquals(partList.get(paramCount), "");
+    }
+
+    /**
+     * @see PgStatementImpl#sqlPartList()
+     */
+    @Test
+    public void sqlPartListIsCached() throws SQLException {
+        final PgStatement stmt = PARSER.parse("SELECT t.id FROM my_user AS t WHERE t.id = ?");
+        final List<String> partList = stmt.sqlPartList();
+        assertSame(stmt.sqlPartList(), partList);
+        try {
+            partList.add("x");
+            fail("sql part list is modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @see PgStatement#valuesRowStart()
+     * @see PgStatement#valuesRowEnd()
+     */
+    @Test
+    public void valuesRow() throws SQLException {
+        String sql;
+        PgStatement stmt;
+
+        sql = "INSERT INTO my_user(id, name) VALUES (?, lower(?)) ON CONFLICT DO NOTHING";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.valuesRowStart(), sql.indexOf("(?"));
+        assertEquals(stmt.valuesRowEnd(), sql.indexOf(" ON CONFLICT"));
+
+        sql = "INSERT INTO my_user(id, name) VALUES (?, ?) RETURNING id";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.valuesRowStart(), -1);
+        assertEquals(stmt.valuesRowEnd(), -1);
+
+        sql = "INSERT INTO my_user(id, name) VALUES (?, ?), (?, ?)";
+        stmt = PARSER.parse(sql);
+        assertEquals(stmt.valuesRowStart(), -1);
+        assertEquals(stmt.valuesRowEnd(), -1);
+    }
+
+    /**
+     * @see DefaultPgParser
+     */
+    @Test
+    public void nestedBlockComment() throws SQLException {
+        PgStatement stmt;
+
+        stmt = PARSER.parse("SELECT /* a /* b */ c */ ?");
+        assertEquals(stmt.getParamCount(), 1);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT /* a /* b */ c */ ", ""));
+
+        // more than one start marker before first end marker
+        stmt = PARSER.parse("SELECT /* /* /* x */ ? */ ? */ ?");
+        assertEquals(stmt.getParamCount(), 1);
+        assertEquals(stmt.sqlPartList(), Arrays.asList("SELECT /* /* /* x */ ? */ ? */ ", ""));
+
+        stmt = PARSER.parse("SELECT /* /* a */ /* b */ ? */ ?");
+        assertEquals(stmt.getParamCount(), 1);
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void notCloseNestedBlockComment() throws SQLException {
+        PARSER.parse("SELECT /* /* /* x */ */ ?");
+    }
+
+    /**
+     * <p>
+     * The parentheses of COPY query is tracked by depth, the parentheses in string constant and comment is ignored.
+     * </p>
+     */
+    @Test
+    public void copyOutQueryParenthesis() throws SQLException {
+        CopyOut copyOut;
+
+        copyOut = PARSER.parseCopyOut("COPY (SELECT (t.a + (t.b * 2)), ')' FROM my_user AS t WHERE t.c IN (?, ?)) TO ?");
+        assertEquals(copyOut.getMode(), CopyOut.Mode.FILE);
+        assertEquals(copyOut.getBindIndex(), 2);
+
+        copyOut = PARSER.parseCopyOut("COPY (SELECT t.a /* ) ? */ FROM my_user AS t WHERE t.b = $$)?$$ AND t.c = ?) TO ?");
+        assertEquals(copyOut.getMode(), CopyOut.Mode.FILE);
+        assertEquals(copyOut.getBindIndex(), 1);
+    }
+
+
+}
@@ -0,0 +1,68 @@
+package io.jdbd.postgre.syntax;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+/**
+ * @see PgParser#parameterize(String)
+ */
+public class ParameterizeUnitTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParameterizeUnitTests.class);
+
+    private static final PgParser PARSER = PgParser.create(sp -> "on");
+
+
+    @Test
+    public void liftLiterals() {
+        ParameterizedSql p;
+
+        p = PARSER.parameterize("SELECT u.id FROM my_user AS u WHERE u.id = 10 AND u.name = 'ab''c' ORDER BY 1, 2 DESC LIMIT 20");
+        assertNotNull(p);
+        assertEquals(p.sql(), "SELECT u.id FROM my_user AS u WHERE u.id = ? AND u.name = ? ORDER BY 1, 2 DESC LIMIT ?");
+        assertEquals(p.literalList(), Arrays.asList(10, "ab'c", 20));
+
+        p = PARSER.parameterize("INSERT INTO t(a, b, c) VALUES (1, 'x', now()), (2, 'y', lower('Z'))");
+        assertNotNull(p);
+        assertEquals(p.sql(), "INSERT INTO t(a, b, c) VALUES (?, ?, now()), (?, ?, lower('Z'))");
+        assertEquals(p.literalList(), Arrays.asList(1, "x", 2, "y"));
+
+        p = PARSER.parameterize("UPDATE t SET name = 'x', age = age + 1 WHERE id IN (1, 2) AND k IN ('a', 'b')");
+        assertNotNull(p);
+        assertEquals(p.sql(), "UPDATE t SET name = ?, age = age + ? WHERE id IN (?, ?) AND k IN (?, ?)");
+
+        // type modifier and typed string constant aren't lifted
+        p = PARSER.parameterize("SELECT CAST(x AS varchar(20)), y::numeric(10,2) FROM t WHERE d = DATE '2020-01-01' AND e > 1.5");
+        assertNotNull(p);
+        assertEquals(p.sql(), "SELECT CAST(x AS varchar(20)), y::numeric(10,2) FROM t WHERE d = DATE '2020-01-01' AND e > ?");
+        assertEquals(p.literalList(), Arrays.asList(new BigDecimal("1.5")));
+
+        // window ORDER BY position and LIKE
+        p = PARSER.parameterize("SELECT row_number() OVER (ORDER BY 1) FROM t WHERE x LIKE 'a%' AND y BETWEEN 1 AND 10");
+        assertNotNull(p);
+        assertEquals(p.sql(), "SELECT row_number() OVER (ORDER BY 1) FROM t WHERE x LIKE ? AND y BETWEEN ? AND ?");
+    }
+
+    @Test
+    public void notParameterized() {
+        // string constant in select list , type can't be resolved by server.
+        assertNull(PARSER.parameterize("SELECT 'a'"));
+        // parameter placeholder
+        assertNull(PARSER.parameterize("SELECT * FROM t WHERE a = ? AND b = 1"));
+        // DDL
+        assertNull(PARSER.parameterize("CREATE TABLE t (a varchar(20))"));
+        // c-style escapes , multi statement
+        assertNull(PARSER.parameterize("SELECT * FROM t WHERE a = E'x'"));
+        assertNull(PARSER.parameterize("SELECT * FROM t WHERE a = 1; SELECT 2"));
+        // bigint constant isn't lifted
+        assertNull(PARSER.parameterize("SELECT * FROM t WHERE a = 3000000000"));
+    }
+
+
+}
@@ -0,0 +1,89 @@
+package io.jdbd.postgre.syntax;
+
+import io.jdbd.postgre.util.PgArrays;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * This class is micro benchmark of {@link PgParser#parse(String)} over a corpus of real-world statements.
+ * Run {@link #main(String[])} , gc profiler report the allocation rate per operation.
+ * </p>
+ *
+ * @see PgParser
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgParserBenchmark {
+
+    /**
+     * real-world statements : parameterless, OLTP with placeholder, comment, string constant and long report sql.
+     */
+    private static final List<String> CORPUS = PgArrays.asUnmodifiableList(
+            "SELECT 1",
+            "BEGIN",
+            "COMMIT",
+            "SHOW transaction_isolation",
+            "SET statement_timeout = 3000",
+            "SELECT u.id, u.name, u.create_time FROM my_user AS u WHERE u.id = ?",
+            "INSERT INTO my_user(id, name, birthday, create_time) VALUES (?, ?, ?, now())",
+            "UPDATE my_user SET name = ?, update_time = now() WHERE id = ? AND version = ?",
+            "DELETE FROM my_user WHERE id = ?",
+            "SELECT o.id, o.amount FROM orders AS o WHERE o.user_id = ? AND o.status IN ('PAID', 'SHIPPED') "
+                    + "ORDER BY o.create_time DESC LIMIT ? OFFSET ?",
+            "/* load user */ SELECT u.* FROM my_user AS u -- by name\n WHERE lower(u.name) = lower(?)",
+            "SELECT $tag$it's dollar quoted$tag$ AS t, E'C-style \\' escape' AS e, \"Quoted Id\" FROM t WHERE a = ?",
+            "WITH paid AS (SELECT o.user_id, sum(o.amount) AS total FROM orders AS o WHERE o.status = 'PAID' "
+                    + "AND o.create_time >= ? AND o.create_time < ? GROUP BY o.user_id) "
+                    + "SELECT u.id, u.name, p.total, rank() OVER (ORDER BY p.total DESC) AS r "
+                    + "FROM my_user AS u JOIN paid AS p ON p.user_id = u.id "
+                    + "WHERE u.region = ? AND u.level >= ? AND NOT EXISTS (SELECT 1 FROM black_list AS b "
+                    + "WHERE b.user_id = u.id AND b.expire_time > now()) ORDER BY r LIMIT 100"
+    );
+
+    private PgParser parser;
+
+    @Setup
+    public void setup() {
+        this.parser = PgParser.create(sp -> "on");
+    }
+
+    @Benchmark
+    public void parseCorpus(final Blackhole blackhole) {
+        final PgParser parser = this.parser;
+        for (String sql : CORPUS) {
+            blackhole.consume(parser.parse(sql));
+        }
+    }
+
+    @Benchmark
+    public void parseAndSplitCorpus(final Blackhole blackhole) {
+        final PgParser parser = this.parser;
+        for (String sql : CORPUS) {
+            blackhole.consume(parser.parse(sql).sqlPartList());
+        }
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(PgParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+
+}
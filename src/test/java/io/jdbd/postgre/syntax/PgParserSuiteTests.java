@@ -302,6 +302,42 @@ public class PgParserSuiteTests {
     }
 
 
+    /**
+     * @see PgStatement#valuesRowStart()
+     * @see PgStatement#valuesRowEnd()
+     */
+    @Test
+    public void singleValuesRowInsert() throws SQLException {
+        String sql, row;
+        PgStatement stmt;
+        for (PgParser parser : PARSER_LIST) {
+            row = "(?, 'a(b', ?::int, now())";
+            sql = "INSERT INTO \"user\"(id, name, age, create_time) VALUES " + row + " ON CONFLICT (id) DO NOTHING";
+            stmt = parser.parse(sql);
+            assertEquals(stmt.valuesRowStart(), sql.indexOf(row), sql);
+            assertEquals(stmt.valuesRowEnd(), sql.indexOf(row) + row.length(), sql);
+
+            sql = "insert into t(a) values(?)";
+            stmt = parser.parse(sql);
+            assertEquals(stmt.valuesRowStart(), sql.indexOf('('), sql);
+            assertEquals(stmt.valuesRowEnd(), sql.length(), sql);
+
+            final List<String> notMatchList = new ArrayList<>();
+            notMatchList.add("INSERT INTO t(a) VALUES (?),(?)");
+            notMatchList.add("INSERT INTO t(a) VALUES (?) RETURNING id");
+            notMatchList.add("INSERT INTO t(a) SELECT ?");
+            notMatchList.add("INSERT INTO t(a) VALUES (?) ON CONFLICT (a) DO UPDATE SET a = ?");
+            notMatchList.add("UPDATE t SET a = ? WHERE id = 1");
+            notMatchList.add("WITH c AS (SELECT 1) INSERT INTO t(a) VALUES (?)");
+            for (String notMatchSql : notMatchList) {
+                stmt = parser.parse(notMatchSql);
+                assertEquals(stmt.valuesRowStart(), -1, notMatchSql);
+                assertEquals(stmt.valuesRowEnd(), -1, notMatchSql);
+            }
+        }
+    }
+
+
     /**
      * @see #simpleBlockComment()
      */